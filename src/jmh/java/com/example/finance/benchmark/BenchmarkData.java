@@ -0,0 +1,61 @@
+package com.example.finance.benchmark;
+
+import com.example.finance.dto.TransactionResponse;
+import com.example.finance.model.Transaction;
+import com.example.finance.model.User;
+import com.example.finance.repository.TransactionRepository;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+final class BenchmarkData {
+
+    static final String[] CATEGORIES = {
+            "Income", "Groceries", "Rent", "Utilities", "Dining", "Transport", "Entertainment", "Health"
+    };
+
+    private BenchmarkData() {}
+
+    static List<Transaction> transactions(User user, int size) {
+        SplittableRandom random = new SplittableRandom(42);
+        LocalDate start = LocalDate.of(2024, 1, 1);
+        List<Transaction> transactions = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            String category = CATEGORIES[random.nextInt(CATEGORIES.length)];
+            Transaction txn = new Transaction(
+                    BigDecimal.valueOf(random.nextInt(1, 500_000), 2),
+                    category + " payment " + i,
+                    category,
+                    start.plusDays(random.nextInt(730)),
+                    user
+            );
+            txn.setId(i + 1);
+            transactions.add(txn);
+        }
+        return transactions;
+    }
+
+    // A JDK proxy rather than a Mockito mock, whose invocation bookkeeping would dominate small sizes
+    static TransactionRepository repositoryReturning(List<Transaction> transactions) {
+        return (TransactionRepository) Proxy.newProxyInstance(
+                TransactionRepository.class.getClassLoader(),
+                new Class<?>[]{TransactionRepository.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("findByUser")) {
+                        return transactions;
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    static List<TransactionResponse> responses(int size) {
+        User user = new User("Bench User", "bench@example.com", "encoded");
+        return transactions(user, size).stream()
+                .map(t -> new TransactionResponse(t.getId(), t.getAmount(), t.getDescription(), t.getCategory(), t.getDate()))
+                .toList();
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.finance.benchmark;
+
+import com.example.finance.categorization.KeywordMatcher;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CategorizeBenchmark {
+
+    @Param({"100", "10000", "100000"})
+    private int rules;
+
+    private KeywordMatcher matcher;
+    private String[] descriptions;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(1);
+        List<KeywordMatcher.Rule> list = new ArrayList<>(rules);
+        for (int i = 0; i < rules; i++) {
+            list.add(new KeywordMatcher.Rule(word(random) + (random.nextBoolean() ? " " + word(random) : ""), "c" + (i % 40)));
+        }
+        matcher = new KeywordMatcher(list);
+        descriptions = new String[1024];
+        for (int i = 0; i < descriptions.length; i++) {
+            descriptions[i] = "CARD PAYMENT " + word(random).toUpperCase() + " *" + word(random) + " " + random.nextInt(10000)
+                    + " " + word(random);
+        }
+    }
+
+    @Benchmark
+    public String match() {
+        return matcher.match(descriptions[next++ & (descriptions.length - 1)]);
+    }
+
+    private static String word(Random random) {
+        StringBuilder word = new StringBuilder();
+        int length = 3 + random.nextInt(6);
+        for (int i = 0; i < length; i++) {
+            word.append((char) ('a' + random.nextInt(26)));
+        }
+        return word.toString();
+    }
+}
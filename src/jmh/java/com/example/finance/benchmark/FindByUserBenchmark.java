@@ -0,0 +1,102 @@
+package com.example.finance.benchmark;
+
+import com.example.finance.PersonalFinanceManagerApplication;
+import com.example.finance.model.Transaction;
+import com.example.finance.model.User;
+import com.example.finance.repository.TransactionRepository;
+import com.example.finance.repository.UserRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code findByUser} against an in-memory H2 holding {@code rows} transactions spread
+ * over users of {@value #ROWS_PER_USER} rows each, so every call hydrates the same
+ * number of entities and only the table size varies.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class FindByUserBenchmark {
+
+    private static final int ROWS_PER_USER = 1000;
+
+    @Param({"10000", "100000", "1000000"})
+    public int rows;
+
+    private ConfigurableApplicationContext context;
+    private TransactionRepository transactionRepository;
+    private User user;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = SpringApplication.run(PersonalFinanceManagerApplication.class,
+                "--spring.datasource.url=jdbc:h2:mem:bench;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--spring.h2.console.enabled=false",
+                "--server.port=0",
+                "--logging.level.root=WARN");
+        transactionRepository = context.getBean(TransactionRepository.class);
+        seed(context.getBean(JdbcTemplate.class), context.getBean(UserRepository.class));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Transaction> findByUser() {
+        return transactionRepository.findByUser(user);
+    }
+
+    private void seed(JdbcTemplate jdbcTemplate, UserRepository userRepository) {
+        int users = rows / ROWS_PER_USER;
+        List<User> saved = new ArrayList<>(users);
+        for (int u = 0; u < users; u++) {
+            saved.add(new User("Bench User", "bench" + u + "@example.com", "encoded"));
+        }
+        saved = userRepository.saveAll(saved);
+        user = saved.get(users / 2);
+
+        SplittableRandom random = new SplittableRandom(42);
+        LocalDate start = LocalDate.of(2015, 1, 1);
+        List<Object[]> batch = new ArrayList<>(10_000);
+        for (User owner : saved) {
+            for (int i = 0; i < ROWS_PER_USER; i++) {
+                String category = BenchmarkData.CATEGORIES[random.nextInt(BenchmarkData.CATEGORIES.length)];
+                batch.add(new Object[]{
+                        random.nextInt(1, 500_000) / 100.0,
+                        category + " payment",
+                        category,
+                        Date.valueOf(start.plusDays(random.nextInt(3650))),
+                        owner.getId()
+                });
+                if (batch.size() == 10_000) {
+                    insert(jdbcTemplate, batch);
+                }
+            }
+        }
+        insert(jdbcTemplate, batch);
+    }
+
+    private static void insert(JdbcTemplate jdbcTemplate, List<Object[]> batch) {
+        if (!batch.isEmpty()) {
+            jdbcTemplate.batchUpdate(
+                    "insert into transactions (amount, description, category, date, user_id) values (?, ?, ?, ?, ?)",
+                    batch);
+            batch.clear();
+        }
+    }
+}
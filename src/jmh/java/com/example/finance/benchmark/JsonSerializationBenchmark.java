@@ -0,0 +1,36 @@
+package com.example.finance.benchmark;
+
+import com.example.finance.dto.TransactionResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonSerializationBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    public int size;
+
+    private ObjectMapper objectMapper;
+    private List<TransactionResponse> responses;
+
+    @Setup
+    public void setUp() {
+        // Same defaults Spring Boot applies to the MVC converter (ISO dates, JavaTimeModule)
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        responses = BenchmarkData.responses(size);
+    }
+
+    @Benchmark
+    public byte[] serializeTransactionList() throws Exception {
+        return objectMapper.writeValueAsBytes(responses);
+    }
+}
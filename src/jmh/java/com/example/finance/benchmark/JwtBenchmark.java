@@ -0,0 +1,79 @@
+package com.example.finance.benchmark;
+
+import com.example.finance.security.CustomUserDetailsService;
+import com.example.finance.security.JwtFilter;
+import com.example.finance.security.JwtTokenUtil;
+import com.example.finance.security.TokenRevocationStore;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtBenchmark {
+
+    private static final String EMAIL = "bench@example.com";
+
+    private JwtTokenUtil jwtTokenUtil;
+    private JwtFilter jwtFilter;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        TokenRevocationStore revocationStore = new TokenRevocationStore();
+        ReflectionTestUtils.setField(revocationStore, "bucketSeconds", 60L);
+
+        jwtTokenUtil = new JwtTokenUtil();
+        ReflectionTestUtils.setField(jwtTokenUtil, "secret", "3a8d8f5a6e1c49b48245ee26f8a3d71e1a9b4c6f49e3e2cf3e44d4d0c6a0f0e2");
+        ReflectionTestUtils.setField(jwtTokenUtil, "expiration", 3_600_000L);
+        ReflectionTestUtils.setField(jwtTokenUtil, "revocationStore", revocationStore);
+        jwtTokenUtil.init();
+        token = jwtTokenUtil.generateToken(EMAIL);
+
+        UserDetails userDetails = User.withUsername(EMAIL).password("encoded").authorities("USER").build();
+        CustomUserDetailsService userDetailsService = new CustomUserDetailsService() {
+            @Override
+            public UserDetails loadUserByUsername(String email) {
+                return userDetails;
+            }
+        };
+
+        jwtFilter = new JwtFilter();
+        ReflectionTestUtils.setField(jwtFilter, "userDetailsService", userDetailsService);
+        ReflectionTestUtils.setField(jwtFilter, "jwtTokenUtil", jwtTokenUtil);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtTokenUtil.generateToken(EMAIL);
+    }
+
+    @Benchmark
+    public boolean validateToken() {
+        return jwtTokenUtil.validateToken(token);
+    }
+
+    @Benchmark
+    public Object jwtFilter() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/transactions");
+        request.addHeader("Authorization", "Bearer " + token);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        try {
+            jwtFilter.doFilter(request, response, new MockFilterChain());
+            return SecurityContextHolder.getContext().getAuthentication();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.finance.benchmark;
+
+import com.example.finance.ratelimit.EndpointClass;
+import com.example.finance.ratelimit.TokenBuckets;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(Threads.MAX)
+public class RateLimitBenchmark {
+
+    @Param({"10000"})
+    private int users;
+
+    private TokenBuckets buckets;
+    private String[] keys;
+
+    @Setup
+    public void setUp() {
+        TokenBuckets.Limit[] limits = new TokenBuckets.Limit[EndpointClass.values().length];
+        limits[EndpointClass.AUTH.ordinal()] = new TokenBuckets.Limit(10, 0.2);
+        limits[EndpointClass.READ.ordinal()] = new TokenBuckets.Limit(100, 50);
+        limits[EndpointClass.WRITE.ordinal()] = new TokenBuckets.Limit(30, 10);
+        buckets = new TokenBuckets(limits, 16, TimeUnit.MINUTES.toNanos(10), System::nanoTime);
+        keys = new String[users];
+        for (int i = 0; i < users; i++) {
+            keys[i] = "user" + i + "@example.com";
+        }
+    }
+
+    @Benchmark
+    public long tryAcquire() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String key = keys[random.nextInt(keys.length)];
+        return buckets.tryAcquire(key, random.nextInt(4) == 0 ? EndpointClass.WRITE : EndpointClass.READ);
+    }
+
+    @Benchmark
+    public long tryAcquireSameUser() {
+        return buckets.tryAcquire(keys[0], EndpointClass.READ);
+    }
+}
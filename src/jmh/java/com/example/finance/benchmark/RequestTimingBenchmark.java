@@ -0,0 +1,37 @@
+package com.example.finance.benchmark;
+
+import com.example.finance.timing.RequestTiming;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The cost of a phase hook when timing is off, as paid by every repository call and mapping loop:
+ * {@code hooked} against the same work without the hook.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RequestTimingBenchmark {
+
+    private long work = 42;
+
+    @Benchmark
+    public void baseline(Blackhole blackhole) {
+        blackhole.consume(work);
+    }
+
+    @Benchmark
+    public void hooked(Blackhole blackhole) {
+        RequestTiming.Phase outer = RequestTiming.enter(RequestTiming.Phase.DB);
+        try {
+            blackhole.consume(work);
+        } finally {
+            RequestTiming.exit(outer);
+        }
+    }
+}
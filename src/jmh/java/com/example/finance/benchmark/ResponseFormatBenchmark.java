@@ -0,0 +1,68 @@
+package com.example.finance.benchmark;
+
+import com.example.finance.dto.TransactionResponse;
+import com.example.finance.format.TransactionEncoding;
+import com.example.finance.format.TransactionProtobuf;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.protobuf.CodedOutputStream;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Encode time per response format for a transaction list. Encoded and gzipped sizes are
+ * printed once per trial, since JMH only reports time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResponseFormatBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    public int size;
+
+    @Param({"json", "cbor", "smile", "protobuf"})
+    public String format;
+
+    private ObjectMapper objectMapper;
+    private List<TransactionResponse> responses;
+
+    @Setup
+    public void setUp() throws IOException {
+        // Same mappers the MVC converters use
+        objectMapper = switch (format) {
+            case "json" -> Jackson2ObjectMapperBuilder.json().build();
+            case "cbor" -> Jackson2ObjectMapperBuilder.cbor().modulesToInstall(TransactionEncoding.compactModule()).build();
+            case "smile" -> Jackson2ObjectMapperBuilder.smile().modulesToInstall(TransactionEncoding.compactModule()).build();
+            default -> null;
+        };
+        responses = BenchmarkData.responses(size);
+
+        byte[] encoded = encode();
+        ByteArrayOutputStream gzipped = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(gzipped)) {
+            gzip.write(encoded);
+        }
+        System.out.printf("%n%s x %d: %d bytes, %d gzipped%n", format, size, encoded.length, gzipped.size());
+    }
+
+    @Benchmark
+    public byte[] encode() throws IOException {
+        if (objectMapper != null) {
+            return objectMapper.writeValueAsBytes(responses);
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(responses.size() * 48);
+        CodedOutputStream out = CodedOutputStream.newInstance(bytes);
+        TransactionProtobuf.writeList(out, responses);
+        out.flush();
+        return bytes.toByteArray();
+    }
+}
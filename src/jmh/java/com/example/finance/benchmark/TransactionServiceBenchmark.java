@@ -0,0 +1,49 @@
+package com.example.finance.benchmark;
+
+import com.example.finance.archive.ColdStore;
+import com.example.finance.dto.TransactionResponse;
+import com.example.finance.model.User;
+import com.example.finance.service.TransactionService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Service-level CPU cost with the repository stubbed out: the balance fold and
+ * entity-to-response mapping over realistic per-user history sizes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TransactionServiceBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    public int size;
+
+    private TransactionService transactionService;
+    private User user;
+
+    @Setup
+    public void setUp() {
+        user = new User("Bench User", "bench@example.com", "encoded");
+        transactionService = new TransactionService();
+        ReflectionTestUtils.setField(transactionService, "transactionRepository",
+                BenchmarkData.repositoryReturning(BenchmarkData.transactions(user, size)));
+        ReflectionTestUtils.setField(transactionService, "coldStore", new ColdStore());
+    }
+
+    @Benchmark
+    public Double calculateBalance() {
+        return transactionService.calculateBalance(user);
+    }
+
+    @Benchmark
+    public List<TransactionResponse> mapToResponse() {
+        return transactionService.getAllTransactions(user);
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.finance.loadtest;
+
+import com.example.finance.PersonalFinanceManagerApplication;
+import com.example.finance.model.User;
+import com.example.finance.repository.UserRepository;
+import com.example.finance.service.RegisteredEmailFilter;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Starts the application on a random port with an in-memory H2, seeds synthetic
+ * users and history, then drives an open-model request mix and prints per-endpoint
+ * latency percentiles, error rates and server-side statement counts.
+ */
+public class LoadTest {
+
+    public static void main(String[] args) {
+        LoadTestConfig config = LoadTestConfig.parse(args);
+        // Devtools would relaunch main() with the Spring arguments below instead of ours
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        ConfigurableApplicationContext context = SpringApplication.run(PersonalFinanceManagerApplication.class,
+                "--spring.datasource.url=jdbc:h2:mem:loadtest;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--spring.jpa.properties.hibernate.generate_statistics=true",
+                "--spring.h2.console.enabled=false",
+                // Every synthetic user logs in from this one address
+                "--finance.ratelimit.enabled=false",
+                "--server.port=0",
+                "--logging.level.root=WARN");
+        try {
+            run(context, config);
+        } finally {
+            context.close();
+        }
+    }
+
+    private static void run(ConfigurableApplicationContext context, LoadTestConfig config) {
+        SyntheticDataSeeder seeder = new SyntheticDataSeeder(
+                context.getBean(JdbcTemplate.class),
+                context.getBean(UserRepository.class),
+                context.getBean(PasswordEncoder.class),
+                config.seed());
+        long seedStart = System.nanoTime();
+        List<String> emails = seeder.seed(config.users(), config.transactionsPerUser()).stream()
+                .map(User::getEmail)
+                .toList();
+        context.getBean(RegisteredEmailFilter.class).rebuild();
+        System.out.printf("Seeded %d users x %d transactions in %.1f s%n",
+                config.users(), config.transactionsPerUser(), (System.nanoTime() - seedStart) / 1e9);
+
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        OpenModelDriver driver = new OpenModelDriver(URI.create("http://localhost:" + port), config, emails, seeder);
+        driver.loginAll();
+
+        System.out.printf("Warm-up for %d s at %.0f req/s%n", config.warmup().toSeconds(), config.ratePerSecond());
+        driver.run(config.warmup());
+
+        Statistics statistics = context.getBean(EntityManagerFactory.class).unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        System.out.printf("Measuring for %d s at %.0f req/s%n", config.duration().toSeconds(), config.ratePerSecond());
+        Map<Operation, EndpointStats> stats = driver.run(config.duration());
+
+        report(stats, statistics, config);
+    }
+
+    private static void report(Map<Operation, EndpointStats> stats, Statistics statistics, LoadTestConfig config) {
+        System.out.printf("%n%-32s %9s %8s %8s %9s %9s %9s %9s%n",
+                "endpoint", "requests", "errors", "skipped", "p50 ms", "p99 ms", "p99.9 ms", "max ms");
+        long total = 0;
+        for (Map.Entry<Operation, EndpointStats> entry : stats.entrySet()) {
+            EndpointStats s = entry.getValue();
+            total += s.requests();
+            if (s.requests() == 0 && s.skipped() == 0) {
+                continue;
+            }
+            System.out.printf("%-32s %9d %7.2f%% %8d %9.2f %9.2f %9.2f %9.2f%n",
+                    entry.getKey().endpoint, s.requests(),
+                    s.requests() == 0 ? 0.0 : 100.0 * s.errors() / s.requests(), s.skipped(),
+                    s.percentileMillis(50), s.percentileMillis(99), s.percentileMillis(99.9), s.maxMillis());
+        }
+        double perRequest = total == 0 ? 0 : (double) statistics.getPrepareStatementCount() / total;
+        System.out.printf("%nAchieved %.1f req/s (target %.0f)%n", total / (double) config.duration().toSeconds(),
+                config.ratePerSecond());
+        System.out.printf("Server: %d JDBC statements (%.2f per request), %d queries, %d entity loads, %d flushes%n",
+                statistics.getPrepareStatementCount(), perRequest, statistics.getQueryExecutionCount(),
+                statistics.getEntityLoadCount(), statistics.getFlushCount());
+    }
+}
@@ -0,0 +1,194 @@
+package com.example.finance.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-model load generator: arrivals follow a Poisson process at the target rate
+ * regardless of how fast the server answers, and latency is measured from each
+ * request's intended start so queueing delay is not hidden (no coordinated omission).
+ */
+class OpenModelDriver {
+
+    private final URI baseUri;
+    private final HttpClient client;
+    private final LoadTestConfig config;
+    private final SyntheticDataSeeder seeder;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final SplittableRandom random;
+
+    private final String[] emails;
+    private final String[] tokens;
+    private final ConcurrentLinkedDeque<Long>[] createdIds;
+    private final AtomicInteger outstanding = new AtomicInteger();
+    private final AtomicLong registrations = new AtomicLong();
+
+    @SuppressWarnings("unchecked")
+    OpenModelDriver(URI baseUri, LoadTestConfig config, List<String> emails, SyntheticDataSeeder seeder) {
+        this.baseUri = baseUri;
+        this.config = config;
+        this.seeder = seeder;
+        this.random = new SplittableRandom(config.seed());
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        this.emails = emails.toArray(String[]::new);
+        this.tokens = new String[this.emails.length];
+        this.createdIds = new ConcurrentLinkedDeque[this.emails.length];
+        for (int i = 0; i < createdIds.length; i++) {
+            createdIds[i] = new ConcurrentLinkedDeque<>();
+        }
+    }
+
+    void loginAll() {
+        for (int i = 0; i < emails.length; i++) {
+            int user = i;
+            client.sendAsync(login(emails[i]), HttpResponse.BodyHandlers.ofString())
+                    .thenAccept(response -> tokens[user] = field(response.body(), "token"))
+                    .join();
+        }
+    }
+
+    Map<Operation, EndpointStats> run(Duration duration) {
+        Map<Operation, EndpointStats> stats = new EnumMap<>(Operation.class);
+        for (Operation operation : Operation.values()) {
+            stats.put(operation, new EndpointStats());
+        }
+        Operation[] wheel = buildWheel();
+        double meanGapNanos = TimeUnit.SECONDS.toNanos(1) / config.ratePerSecond();
+
+        long intended = System.nanoTime();
+        long end = intended + duration.toNanos();
+        while (true) {
+            intended += (long) (-Math.log(1 - random.nextDouble()) * meanGapNanos);
+            if (intended >= end) {
+                break;
+            }
+            long wait = intended - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            Operation operation = wheel[random.nextInt(wheel.length)];
+            dispatch(operation, intended, stats.get(operation));
+        }
+        awaitOutstanding();
+        return stats;
+    }
+
+    private void dispatch(Operation operation, long intendedStart, EndpointStats stats) {
+        int user = random.nextInt(emails.length);
+        HttpRequest request = buildRequest(operation, user);
+        if (request == null) {
+            stats.skip();
+            return;
+        }
+        if (outstanding.incrementAndGet() > config.maxOutstanding()) {
+            outstanding.decrementAndGet();
+            stats.record(System.nanoTime() - intendedStart, false);
+            return;
+        }
+        client.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                .whenComplete((response, failure) -> {
+                    long latency = System.nanoTime() - intendedStart;
+                    boolean success = failure == null && response.statusCode() < 400;
+                    stats.record(latency, success);
+                    if (success && operation == Operation.CREATE) {
+                        String id = field(response.body(), "id");
+                        if (id != null) {
+                            createdIds[user].add(Long.parseLong(id));
+                        }
+                    }
+                    outstanding.decrementAndGet();
+                });
+    }
+
+    private HttpRequest buildRequest(Operation operation, int user) {
+        return switch (operation) {
+            case REGISTER -> {
+                String body = "{\"name\":\"Load Tester\",\"email\":\"new" + registrations.incrementAndGet() + "-"
+                        + config.seed() + "@example.com\",\"password\":\"" + SyntheticDataSeeder.PASSWORD + "\"}";
+                yield json("/api/auth/register", null, body).POST(bodyOf(body)).build();
+            }
+            case LOGIN -> login(emails[user]);
+            case CREATE -> {
+                String category = seeder.randomCategory();
+                String body = "{\"amount\":" + seeder.randomAmount(category) + ",\"description\":\"" + category
+                        + " load\",\"category\":\"" + category + "\",\"date\":\"" + LocalDate.now() + "\"}";
+                yield json("/api/transactions", tokens[user], body).POST(bodyOf(body)).build();
+            }
+            case LIST -> json("/api/transactions", tokens[user], null).GET().build();
+            case BALANCE -> json("/api/transactions/balance", tokens[user], null).GET().build();
+            case DELETE -> {
+                Long id = createdIds[user].poll();
+                yield id == null ? null : json("/api/transactions/" + id, tokens[user], null).DELETE().build();
+            }
+        };
+    }
+
+    private HttpRequest login(String email) {
+        String body = "{\"email\":\"" + email + "\",\"password\":\"" + SyntheticDataSeeder.PASSWORD + "\"}";
+        return json("/api/auth/login", null, body).POST(bodyOf(body)).build();
+    }
+
+    private HttpRequest.Builder json(String path, String token, String body) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(baseUri.resolve(path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Accept", "application/json");
+        if (body != null) {
+            builder.header("Content-Type", "application/json");
+        }
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder;
+    }
+
+    private static HttpRequest.BodyPublisher bodyOf(String body) {
+        return HttpRequest.BodyPublishers.ofString(body);
+    }
+
+    private Operation[] buildWheel() {
+        int total = config.mix().values().stream().mapToInt(Integer::intValue).sum();
+        Operation[] wheel = new Operation[total];
+        int index = 0;
+        for (Map.Entry<Operation, Integer> entry : config.mix().entrySet()) {
+            for (int i = 0; i < entry.getValue(); i++) {
+                wheel[index++] = entry.getKey();
+            }
+        }
+        return wheel;
+    }
+
+    private void awaitOutstanding() {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(60);
+        while (outstanding.get() > 0 && System.nanoTime() < deadline) {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(10));
+        }
+    }
+
+    private String field(String body, String name) {
+        try {
+            JsonNode value = objectMapper.readTree(body).get(name);
+            return value == null || value.isNull() ? null : value.asText();
+        } catch (Exception e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.finance.loadtest;
+
+enum Operation {
+    REGISTER("POST /api/auth/register"),
+    LOGIN("POST /api/auth/login"),
+    CREATE("POST /api/transactions"),
+    LIST("GET /api/transactions"),
+    BALANCE("GET /api/transactions/balance"),
+    DELETE("DELETE /api/transactions/{id}");
+
+    final String endpoint;
+
+    Operation(String endpoint) {
+        this.endpoint = endpoint;
+    }
+}
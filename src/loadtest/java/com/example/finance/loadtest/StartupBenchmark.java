@@ -0,0 +1,207 @@
+package com.example.finance.loadtest;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.ToDoubleFunction;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Starts the packaged application repeatedly, as a plain jar and as the fast-startup build
+ * ({@code mvn -Pfast package}), each against a fresh in-memory H2, and prints the median of:
+ * <ul>
+ *   <li>started: Spring's own "Started ... in" time,</li>
+ *   <li>ready: from process launch until {@code /actuator/health/readiness} is UP,</li>
+ *   <li>first request: from launch until an authenticated {@code GET /api/transactions} has answered,
+ *       after registering and logging in as soon as the app is ready,</li>
+ *   <li>first GET: the latency of that request alone.</li>
+ * </ul>
+ * Options: {@code --runs=5}, {@code --target=target}.
+ */
+public class StartupBenchmark {
+
+    private static final Pattern STARTED = Pattern.compile("Started \\S+ in ([0-9.]+) seconds");
+
+    private static final String[] APP_ARGS = {
+            "--spring.datasource.url=jdbc:h2:mem:startup",
+            "--spring.h2.console.enabled=false",
+            "--management.endpoint.health.probes.enabled=true",
+            "--logging.level.root=WARN",
+            "--logging.level.com.example.finance=INFO"
+    };
+
+    private record Variant(String name, Path workingDirectory, List<String> jvmArgs, List<String> appArgs) {
+    }
+
+    private record Run(double startedMs, double readyMs, double firstRequestMs, double firstGetMs) {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (arg.startsWith("--") && arg.contains("=")) {
+                options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+            }
+        }
+        int runs = Integer.parseInt(options.getOrDefault("runs", "5"));
+        Path target = Path.of(options.getOrDefault("target", "target")).toAbsolutePath();
+
+        List<Variant> variants = new ArrayList<>();
+        Path jar = findJar(target);
+        variants.add(new Variant("jar", target, List.of("-jar", jar.toString()), List.of()));
+        Path fast = target.resolve("fast");
+        if (Files.exists(fast.resolve("app.jsa"))) {
+            variants.add(new Variant("fast (AOT + CDS)", fast,
+                    List.of("-XX:SharedArchiveFile=app.jsa", "-Dspring.aot.enabled=true", "-jar", jar.getFileName().toString()),
+                    List.of("--spring.profiles.active=fast")));
+        } else {
+            System.out.println("No " + fast.resolve("app.jsa") + "; run mvn -Pfast package to include the fast build");
+        }
+
+        System.out.printf("%n%-18s %12s %12s %18s %14s%n", "variant", "started ms", "ready ms", "first request ms", "first GET ms");
+        for (Variant variant : variants) {
+            List<Run> results = new ArrayList<>();
+            for (int i = 0; i < runs; i++) {
+                results.add(launch(variant));
+            }
+            System.out.printf("%-18s %12.0f %12.0f %18.0f %14.1f%n", variant.name(),
+                    median(results, Run::startedMs), median(results, Run::readyMs),
+                    median(results, Run::firstRequestMs), median(results, Run::firstGetMs));
+        }
+    }
+
+    private static Run launch(Variant variant) throws Exception {
+        int port = freePort();
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(variant.jvmArgs());
+        command.addAll(Arrays.asList(APP_ARGS));
+        command.addAll(variant.appArgs());
+        command.add("--server.port=" + port);
+
+        long launched = System.nanoTime();
+        Process process = new ProcessBuilder(command)
+                .directory(variant.workingDirectory().toFile())
+                .redirectErrorStream(true)
+                .start();
+        AtomicReference<Double> started = new AtomicReference<>(Double.NaN);
+        Thread reader = new Thread(() -> {
+            try (BufferedReader out = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
+                String line;
+                while ((line = out.readLine()) != null) {
+                    Matcher matcher = STARTED.matcher(line);
+                    if (matcher.find()) {
+                        started.set(Double.parseDouble(matcher.group(1)) * 1000);
+                    }
+                }
+            } catch (IOException ignored) {
+                // Process destroyed
+            }
+        });
+        reader.setDaemon(true);
+        reader.start();
+
+        try {
+            HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+            String base = "http://localhost:" + port;
+            awaitReady(client, base, process);
+            double readyMs = millisSince(launched);
+
+            String email = "startup" + System.nanoTime() + "@example.com";
+            post(client, base + "/api/auth/register",
+                    "{\"name\":\"Startup Bench\",\"email\":\"" + email + "\",\"password\":\"Str0ng!Pass\"}");
+            String login = post(client, base + "/api/auth/login",
+                    "{\"email\":\"" + email + "\",\"password\":\"Str0ng!Pass\"}");
+            String token = login.replaceAll(".*\"token\"\\s*:\\s*\"([^\"]+)\".*", "$1");
+
+            long getStart = System.nanoTime();
+            HttpResponse<String> list = client.send(HttpRequest.newBuilder(URI.create(base + "/api/transactions"))
+                    .header("Authorization", "Bearer " + token).build(), HttpResponse.BodyHandlers.ofString());
+            if (list.statusCode() != 200) {
+                throw new IllegalStateException("GET /api/transactions returned " + list.statusCode());
+            }
+            double firstGetMs = millisSince(getStart);
+            double firstRequestMs = millisSince(launched);
+            return new Run(started.get(), readyMs, firstRequestMs, firstGetMs);
+        } finally {
+            process.destroy();
+            if (!process.waitFor(10, TimeUnit.SECONDS)) {
+                process.destroyForcibly().waitFor();
+            }
+        }
+    }
+
+    private static void awaitReady(HttpClient client, String base, Process process) throws Exception {
+        HttpRequest readiness = HttpRequest.newBuilder(URI.create(base + "/actuator/health/readiness"))
+                .timeout(Duration.ofSeconds(5)).build();
+        long deadline = System.nanoTime() + TimeUnit.MINUTES.toNanos(2);
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException("Application exited with " + process.exitValue());
+            }
+            try {
+                if (client.send(readiness, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return;
+                }
+            } catch (ConnectException notListeningYet) {
+                // Retry below
+            }
+            Thread.sleep(10);
+        }
+        throw new IllegalStateException("Application not ready after 2 minutes");
+    }
+
+    private static String post(HttpClient client, String url, String json) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() >= 300) {
+            throw new IllegalStateException(url + " returned " + response.statusCode() + ": " + response.body());
+        }
+        return response.body();
+    }
+
+    private static Path findJar(Path target) throws IOException {
+        try (var files = Files.list(target)) {
+            return files.filter(path -> path.getFileName().toString().endsWith(".jar"))
+                    .filter(path -> !path.getFileName().toString().endsWith("-plain.jar"))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalStateException("No jar in " + target + "; run mvn package first"));
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static double millisSince(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1e6;
+    }
+
+    private static double median(List<Run> runs, ToDoubleFunction<Run> metric) {
+        double[] values = runs.stream().mapToDouble(metric).sorted().toArray();
+        int middle = values.length / 2;
+        return values.length % 2 == 1 ? values[middle] : (values[middle - 1] + values[middle]) / 2;
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.finance.loadtest;
+
+import com.example.finance.model.User;
+import com.example.finance.repository.UserRepository;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Seeds users and transactions directly through JDBC. Categories follow a household
+ * budget mix, amounts are log-normal around a per-category median, and dates are
+ * skewed towards the recent past the way real histories are queried.
+ */
+class SyntheticDataSeeder {
+
+    static final String PASSWORD = "Password@123";
+
+    private static final String[] CATEGORIES = {
+            "Income", "Groceries", "Rent", "Utilities", "Dining", "Transport", "Entertainment", "Health", "Shopping"
+    };
+    private static final int[] WEIGHTS = {8, 30, 4, 6, 18, 14, 8, 4, 8};
+    private static final double[] MEDIANS = {3500, 60, 1400, 120, 35, 20, 40, 80, 70};
+    private static final int HISTORY_DAYS = 3 * 365;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final UserRepository userRepository;
+    private final PasswordEncoder passwordEncoder;
+    private final SplittableRandom random;
+
+    SyntheticDataSeeder(JdbcTemplate jdbcTemplate, UserRepository userRepository,
+                        PasswordEncoder passwordEncoder, long seed) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.userRepository = userRepository;
+        this.passwordEncoder = passwordEncoder;
+        this.random = new SplittableRandom(seed);
+    }
+
+    List<User> seed(int users, int transactionsPerUser) {
+        String encoded = passwordEncoder.encode(PASSWORD);
+        List<User> created = new ArrayList<>(users);
+        for (int i = 0; i < users; i++) {
+            created.add(new User("Load User", "load" + i + "@example.com", encoded));
+        }
+        created = userRepository.saveAll(created);
+
+        LocalDate today = LocalDate.now();
+        List<Object[]> batch = new ArrayList<>(5000);
+        for (User user : created) {
+            for (int i = 0; i < transactionsPerUser; i++) {
+                int category = pickCategory();
+                batch.add(new Object[]{
+                        amount(category),
+                        CATEGORIES[category] + " #" + i,
+                        CATEGORIES[category],
+                        Date.valueOf(today.minusDays(daysAgo())),
+                        user.getId()
+                });
+                if (batch.size() == 5000) {
+                    flush(batch);
+                }
+            }
+        }
+        flush(batch);
+        return created;
+    }
+
+    String randomCategory() {
+        return CATEGORIES[pickCategory()];
+    }
+
+    BigDecimal randomAmount(String category) {
+        for (int i = 0; i < CATEGORIES.length; i++) {
+            if (CATEGORIES[i].equals(category)) {
+                return amount(i);
+            }
+        }
+        return amount(1);
+    }
+
+    private int pickCategory() {
+        int total = 0;
+        for (int w : WEIGHTS) {
+            total += w;
+        }
+        int roll = random.nextInt(total);
+        for (int i = 0; i < WEIGHTS.length; i++) {
+            roll -= WEIGHTS[i];
+            if (roll < 0) {
+                return i;
+            }
+        }
+        return WEIGHTS.length - 1;
+    }
+
+    private BigDecimal amount(int category) {
+        double gaussian = gaussian();
+        return BigDecimal.valueOf(MEDIANS[category] * Math.exp(0.6 * gaussian)).setScale(2, RoundingMode.HALF_UP);
+    }
+
+    // Squaring a uniform variate puts roughly half of all rows in the most recent quarter of the history.
+    private long daysAgo() {
+        double u = random.nextDouble();
+        return (long) (u * u * HISTORY_DAYS);
+    }
+
+    private double gaussian() {
+        double u1 = random.nextDouble();
+        double u2 = random.nextDouble();
+        return Math.sqrt(-2 * Math.log(1 - u1)) * Math.cos(2 * Math.PI * u2);
+    }
+
+    private void flush(List<Object[]> batch) {
+        if (!batch.isEmpty()) {
+            jdbcTemplate.batchUpdate(
+                    "insert into transactions (amount, description, category, date, user_id) values (?, ?, ?, ?, ?)",
+                    batch);
+            batch.clear();
+        }
+    }
+}
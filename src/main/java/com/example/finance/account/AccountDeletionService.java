@@ -0,0 +1,196 @@
+package com.example.finance.account;
+
+import com.example.finance.archive.ColdStore;
+import com.example.finance.dto.AccountDeletionResponse;
+import com.example.finance.invalidation.Invalidation;
+import com.example.finance.invalidation.InvalidationBus;
+import com.example.finance.model.AccountDeletion;
+import com.example.finance.model.User;
+import com.example.finance.percentile.SpendingPercentiles;
+import com.example.finance.repository.AccountDeletionRepository;
+import com.example.finance.repository.UserRepository;
+import com.example.finance.security.TokenRevocationStore;
+import com.example.finance.sharding.ShardRouter;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Instant;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Deletes accounts without loading their data. A request only marks the user deleted and revokes their
+ * tokens, so from then on the account cannot log in and no request can read it. A single background worker
+ * then removes the user's rows table by table with {@code delete ... where user_id = ? limit n}, each chunk
+ * a short statement of its own, records progress in {@code account_deletions}, and finally drops the user.
+ * Deletions that had not finished when the node stopped resume at the next start.
+ */
+@Component
+public class AccountDeletionService {
+
+    private static final Logger log = LoggerFactory.getLogger(AccountDeletionService.class);
+
+    // On the owner's shard when sharding is enabled
+    private static final List<String> SHARDED_TABLES = List.of("transactions", "transaction_tombstones");
+
+    private static final List<String> PRIMARY_TABLES =
+            List.of("idempotency_keys", "category_rules", "category_stats", "spending_sketches");
+
+    @Autowired
+    private AccountDeletionRepository deletionRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TokenRevocationStore revocationStore;
+
+    @Autowired
+    private InvalidationBus invalidationBus;
+
+    @Autowired
+    private SpendingPercentiles spendingPercentiles;
+
+    @Autowired
+    private ColdStore coldStore;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${finance.account-deletion.chunk-size:1000}")
+    private int chunkSize;
+
+    private ExecutorService executor;
+
+    @PostConstruct
+    public void init() {
+        executor = Executors.newSingleThreadExecutor(task -> {
+            Thread thread = new Thread(task, "account-purge");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.NORM_PRIORITY - 1);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void resume() {
+        for (AccountDeletion deletion : deletionRepository.findByStatusIn(
+                EnumSet.of(AccountDeletion.Status.QUEUED, AccountDeletion.Status.RUNNING, AccountDeletion.Status.FAILED))) {
+            executor.execute(() -> purge(deletion.getId()));
+        }
+    }
+
+    public AccountDeletionResponse request(User user) {
+        long now = System.currentTimeMillis();
+        // Recorded first, so a node stopping before the user is marked still deletes the account at its next start
+        AccountDeletion deletion = deletionRepository.save(
+                new AccountDeletion(UUID.randomUUID().toString(), user.getId(), now));
+        user.setDeletedAt(now);
+        user.setTokensInvalidBefore(now);
+        userRepository.save(user);
+        revocationStore.revokeAllIssuedBefore(user.getEmail(), now);
+        invalidationBus.publish(Invalidation.sessions(user.getId(), user.getEmail(), now));
+        executor.execute(() -> purge(deletion.getId()));
+        return toResponse(deletion);
+    }
+
+    public AccountDeletionResponse status(String id) {
+        return deletionRepository.findById(id)
+                .map(AccountDeletionService::toResponse)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Deletion not found"));
+    }
+
+    void purge(String id) {
+        AccountDeletion deletion = deletionRepository.findById(id).orElse(null);
+        if (deletion == null || deletion.getStatus() == AccountDeletion.Status.DONE) {
+            return;
+        }
+        deletion.setStatus(AccountDeletion.Status.RUNNING);
+        deletion.setError(null);
+        deletionRepository.save(deletion);
+        try {
+            userRepository.findById(deletion.getUserId()).ifPresent(user -> purgeUser(deletion, user));
+            deletion.setStatus(AccountDeletion.Status.DONE);
+        } catch (RuntimeException e) {
+            log.warn("Deleting account {} failed; retried at the next start", deletion.getUserId(), e);
+            deletion.setStatus(AccountDeletion.Status.FAILED);
+            deletion.setError(e.getMessage());
+        }
+        deletion.setFinishedAt(System.currentTimeMillis());
+        deletionRepository.save(deletion);
+    }
+
+    private void purgeUser(AccountDeletion deletion, User user) {
+        // Amounts still waiting to be merged into the sketches would otherwise recreate rows after the purge
+        spendingPercentiles.flush();
+        // A write that was already running when the account was marked may land after its table was purged
+        long deleted;
+        do {
+            deleted = 0;
+            for (String table : SHARDED_TABLES) {
+                deleted += deleteInChunks(deletion, table, user, true);
+            }
+            for (String table : PRIMARY_TABLES) {
+                deleted += deleteInChunks(deletion, table, user, false);
+            }
+        } while (deleted > 0);
+
+        coldStore.delete(user.getId());
+        invalidationBus.publish(Invalidation.rules(user.getId(), System.currentTimeMillis()));
+        if (shardRouter.isEnabled()) {
+            shardRouter.onShardOf(user, () -> jdbcTemplate.update("delete from users where id = ?", user.getId()));
+        }
+        jdbcTemplate.update("delete from users where id = ?", user.getId());
+        log.info("Deleted account {}: {} rows", user.getId(), deletion.getRowsDeleted());
+    }
+
+    // Progress lives on the primary, so only the delete itself is bound to the shard
+    private long deleteInChunks(AccountDeletion deletion, String table, User user, boolean sharded) {
+        String sql = "delete from " + table + " where user_id = ? limit ?";
+        long total = 0;
+        int deleted;
+        do {
+            deleted = sharded
+                    ? shardRouter.onShardOf(user, () -> jdbcTemplate.update(sql, user.getId(), chunkSize))
+                    : jdbcTemplate.update(sql, user.getId(), chunkSize);
+            if (deleted > 0) {
+                total += deleted;
+                deletion.setRowsDeleted(deletion.getRowsDeleted() + deleted);
+                deletionRepository.updateProgress(deletion.getId(), deletion.getRowsDeleted());
+            }
+        } while (deleted == chunkSize);
+        return total;
+    }
+
+    private static AccountDeletionResponse toResponse(AccountDeletion deletion) {
+        return new AccountDeletionResponse(
+                deletion.getId(),
+                deletion.getStatus(),
+                deletion.getRowsDeleted(),
+                Instant.ofEpochMilli(deletion.getRequestedAt()),
+                deletion.getFinishedAt() != null ? Instant.ofEpochMilli(deletion.getFinishedAt()) : null,
+                deletion.getError()
+        );
+    }
+}
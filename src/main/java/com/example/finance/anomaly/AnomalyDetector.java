@@ -0,0 +1,249 @@
+package com.example.finance.anomaly;
+
+import com.example.finance.archive.ArchivedTransaction;
+import com.example.finance.archive.ColdStore;
+import com.example.finance.dto.Anomaly;
+import com.example.finance.dto.TransactionResponse;
+import com.example.finance.metrics.FinanceMetrics;
+import com.example.finance.model.CategoryStats;
+import com.example.finance.repository.CategoryStatsRepository;
+import com.example.finance.sharding.ShardContext;
+import com.example.finance.sharding.ShardRouter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Flags unusually large transactions as they are written, from per-(user, category) running statistics
+ * kept in {@code category_stats}. Each create, update or delete changes one or two rows with a single UPDATE,
+ * so the cost does not grow with the user's history.
+ *
+ * <p>A new amount is scored against the statistics without it: {@code (amount - mean) / spread}, where the
+ * spread is the standard deviation but at least {@code min-stddev-ratio} of the mean (a category of identical
+ * amounts would otherwise flag every cent of difference). Categories with fewer than {@code min-count} earlier
+ * transactions are never flagged.
+ */
+@Component
+public class AnomalyDetector {
+
+    private static final Logger log = LoggerFactory.getLogger(AnomalyDetector.class);
+
+    @Autowired
+    private CategoryStatsRepository repository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Autowired
+    private ColdStore coldStore;
+
+    @Autowired
+    private FinanceMetrics financeMetrics;
+
+    @Value("${finance.anomaly.enabled:true}")
+    private boolean enabled;
+
+    @Value("${finance.anomaly.z-threshold:3.0}")
+    private double zThreshold;
+
+    @Value("${finance.anomaly.min-count:5}")
+    private long minCount;
+
+    @Value("${finance.anomaly.min-stddev-ratio:0.1}")
+    private double minStddevRatio;
+
+    @Value("${finance.anomaly.rebuild:false}")
+    private boolean rebuildOnStartup;
+
+    @Value("${finance.anomaly.rebuild-threads:0}")
+    private int rebuildThreads;
+
+    @Value("${finance.anomaly.rebuild-chunk:50000}")
+    private long rebuildChunk;
+
+    /**
+     * Applies a create ({@code before} null), update or delete ({@code after} null) to the owner's statistics.
+     * Returns why {@code after} is unusual, or null.
+     */
+    public Anomaly observe(Long userId, TransactionResponse before, TransactionResponse after) {
+        if (!enabled) {
+            return null;
+        }
+        String from = before != null ? key(before.category()) : null;
+        String to = after != null ? key(after.category()) : null;
+        if (to == null) {
+            repository.remove(userId, from, before.amount().doubleValue());
+            return null;
+        }
+
+        double amount = after.amount().doubleValue();
+        Optional<CategoryStats> current = repository.findByUserIdAndCategory(userId, to);
+        RunningStats stats = current.map(RunningStats::of).orElseGet(RunningStats::new);
+        if (to.equals(from)) {
+            double replaced = before.amount().doubleValue();
+            if (current.isEmpty() || (replaced != amount && repository.replace(userId, to, replaced, amount) == 0)) {
+                add(userId, to, amount, false);
+            }
+            return score(stats.without(replaced), amount);
+        }
+        if (from != null) {
+            repository.remove(userId, from, before.amount().doubleValue());
+        }
+        add(userId, to, amount, current.isPresent());
+        return score(stats, amount);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildIfNeeded() {
+        if (enabled && (rebuildOnStartup || repository.count() == 0)) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Recomputes every row from the transactions, hot and archived, in one pass: id ranges of each shard are
+     * scanned in parallel and the partial statistics merged. Returns the number of (user, category) rows.
+     * Writes that land while the scan runs may be missed; run it when traffic is low.
+     */
+    public synchronized int rebuild() {
+        long start = System.nanoTime();
+        Map<StatsKey, RunningStats> totals = new HashMap<>();
+        int threads = rebuildThreads > 0 ? rebuildThreads : Runtime.getRuntime().availableProcessors();
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            shardRouter.forEachShard(shard -> scan(shard, pool).forEach((key, stats) ->
+                    totals.computeIfAbsent(key, k -> new RunningStats()).merge(stats)));
+        } finally {
+            pool.shutdownNow();
+        }
+        for (Long userId : coldStore.userIds()) {
+            for (ArchivedTransaction row : coldStore.transactions(userId, Set.of())) {
+                totals.computeIfAbsent(new StatsKey(userId, key(row.category())), k -> new RunningStats())
+                        .add(row.amount().doubleValue());
+            }
+        }
+
+        List<CategoryStats> rows = new ArrayList<>(totals.size());
+        totals.forEach((key, stats) -> rows.add(
+                new CategoryStats(key.userId(), key.category(), stats.count, stats.mean, stats.m2)));
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            repository.deleteAllInBatch();
+            repository.saveAll(rows);
+        });
+        log.info("Rebuilt {} category statistics in {} ms", rows.size(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        return rows.size();
+    }
+
+    static String key(String category) {
+        return category.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private Anomaly score(RunningStats stats, double amount) {
+        if (stats.count < minCount) {
+            return null;
+        }
+        double stddev = stats.stddev();
+        double spread = Math.max(stddev, minStddevRatio * Math.abs(stats.mean));
+        if (spread == 0) {
+            return null;
+        }
+        double score = (amount - stats.mean) / spread;
+        if (score < zThreshold) {
+            return null;
+        }
+        financeMetrics.anomalyFlagged();
+        return new Anomaly(Math.round(score * 100) / 100.0, money(stats.mean), money(stddev), stats.count);
+    }
+
+    // Inserts the row when the caller's read found none; either way falls back to the other statement on a race
+    private void add(Long userId, String category, double amount, boolean exists) {
+        if (exists && repository.add(userId, category, amount) > 0) {
+            return;
+        }
+        try {
+            repository.saveAndFlush(new CategoryStats(userId, category, 1, amount, 0));
+        } catch (DataIntegrityViolationException createdConcurrently) {
+            repository.add(userId, category, amount);
+        }
+    }
+
+    private Map<StatsKey, RunningStats> scan(int shard, ExecutorService pool) {
+        Map<String, Object> bounds = onShard(shard, () ->
+                jdbcTemplate.queryForMap("select min(id) as lo, max(id) as hi from transactions"));
+        Map<StatsKey, RunningStats> merged = new HashMap<>();
+        if (bounds.get("lo") == null) {
+            return merged;
+        }
+        long lo = ((Number) bounds.get("lo")).longValue();
+        long hi = ((Number) bounds.get("hi")).longValue();
+        List<Future<Map<StatsKey, RunningStats>>> parts = new ArrayList<>();
+        for (long from = lo; from <= hi; from += rebuildChunk) {
+            long fromId = from;
+            long toId = Math.min(hi, from + rebuildChunk - 1);
+            parts.add(pool.submit(() -> onShard(shard, () -> scanRange(fromId, toId))));
+        }
+        try {
+            for (Future<Map<StatsKey, RunningStats>> part : parts) {
+                part.get().forEach((key, stats) -> merged.computeIfAbsent(key, k -> new RunningStats()).merge(stats));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Category statistics rebuild interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Category statistics rebuild failed", e.getCause());
+        }
+        return merged;
+    }
+
+    private Map<StatsKey, RunningStats> scanRange(long fromId, long toId) {
+        Map<StatsKey, RunningStats> part = new HashMap<>();
+        jdbcTemplate.query("select user_id, category, amount from transactions where id between ? and ?",
+                rs -> {
+                    part.computeIfAbsent(new StatsKey(rs.getLong(1), key(rs.getString(2))), k -> new RunningStats())
+                            .add(rs.getBigDecimal(3).doubleValue());
+                }, fromId, toId);
+        return part;
+    }
+
+    private static <T> T onShard(int shard, Supplier<T> work) {
+        return shard >= 0 ? ShardContext.callOn(shard, work) : work.get();
+    }
+
+    private static BigDecimal money(double value) {
+        return BigDecimal.valueOf(value).setScale(2, RoundingMode.HALF_UP);
+    }
+
+    private record StatsKey(long userId, String category) {
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.finance.anomaly;
+
+import com.example.finance.model.CategoryStats;
+
+/**
+ * Count, mean and sum of squared deviations ({@code m2}). Values are added with Welford's update; partial
+ * results from disjoint sets of rows combine with Chan et al.'s formula, which is what makes the rebuild parallel.
+ */
+final class RunningStats {
+
+    long count;
+    double mean;
+    double m2;
+
+    RunningStats() {
+    }
+
+    RunningStats(long count, double mean, double m2) {
+        this.count = count;
+        this.mean = mean;
+        this.m2 = m2;
+    }
+
+    static RunningStats of(CategoryStats row) {
+        return new RunningStats(row.getCount(), row.getMean(), row.getM2());
+    }
+
+    void add(double x) {
+        count++;
+        double delta = x - mean;
+        mean += delta / count;
+        m2 += delta * (x - mean);
+    }
+
+    void merge(RunningStats other) {
+        if (other.count == 0) {
+            return;
+        }
+        long total = count + other.count;
+        double delta = other.mean - mean;
+        mean += delta * other.count / total;
+        m2 += other.m2 + delta * delta * count * other.count / total;
+        count = total;
+    }
+
+    RunningStats without(double x) {
+        if (count <= 1) {
+            return new RunningStats();
+        }
+        double meanWithout = (mean * count - x) / (count - 1);
+        return new RunningStats(count - 1, meanWithout, Math.max(0, m2 - (x - mean) * (x - meanWithout)));
+    }
+
+    double stddev() {
+        return count > 1 ? Math.sqrt(Math.max(0, m2) / (count - 1)) : 0;
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.finance.archive;
+
+import com.example.finance.model.Transaction;
+import com.example.finance.repository.TransactionRepository;
+import com.example.finance.repository.UserRepository;
+import com.example.finance.sharding.ShardRouter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Moves transactions dated more than {@code finance.archive.older-than-days} ago from the
+ * hot table into each owner's cold segment. Disabled unless {@code finance.archive.cron}
+ * is set.
+ */
+@Component
+public class ArchiveJob {
+
+    private static final int DELETE_BATCH = 1000;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private ColdStore coldStore;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Value("${finance.archive.older-than-days:365}")
+    private long olderThanDays;
+
+    /** Returns the number of transactions archived. */
+    @Scheduled(cron = "${finance.archive.cron:-}")
+    public long run() {
+        LocalDate cutoff = LocalDate.now().minusDays(olderThanDays);
+        AtomicLong archived = new AtomicLong();
+        // Archiving an account being deleted would move its rows out of the purge's reach
+        Set<Long> deleted = new HashSet<>(userRepository.findDeletedIds());
+        shardRouter.forEachShard(shard -> {
+            for (Long userId : transactionRepository.findOwnerIdsWithTransactionsBefore(cutoff)) {
+                if (!deleted.contains(userId)) {
+                    archived.addAndGet(archiveUser(userId, cutoff));
+                }
+            }
+        });
+        return archived.get();
+    }
+
+    private long archiveUser(long userId, LocalDate cutoff) {
+        List<Transaction> rows = transactionRepository.findByOwnerIdAndDateBefore(userId, cutoff);
+        coldStore.archive(userId, rows.stream()
+                .map(txn -> new ArchivedTransaction(txn.getId(), txn.getAmount(), txn.getDescription(),
+                        txn.getCategory(), txn.getDate(), txn.isAutoCategory(), txn.getFingerprint()))
+                .toList());
+        List<Long> ids = rows.stream().map(Transaction::getId).toList();
+        for (int from = 0; from < ids.size(); from += DELETE_BATCH) {
+            transactionRepository.deleteAllByIdInBatch(ids.subList(from, Math.min(from + DELETE_BATCH, ids.size())));
+        }
+        return rows.size();
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.finance.archive;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public record ArchivedTransaction(
+        long id,
+        BigDecimal amount,
+        String description,
+        String category,
+        LocalDate date,
+        boolean autoCategory,
+        Long fingerprint
+) {
+    public ArchivedTransaction(long id, BigDecimal amount, String description, String category, LocalDate date) {
+        this(id, amount, description, category, date, false, null);
+    }
+
+    double signedAmount() {
+        return category.equalsIgnoreCase("Income") ? amount.doubleValue() : -amount.doubleValue();
+    }
+}
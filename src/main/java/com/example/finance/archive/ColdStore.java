@@ -0,0 +1,240 @@
+package com.example.finance.archive;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Per-user cold tier under {@code finance.archive.dir}. Each user directory holds one live
+ * segment ({@code seg-<generation>.fseg}, highest generation wins) and a tombstone file
+ * listing archived ids that were deleted, or moved back to the hot table for editing.
+ * Segments are never modified: every archival run writes the next generation with the
+ * tombstones applied.
+ */
+@Component
+public class ColdStore {
+
+    @Value("${finance.archive.dir:archive}")
+    private Path directory;
+
+    private final ConcurrentHashMap<Long, UserArchive> archives = new ConcurrentHashMap<>();
+
+    public boolean hasArchive(Long userId) {
+        return userId != null && archiveOf(userId).segment != null;
+    }
+
+    /** Users with an archive directory. */
+    public List<Long> userIds() {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> entries = Files.list(directory)) {
+            return entries.map(path -> path.getFileName().toString())
+                    .filter(name -> !name.isEmpty() && name.chars().allMatch(Character::isDigit))
+                    .map(Long::valueOf)
+                    .toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /** Live archived rows, oldest first, skipping ids in {@code shadowedIds} (rows present in the hot table). */
+    public List<ArchivedTransaction> transactions(long userId, Set<Long> shadowedIds) {
+        UserArchive archive = archiveOf(userId);
+        if (archive.segment == null) {
+            return List.of();
+        }
+        List<ArchivedTransaction> rows = new ArrayList<>(archive.segment.count());
+        for (ArchivedTransaction row : archive.segment.readAll()) {
+            if (!archive.tombstones.contains(row.id()) && !shadowedIds.contains(row.id())) {
+                rows.add(row);
+            }
+        }
+        return rows;
+    }
+
+    /** Incomes minus expenses over live archived rows; uses the segment's stored total when nothing is hidden. */
+    public double netAmount(long userId, Collection<Long> shadowedIds) {
+        UserArchive archive = archiveOf(userId);
+        if (archive.segment == null) {
+            return 0;
+        }
+        boolean untouched = archive.tombstones.isEmpty()
+                && shadowedIds.stream().noneMatch(archive.segment::contains);
+        if (untouched) {
+            return archive.segment.netAmount();
+        }
+        return transactions(userId, new HashSet<>(shadowedIds)).stream()
+                .mapToDouble(ArchivedTransaction::signedAmount)
+                .sum();
+    }
+
+    public Optional<ArchivedTransaction> find(Long userId, long id) {
+        if (userId == null) {
+            return Optional.empty();
+        }
+        UserArchive archive = archiveOf(userId);
+        if (archive.segment == null || archive.tombstones.contains(id)) {
+            return Optional.empty();
+        }
+        return archive.segment.find(id);
+    }
+
+    /** Hides an archived row; used when it is deleted or moved back to the hot table. */
+    public void tombstone(long userId, long id) {
+        archives.compute(userId, (key, current) -> {
+            UserArchive archive = current != null ? current : load(userId);
+            if (archive.segment == null) {
+                return archive;
+            }
+            ByteBuffer entry = ByteBuffer.allocate(Long.BYTES).putLong(0, id);
+            try (FileChannel channel = FileChannel.open(tombstoneFile(userId, archive.generation),
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+                channel.write(entry);
+                channel.force(false);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            Set<Long> tombstones = new HashSet<>(archive.tombstones);
+            tombstones.add(id);
+            return new UserArchive(archive.generation, archive.segment, Set.copyOf(tombstones));
+        });
+    }
+
+    /**
+     * Writes the next segment generation: the live archived rows plus {@code rows}, with rows
+     * of the same id replaced by the newer copy. The caller deletes {@code rows} from the hot
+     * table afterwards; readers drop archived copies of ids still in the hot table.
+     */
+    public void archive(long userId, List<ArchivedTransaction> rows) {
+        archives.compute(userId, (key, current) -> {
+            UserArchive archive = current != null ? current : load(userId);
+            Map<Long, ArchivedTransaction> merged = new HashMap<>();
+            if (archive.segment != null) {
+                for (ArchivedTransaction row : archive.segment.readAll()) {
+                    if (!archive.tombstones.contains(row.id())) {
+                        merged.put(row.id(), row);
+                    }
+                }
+            }
+            rows.forEach(row -> merged.put(row.id(), row));
+            long generation = archive.generation + 1;
+            try {
+                Files.createDirectories(userDirectory(userId));
+                Path file = segmentFile(userId, generation);
+                Segment.write(file, new ArrayList<>(merged.values()));
+                UserArchive next = new UserArchive(generation, Segment.open(file), Set.of());
+                deleteOlderGenerations(userId, generation);
+                return next;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    /** Removes the user's archive entirely. */
+    public void delete(long userId) {
+        archives.compute(userId, (key, current) -> {
+            Path dir = userDirectory(userId);
+            if (Files.isDirectory(dir)) {
+                try (Stream<Path> files = Files.list(dir)) {
+                    for (Path file : files.toList()) {
+                        Files.deleteIfExists(file);
+                    }
+                    Files.deleteIfExists(dir);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+            return null;
+        });
+    }
+
+    private UserArchive archiveOf(long userId) {
+        UserArchive archive = archives.get(userId);
+        return archive != null ? archive : archives.computeIfAbsent(userId, this::load);
+    }
+
+    private UserArchive load(long userId) {
+        Path dir = userDirectory(userId);
+        if (!Files.isDirectory(dir)) {
+            return UserArchive.EMPTY;
+        }
+        long generation = 0;
+        try (Stream<Path> files = Files.list(dir)) {
+            generation = files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.startsWith("seg-") && name.endsWith(".fseg"))
+                    .mapToLong(name -> Long.parseLong(name.substring(4, name.length() - 5)))
+                    .max()
+                    .orElse(0);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (generation == 0) {
+            return UserArchive.EMPTY;
+        }
+        Set<Long> tombstones = new HashSet<>();
+        Path tombstoneFile = tombstoneFile(userId, generation);
+        if (Files.exists(tombstoneFile)) {
+            try {
+                ByteBuffer ids = ByteBuffer.wrap(Files.readAllBytes(tombstoneFile));
+                while (ids.remaining() >= Long.BYTES) {
+                    tombstones.add(ids.getLong());
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return new UserArchive(generation, Segment.open(segmentFile(userId, generation)), Set.copyOf(tombstones));
+    }
+
+    // Best effort: a file still mapped elsewhere (Windows) stays behind and is ignored, then retried next run
+    private void deleteOlderGenerations(long userId, long live) throws IOException {
+        try (Stream<Path> files = Files.list(userDirectory(userId))) {
+            for (Path file : files.toList()) {
+                String name = file.getFileName().toString();
+                boolean current = name.equals(segmentFile(userId, live).getFileName().toString());
+                if (!current && (name.startsWith("seg-") || name.startsWith("tombstones-"))) {
+                    try {
+                        Files.deleteIfExists(file);
+                    } catch (IOException ignored) {
+                        // retried on the next run
+                    }
+                }
+            }
+        }
+    }
+
+    private Path userDirectory(long userId) {
+        return directory.resolve(Long.toString(userId));
+    }
+
+    private Path segmentFile(long userId, long generation) {
+        return userDirectory(userId).resolve(String.format("seg-%010d.fseg", generation));
+    }
+
+    private Path tombstoneFile(long userId, long generation) {
+        return userDirectory(userId).resolve(String.format("tombstones-%010d.bin", generation));
+    }
+
+    private record UserArchive(long generation, Segment segment, Set<Long> tombstones) {
+        static final UserArchive EMPTY = new UserArchive(0, null, Set.of());
+    }
+}
@@ -0,0 +1,269 @@
+package com.example.finance.archive;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * An immutable file of one user's archived transactions, read through a memory mapping.
+ *
+ * <pre>
+ * header   magic:int version:int count:int blocks:int netAmount:double
+ * ids      count x (id:long block:int), sorted by id
+ * index    blocks x (firstDay:int lastDay:int offset:long compressed:int raw:int records:int), sorted by date
+ * data     deflated blocks of records sorted by date
+ * </pre>
+ */
+final class Segment {
+
+    private static final int MAGIC = 0x46534547; // "FSEG"
+    private static final int VERSION = 2;
+    private static final int HEADER_BYTES = 24;
+    private static final int ID_ENTRY_BYTES = 12;
+    private static final int INDEX_ENTRY_BYTES = 28;
+    static final int RECORDS_PER_BLOCK = 256;
+
+    private final MappedByteBuffer buffer;
+    private final int count;
+    private final int blocks;
+    private final double netAmount;
+    private final int indexStart;
+
+    private Segment(MappedByteBuffer buffer) {
+        this.buffer = buffer;
+        if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+            throw new IllegalStateException("Not a transaction segment");
+        }
+        this.count = buffer.getInt(8);
+        this.blocks = buffer.getInt(12);
+        this.netAmount = buffer.getDouble(16);
+        this.indexStart = HEADER_BYTES + count * ID_ENTRY_BYTES;
+    }
+
+    static Segment open(Path file) {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return new Segment(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /** Writes {@code rows} to {@code file} through a temporary file, so readers never see a partial segment. */
+    static void write(Path file, List<ArchivedTransaction> rows) throws IOException {
+        List<ArchivedTransaction> byDate = new ArrayList<>(rows);
+        byDate.sort(Comparator.comparing(ArchivedTransaction::date).thenComparingLong(ArchivedTransaction::id));
+        int blockCount = (byDate.size() + RECORDS_PER_BLOCK - 1) / RECORDS_PER_BLOCK;
+
+        long[][] idToBlock = new long[byDate.size()][];
+        ByteArrayOutputStream index = new ByteArrayOutputStream();
+        ByteArrayOutputStream data = new ByteArrayOutputStream();
+        DataOutputStream indexOut = new DataOutputStream(index);
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        double net = 0;
+        try {
+            for (int block = 0; block < blockCount; block++) {
+                int from = block * RECORDS_PER_BLOCK;
+                int to = Math.min(from + RECORDS_PER_BLOCK, byDate.size());
+                ByteArrayOutputStream raw = new ByteArrayOutputStream();
+                DataOutputStream out = new DataOutputStream(raw);
+                for (int i = from; i < to; i++) {
+                    ArchivedTransaction row = byDate.get(i);
+                    writeRecord(out, row);
+                    idToBlock[i] = new long[]{row.id(), block};
+                    net += row.signedAmount();
+                }
+                byte[] compressed = deflate(deflater, raw.toByteArray());
+                indexOut.writeInt((int) byDate.get(from).date().toEpochDay());
+                indexOut.writeInt((int) byDate.get(to - 1).date().toEpochDay());
+                indexOut.writeLong(data.size()); // relative to the data section
+                indexOut.writeInt(compressed.length);
+                indexOut.writeInt(raw.size());
+                indexOut.writeInt(to - from);
+                data.write(compressed);
+            }
+        } finally {
+            deflater.end();
+        }
+
+        Arrays.sort(idToBlock, Comparator.comparingLong(entry -> entry[0]));
+        ByteBuffer head = ByteBuffer.allocate(HEADER_BYTES + byDate.size() * ID_ENTRY_BYTES);
+        head.putInt(MAGIC).putInt(VERSION).putInt(byDate.size()).putInt(blockCount).putDouble(net);
+        for (long[] entry : idToBlock) {
+            head.putLong(entry[0]).putInt((int) entry[1]);
+        }
+        head.flip();
+        ByteBuffer body = ByteBuffer.wrap(index.toByteArray());
+        ByteBuffer blocksData = ByteBuffer.wrap(data.toByteArray());
+
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer[] parts = {head, body, blocksData};
+            while (head.hasRemaining() || body.hasRemaining() || blocksData.hasRemaining()) {
+                channel.write(parts);
+            }
+            channel.force(true);
+        }
+        Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    int count() {
+        return count;
+    }
+
+    /** Sum of incomes minus expenses over every record, precomputed at write time. */
+    double netAmount() {
+        return netAmount;
+    }
+
+    boolean contains(long id) {
+        return blockOf(id) >= 0;
+    }
+
+    Optional<ArchivedTransaction> find(long id) {
+        int block = blockOf(id);
+        if (block < 0) {
+            return Optional.empty();
+        }
+        return readBlock(block).stream().filter(row -> row.id() == id).findFirst();
+    }
+
+    /** Records dated within {@code [from, to]}, oldest first; only blocks overlapping the range are inflated. */
+    List<ArchivedTransaction> read(LocalDate from, LocalDate to) {
+        long fromDay = from.toEpochDay();
+        long toDay = to.toEpochDay();
+        List<ArchivedTransaction> rows = new ArrayList<>();
+        for (int block = 0; block < blocks; block++) {
+            int entry = indexStart + block * INDEX_ENTRY_BYTES;
+            if (buffer.getInt(entry + 4) < fromDay) {
+                continue;
+            }
+            if (buffer.getInt(entry) > toDay) {
+                break;
+            }
+            for (ArchivedTransaction row : readBlock(block)) {
+                long day = row.date().toEpochDay();
+                if (day >= fromDay && day <= toDay) {
+                    rows.add(row);
+                }
+            }
+        }
+        return rows;
+    }
+
+    List<ArchivedTransaction> readAll() {
+        return read(LocalDate.MIN, LocalDate.MAX);
+    }
+
+    private int blockOf(long id) {
+        int low = 0;
+        int high = count - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long midId = buffer.getLong(HEADER_BYTES + mid * ID_ENTRY_BYTES);
+            if (midId < id) {
+                low = mid + 1;
+            } else if (midId > id) {
+                high = mid - 1;
+            } else {
+                return buffer.getInt(HEADER_BYTES + mid * ID_ENTRY_BYTES + 8);
+            }
+        }
+        return -1;
+    }
+
+    private List<ArchivedTransaction> readBlock(int block) {
+        int entry = indexStart + block * INDEX_ENTRY_BYTES;
+        int dataStart = indexStart + blocks * INDEX_ENTRY_BYTES;
+        int offset = (int) (dataStart + buffer.getLong(entry + 8));
+        int compressed = buffer.getInt(entry + 16);
+        byte[] raw = new byte[buffer.getInt(entry + 20)];
+        int records = buffer.getInt(entry + 24);
+
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(buffer.slice(offset, compressed));
+            inflater.inflate(raw);
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Corrupt segment block " + block, e);
+        } finally {
+            inflater.end();
+        }
+
+        List<ArchivedTransaction> rows = new ArrayList<>(records);
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(raw))) {
+            for (int i = 0; i < records; i++) {
+                rows.add(readRecord(in));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return rows;
+    }
+
+    private static void writeRecord(DataOutputStream out, ArchivedTransaction row) throws IOException {
+        out.writeLong(row.id());
+        out.writeInt((int) row.date().toEpochDay());
+        byte[] unscaled = row.amount().unscaledValue().toByteArray();
+        out.writeByte(row.amount().scale());
+        out.writeByte(unscaled.length);
+        out.write(unscaled);
+        out.writeUTF(row.category());
+        out.writeBoolean(row.description() != null);
+        if (row.description() != null) {
+            out.writeUTF(row.description());
+        }
+        out.writeBoolean(row.autoCategory());
+        out.writeBoolean(row.fingerprint() != null);
+        if (row.fingerprint() != null) {
+            out.writeLong(row.fingerprint());
+        }
+    }
+
+    private static ArchivedTransaction readRecord(DataInputStream in) throws IOException {
+        long id = in.readLong();
+        LocalDate date = LocalDate.ofEpochDay(in.readInt());
+        int scale = in.readByte();
+        byte[] unscaled = new byte[in.readByte()];
+        in.readFully(unscaled);
+        String category = in.readUTF();
+        String description = in.readBoolean() ? in.readUTF() : null;
+        boolean autoCategory = in.readBoolean();
+        Long fingerprint = in.readBoolean() ? in.readLong() : null;
+        return new ArchivedTransaction(id, new BigDecimal(new BigInteger(unscaled), scale), description, category, date,
+                autoCategory, fingerprint);
+    }
+
+    private static byte[] deflate(Deflater deflater, byte[] raw) {
+        deflater.reset();
+        deflater.setInput(raw);
+        deflater.finish();
+        ByteArrayOutputStream out = new ByteArrayOutputStream(raw.length / 2 + 16);
+        byte[] chunk = new byte[8192];
+        while (!deflater.finished()) {
+            out.write(chunk, 0, deflater.deflate(chunk));
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,164 @@
+package com.example.finance.categorization;
+
+import com.example.finance.invalidation.Invalidation;
+import com.example.finance.invalidation.InvalidationBus;
+import com.example.finance.model.CategoryRule;
+import com.example.finance.repository.CategoryRuleRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Picks a category from a transaction description. The user's own rules are tried first, then the global rules
+ * from {@code finance.categorization.global-rules} (a {@code keyword,category} file, {@code #} for comments);
+ * descriptions matching neither are {@value #UNCATEGORIZED}.
+ *
+ * <p>Each rule set is compiled into a {@link KeywordMatcher} and replaced whole when it changes, so a lookup
+ * never sees a half-built automaton and never waits for a recompile. A user's matcher is compiled on first use.
+ */
+@Component
+public class Categorizer {
+
+    public static final String UNCATEGORIZED = "Uncategorized";
+
+    private static final Logger log = LoggerFactory.getLogger(Categorizer.class);
+
+    @Autowired
+    private CategoryRuleRepository repository;
+
+    @Autowired
+    private InvalidationBus invalidationBus;
+
+    @Value("${finance.categorization.global-rules:classpath:categorization/global-rules.csv}")
+    private Resource globalRulesFile;
+
+    @Value("${finance.categorization.max-rules-per-user:1000}")
+    private long maxRulesPerUser;
+
+    @Value("${finance.categorization.cached-users:10000}")
+    private int cachedUsers;
+
+    private volatile KeywordMatcher globalRules = KeywordMatcher.EMPTY;
+
+    private final ConcurrentHashMap<Long, KeywordMatcher> userRules = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        reloadGlobalRules();
+    }
+
+    public String categorize(Long userId, String description) {
+        String category = userMatcher(userId).match(description);
+        if (category == null) {
+            category = globalRules.match(description);
+        }
+        return category != null ? category : UNCATEGORIZED;
+    }
+
+    public List<CategoryRule> rules(Long userId) {
+        return repository.findByUserIdOrderById(userId);
+    }
+
+    public CategoryRule addRule(Long userId, String keyword, String category) {
+        if (keyword == null || keyword.isBlank() || category == null || category.isBlank()) {
+            throw new IllegalArgumentException("Keyword and category are required");
+        }
+        if (keyword.length() > 255 || category.length() > 255) {
+            throw new IllegalArgumentException("Keyword and category must be at most 255 characters");
+        }
+        if (repository.countByUserId(userId) >= maxRulesPerUser) {
+            throw new IllegalArgumentException("At most " + maxRulesPerUser + " rules per user");
+        }
+        String normalized = keyword.trim().toLowerCase(Locale.ROOT);
+        if (repository.existsByUserIdAndKeyword(userId, normalized)) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "A rule for this keyword already exists");
+        }
+        CategoryRule saved = repository.save(new CategoryRule(userId, normalized, category.trim()));
+        recompile(userId);
+        return saved;
+    }
+
+    public void deleteRule(Long userId, Long ruleId) {
+        CategoryRule rule = repository.findById(ruleId)
+                .filter(found -> found.getUserId().equals(userId))
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Rule not found"));
+        repository.delete(rule);
+        recompile(userId);
+    }
+
+    /** Re-reads the global rules file and swaps in the new automaton. Returns the number of rules. */
+    public int reloadGlobalRules() {
+        List<KeywordMatcher.Rule> rules = new ArrayList<>();
+        if (globalRulesFile.exists()) {
+            try (BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(globalRulesFile.getInputStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    int comma = line.indexOf(',');
+                    if (line.isBlank() || line.startsWith("#") || comma < 0) {
+                        continue;
+                    }
+                    rules.add(new KeywordMatcher.Rule(line.substring(0, comma), line.substring(comma + 1).trim()));
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not read global categorization rules", e);
+            }
+        }
+        long start = System.nanoTime();
+        globalRules = new KeywordMatcher(rules);
+        log.info("Compiled {} global categorization rules in {} ms", rules.size(), (System.nanoTime() - start) / 1_000_000);
+        return rules.size();
+    }
+
+    // Rule changes on other nodes: the next lookup compiles the user's rules afresh
+    @EventListener
+    public void onInvalidation(Invalidation invalidation) {
+        if (invalidation.scope() == Invalidation.Scope.RULES) {
+            userRules.remove(invalidation.userId());
+        }
+    }
+
+    // compute() runs one recompile per user at a time; lookups keep using the old matcher until it is replaced
+    private void recompile(Long userId) {
+        userRules.compute(userId, (id, old) -> compile(id));
+        invalidationBus.publish(Invalidation.rules(userId, System.currentTimeMillis()));
+    }
+
+    private KeywordMatcher userMatcher(Long userId) {
+        KeywordMatcher matcher = userRules.get(userId);
+        if (matcher != null) {
+            return matcher;
+        }
+        if (userRules.size() >= cachedUsers) {
+            userRules.clear();
+        }
+        return userRules.computeIfAbsent(userId, this::compile);
+    }
+
+    private KeywordMatcher compile(Long userId) {
+        List<CategoryRule> rules = repository.findByUserIdOrderById(userId);
+        if (rules.isEmpty()) {
+            return KeywordMatcher.EMPTY;
+        }
+        return new KeywordMatcher(rules.stream()
+                .map(rule -> new KeywordMatcher.Rule(rule.getKeyword(), rule.getCategory()))
+                .toList());
+    }
+}
@@ -0,0 +1,168 @@
+package com.example.finance.categorization;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * An immutable Aho-Corasick automaton over a set of keyword rules. {@link #match} reads each character of a
+ * description once, however many rules there are, and returns the category of the best rule found as a whole
+ * word or phrase: the longest keyword, and among equally long ones the rule listed first.
+ *
+ * <p>Matching ignores case and treats anything that is not a letter or digit as a word boundary, so
+ * {@code "uber"} matches {@code "UBER *TRIP"} but not {@code "Huber Hardware"}.
+ */
+public final class KeywordMatcher {
+
+    public record Rule(String keyword, String category) {
+    }
+
+    public static final KeywordMatcher EMPTY = new KeywordMatcher(List.of());
+
+    private final List<Rule> rules;
+    // Children of node n are labels/targets[childStart[n] .. childStart[n + 1]), sorted by label
+    private final int[] childStart;
+    private final char[] labels;
+    private final int[] targets;
+    private final int[] fail;
+    // Rule ending exactly at the node, or -1; dictionary link: nearest proper suffix node with a rule, or -1
+    private final int[] output;
+    private final int[] dictionary;
+    private final int[] depth;
+
+    public KeywordMatcher(List<Rule> rules) {
+        this.rules = List.copyOf(rules);
+        List<TreeMap<Character, Integer>> children = new ArrayList<>();
+        List<Integer> outputs = new ArrayList<>();
+        List<Integer> depths = new ArrayList<>();
+        children.add(new TreeMap<>());
+        outputs.add(-1);
+        depths.add(0);
+        for (int i = 0; i < this.rules.size(); i++) {
+            String keyword = normalize(this.rules.get(i).keyword());
+            if (keyword.isEmpty()) {
+                continue;
+            }
+            int node = 0;
+            for (int c = 0; c < keyword.length(); c++) {
+                Integer next = children.get(node).get(keyword.charAt(c));
+                if (next == null) {
+                    next = children.size();
+                    children.get(node).put(keyword.charAt(c), next);
+                    children.add(new TreeMap<>());
+                    outputs.add(-1);
+                    depths.add(c + 1);
+                }
+                node = next;
+            }
+            if (outputs.get(node) < 0) {
+                outputs.set(node, i);
+            }
+        }
+
+        int nodes = children.size();
+        childStart = new int[nodes + 1];
+        for (int n = 0; n < nodes; n++) {
+            childStart[n + 1] = childStart[n] + children.get(n).size();
+        }
+        labels = new char[childStart[nodes]];
+        targets = new int[childStart[nodes]];
+        for (int n = 0; n < nodes; n++) {
+            int at = childStart[n];
+            for (Map.Entry<Character, Integer> child : children.get(n).entrySet()) {
+                labels[at] = child.getKey();
+                targets[at++] = child.getValue();
+            }
+        }
+        output = outputs.stream().mapToInt(Integer::intValue).toArray();
+        depth = depths.stream().mapToInt(Integer::intValue).toArray();
+
+        // Breadth first, so a node's failure target is finished before the node itself
+        fail = new int[nodes];
+        dictionary = new int[nodes];
+        Arrays.fill(dictionary, -1);
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        for (int at = childStart[0]; at < childStart[1]; at++) {
+            queue.add(targets[at]);
+        }
+        while (!queue.isEmpty()) {
+            int node = queue.poll();
+            int suffix = fail[node];
+            dictionary[node] = output[suffix] >= 0 ? suffix : dictionary[suffix];
+            for (int at = childStart[node]; at < childStart[node + 1]; at++) {
+                int child = targets[at];
+                fail[child] = step(suffix, labels[at]);
+                queue.add(child);
+            }
+        }
+    }
+
+    /** Returns the category of the best matching rule, or null. */
+    public String match(CharSequence text) {
+        if (text == null || rules.isEmpty()) {
+            return null;
+        }
+        int best = -1;
+        int bestLength = 0;
+        int state = 0;
+        int length = text.length();
+        for (int i = 0; i < length; i++) {
+            state = step(state, fold(text.charAt(i)));
+            boolean endsWord = i + 1 == length || !Character.isLetterOrDigit(text.charAt(i + 1));
+            if (!endsWord) {
+                continue;
+            }
+            for (int node = output[state] >= 0 ? state : dictionary[state]; node >= 0; node = dictionary[node]) {
+                int start = i + 1 - depth[node];
+                if (start > 0 && Character.isLetterOrDigit(text.charAt(start - 1))) {
+                    continue;
+                }
+                int rule = output[node];
+                if (depth[node] > bestLength || (depth[node] == bestLength && rule < best)) {
+                    best = rule;
+                    bestLength = depth[node];
+                }
+            }
+        }
+        return best >= 0 ? rules.get(best).category() : null;
+    }
+
+    public int size() {
+        return rules.size();
+    }
+
+    static String normalize(String keyword) {
+        StringBuilder folded = new StringBuilder(keyword.length());
+        String trimmed = keyword.trim();
+        for (int i = 0; i < trimmed.length(); i++) {
+            folded.append(fold(trimmed.charAt(i)));
+        }
+        return folded.toString();
+    }
+
+    // Follows failure links from state until c can be taken
+    private int step(int state, char c) {
+        while (true) {
+            int next = child(state, c);
+            if (next >= 0) {
+                return next;
+            }
+            if (state == 0) {
+                return 0;
+            }
+            state = fail[state];
+        }
+    }
+
+    private int child(int node, char c) {
+        int at = Arrays.binarySearch(labels, childStart[node], childStart[node + 1], c);
+        return at >= 0 ? targets[at] : -1;
+    }
+
+    private static char fold(char c) {
+        return Character.toLowerCase(c);
+    }
+}
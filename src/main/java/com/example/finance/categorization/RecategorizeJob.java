@@ -0,0 +1,86 @@
+package com.example.finance.categorization;
+
+import com.example.finance.model.User;
+import com.example.finance.repository.UserRepository;
+import com.example.finance.service.TransactionService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Re-applies the categorization rules to every user's history, users in parallel. Each changed transaction goes
+ * through {@link TransactionService#recategorize}, so statistics, sketches and streams see an ordinary update.
+ * Disabled unless {@code finance.categorization.recategorize-cron} is set; run it after changing the global rules.
+ */
+@Component
+public class RecategorizeJob {
+
+    private static final Logger log = LoggerFactory.getLogger(RecategorizeJob.class);
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Value("${finance.categorization.recategorize-threads:0}")
+    private int threads;
+
+    @Value("${finance.categorization.recategorize-page:500}")
+    private int pageSize;
+
+    /** Returns the number of transactions whose category changed. */
+    @Scheduled(cron = "${finance.categorization.recategorize-cron:-}")
+    public synchronized long run() {
+        long start = System.nanoTime();
+        ExecutorService pool = Executors.newFixedThreadPool(
+                threads > 0 ? threads : Runtime.getRuntime().availableProcessors());
+        long changed = 0;
+        int failed = 0;
+        try {
+            Page<User> page = userRepository.findAll(PageRequest.of(0, pageSize, Sort.by("id")));
+            while (true) {
+                List<Future<Integer>> results = new ArrayList<>();
+                for (User user : page) {
+                    // Accounts being deleted are left to the purge
+                    if (user.getDeletedAt() == null) {
+                        results.add(pool.submit(() -> transactionService.recategorize(user)));
+                    }
+                }
+                for (Future<Integer> result : results) {
+                    try {
+                        changed += result.get();
+                    } catch (ExecutionException e) {
+                        failed++;
+                        log.warn("Re-categorizing a user failed", e.getCause());
+                    }
+                }
+                if (!page.hasNext()) {
+                    break;
+                }
+                page = userRepository.findAll(page.nextPageable());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            pool.shutdownNow();
+        }
+        log.info("Re-categorized {} transactions in {} ms ({} users failed)", changed,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), failed);
+        return changed;
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.finance.config;
+
+import com.example.finance.format.ProtobufTransactionConverter;
+import com.example.finance.format.TransactionEncoding;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * Binary alternatives to JSON, chosen by the {@code Accept} header: CBOR, Smile and Protobuf.
+ * They are appended after the JSON converter so requests without a specific {@code Accept}
+ * still get JSON.
+ */
+@Configuration
+public class ResponseFormatConfig implements WebMvcConfigurer {
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        // Replace the defaults Spring MVC registers when the dataformats are on the classpath
+        converters.removeIf(converter -> converter instanceof MappingJackson2CborHttpMessageConverter
+                || converter instanceof MappingJackson2SmileHttpMessageConverter);
+        converters.add(new MappingJackson2CborHttpMessageConverter(
+                Jackson2ObjectMapperBuilder.cbor().modulesToInstall(TransactionEncoding.compactModule()).build()));
+        converters.add(new MappingJackson2SmileHttpMessageConverter(
+                Jackson2ObjectMapperBuilder.smile().modulesToInstall(TransactionEncoding.compactModule()).build()));
+        converters.add(new ProtobufTransactionConverter());
+    }
+}
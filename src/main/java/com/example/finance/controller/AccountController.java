@@ -0,0 +1,41 @@
+package com.example.finance.controller;
+
+import com.example.finance.account.AccountDeletionService;
+import com.example.finance.dto.AccountDeletionResponse;
+import com.example.finance.model.User;
+import com.example.finance.repository.UserRepository;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.net.URI;
+
+@RestController
+@RequestMapping("/api/account")
+@Timed(value = "finance.controller", description = "Controller endpoint latency")
+public class AccountController {
+
+    @Autowired
+    private AccountDeletionService accountDeletionService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    // Revokes every token at once; the data is purged in the background
+    @DeleteMapping
+    public ResponseEntity<AccountDeletionResponse> delete(Authentication auth) {
+        User user = userRepository.findByEmail(auth.getName()).orElseThrow();
+        AccountDeletionResponse deletion = accountDeletionService.request(user);
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/account/deletions/" + deletion.id()))
+                .body(deletion);
+    }
+
+    // Needs no token: the id is only known to whoever requested the deletion
+    @GetMapping("/deletions/{id}")
+    public ResponseEntity<AccountDeletionResponse> status(@PathVariable String id) {
+        return ResponseEntity.ok(accountDeletionService.status(id));
+    }
+}
@@ -1,19 +1,29 @@
 package com.example.finance.controller;
 
 import com.example.finance.dto.*;
+import com.example.finance.invalidation.Invalidation;
+import com.example.finance.invalidation.InvalidationBus;
+import com.example.finance.metrics.FinanceMetrics;
 import com.example.finance.model.User;
 import com.example.finance.repository.UserRepository;
 import com.example.finance.security.JwtTokenUtil;
+import com.example.finance.security.TokenRevocationStore;
+import com.example.finance.service.RegisteredEmailFilter;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.annotation.Timed;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.*;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.*;
 
 @RestController
 @RequestMapping("/api/auth")
+@Timed(value = "finance.controller", description = "Controller endpoint latency")
 public class AuthController {
 
     @Autowired
@@ -28,11 +38,25 @@ public class AuthController {
     @Autowired
     private JwtTokenUtil jwtTokenUtil;
 
+    @Autowired
+    private RegisteredEmailFilter registeredEmailFilter;
+
+    @Autowired
+    private TokenRevocationStore revocationStore;
+
+    @Autowired
+    private FinanceMetrics financeMetrics;
+
+    @Autowired
+    private InvalidationBus invalidationBus;
+
     // === Register ===
     @PostMapping("/register")
     public ResponseEntity<AuthResponse> register(@Valid @RequestBody RegisterRequest request) {
-        if (userRepository.findByEmail(request.getEmail()).isPresent()) {
-            return ResponseEntity.badRequest().body(new AuthResponse(null, "Email already in use"));
+        // A definite miss in the filter skips the lookup; the unique constraint covers races
+        if (registeredEmailFilter.mightContain(request.getEmail())
+                && userRepository.findByEmail(request.getEmail()).isPresent()) {
+            return emailInUse();
         }
 
         User newUser = new User(
@@ -41,7 +65,13 @@ public class AuthController {
                 passwordEncoder.encode(request.getPassword())
         );
 
-        userRepository.save(newUser);
+        try {
+            userRepository.save(newUser);
+        } catch (DataIntegrityViolationException e) {
+            return emailInUse();
+        }
+        registeredEmailFilter.put(newUser.getEmail());
+        invalidationBus.publish(Invalidation.account(newUser.getId(), newUser.getEmail()));
 
         return ResponseEntity.ok(new AuthResponse(null, "User registered successfully"));
     }
@@ -54,10 +84,39 @@ public class AuthController {
                     new UsernamePasswordAuthenticationToken(request.email(), request.password())
             );
         } catch (BadCredentialsException e) {
+            financeMetrics.loginFailed();
             return ResponseEntity.status(401).body(new AuthResponse(null, "Invalid email or password"));
         }
 
+        financeMetrics.loginSucceeded();
         String token = jwtTokenUtil.generateToken(request.email());
         return ResponseEntity.ok(new AuthResponse(token, "Login successful"));
     }
+
+    // === Logout: revoke the presented token ===
+    @PostMapping("/logout")
+    public ResponseEntity<AuthResponse> logout(@RequestHeader("Authorization") String authHeader) {
+        Claims claims = jwtTokenUtil.extractClaims(authHeader.substring(7));
+        revocationStore.revoke(claims.getId(), claims.getExpiration());
+        if (claims.getId() != null) {
+            invalidationBus.publish(Invalidation.token(claims.getId(), claims.getExpiration().getTime()));
+        }
+        return ResponseEntity.ok(new AuthResponse(null, "Logged out successfully"));
+    }
+
+    // === Revoke all: invalidate every token issued so far ===
+    @PostMapping("/revoke-all")
+    public ResponseEntity<AuthResponse> revokeAll(Authentication auth) {
+        User user = userRepository.findByEmail(auth.getName()).orElseThrow();
+        long watermark = System.currentTimeMillis();
+        user.setTokensInvalidBefore(watermark);
+        userRepository.save(user);
+        revocationStore.revokeAllIssuedBefore(user.getEmail(), watermark);
+        invalidationBus.publish(Invalidation.sessions(user.getId(), user.getEmail(), watermark));
+        return ResponseEntity.ok(new AuthResponse(null, "All sessions revoked"));
+    }
+
+    private ResponseEntity<AuthResponse> emailInUse() {
+        return ResponseEntity.badRequest().body(new AuthResponse(null, "Email already in use"));
+    }
 }
@@ -0,0 +1,62 @@
+package com.example.finance.controller;
+
+import com.example.finance.categorization.Categorizer;
+import com.example.finance.dto.CategoryRuleRequest;
+import com.example.finance.dto.CategoryRuleResponse;
+import com.example.finance.model.CategoryRule;
+import com.example.finance.model.User;
+import com.example.finance.repository.UserRepository;
+import com.example.finance.service.TransactionService;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/rules")
+@Timed(value = "finance.controller", description = "Controller endpoint latency")
+public class CategoryRuleController {
+
+    @Autowired
+    private Categorizer categorizer;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @GetMapping
+    public ResponseEntity<List<CategoryRuleResponse>> getAll(Authentication auth) {
+        User user = userRepository.findByEmail(auth.getName()).orElseThrow();
+        return ResponseEntity.ok(categorizer.rules(user.getId()).stream().map(CategoryRuleController::toResponse).toList());
+    }
+
+    @PostMapping
+    public ResponseEntity<CategoryRuleResponse> create(@RequestBody CategoryRuleRequest request, Authentication auth) {
+        User user = userRepository.findByEmail(auth.getName()).orElseThrow();
+        return ResponseEntity.ok(toResponse(categorizer.addRule(user.getId(), request.keyword(), request.category())));
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> delete(@PathVariable Long id, Authentication auth) {
+        User user = userRepository.findByEmail(auth.getName()).orElseThrow();
+        categorizer.deleteRule(user.getId(), id);
+        return ResponseEntity.noContent().build();
+    }
+
+    // Re-applies the rules to the caller's automatically categorized transactions
+    @PostMapping("/apply")
+    public ResponseEntity<Map<String, Integer>> apply(Authentication auth) {
+        User user = userRepository.findByEmail(auth.getName()).orElseThrow();
+        return ResponseEntity.ok(Map.of("updated", transactionService.recategorize(user)));
+    }
+
+    private static CategoryRuleResponse toResponse(CategoryRule rule) {
+        return new CategoryRuleResponse(rule.getId(), rule.getKeyword(), rule.getCategory());
+    }
+}
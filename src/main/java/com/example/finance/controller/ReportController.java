@@ -0,0 +1,64 @@
+package com.example.finance.controller;
+
+import com.example.finance.dto.ReportJobResponse;
+import com.example.finance.dto.ReportRequest;
+import com.example.finance.model.User;
+import com.example.finance.report.ReportJobService;
+import com.example.finance.repository.UserRepository;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.net.URI;
+import java.nio.file.Path;
+
+@RestController
+@RequestMapping("/api/reports")
+@Timed(value = "finance.controller", description = "Controller endpoint latency")
+public class ReportController {
+
+    @Autowired
+    private ReportJobService reportJobService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @PostMapping
+    public ResponseEntity<ReportJobResponse> submit(@RequestBody ReportRequest request, Authentication auth) {
+        if (request.year() == null || request.year() < 1900 || request.year() > 9999) {
+            throw new IllegalArgumentException("A statement year between 1900 and 9999 is required");
+        }
+        User user = userRepository.findByEmail(auth.getName()).orElseThrow();
+        ReportJobResponse job = reportJobService.submit(user, request.year());
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/reports/" + job.id()))
+                .body(job);
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<ReportJobResponse> status(@PathVariable String id, Authentication auth) {
+        User user = userRepository.findByEmail(auth.getName()).orElseThrow();
+        return ResponseEntity.ok(reportJobService.status(user, id));
+    }
+
+    @GetMapping("/{id}/download")
+    public ResponseEntity<Resource> download(@PathVariable String id, Authentication auth) {
+        User user = userRepository.findByEmail(auth.getName()).orElseThrow();
+        ReportJobResponse job = reportJobService.status(user, id);
+        Path file = reportJobService.result(user, id);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("statement-" + job.year() + ".json")
+                        .build()
+                        .toString())
+                .body(new FileSystemResource(file));
+    }
+}
@@ -1,21 +1,36 @@
 package com.example.finance.controller;
 
+import com.example.finance.dto.ImportReport;
+import com.example.finance.dto.PercentilesResponse;
+import com.example.finance.dto.TransactionChanges;
 import com.example.finance.dto.TransactionRequest;
 import com.example.finance.dto.TransactionResponse;
+import com.example.finance.duplicate.DuplicateMode;
+import com.example.finance.idempotency.IdempotencyStore;
+import com.example.finance.metrics.FinanceMetrics;
 import com.example.finance.model.User;
+import com.example.finance.percentile.SpendingPercentiles;
 import com.example.finance.service.TransactionService;
+import com.example.finance.stream.TransactionStreamHub;
+import com.example.finance.timing.RequestTiming;
 import com.example.finance.repository.UserRepository;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.time.YearMonth;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
 @RestController
 @RequestMapping("/api/transactions")
+@Timed(value = "finance.controller", description = "Controller endpoint latency")
 public class TransactionController {
 
     @Autowired
@@ -24,16 +39,71 @@ public class TransactionController {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private FinanceMetrics financeMetrics;
+
+    @Autowired
+    private TransactionStreamHub transactionStreamHub;
+
+    @Autowired
+    private IdempotencyStore idempotencyStore;
+
+    @Autowired
+    private SpendingPercentiles spendingPercentiles;
+
+    @Value("${finance.import.max-rows:1000}")
+    private int maxImportRows;
+
+    @Value("${finance.duplicates.import-mode:SKIP}")
+    private DuplicateMode defaultDuplicateMode;
+
+    @Value("${finance.sync.page-size:500}")
+    private int syncPageSize;
+
     @PostMapping
-    public ResponseEntity<TransactionResponse> create(@RequestBody TransactionRequest request, Authentication auth) {
+    public ResponseEntity<TransactionResponse> create(@RequestBody TransactionRequest request,
+                                                      @RequestHeader(name = "Idempotency-Key", required = false) String idempotencyKey,
+                                                      Authentication auth) {
         User user = userRepository.findByEmail(auth.getName()).orElseThrow();
-        return ResponseEntity.ok(transactionService.createTransaction(request, user));
+        if (idempotencyKey == null) {
+            return ResponseEntity.ok(transactionService.createTransaction(request, user));
+        }
+        return ResponseEntity.ok(idempotencyStore.execute(user.getId(), idempotencyKey, request,
+                () -> transactionService.createTransaction(request, user)));
+    }
+
+    // Rows without a category are categorized by the rules, as on create; suspected duplicates are skipped or flagged
+    @PostMapping("/import")
+    public ResponseEntity<ImportReport> importTransactions(@RequestBody List<TransactionRequest> requests,
+                                                           @RequestParam(name = "duplicates", required = false) String duplicates,
+                                                           Authentication auth) {
+        if (requests.isEmpty() || requests.size() > maxImportRows) {
+            throw new IllegalArgumentException("An import must contain between 1 and " + maxImportRows + " transactions");
+        }
+        User user = userRepository.findByEmail(auth.getName()).orElseThrow();
+        return ResponseEntity.ok(transactionService.importTransactions(requests, user,
+                duplicates != null ? DuplicateMode.parse(duplicates) : defaultDuplicateMode));
     }
 
     @GetMapping
     public ResponseEntity<List<TransactionResponse>> getAll(Authentication auth) {
         User user = userRepository.findByEmail(auth.getName()).orElseThrow();
-        return ResponseEntity.ok(transactionService.getAllTransactions(user));
+        List<TransactionResponse> transactions = transactionService.getAllTransactions(user);
+        financeMetrics.recordRowsReturned("list", transactions.size());
+        RequestTiming.rowsReturned(transactions.size());
+        return ResponseEntity.ok(transactions);
+    }
+
+    // Clients pass the revision from their previous response, or nothing for a full copy
+    @GetMapping("/changes")
+    public ResponseEntity<TransactionChanges> getChanges(@RequestParam(defaultValue = "0") long since,
+                                                         Authentication auth) {
+        User user = userRepository.findByEmail(auth.getName()).orElseThrow();
+        TransactionChanges changes = transactionService.getChanges(user, since, syncPageSize);
+        int rows = changes.upserts().size() + changes.deleted().size();
+        financeMetrics.recordRowsReturned("changes", rows);
+        RequestTiming.rowsReturned(rows);
+        return ResponseEntity.ok(changes);
     }
 
     @PutMapping("/{id}")
@@ -61,4 +131,22 @@ public class TransactionController {
         User user = userRepository.findByEmail(auth.getName()).orElseThrow();
         return ResponseEntity.ok(transactionService.calculateBalance(user));
     }
+
+    @GetMapping("/percentiles")
+    public ResponseEntity<PercentilesResponse> getPercentiles(@RequestParam(required = false) String category,
+                                                              @RequestParam(required = false) YearMonth from,
+                                                              @RequestParam(required = false) YearMonth to,
+                                                              @RequestParam(name = "p", defaultValue = "50,90,99") List<Double> percentiles,
+                                                              Authentication auth) {
+        User user = userRepository.findByEmail(auth.getName()).orElseThrow();
+        YearMonth last = to != null ? to : YearMonth.now();
+        YearMonth first = from != null ? from : last.minusMonths(11);
+        return ResponseEntity.ok(spendingPercentiles.percentiles(user, category, first, last, percentiles));
+    }
+
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(Authentication auth) {
+        User user = userRepository.findByEmail(auth.getName()).orElseThrow();
+        return transactionStreamHub.subscribe(user);
+    }
 }
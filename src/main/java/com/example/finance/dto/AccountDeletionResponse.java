@@ -0,0 +1,14 @@
+package com.example.finance.dto;
+
+import com.example.finance.model.AccountDeletion;
+
+import java.time.Instant;
+
+public record AccountDeletionResponse(
+        String id,
+        AccountDeletion.Status status,
+        long rowsDeleted,
+        Instant requestedAt,
+        Instant finishedAt,
+        String error
+) {}
@@ -0,0 +1,14 @@
+package com.example.finance.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Why a transaction was flagged: how many standard deviations it lies above the mean of the owner's
+ * earlier transactions in the same category, and the statistics it was compared with.
+ */
+public record Anomaly(
+        double score,
+        BigDecimal categoryMean,
+        BigDecimal categoryStddev,
+        long categoryCount
+) {}
@@ -0,0 +1,6 @@
+package com.example.finance.dto;
+
+public record CategoryRuleRequest(
+        String keyword,
+        String category
+) {}
@@ -0,0 +1,7 @@
+package com.example.finance.dto;
+
+public record CategoryRuleResponse(
+        Long id,
+        String keyword,
+        String category
+) {}
@@ -0,0 +1,22 @@
+package com.example.finance.dto;
+
+import java.util.List;
+
+/**
+ * Outcome of an import. {@code duplicates} lists every row (0-based, in request order) that looked like an
+ * existing transaction, and whether it was skipped or imported with {@code duplicateOf} set.
+ */
+public record ImportReport(
+        int received,
+        int imported,
+        int skipped,
+        List<TransactionResponse> transactions,
+        List<SuspectedDuplicate> duplicates
+) {
+
+    public record SuspectedDuplicate(
+            int row,
+            Long duplicateOf,
+            boolean skipped
+    ) {}
+}
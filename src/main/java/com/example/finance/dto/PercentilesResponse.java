@@ -0,0 +1,21 @@
+package com.example.finance.dto;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.util.Map;
+
+/**
+ * Amount percentiles of the transactions in {@code [from, to]}, keyed {@code p50}, {@code p90}, ...
+ * {@code category} is null when all spending categories were merged. When {@code exact} is false each
+ * percentile is the value at a rank within {@code rankError} (a fraction of {@code count}) of the requested
+ * one, with 99% confidence.
+ */
+public record PercentilesResponse(
+        String category,
+        YearMonth from,
+        YearMonth to,
+        long count,
+        Map<String, BigDecimal> percentiles,
+        boolean exact,
+        double rankError
+) {}
@@ -0,0 +1,14 @@
+package com.example.finance.dto;
+
+import com.example.finance.report.ReportStatus;
+
+import java.time.Instant;
+
+public record ReportJobResponse(
+        String id,
+        int year,
+        ReportStatus status,
+        Instant submittedAt,
+        Instant finishedAt,
+        String error
+) {}
@@ -0,0 +1,5 @@
+package com.example.finance.dto;
+
+public record ReportRequest(
+        Integer year
+) {}
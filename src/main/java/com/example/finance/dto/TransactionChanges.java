@@ -0,0 +1,15 @@
+package com.example.finance.dto;
+
+import java.util.List;
+
+/**
+ * What changed after the client's revision, oldest first: transactions created or updated since (with their
+ * current values) and ids of transactions deleted since. Clients apply both and pass {@code revision} as
+ * {@code since} next time; while {@code hasMore} is set there are further changes to fetch straight away.
+ */
+public record TransactionChanges(
+        long revision,
+        boolean hasMore,
+        List<TransactionResponse> upserts,
+        List<Long> deleted
+) {}
@@ -1,5 +1,7 @@
 package com.example.finance.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 import java.math.BigDecimal;
 import java.time.LocalDate;
 
@@ -8,5 +10,22 @@ public record TransactionResponse(
         BigDecimal amount,
         String description,
         String category,
-        LocalDate date
-) {}
+        LocalDate date,
+        // Set on create and update responses when the amount is unusual for the category
+        @JsonInclude(JsonInclude.Include.NON_NULL) Anomaly anomaly,
+        // Set on create and import responses when an existing transaction looks the same
+        @JsonInclude(JsonInclude.Include.NON_NULL) Long duplicateOf
+) {
+
+    public TransactionResponse(Long id, BigDecimal amount, String description, String category, LocalDate date) {
+        this(id, amount, description, category, date, null, null);
+    }
+
+    public TransactionResponse withAnomaly(Anomaly anomaly) {
+        return anomaly == null ? this : new TransactionResponse(id, amount, description, category, date, anomaly, duplicateOf);
+    }
+
+    public TransactionResponse withDuplicateOf(Long duplicateOf) {
+        return duplicateOf == null ? this : new TransactionResponse(id, amount, description, category, date, anomaly, duplicateOf);
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.finance.dto;
+
+/**
+ * Payload of a {@code /api/transactions/stream} event. {@code type} is {@code ready},
+ * {@code created}, {@code updated}, {@code deleted} or {@code resync}; {@code transaction}
+ * is null for {@code ready} and {@code resync}.
+ */
+public record TransactionStreamEvent(
+        String type,
+        TransactionResponse transaction,
+        Double balance
+) {}
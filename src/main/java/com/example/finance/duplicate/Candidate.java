@@ -0,0 +1,12 @@
+package com.example.finance.duplicate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/** An existing transaction that shares a fingerprint with an incoming one. */
+public record Candidate(
+        Long id,
+        LocalDate date,
+        BigDecimal amount,
+        String description
+) {}
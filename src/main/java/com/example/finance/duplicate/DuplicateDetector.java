@@ -0,0 +1,113 @@
+package com.example.finance.duplicate;
+
+import com.example.finance.dto.TransactionRequest;
+import com.example.finance.model.User;
+import com.example.finance.repository.TransactionRepository;
+import com.example.finance.sharding.ShardContext;
+import com.example.finance.sharding.ShardRouter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Finds transactions that an incoming one probably repeats: same fingerprint ({@link Fingerprints}) and a date
+ * at most {@code finance.duplicates.tolerance-days} away. Lookups go through the
+ * {@code (user_id, fingerprint, date)} index: one query per manual entry, one per import.
+ * Archived transactions are not checked.
+ */
+@Component
+public class DuplicateDetector {
+
+    private static final Logger log = LoggerFactory.getLogger(DuplicateDetector.class);
+
+    private static final int BACKFILL_BATCH = 1000;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Value("${finance.duplicates.enabled:true}")
+    private boolean enabled;
+
+    @Value("${finance.duplicates.tolerance-days:2}")
+    private int toleranceDays;
+
+    /** Returns the id of an existing transaction the request looks like, or null. */
+    public Long findDuplicate(User user, TransactionRequest request) {
+        if (!enabled || request.date() == null) {
+            return null;
+        }
+        List<Candidate> candidates = transactionRepository.findDuplicateCandidates(user,
+                List.of(Fingerprints.of(request.amount(), request.description())),
+                request.date().minusDays(toleranceDays), request.date().plusDays(toleranceDays));
+        return new DuplicateWindow(candidates, toleranceDays).claim(request.date(), request.amount(), request.description());
+    }
+
+    /** Loads everything an import could duplicate in one query; feed its rows to the window in date order. */
+    public DuplicateWindow window(User user, List<TransactionRequest> requests) {
+        List<LocalDate> dates = requests.stream().map(TransactionRequest::date).filter(Objects::nonNull).sorted().toList();
+        if (!enabled || dates.isEmpty()) {
+            return new DuplicateWindow(List.of(), toleranceDays);
+        }
+        Set<Long> fingerprints = requests.stream()
+                .map(request -> Fingerprints.of(request.amount(), request.description()))
+                .collect(Collectors.toSet());
+        return new DuplicateWindow(transactionRepository.findDuplicateCandidates(user, fingerprints,
+                dates.get(0).minusDays(toleranceDays), dates.get(dates.size() - 1).plusDays(toleranceDays)), toleranceDays);
+    }
+
+    // Rows written before the fingerprint column existed
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        if (!enabled) {
+            return;
+        }
+        shardRouter.forEachShard(shard -> {
+            int filled = onShard(shard, this::backfillShard);
+            if (filled > 0) {
+                log.info("Fingerprinted {} existing transactions{}", filled, shard >= 0 ? " on shard " + shard : "");
+            }
+        });
+    }
+
+    private int backfillShard() {
+        int filled = 0;
+        while (true) {
+            List<Map<String, Object>> rows = jdbcTemplate.queryForList(
+                    "select id, amount, description from transactions where fingerprint is null order by id limit ?",
+                    BACKFILL_BATCH);
+            if (rows.isEmpty()) {
+                return filled;
+            }
+            jdbcTemplate.batchUpdate("update transactions set fingerprint = ? where id = ?", rows.stream()
+                    .map(row -> new Object[]{
+                            Fingerprints.of((BigDecimal) row.get("amount"), (String) row.get("description")),
+                            row.get("id")})
+                    .toList());
+            filled += rows.size();
+        }
+    }
+
+    private static <T> T onShard(int shard, Supplier<T> work) {
+        return shard >= 0 ? ShardContext.callOn(shard, work) : work.get();
+    }
+}
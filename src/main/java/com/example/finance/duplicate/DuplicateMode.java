@@ -0,0 +1,18 @@
+package com.example.finance.duplicate;
+
+/** What an import does with a row that looks like an existing transaction. */
+public enum DuplicateMode {
+    /** Leave it out and list it in the report. */
+    SKIP,
+    /** Import it anyway, marked with the transaction it resembles. */
+    FLAG;
+
+    public static DuplicateMode parse(String value) {
+        for (DuplicateMode mode : values()) {
+            if (mode.name().equalsIgnoreCase(value.trim())) {
+                return mode;
+            }
+        }
+        throw new IllegalArgumentException("duplicates must be skip or flag");
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.finance.duplicate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Matches the rows of one import against existing transactions, fed in date order. Only existing rows within
+ * {@code toleranceDays} of the current date are held, indexed by fingerprint. A match uses up the existing row,
+ * so an import holding the same purchase twice, against one stored copy, keeps one of them: overlapping
+ * statements repeat rows, but a statement does not list a purchase twice.
+ */
+public final class DuplicateWindow {
+
+    private final Iterator<Candidate> existing;
+    private final int toleranceDays;
+    private final ArrayDeque<Entry> window = new ArrayDeque<>();
+    private final Map<Long, ArrayDeque<Entry>> byFingerprint = new HashMap<>();
+    private Candidate next;
+
+    /** {@code existing} must be sorted by date. */
+    public DuplicateWindow(List<Candidate> existing, int toleranceDays) {
+        this.existing = existing.iterator();
+        this.toleranceDays = toleranceDays;
+        this.next = this.existing.hasNext() ? this.existing.next() : null;
+    }
+
+    /** Returns the id of the existing transaction this row duplicates, or null. Dates must not decrease between calls. */
+    public Long claim(LocalDate date, BigDecimal amount, String description) {
+        if (date == null) {
+            return null;
+        }
+        LocalDate latest = date.plusDays(toleranceDays);
+        while (next != null && !next.date().isAfter(latest)) {
+            Entry entry = new Entry(next, Fingerprints.of(next.amount(), next.description()));
+            window.addLast(entry);
+            byFingerprint.computeIfAbsent(entry.fingerprint, f -> new ArrayDeque<>()).addLast(entry);
+            next = existing.hasNext() ? existing.next() : null;
+        }
+        LocalDate earliest = date.minusDays(toleranceDays);
+        while (!window.isEmpty() && window.peekFirst().candidate.date().isBefore(earliest)) {
+            Entry evicted = window.pollFirst();
+            ArrayDeque<Entry> same = byFingerprint.get(evicted.fingerprint);
+            same.removeFirstOccurrence(evicted);
+            if (same.isEmpty()) {
+                byFingerprint.remove(evicted.fingerprint);
+            }
+        }
+
+        ArrayDeque<Entry> same = byFingerprint.get(Fingerprints.of(amount, description));
+        if (same == null) {
+            return null;
+        }
+        String normalized = Fingerprints.normalize(description);
+        for (Entry entry : same) {
+            // The hash only narrows the search; equal amounts and descriptions decide
+            if (!entry.claimed && Fingerprints.sameAmount(entry.candidate.amount(), amount)
+                    && Fingerprints.normalize(entry.candidate.description()).equals(normalized)) {
+                entry.claimed = true;
+                return entry.candidate.id();
+            }
+        }
+        return null;
+    }
+
+    private static final class Entry {
+        final Candidate candidate;
+        final long fingerprint;
+        boolean claimed;
+
+        Entry(Candidate candidate, long fingerprint) {
+            this.candidate = candidate;
+            this.fingerprint = fingerprint;
+        }
+    }
+}
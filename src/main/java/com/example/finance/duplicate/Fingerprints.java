@@ -0,0 +1,57 @@
+package com.example.finance.duplicate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * The duplicate-detection key of a transaction: a 64-bit FNV-1a hash of its amount (to the cent) and its
+ * description lower-cased with every run of punctuation and spaces collapsed to one space. The date is left out
+ * so that rows a few days apart can be found with an indexed range scan; callers compare the date separately.
+ */
+public final class Fingerprints {
+
+    private static final long OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long PRIME = 0x100000001b3L;
+
+    private Fingerprints() {
+    }
+
+    public static long of(BigDecimal amount, String description) {
+        long hash = OFFSET_BASIS;
+        String amountKey = amount == null ? "" : amount.setScale(2, RoundingMode.HALF_UP).toPlainString();
+        for (int i = 0; i < amountKey.length(); i++) {
+            hash = (hash ^ amountKey.charAt(i)) * PRIME;
+        }
+        hash = (hash ^ '|') * PRIME;
+        String normalized = normalize(description);
+        for (int i = 0; i < normalized.length(); i++) {
+            hash = (hash ^ normalized.charAt(i)) * PRIME;
+        }
+        return hash;
+    }
+
+    public static String normalize(String description) {
+        if (description == null) {
+            return "";
+        }
+        StringBuilder normalized = new StringBuilder(description.length());
+        boolean gap = false;
+        for (int i = 0; i < description.length(); i++) {
+            char c = description.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                if (gap && normalized.length() > 0) {
+                    normalized.append(' ');
+                }
+                normalized.append(Character.toLowerCase(c));
+                gap = false;
+            } else {
+                gap = true;
+            }
+        }
+        return normalized.toString();
+    }
+
+    static boolean sameAmount(BigDecimal a, BigDecimal b) {
+        return a != null && b != null && a.compareTo(b) == 0;
+    }
+}
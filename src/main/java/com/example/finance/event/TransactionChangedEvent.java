@@ -0,0 +1,28 @@
+package com.example.finance.event;
+
+import com.example.finance.dto.TransactionResponse;
+
+/**
+ * Published by {@code TransactionService} after every create, update and delete.
+ * {@code before} is null for creates and {@code after} is null for deletes. {@code revision} is the owner's
+ * sync revision the write committed at, or 0 when unknown.
+ */
+public record TransactionChangedEvent(
+        Type type,
+        Long userId,
+        TransactionResponse before,
+        TransactionResponse after,
+        long revision
+) {
+    public TransactionChangedEvent(Type type, Long userId, TransactionResponse before, TransactionResponse after) {
+        this(type, userId, before, after, 0);
+    }
+
+    public enum Type {
+        CREATED, UPDATED, DELETED
+    }
+
+    public long transactionId() {
+        return after != null ? after.id() : before.id();
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.finance.format;
+
+import com.example.finance.dto.Anomaly;
+import com.example.finance.dto.TransactionResponse;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+
+/**
+ * Writes a {@link TransactionResponse} for the binary Jackson formats as a positional array
+ * {@code [id, amount, description, category, date]}, with the amount as a scaled long and the
+ * date as an epoch day (see {@link TransactionEncoding}). Field names are not repeated per row.
+ * A flagged transaction gets a sixth element, its anomaly as {@code [score, categoryMean,
+ * categoryStddev, categoryCount]} with scaled amounts, and a suspected duplicate a seventh, the
+ * id it duplicates (the sixth is then null if there is no anomaly). Trailing absent elements
+ * are left out, so most rows stay five long.
+ */
+public class CompactTransactionSerializer extends StdSerializer<TransactionResponse> {
+
+    public CompactTransactionSerializer() {
+        super(TransactionResponse.class);
+    }
+
+    @Override
+    public void serialize(TransactionResponse value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        Anomaly anomaly = value.anomaly();
+        Long duplicateOf = value.duplicateOf();
+        gen.writeStartArray(value, duplicateOf != null ? 7 : anomaly != null ? 6 : 5);
+        if (value.id() != null) {
+            gen.writeNumber(value.id());
+        } else {
+            gen.writeNull();
+        }
+        gen.writeNumber(TransactionEncoding.scaledAmount(value.amount()));
+        gen.writeString(value.description());
+        gen.writeString(value.category());
+        gen.writeNumber(TransactionEncoding.epochDay(value.date()));
+        if (anomaly != null) {
+            gen.writeStartArray(anomaly, 4);
+            gen.writeNumber(anomaly.score());
+            gen.writeNumber(TransactionEncoding.scaledAmount(anomaly.categoryMean()));
+            gen.writeNumber(TransactionEncoding.scaledAmount(anomaly.categoryStddev()));
+            gen.writeNumber(anomaly.categoryCount());
+            gen.writeEndArray();
+        } else if (duplicateOf != null) {
+            gen.writeNull();
+        }
+        if (duplicateOf != null) {
+            gen.writeNumber(duplicateOf);
+        }
+        gen.writeEndArray();
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.finance.format;
+
+import com.example.finance.dto.TransactionResponse;
+import com.google.protobuf.CodedOutputStream;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.lang.Nullable;
+
+import java.io.IOException;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.List;
+
+/**
+ * Writes {@link TransactionResponse} and {@code List<TransactionResponse>} bodies as
+ * {@code application/x-protobuf}. Write-only: requests stay JSON.
+ */
+public class ProtobufTransactionConverter extends AbstractGenericHttpMessageConverter<Object> {
+
+    public ProtobufTransactionConverter() {
+        super(TransactionEncoding.APPLICATION_PROTOBUF);
+    }
+
+    // Coarse check used for media type listing; canWrite(Type, ...) checks the list element type
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return TransactionResponse.class == clazz || List.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    public boolean canRead(Type type, @Nullable Class<?> contextClass, @Nullable MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    public boolean canWrite(@Nullable Type type, Class<?> clazz, @Nullable MediaType mediaType) {
+        return isTransactionType(type != null ? type : clazz) && canWrite(mediaType);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected void writeInternal(Object body, @Nullable Type type, HttpOutputMessage outputMessage) throws IOException {
+        CodedOutputStream out = CodedOutputStream.newInstance(outputMessage.getBody());
+        if (body instanceof TransactionResponse transaction) {
+            TransactionProtobuf.write(out, transaction);
+        } else {
+            TransactionProtobuf.writeList(out, (List<TransactionResponse>) body);
+        }
+        out.flush();
+    }
+
+    @Override
+    public Object read(Type type, @Nullable Class<?> contextClass, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Protobuf request bodies are not supported", inputMessage);
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Protobuf request bodies are not supported", inputMessage);
+    }
+
+    private static boolean isTransactionType(Type type) {
+        if (type == TransactionResponse.class) {
+            return true;
+        }
+        return type instanceof ParameterizedType parameterized
+                && parameterized.getRawType() instanceof Class<?> raw
+                && List.class.isAssignableFrom(raw)
+                && parameterized.getActualTypeArguments()[0] == TransactionResponse.class;
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.finance.format;
+
+import com.example.finance.dto.TransactionResponse;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import org.springframework.http.MediaType;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+
+/** Field encodings shared by the compact (non-JSON) response formats. */
+public final class TransactionEncoding {
+
+    /** Amounts are sent as {@code amount * 10^AMOUNT_SCALE}, matching the column's two decimal places. */
+    public static final int AMOUNT_SCALE = 2;
+
+    public static final MediaType APPLICATION_SMILE = new MediaType("application", "x-jackson-smile");
+
+    public static final MediaType APPLICATION_PROTOBUF = new MediaType("application", "x-protobuf");
+
+    private TransactionEncoding() {}
+
+    public static long scaledAmount(BigDecimal amount) {
+        return amount.setScale(AMOUNT_SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    public static int epochDay(LocalDate date) {
+        return Math.toIntExact(date.toEpochDay());
+    }
+
+    public static SimpleModule compactModule() {
+        return new SimpleModule("compact-transactions")
+                .addSerializer(TransactionResponse.class, new CompactTransactionSerializer());
+    }
+}
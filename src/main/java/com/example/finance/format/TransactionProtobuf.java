@@ -0,0 +1,97 @@
+package com.example.finance.format;
+
+import com.example.finance.dto.Anomaly;
+import com.example.finance.dto.TransactionResponse;
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.WireFormat;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Hand-written encoder for the messages in {@code src/main/proto/transactions.proto}. Two
+ * messages do not justify a protoc step in the build; field numbers here must match the schema.
+ */
+public final class TransactionProtobuf {
+
+    static final int ID = 1;
+    static final int AMOUNT = 2;
+    static final int DESCRIPTION = 3;
+    static final int CATEGORY = 4;
+    static final int DATE = 5;
+    static final int ANOMALY = 6;
+    static final int DUPLICATE_OF = 7;
+
+    static final int ANOMALY_SCORE = 1;
+    static final int ANOMALY_CATEGORY_MEAN = 2;
+    static final int ANOMALY_CATEGORY_STDDEV = 3;
+    static final int ANOMALY_CATEGORY_COUNT = 4;
+
+    static final int LIST_TRANSACTIONS = 1;
+
+    private TransactionProtobuf() {}
+
+    /** Writes a {@code Transaction} message. */
+    public static void write(CodedOutputStream out, TransactionResponse transaction) throws IOException {
+        if (transaction.id() != null) {
+            out.writeInt64(ID, transaction.id());
+        }
+        out.writeSInt64(AMOUNT, TransactionEncoding.scaledAmount(transaction.amount()));
+        if (transaction.description() != null) {
+            out.writeString(DESCRIPTION, transaction.description());
+        }
+        out.writeString(CATEGORY, transaction.category());
+        out.writeSInt32(DATE, TransactionEncoding.epochDay(transaction.date()));
+        Anomaly anomaly = transaction.anomaly();
+        if (anomaly != null) {
+            out.writeTag(ANOMALY, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+            out.writeUInt32NoTag(size(anomaly));
+            out.writeDouble(ANOMALY_SCORE, anomaly.score());
+            out.writeSInt64(ANOMALY_CATEGORY_MEAN, TransactionEncoding.scaledAmount(anomaly.categoryMean()));
+            out.writeSInt64(ANOMALY_CATEGORY_STDDEV, TransactionEncoding.scaledAmount(anomaly.categoryStddev()));
+            out.writeInt64(ANOMALY_CATEGORY_COUNT, anomaly.categoryCount());
+        }
+        if (transaction.duplicateOf() != null) {
+            out.writeInt64(DUPLICATE_OF, transaction.duplicateOf());
+        }
+    }
+
+    /** Writes a {@code TransactionList} message. */
+    public static void writeList(CodedOutputStream out, List<TransactionResponse> transactions) throws IOException {
+        for (TransactionResponse transaction : transactions) {
+            out.writeTag(LIST_TRANSACTIONS, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+            out.writeUInt32NoTag(size(transaction));
+            write(out, transaction);
+        }
+    }
+
+    static int size(TransactionResponse transaction) {
+        int size = 0;
+        if (transaction.id() != null) {
+            size += CodedOutputStream.computeInt64Size(ID, transaction.id());
+        }
+        size += CodedOutputStream.computeSInt64Size(AMOUNT, TransactionEncoding.scaledAmount(transaction.amount()));
+        if (transaction.description() != null) {
+            size += CodedOutputStream.computeStringSize(DESCRIPTION, transaction.description());
+        }
+        size += CodedOutputStream.computeStringSize(CATEGORY, transaction.category());
+        size += CodedOutputStream.computeSInt32Size(DATE, TransactionEncoding.epochDay(transaction.date()));
+        if (transaction.anomaly() != null) {
+            int anomaly = size(transaction.anomaly());
+            size += CodedOutputStream.computeTagSize(ANOMALY) + CodedOutputStream.computeUInt32SizeNoTag(anomaly) + anomaly;
+        }
+        if (transaction.duplicateOf() != null) {
+            size += CodedOutputStream.computeInt64Size(DUPLICATE_OF, transaction.duplicateOf());
+        }
+        return size;
+    }
+
+    static int size(Anomaly anomaly) {
+        return CodedOutputStream.computeDoubleSize(ANOMALY_SCORE, anomaly.score())
+                + CodedOutputStream.computeSInt64Size(ANOMALY_CATEGORY_MEAN,
+                        TransactionEncoding.scaledAmount(anomaly.categoryMean()))
+                + CodedOutputStream.computeSInt64Size(ANOMALY_CATEGORY_STDDEV,
+                        TransactionEncoding.scaledAmount(anomaly.categoryStddev()))
+                + CodedOutputStream.computeInt64Size(ANOMALY_CATEGORY_COUNT, anomaly.categoryCount());
+    }
+}
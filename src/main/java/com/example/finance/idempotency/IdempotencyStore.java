@@ -0,0 +1,260 @@
+package com.example.finance.idempotency;
+
+import com.example.finance.dto.TransactionRequest;
+import com.example.finance.dto.TransactionResponse;
+import com.example.finance.model.IdempotencyRecord;
+import com.example.finance.repository.IdempotencyRecordRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Remembers the response of each (user, Idempotency-Key) pair so a retried create returns
+ * the original transaction instead of inserting another one.
+ *
+ * <p>Recent keys live in memory, where a duplicate that arrives while the first request is
+ * still running waits on its result. Every key is also claimed in {@code idempotency_keys}
+ * before the request runs, which covers retries after the in-memory entry has expired and
+ * duplicates handled by another instance. While a request runs, its claim is renewed every third
+ * of {@code finance.idempotency.claim-lease-ms}; a claim left unrenewed for a whole lease belonged
+ * to a request that died before storing its response, and the next retry takes it over and runs
+ * the request again. Delivery is therefore at least once: a request whose instance is still alive
+ * but cannot renew for a whole lease (a stalled JVM, a lost database connection) may run twice.
+ */
+@Component
+public class IdempotencyStore {
+
+    static final int MAX_KEY_LENGTH = 255;
+
+    private static final long POLL_MS = 50;
+
+    @Autowired
+    private IdempotencyRecordRepository repository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${finance.idempotency.memory-ttl-ms:600000}")
+    private long memoryTtlMs;
+
+    @Value("${finance.idempotency.retention-hours:24}")
+    private long retentionHours;
+
+    @Value("${finance.idempotency.max-entries:100000}")
+    private int maxEntries;
+
+    @Value("${finance.idempotency.wait-ms:10000}")
+    private long waitMs;
+
+    @Value("${finance.idempotency.claim-lease-ms:60000}")
+    private long claimLeaseMs;
+
+    private final ConcurrentHashMap<Key, Entry> entries = new ConcurrentHashMap<>();
+
+    // Claims of the requests running here, with the claim time last written to the database
+    private final ConcurrentHashMap<IdempotencyRecord, Long> running = new ConcurrentHashMap<>();
+
+    public TransactionResponse execute(Long userId, String idempotencyKey, TransactionRequest request,
+                                       Supplier<TransactionResponse> action) {
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException("Idempotency-Key must be between 1 and " + MAX_KEY_LENGTH + " characters");
+        }
+        String fingerprint = fingerprint(request);
+        long now = System.currentTimeMillis();
+        Key key = new Key(userId, idempotencyKey);
+        Entry fresh = new Entry(fingerprint, new CompletableFuture<>(), now + memoryTtlMs);
+        Entry entry = entries.compute(key, (k, current) -> current != null && current.expiresAt > now ? current : fresh);
+        if (entry != fresh) {
+            checkFingerprint(entry.fingerprint, fingerprint);
+            return await(entry.result);
+        }
+        if (entries.size() > maxEntries) {
+            trim(now);
+        }
+        try {
+            TransactionResponse response = claimAndRun(userId, idempotencyKey, fingerprint, action);
+            fresh.result.complete(response);
+            return response;
+        } catch (RuntimeException e) {
+            // Waiters see the failure; the next retry runs again
+            entries.remove(key, fresh);
+            fresh.result.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${finance.idempotency.purge-interval-ms:60000}")
+    public void purgeExpired() {
+        long now = System.currentTimeMillis();
+        entries.values().removeIf(entry -> entry.expiresAt <= now && entry.result.isDone());
+        repository.deleteCreatedBefore(now - TimeUnit.HOURS.toMillis(retentionHours));
+    }
+
+    // Keeps the claims of slow requests from looking abandoned, so they are not taken over and run twice
+    @Scheduled(fixedDelayString = "#{${finance.idempotency.claim-lease-ms:60000} / 3}")
+    public void renewClaims() {
+        long now = System.currentTimeMillis();
+        running.forEach((claim, claimedAt) -> {
+            if (repository.reclaim(claim.getId(), claimedAt, now) == 1) {
+                running.replace(claim, claimedAt, now);
+            }
+        });
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    private TransactionResponse claimAndRun(Long userId, String idempotencyKey, String fingerprint,
+                                            Supplier<TransactionResponse> action) {
+        Optional<IdempotencyRecord> stored = repository.findByUserIdAndIdempotencyKey(userId, idempotencyKey);
+        if (stored.isPresent()) {
+            return awaitStored(stored.get(), fingerprint, action);
+        }
+        IdempotencyRecord claim;
+        try {
+            claim = repository.saveAndFlush(
+                    new IdempotencyRecord(userId, idempotencyKey, fingerprint, System.currentTimeMillis()));
+        } catch (DataIntegrityViolationException claimedElsewhere) {
+            return awaitStored(repository.findByUserIdAndIdempotencyKey(userId, idempotencyKey).orElseThrow(
+                    () -> new ResponseStatusException(HttpStatus.CONFLICT, "Idempotency-Key is being retried concurrently")),
+                    fingerprint, action);
+        }
+        return run(claim, action);
+    }
+
+    private TransactionResponse run(IdempotencyRecord claim, Supplier<TransactionResponse> action) {
+        TransactionResponse response;
+        running.put(claim, claim.getCreatedAt());
+        try {
+            response = action.get();
+        } catch (RuntimeException e) {
+            repository.delete(claim);
+            throw e;
+        } finally {
+            running.remove(claim);
+        }
+        claim.setResponse(write(response));
+        repository.save(claim);
+        return response;
+    }
+
+    // The key was claimed by another instance or an earlier request; poll until its response is stored
+    private TransactionResponse awaitStored(IdempotencyRecord record, String fingerprint,
+                                            Supplier<TransactionResponse> action) {
+        checkFingerprint(record.getFingerprint(), fingerprint);
+        long deadline = System.currentTimeMillis() + waitMs;
+        IdempotencyRecord current = record;
+        while (current.getResponse() == null) {
+            long now = System.currentTimeMillis();
+            if (current.getCreatedAt() + claimLeaseMs <= now
+                    && repository.reclaim(current.getId(), current.getCreatedAt(), now) == 1) {
+                return run(repository.findById(current.getId()).orElseThrow(IdempotencyStore::inProgress), action);
+            }
+            if (now >= deadline) {
+                throw inProgress();
+            }
+            try {
+                Thread.sleep(POLL_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw inProgress();
+            }
+            current = repository.findByUserIdAndIdempotencyKey(record.getUserId(), record.getIdempotencyKey())
+                    .orElseThrow(IdempotencyStore::inProgress);
+        }
+        return read(current.getResponse());
+    }
+
+    private TransactionResponse await(CompletableFuture<TransactionResponse> result) {
+        try {
+            return result.get(waitMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw inProgress();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw inProgress();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    // Completed entries can be dropped early: the database still holds their responses
+    private void trim(long now) {
+        entries.values().removeIf(entry -> entry.expiresAt <= now && entry.result.isDone());
+        var iterator = entries.values().iterator();
+        while (entries.size() > maxEntries && iterator.hasNext()) {
+            if (iterator.next().result.isDone()) {
+                iterator.remove();
+            }
+        }
+    }
+
+    private static void checkFingerprint(String stored, String fingerprint) {
+        if (!stored.equals(fingerprint)) {
+            throw new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY,
+                    "Idempotency-Key was already used with a different request");
+        }
+    }
+
+    private static ResponseStatusException inProgress() {
+        return new ResponseStatusException(HttpStatus.CONFLICT, "A request with this Idempotency-Key is still in progress");
+    }
+
+    static String fingerprint(TransactionRequest request) {
+        String canonical = String.join("\u0000",
+                request.amount() == null ? "" : request.amount().stripTrailingZeros().toPlainString(),
+                String.valueOf(request.category()),
+                String.valueOf(request.description()),
+                String.valueOf(request.date()));
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(sha256.digest(canonical.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private String write(TransactionResponse response) {
+        try {
+            return objectMapper.writeValueAsString(response);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private TransactionResponse read(String response) {
+        try {
+            return objectMapper.readValue(response, TransactionResponse.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private record Key(Long userId, String idempotencyKey) {
+    }
+
+    private record Entry(String fingerprint, CompletableFuture<TransactionResponse> result, long expiresAt) {
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.finance.invalidation;
+
+/**
+ * Tells the other nodes that something they may hold in memory for a user is out of date. Received
+ * invalidations are published there as application events, so a cache listens with
+ * {@code @EventListener void onInvalidation(Invalidation)}; the node that made the change is not told.
+ *
+ * <p>For a given scope, user and key the version only grows (a write time, a watermark, an expiry), so
+ * receiving an invalidation twice, or an older one after a newer, leaves a cache the same as applying the
+ * newest once.
+ */
+public record Invalidation(Scope scope, Long userId, String key, long version) {
+
+    public enum Scope {
+        /** The user's transactions changed at {@code version}. */
+        TRANSACTIONS,
+        /** The user's categorization rules changed. */
+        RULES,
+        /** An account was registered for the email in {@code key}. */
+        ACCOUNT,
+        /** Every token for the email in {@code key} issued before {@code version} was revoked. */
+        SESSIONS,
+        /** The token with id {@code key}, expiring at {@code version}, was revoked. */
+        TOKEN
+    }
+
+    public static Invalidation transactions(Long userId, long changedAt) {
+        return new Invalidation(Scope.TRANSACTIONS, userId, null, changedAt);
+    }
+
+    public static Invalidation rules(Long userId, long changedAt) {
+        return new Invalidation(Scope.RULES, userId, null, changedAt);
+    }
+
+    public static Invalidation account(Long userId, String email) {
+        return new Invalidation(Scope.ACCOUNT, userId, email, 0);
+    }
+
+    public static Invalidation sessions(Long userId, String email, long invalidBefore) {
+        return new Invalidation(Scope.SESSIONS, userId, email, invalidBefore);
+    }
+
+    public static Invalidation token(String tokenId, long expiresAt) {
+        return new Invalidation(Scope.TOKEN, null, tokenId, expiresAt);
+    }
+}
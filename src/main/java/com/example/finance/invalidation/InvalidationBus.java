@@ -0,0 +1,143 @@
+package com.example.finance.invalidation;
+
+import com.example.finance.event.TransactionChangedEvent;
+import com.example.finance.metrics.FinanceMetrics;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Spreads {@link Invalidation}s to the other nodes of a multi-node deployment ({@code finance.invalidation.enabled}).
+ * Mutations publish here; transaction changes are picked up from {@link TransactionChangedEvent}. Pending
+ * invalidations for the same scope, user and key are merged into one with the highest version and sent in
+ * batches of up to {@code batch-size} every {@code flush-interval-ms}. Every {@code poll-interval-ms} the bus
+ * reads one batch from the other nodes, so an invalidation arrives within roughly the two intervals plus the
+ * transport's own delay; that lag is recorded as {@code finance.invalidation.lag}.
+ */
+@Component
+public class InvalidationBus {
+
+    private static final Logger log = LoggerFactory.getLogger(InvalidationBus.class);
+
+    @Autowired
+    private InvalidationTransport transport;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private FinanceMetrics financeMetrics;
+
+    @Value("${finance.invalidation.enabled:false}")
+    private boolean enabled;
+
+    @Value("${finance.invalidation.batch-size:500}")
+    private int batchSize;
+
+    private record Target(Invalidation.Scope scope, Long userId, String key) {
+    }
+
+    private record Pending(long version, long queuedAt) {
+
+        Pending merge(Pending newer) {
+            return new Pending(Math.max(version, newer.version), Math.min(queuedAt, newer.queuedAt));
+        }
+    }
+
+    private final ConcurrentHashMap<Target, Pending> pending = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        if (enabled) {
+            transport.start();
+        }
+    }
+
+    public void publish(Invalidation invalidation) {
+        if (enabled) {
+            pending.merge(new Target(invalidation.scope(), invalidation.userId(), invalidation.key()),
+                    new Pending(invalidation.version(), System.currentTimeMillis()), Pending::merge);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTransactionChanged(TransactionChangedEvent event) {
+        if (event.userId() != null) {
+            publish(Invalidation.transactions(event.userId(), System.currentTimeMillis()));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${finance.invalidation.flush-interval-ms:100}")
+    public void flush() {
+        if (!enabled || pending.isEmpty()) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        List<InvalidationTransport.Envelope> batch = new ArrayList<>();
+        for (Target target : pending.keySet()) {
+            Pending entry = pending.remove(target);
+            if (entry == null) {
+                continue;
+            }
+            batch.add(new InvalidationTransport.Envelope(
+                    new Invalidation(target.scope(), target.userId(), target.key(), entry.version()),
+                    now - entry.queuedAt()));
+            if (batch.size() == batchSize) {
+                send(batch);
+                batch = new ArrayList<>();
+            }
+        }
+        if (!batch.isEmpty()) {
+            send(batch);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${finance.invalidation.poll-interval-ms:250}")
+    public void poll() {
+        if (!enabled) {
+            return;
+        }
+        List<InvalidationTransport.Envelope> received;
+        try {
+            received = transport.receive(batchSize);
+        } catch (DataAccessException e) {
+            log.warn("Could not read invalidations: {}", e.getMessage());
+            return;
+        }
+        for (InvalidationTransport.Envelope envelope : received) {
+            eventPublisher.publishEvent(envelope.invalidation());
+            financeMetrics.invalidationReceived(envelope.delayMs());
+        }
+    }
+
+    int pendingCount() {
+        return pending.size();
+    }
+
+    // A failed batch goes back in the queue, merged with anything published since
+    private void send(List<InvalidationTransport.Envelope> batch) {
+        try {
+            transport.send(batch);
+            financeMetrics.invalidationsSent(batch.size());
+        } catch (DataAccessException e) {
+            log.warn("Could not send {} invalidations, will retry: {}", batch.size(), e.getMessage());
+            long now = System.currentTimeMillis();
+            for (InvalidationTransport.Envelope envelope : batch) {
+                Invalidation invalidation = envelope.invalidation();
+                pending.merge(new Target(invalidation.scope(), invalidation.userId(), invalidation.key()),
+                        new Pending(invalidation.version(), now - envelope.delayMs()), Pending::merge);
+            }
+        }
+    }
+}
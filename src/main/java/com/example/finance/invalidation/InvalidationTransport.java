@@ -0,0 +1,27 @@
+package com.example.finance.invalidation;
+
+import java.util.List;
+
+/**
+ * Carries invalidations between nodes for {@link InvalidationBus}. The default is {@link OutboxTransport};
+ * another transport (a message broker, say) is a bean implementing this interface with
+ * {@code finance.invalidation.transport} set to anything but {@code outbox}.
+ */
+public interface InvalidationTransport {
+
+    /**
+     * An invalidation and how long it has been on its way, in milliseconds: on {@link #send}, the time it
+     * waited on this node; on {@link #receive}, the time since it was first queued.
+     */
+    record Envelope(Invalidation invalidation, long delayMs) {
+    }
+
+    /** Called once before the first send or receive, when the bus is enabled. */
+    default void start() {
+    }
+
+    void send(List<Envelope> batch);
+
+    /** At most {@code max} invalidations from other nodes that this node has not yet received, oldest first. */
+    List<Envelope> receive(int max);
+}
@@ -0,0 +1,139 @@
+package com.example.finance.invalidation;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.UUID;
+
+/**
+ * Invalidations through a table in the shared database, so several nodes need nothing else to stay in step.
+ * Each node appends its batches and reads everyone's rows past its watermark, the highest id below which it
+ * has read every row; it starts at the newest row, as a starting node has nothing cached yet.
+ *
+ * <p>Identity values are handed out before commit, so a row can appear after a higher id has been read. The
+ * watermark therefore stops at the first missing id and rows above it are remembered, until the id turns up
+ * or {@code finance.invalidation.gap-timeout-ms} passes (a rolled-back insert never will).
+ *
+ * <p>The table is created by the {@code V8__invalidation_outbox} migration.
+ */
+@Component
+@ConditionalOnProperty(name = "finance.invalidation.transport", havingValue = "outbox", matchIfMissing = true)
+public class OutboxTransport implements InvalidationTransport {
+
+    static final String TABLE = "invalidation_outbox";
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxTransport.class);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${finance.invalidation.node-id:}")
+    private String nodeId;
+
+    @Value("${finance.invalidation.gap-timeout-ms:5000}")
+    private long gapTimeoutMs;
+
+    @Value("${finance.invalidation.retention-ms:3600000}")
+    private long retentionMs;
+
+    private volatile boolean started;
+    private long watermark;
+    // Ids above the watermark already read
+    private final TreeSet<Long> read = new TreeSet<>();
+    private long gapSince = -1;
+
+    @Override
+    public synchronized void start() {
+        if (nodeId == null || nodeId.isBlank()) {
+            nodeId = UUID.randomUUID().toString();
+        }
+        Long newest = jdbcTemplate.queryForObject("select max(id) from " + TABLE, Long.class);
+        watermark = newest != null ? newest : 0;
+        started = true;
+        log.info("Invalidation outbox started for node {} at id {}", nodeId, watermark);
+    }
+
+    @Override
+    public void send(List<Envelope> batch) {
+        jdbcTemplate.batchUpdate("insert into " + TABLE
+                        + " (node, scope, user_id, item_key, version, queued_ms) values (?, ?, ?, ?, ?, ?)",
+                batch, batch.size(), (statement, envelope) -> {
+                    Invalidation invalidation = envelope.invalidation();
+                    statement.setString(1, nodeId);
+                    statement.setString(2, invalidation.scope().name());
+                    if (invalidation.userId() != null) {
+                        statement.setLong(3, invalidation.userId());
+                    } else {
+                        statement.setNull(3, Types.BIGINT);
+                    }
+                    statement.setString(4, invalidation.key());
+                    statement.setLong(5, invalidation.version());
+                    statement.setLong(6, envelope.delayMs());
+                });
+    }
+
+    @Override
+    public synchronized List<Envelope> receive(int max) {
+        List<Envelope> received = new ArrayList<>();
+        jdbcTemplate.query("select id, node, scope, user_id, item_key, version, "
+                        + "queued_ms + datediff('MILLISECOND', created_at, localtimestamp) as lag_ms "
+                        + "from " + TABLE + " where id > ? order by id limit ?",
+                row -> {
+                    if (!read.add(row.getLong("id")) || nodeId.equals(row.getString("node"))) {
+                        return;
+                    }
+                    long userId = row.getLong("user_id");
+                    boolean noUser = row.wasNull();
+                    received.add(new Envelope(new Invalidation(
+                            Invalidation.Scope.valueOf(row.getString("scope")),
+                            noUser ? null : userId,
+                            row.getString("item_key"),
+                            row.getLong("version")), Math.max(0, row.getLong("lag_ms"))));
+                },
+                watermark, max);
+        advance(System.currentTimeMillis());
+        return received;
+    }
+
+    @Scheduled(fixedDelayString = "${finance.invalidation.purge-interval-ms:60000}")
+    public void purge() {
+        if (started) {
+            jdbcTemplate.update("delete from " + TABLE + " where created_at < dateadd('MILLISECOND', ?, localtimestamp)",
+                    -retentionMs);
+        }
+    }
+
+    long watermark() {
+        return watermark;
+    }
+
+    private void advance(long now) {
+        while (!read.isEmpty()) {
+            long first = read.first();
+            if (first == watermark + 1) {
+                watermark = read.pollFirst();
+                gapSince = -1;
+                continue;
+            }
+            if (gapSince < 0) {
+                gapSince = now;
+            }
+            if (now - gapSince < gapTimeoutMs) {
+                return;
+            }
+            log.debug("Gave up waiting for invalidation ids {} to {}", watermark + 1, first - 1);
+            watermark = first - 1;
+            gapSince = -1;
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.finance.journal;
+
+public enum FsyncPolicy {
+    /** Force every append to disk before the mutating request returns. */
+    ALWAYS,
+    /** Force on a timer ({@code finance.journal.fsync-interval-ms}); a crash loses at most one interval. */
+    INTERVAL,
+    /** Leave flushing to the operating system. */
+    NEVER
+}
@@ -0,0 +1,17 @@
+package com.example.finance.journal;
+
+import com.example.finance.dto.TransactionResponse;
+import com.example.finance.event.TransactionChangedEvent;
+
+/** {@code revision} is the owner's sync revision of the write, 0 for entries written before it was recorded. */
+public record JournalEntry(
+        long sequence,
+        long timestamp,
+        TransactionChangedEvent.Type type,
+        long userId,
+        long transactionId,
+        TransactionResponse before,
+        TransactionResponse after,
+        long revision
+) {
+}
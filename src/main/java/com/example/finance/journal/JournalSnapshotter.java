@@ -0,0 +1,249 @@
+package com.example.finance.journal;
+
+import com.example.finance.archive.ArchivedTransaction;
+import com.example.finance.archive.ColdStore;
+import com.example.finance.dto.TransactionResponse;
+import com.example.finance.model.Transaction;
+import com.example.finance.model.TransactionTombstone;
+import com.example.finance.model.User;
+import com.example.finance.repository.TransactionRepository;
+import com.example.finance.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Periodically folds the journal tail into a per-user {@link UserState} snapshot
+ * ({@code snapshot-<sequence>.bin}). {@link #rebuild()} is what a consumer calls instead
+ * of scanning the transactions table: latest snapshot plus the entries after it.
+ *
+ * <p>The first snapshot is seeded from the database without holding back appends. It is taken at the
+ * sequence number written before the scan started and records, per user, the sync revision the rows it
+ * read were at; an entry after that sequence whose write was already in the scan carries a revision at or
+ * below the recorded one and is skipped, so a write committed before the scan but appended during it is
+ * counted once.
+ */
+@Component
+@ConditionalOnProperty(name = "finance.journal.enabled", havingValue = "true")
+public class JournalSnapshotter {
+
+    private static final int MAGIC = 0x464a5332; // "FJS2"
+
+    // Written before seeded revisions were recorded
+    private static final int MAGIC_V1 = 0x464a534e; // "FJSN"
+
+    @Autowired
+    private MutationJournal journal;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private ColdStore coldStore;
+
+    @Value("${finance.journal.dir:journal}")
+    private Path directory;
+
+    @Value("${finance.journal.prune-after-snapshot:false}")
+    private boolean pruneAfterSnapshot;
+
+    /** Latest snapshot plus the journal tail after it. */
+    public Snapshot rebuild() {
+        Snapshot latest = latest();
+        Snapshot base = latest != null ? latest : seed();
+        Map<Long, UserState> users = new HashMap<>(base.users());
+        long[] last = {base.sequence()};
+        journal.read(base.sequence(), entry -> {
+            // Skips writes the database seed already read
+            if (entry.revision() == 0 || entry.revision() > base.seededRevisions().getOrDefault(entry.userId(), 0L)) {
+                users.merge(entry.userId(), UserState.EMPTY.apply(entry), (state, ignored) -> state.apply(entry));
+            }
+            last[0] = entry.sequence();
+        });
+        return new Snapshot(last[0], users, base.seededRevisions());
+    }
+
+    @Scheduled(fixedDelayString = "${finance.journal.snapshot-interval-ms:300000}")
+    public void snapshot() throws IOException {
+        Snapshot current = rebuild();
+        Snapshot latest = latest();
+        if (latest != null && latest.sequence() == current.sequence()) {
+            return;
+        }
+        write(current);
+        deleteSnapshotsBefore(current.sequence());
+        if (pruneAfterSnapshot) {
+            journal.pruneThrough(current.sequence());
+        }
+    }
+
+    private Snapshot seed() {
+        // Every entry up to here was appended after its write committed, so the scan below sees all of them
+        long sequence = journal.lastSequence();
+        Map<Long, UserState> users = new HashMap<>();
+        Map<Long, Long> revisions = new HashMap<>();
+        for (User user : userRepository.findAll()) {
+            seed(user, users, revisions);
+        }
+        Snapshot seeded = new Snapshot(sequence, users, revisions);
+        write(seeded);
+        return seeded;
+    }
+
+    /**
+     * Reads the user's rows between two reads of their sync revision, retrying until no write committed in
+     * between, so the rows are exactly those of the writes up to that revision. The archive is read on both
+     * sides of the hot table, so a row moved either way during the scan is still seen once; an archived row
+     * whose delete is at or below the revision is dropped even if its archive tombstone landed after the read.
+     */
+    private void seed(User user, Map<Long, UserState> users, Map<Long, Long> revisions) {
+        long revision;
+        Map<Long, TransactionResponse> rows = new HashMap<>();
+        while (true) {
+            revision = transactionRepository.findSyncRevision(user).orElse(0L);
+            rows.clear();
+            putArchived(user, rows);
+            for (Transaction txn : transactionRepository.findByUser(user)) {
+                rows.put(txn.getId(), new TransactionResponse(
+                        txn.getId(), txn.getAmount(), txn.getDescription(), txn.getCategory(), txn.getDate()));
+            }
+            putArchived(user, rows);
+            if (transactionRepository.findSyncRevision(user).orElse(0L) == revision) {
+                break;
+            }
+        }
+        for (TransactionTombstone tombstone : transactionRepository.findTombstones(user, 0, revision, Limit.unlimited())) {
+            rows.remove(tombstone.getTransactionId());
+        }
+        UserState state = UserState.EMPTY;
+        for (TransactionResponse row : rows.values()) {
+            state = state.plus(row);
+        }
+        users.put(user.getId(), state);
+        revisions.put(user.getId(), revision);
+    }
+
+    // Hot rows take precedence over their archived copies
+    private void putArchived(User user, Map<Long, TransactionResponse> rows) {
+        if (!coldStore.hasArchive(user.getId())) {
+            return;
+        }
+        for (ArchivedTransaction archived : coldStore.transactions(user.getId(), rows.keySet())) {
+            rows.put(archived.id(), new TransactionResponse(
+                    archived.id(), archived.amount(), archived.description(), archived.category(), archived.date()));
+        }
+    }
+
+    Snapshot latest() {
+        List<Path> snapshots = snapshots();
+        if (snapshots.isEmpty()) {
+            return null;
+        }
+        Path file = snapshots.get(snapshots.size() - 1);
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            int magic = in.readInt();
+            if (magic != MAGIC && magic != MAGIC_V1) {
+                throw new IllegalStateException("Not a journal snapshot: " + file);
+            }
+            long sequence = in.readLong();
+            int count = in.readInt();
+            Map<Long, UserState> users = new HashMap<>(count * 2);
+            for (int i = 0; i < count; i++) {
+                long userId = in.readLong();
+                users.put(userId, new UserState(in.readLong(), Codec.readDecimal(in), Codec.readDecimal(in)));
+            }
+            Map<Long, Long> revisions = new HashMap<>();
+            if (magic == MAGIC) {
+                int seeded = in.readInt();
+                for (int i = 0; i < seeded; i++) {
+                    revisions.put(in.readLong(), in.readLong());
+                }
+            }
+            return new Snapshot(sequence, users, revisions);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void write(Snapshot snapshot) {
+        Path file = directory.resolve(String.format("snapshot-%020d.bin", snapshot.sequence()));
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)));
+            out.writeInt(MAGIC);
+            out.writeLong(snapshot.sequence());
+            out.writeInt(snapshot.users().size());
+            for (Map.Entry<Long, UserState> user : snapshot.users().entrySet()) {
+                out.writeLong(user.getKey());
+                out.writeLong(user.getValue().transactions());
+                Codec.writeDecimal(out, user.getValue().income());
+                Codec.writeDecimal(out, user.getValue().expense());
+            }
+            out.writeInt(snapshot.seededRevisions().size());
+            for (Map.Entry<Long, Long> seeded : snapshot.seededRevisions().entrySet()) {
+                out.writeLong(seeded.getKey());
+                out.writeLong(seeded.getValue());
+            }
+            out.flush();
+            channel.force(true);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        try {
+            Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void deleteSnapshotsBefore(long sequence) throws IOException {
+        for (Path file : snapshots()) {
+            if (sequenceOf(file) < sequence) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    private List<Path> snapshots() {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> path.getFileName().toString().matches("snapshot-\\d{20}\\.bin"))
+                    .sorted()
+                    .toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static long sequenceOf(Path snapshot) {
+        String name = snapshot.getFileName().toString();
+        return Long.parseLong(name.substring("snapshot-".length(), name.length() - ".bin".length()));
+    }
+
+    /** {@code seededRevisions} holds, per user, the sync revision the database seed was taken at. */
+    public record Snapshot(long sequence, Map<Long, UserState> users, Map<Long, Long> seededRevisions) {
+    }
+}
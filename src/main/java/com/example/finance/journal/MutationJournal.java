@@ -0,0 +1,264 @@
+package com.example.finance.journal;
+
+import com.example.finance.dto.TransactionResponse;
+import com.example.finance.event.TransactionChangedEvent;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only, sequence-numbered log of every transaction mutation, split into segment
+ * files named after their first sequence number. Each record is framed as
+ * {@code length:int crc32:int body}; a torn record at the tail is cut off on startup.
+ */
+@Component
+@ConditionalOnProperty(name = "finance.journal.enabled", havingValue = "true")
+public class MutationJournal {
+
+    private static final int MAX_RECORD_BYTES = 1 << 20;
+
+    @Value("${finance.journal.dir:journal}")
+    private Path directory;
+
+    @Value("${finance.journal.fsync:interval}")
+    private FsyncPolicy fsync;
+
+    @Value("${finance.journal.segment-bytes:67108864}")
+    private long segmentBytes;
+
+    private final ByteArrayOutputStream body = new ByteArrayOutputStream(256);
+
+    private final CRC32 crc = new CRC32();
+
+    private FileChannel channel;
+
+    private long nextSequence;
+
+    private boolean dirty;
+
+    @PostConstruct
+    public synchronized void open() throws IOException {
+        Files.createDirectories(directory);
+        List<Path> segments = segments();
+        if (segments.isEmpty()) {
+            startSegment(1);
+            return;
+        }
+        Path last = segments.get(segments.size() - 1);
+        long[] tail = scan(last, Long.MAX_VALUE, entry -> {});
+        channel = FileChannel.open(last, StandardOpenOption.WRITE);
+        channel.truncate(tail[0]);
+        channel.position(tail[0]);
+        nextSequence = tail[1] > 0 ? tail[1] + 1 : firstSequence(last);
+    }
+
+    @PreDestroy
+    public synchronized void close() throws IOException {
+        if (channel != null) {
+            channel.force(false);
+            channel.close();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTransactionChanged(TransactionChangedEvent event) {
+        append(event);
+    }
+
+    /** Appends {@code event} and returns its sequence number. */
+    public synchronized long append(TransactionChangedEvent event) {
+        long sequence = nextSequence;
+        try {
+            body.reset();
+            DataOutputStream out = new DataOutputStream(body);
+            out.writeLong(sequence);
+            out.writeLong(System.currentTimeMillis());
+            out.writeByte(event.type().ordinal());
+            out.writeLong(event.userId());
+            out.writeLong(event.transactionId());
+            writeRow(out, event.before());
+            writeRow(out, event.after());
+            out.writeLong(event.revision());
+
+            byte[] bytes = body.toByteArray();
+            crc.reset();
+            crc.update(bytes);
+            ByteBuffer frame = ByteBuffer.allocate(8 + bytes.length)
+                    .putInt(bytes.length)
+                    .putInt((int) crc.getValue())
+                    .put(bytes)
+                    .flip();
+            while (frame.hasRemaining()) {
+                channel.write(frame);
+            }
+            nextSequence++;
+            if (fsync == FsyncPolicy.ALWAYS) {
+                channel.force(false);
+            } else {
+                dirty = true;
+            }
+            if (channel.position() >= segmentBytes) {
+                channel.force(false);
+                channel.close();
+                startSegment(nextSequence);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return sequence;
+    }
+
+    public synchronized long lastSequence() {
+        return nextSequence - 1;
+    }
+
+    @Scheduled(fixedDelayString = "${finance.journal.fsync-interval-ms:1000}")
+    public synchronized void flush() throws IOException {
+        if (fsync == FsyncPolicy.INTERVAL && dirty) {
+            channel.force(false);
+            dirty = false;
+        }
+    }
+
+    /** Feeds every entry with a sequence number above {@code afterSequence} to {@code consumer}, in order. */
+    public void read(long afterSequence, Consumer<JournalEntry> consumer) {
+        try {
+            List<Path> segments = segments();
+            for (int i = 0; i < segments.size(); i++) {
+                boolean covered = i + 1 < segments.size() && firstSequence(segments.get(i + 1)) <= afterSequence + 1;
+                if (!covered) {
+                    scan(segments.get(i), afterSequence, consumer);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /** Deletes segments whose entries all have sequence numbers up to {@code sequence}. */
+    public void pruneThrough(long sequence) throws IOException {
+        List<Path> segments = segments();
+        for (int i = 0; i + 1 < segments.size(); i++) {
+            if (firstSequence(segments.get(i + 1)) <= sequence + 1) {
+                Files.deleteIfExists(segments.get(i));
+            }
+        }
+    }
+
+    private void startSegment(long firstSequence) throws IOException {
+        Path file = directory.resolve(String.format("journal-%020d.log", firstSequence));
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        channel.position(channel.size());
+        nextSequence = firstSequence;
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> path.getFileName().toString().matches("journal-\\d{20}\\.log"))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private static long firstSequence(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring("journal-".length(), name.length() - ".log".length()));
+    }
+
+    /** Returns {@code {validBytes, lastSequence}}; stops at the first torn or corrupt record. */
+    private static long[] scan(Path segment, long afterSequence, Consumer<JournalEntry> consumer) throws IOException {
+        long valid = 0;
+        long last = 0;
+        CRC32 check = new CRC32();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(segment)))) {
+            while (true) {
+                int length;
+                int expected;
+                byte[] bytes;
+                try {
+                    length = in.readInt();
+                    if (length <= 0 || length > MAX_RECORD_BYTES) {
+                        break;
+                    }
+                    expected = in.readInt();
+                    bytes = new byte[length];
+                    in.readFully(bytes);
+                } catch (EOFException torn) {
+                    break;
+                }
+                check.reset();
+                check.update(bytes);
+                if ((int) check.getValue() != expected) {
+                    break;
+                }
+                JournalEntry entry = decode(bytes);
+                if (entry.sequence() > afterSequence) {
+                    consumer.accept(entry);
+                }
+                valid += 8 + length;
+                last = entry.sequence();
+            }
+        }
+        return new long[]{valid, last};
+    }
+
+    private static JournalEntry decode(byte[] bytes) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+        long sequence = in.readLong();
+        long timestamp = in.readLong();
+        TransactionChangedEvent.Type type = TransactionChangedEvent.Type.values()[in.readByte()];
+        long userId = in.readLong();
+        long transactionId = in.readLong();
+        TransactionResponse before = readRow(in, transactionId);
+        TransactionResponse after = readRow(in, transactionId);
+        // Absent from records appended before revisions were journaled
+        long revision = in.available() >= Long.BYTES ? in.readLong() : 0;
+        return new JournalEntry(sequence, timestamp, type, userId, transactionId, before, after, revision);
+    }
+
+    private static void writeRow(DataOutputStream out, TransactionResponse row) throws IOException {
+        out.writeBoolean(row != null);
+        if (row == null) {
+            return;
+        }
+        Codec.writeDecimal(out, row.amount());
+        out.writeUTF(row.category());
+        Codec.writeNullableUtf(out, row.description());
+        out.writeLong(row.date().toEpochDay());
+    }
+
+    private static TransactionResponse readRow(DataInputStream in, long id) throws IOException {
+        if (!in.readBoolean()) {
+            return null;
+        }
+        BigDecimal amount = Codec.readDecimal(in);
+        String category = in.readUTF();
+        String description = Codec.readNullableUtf(in);
+        LocalDate date = LocalDate.ofEpochDay(in.readLong());
+        return new TransactionResponse(id, amount, description, category, date);
+    }
+}
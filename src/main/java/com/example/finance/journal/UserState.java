@@ -0,0 +1,42 @@
+package com.example.finance.journal;
+
+import com.example.finance.dto.TransactionResponse;
+
+import java.math.BigDecimal;
+
+/** What a snapshot keeps per user: enough to answer count and balance without a table scan. */
+public record UserState(long transactions, BigDecimal income, BigDecimal expense) {
+
+    public static final UserState EMPTY = new UserState(0, BigDecimal.ZERO, BigDecimal.ZERO);
+
+    public BigDecimal balance() {
+        return income.subtract(expense);
+    }
+
+    UserState plus(TransactionResponse row) {
+        return isIncome(row)
+                ? new UserState(transactions + 1, income.add(row.amount()), expense)
+                : new UserState(transactions + 1, income, expense.add(row.amount()));
+    }
+
+    UserState minus(TransactionResponse row) {
+        return isIncome(row)
+                ? new UserState(transactions - 1, income.subtract(row.amount()), expense)
+                : new UserState(transactions - 1, income, expense.subtract(row.amount()));
+    }
+
+    UserState apply(JournalEntry entry) {
+        UserState state = this;
+        if (entry.before() != null) {
+            state = state.minus(entry.before());
+        }
+        if (entry.after() != null) {
+            state = state.plus(entry.after());
+        }
+        return state;
+    }
+
+    private static boolean isIncome(TransactionResponse row) {
+        return row.category().equalsIgnoreCase("Income");
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.finance.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.DoubleSupplier;
+import java.util.function.IntSupplier;
+
+/**
+ * Application-level meters that the HTTP, service and Hibernate metrics don't cover.
+ */
+@Component
+public class FinanceMetrics {
+
+    private final MeterRegistry registry;
+    private final Counter loginSuccess;
+    private final Counter loginFailure;
+
+    public FinanceMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        this.loginSuccess = Counter.builder("finance.auth.logins")
+                .description("Login attempts")
+                .tag("outcome", "success")
+                .register(registry);
+        this.loginFailure = Counter.builder("finance.auth.logins")
+                .description("Login attempts")
+                .tag("outcome", "failure")
+                .register(registry);
+    }
+
+    public void loginSucceeded() {
+        loginSuccess.increment();
+    }
+
+    public void loginFailed() {
+        loginFailure.increment();
+    }
+
+    public void recordRowsReturned(String endpoint, int rows) {
+        DistributionSummary.builder("finance.transactions.rows.returned")
+                .description("Transactions returned per list request")
+                .baseUnit("rows")
+                .tag("endpoint", endpoint)
+                .publishPercentileHistogram()
+                .register(registry)
+                .record(rows);
+    }
+
+    public void rateLimited(String endpointClass) {
+        Counter.builder("finance.ratelimit.rejected")
+                .description("Requests refused with 429 by the per-user rate limiter")
+                .tag("class", endpointClass)
+                .register(registry)
+                .increment();
+    }
+
+    public void loadShed(String endpointClass) {
+        Counter.builder("finance.concurrency.rejected")
+                .description("Requests refused with 503 by the adaptive concurrency limit")
+                .tag("class", endpointClass)
+                .register(registry)
+                .increment();
+    }
+
+    public void concurrencyLimit(IntSupplier limit, IntSupplier inflight) {
+        Gauge.builder("finance.concurrency.limit", limit, IntSupplier::getAsInt)
+                .strongReference(true)
+                .description("Requests currently allowed to run at once")
+                .register(registry);
+        Gauge.builder("finance.concurrency.inflight", inflight, IntSupplier::getAsInt)
+                .strongReference(true)
+                .description("Requests currently running under the concurrency limit")
+                .register(registry);
+    }
+
+    public void anomalyFlagged() {
+        Counter.builder("finance.anomaly.flagged")
+                .description("Transactions flagged as unusually large for their category")
+                .register(registry)
+                .increment();
+    }
+
+    public void invalidationsSent(int count) {
+        Counter.builder("finance.invalidation.sent")
+                .description("Cache invalidations sent to the other nodes")
+                .register(registry)
+                .increment(count);
+    }
+
+    public void invalidationReceived(long lagMillis) {
+        Timer.builder("finance.invalidation.lag")
+                .description("Time from a change on another node to its invalidation being applied here")
+                .publishPercentileHistogram()
+                .register(registry)
+                .record(lagMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public void replicaLag(int replica, DoubleSupplier lagMillis) {
+        Gauge.builder("finance.replication.lag", lagMillis, DoubleSupplier::getAsDouble)
+                .strongReference(true)
+                .description("How far a read replica trails the primary heartbeat")
+                .baseUnit("milliseconds")
+                .tag("replica", String.valueOf(replica))
+                .register(registry);
+    }
+}
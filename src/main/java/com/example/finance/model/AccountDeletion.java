@@ -0,0 +1,91 @@
+package com.example.finance.model;
+
+import jakarta.persistence.*;
+
+/**
+ * Progress of one account deletion. The row outlives the user so the outcome can still be looked up by its id.
+ */
+@Entity
+@Table(name = "account_deletions")
+public class AccountDeletion {
+
+    public enum Status {
+        QUEUED, RUNNING, DONE, FAILED
+    }
+
+    @Id
+    @Column(length = 36)
+    private String id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Status status;
+
+    // Rows purged so far, over all of the user's tables
+    @Column(nullable = false)
+    private long rowsDeleted;
+
+    @Column(nullable = false)
+    private Long requestedAt;
+
+    private Long finishedAt;
+
+    @Column(length = 1000)
+    private String error;
+
+    public AccountDeletion() {}
+
+    public AccountDeletion(String id, Long userId, Long requestedAt) {
+        this.id = id;
+        this.userId = userId;
+        this.requestedAt = requestedAt;
+        this.status = Status.QUEUED;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    public long getRowsDeleted() {
+        return rowsDeleted;
+    }
+
+    public void setRowsDeleted(long rowsDeleted) {
+        this.rowsDeleted = rowsDeleted;
+    }
+
+    public Long getRequestedAt() {
+        return requestedAt;
+    }
+
+    public Long getFinishedAt() {
+        return finishedAt;
+    }
+
+    public void setFinishedAt(Long finishedAt) {
+        this.finishedAt = finishedAt;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+}
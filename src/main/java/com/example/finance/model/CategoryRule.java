@@ -0,0 +1,50 @@
+package com.example.finance.model;
+
+import jakarta.persistence.*;
+
+/**
+ * A user's auto-categorization rule: descriptions containing {@code keyword} as a whole word or phrase get
+ * {@code category}. The keyword is stored trimmed and lower-cased.
+ */
+@Entity
+@Table(name = "category_rules",
+        uniqueConstraints = @UniqueConstraint(name = "uk_category_rules_user_keyword", columnNames = {"user_id", "keyword"}))
+public class CategoryRule {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(nullable = false)
+    private String keyword;
+
+    @Column(nullable = false)
+    private String category;
+
+    public CategoryRule() {}
+
+    public CategoryRule(Long userId, String keyword, String category) {
+        this.userId = userId;
+        this.keyword = keyword;
+        this.category = category;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public String getKeyword() {
+        return keyword;
+    }
+
+    public String getCategory() {
+        return category;
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.finance.model;
+
+import jakarta.persistence.*;
+
+/**
+ * Running amount statistics of one user's transactions in one category (Welford): count, mean and the sum
+ * of squared deviations from the mean ({@code m2}). The category is stored lower-cased.
+ */
+@Entity
+@Table(name = "category_stats",
+        uniqueConstraints = @UniqueConstraint(name = "uk_category_stats_user_category", columnNames = {"user_id", "category"}))
+public class CategoryStats {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(nullable = false)
+    private String category;
+
+    @Column(name = "sample_count", nullable = false)
+    private long count;
+
+    @Column(nullable = false)
+    private double mean;
+
+    @Column(nullable = false)
+    private double m2;
+
+    public CategoryStats() {}
+
+    public CategoryStats(Long userId, String category, long count, double mean, double m2) {
+        this.userId = userId;
+        this.category = category;
+        this.count = count;
+        this.mean = mean;
+        this.m2 = m2;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public double getMean() {
+        return mean;
+    }
+
+    public double getM2() {
+        return m2;
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.finance.model;
+
+import jakarta.persistence.*;
+
+@Entity
+@Table(name = "idempotency_keys",
+        uniqueConstraints = @UniqueConstraint(name = "uk_idempotency_user_key", columnNames = {"user_id", "idempotency_key"}))
+public class IdempotencyRecord {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "idempotency_key", nullable = false)
+    private String idempotencyKey;
+
+    // SHA-256 of the request body the key was first used with
+    @Column(nullable = false, length = 64)
+    private String fingerprint;
+
+    // Serialized response; null while the first request is still running
+    @Column(length = 4000)
+    private String response;
+
+    // When the key was claimed; renewed when a stale claim is taken over
+    @Column(nullable = false)
+    private Long createdAt;
+
+    public IdempotencyRecord() {}
+
+    public IdempotencyRecord(Long userId, String idempotencyKey, String fingerprint, Long createdAt) {
+        this.userId = userId;
+        this.idempotencyKey = idempotencyKey;
+        this.fingerprint = fingerprint;
+        this.createdAt = createdAt;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public String getIdempotencyKey() {
+        return idempotencyKey;
+    }
+
+    public String getFingerprint() {
+        return fingerprint;
+    }
+
+    public String getResponse() {
+        return response;
+    }
+
+    public void setResponse(String response) {
+        this.response = response;
+    }
+
+    public Long getCreatedAt() {
+        return createdAt;
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.finance.model;
+
+import jakarta.persistence.*;
+
+/**
+ * A serialized KLL quantile sketch of one user's transaction amounts in one category (lower-cased) and one
+ * calendar month ({@code yyyymm}). A stale sketch no longer matches the transactions, because one was changed
+ * or deleted, and is rebuilt before it is read.
+ */
+@Entity
+@Table(name = "spending_sketches",
+        uniqueConstraints = @UniqueConstraint(name = "uk_spending_sketches_bucket", columnNames = {"user_id", "category", "bucket_month"}))
+public class SpendingSketch {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(nullable = false)
+    private String category;
+
+    @Column(name = "bucket_month", nullable = false)
+    private int month;
+
+    @Column(nullable = false, length = 8192)
+    private byte[] sketch;
+
+    @Column(nullable = false)
+    private boolean stale;
+
+    @Version
+    private long version;
+
+    public SpendingSketch() {}
+
+    public SpendingSketch(Long userId, String category, int month, byte[] sketch) {
+        this.userId = userId;
+        this.category = category;
+        this.month = month;
+        this.sketch = sketch;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    public int getMonth() {
+        return month;
+    }
+
+    public byte[] getSketch() {
+        return sketch;
+    }
+
+    public void setSketch(byte[] sketch) {
+        this.sketch = sketch;
+    }
+
+    public boolean isStale() {
+        return stale;
+    }
+
+    public void setStale(boolean stale) {
+        this.stale = stale;
+    }
+}
@@ -1,11 +1,16 @@
 package com.example.finance.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 
 @Entity
-@Table(name = "transactions")
+@Table(name = "transactions",
+        indexes = {
+                @Index(name = "idx_transactions_user_fingerprint", columnList = "user_id, fingerprint, date"),
+                @Index(name = "idx_transactions_user_revision", columnList = "user_id, revision")
+        })
 public class Transaction {
 
     @Id
@@ -27,6 +32,19 @@ public class Transaction {
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
 
+    // Category was filled in by the rules rather than the client, so re-categorizing may change it
+    @Column(name = "auto_category", nullable = false)
+    @ColumnDefault("false")
+    private boolean autoCategory;
+
+    // Fingerprints.of(amount, description), for finding duplicates by index
+    private Long fingerprint;
+
+    // The owner's sync revision at the last write, see RevisionLog; 0 for rows written before sync existed
+    @Column(nullable = false)
+    @ColumnDefault("0")
+    private long revision;
+
     public Transaction() {}
 
     public Transaction(BigDecimal amount, String description, String category, LocalDate date, User user) {
@@ -73,6 +91,30 @@ public class Transaction {
         this.date = date;
     }
 
+    public boolean isAutoCategory() {
+        return autoCategory;
+    }
+
+    public void setAutoCategory(boolean autoCategory) {
+        this.autoCategory = autoCategory;
+    }
+
+    public Long getFingerprint() {
+        return fingerprint;
+    }
+
+    public void setFingerprint(Long fingerprint) {
+        this.fingerprint = fingerprint;
+    }
+
+    public long getRevision() {
+        return revision;
+    }
+
+    public void setRevision(long revision) {
+        this.revision = revision;
+    }
+
     public User getUser() {
         return user;
     }
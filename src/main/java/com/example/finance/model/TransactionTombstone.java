@@ -0,0 +1,50 @@
+package com.example.finance.model;
+
+import jakarta.persistence.*;
+
+/**
+ * Records that a transaction was deleted, at the owner's sync revision of the delete, so clients syncing with
+ * {@code /api/transactions/changes} learn about the removal.
+ */
+@Entity
+@Table(name = "transaction_tombstones",
+        indexes = @Index(name = "idx_transaction_tombstones_user_revision", columnList = "user_id, revision"))
+public class TransactionTombstone {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "transaction_id", nullable = false)
+    private Long transactionId;
+
+    @Column(nullable = false)
+    private long revision;
+
+    public TransactionTombstone() {}
+
+    public TransactionTombstone(Long userId, Long transactionId, long revision) {
+        this.userId = userId;
+        this.transactionId = transactionId;
+        this.revision = revision;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public Long getTransactionId() {
+        return transactionId;
+    }
+
+    public long getRevision() {
+        return revision;
+    }
+}
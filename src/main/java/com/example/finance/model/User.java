@@ -1,7 +1,9 @@
 package com.example.finance.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
 import java.util.List;
+import java.util.Objects;
 
 @Entity
 @Table(name = "users") 
@@ -18,6 +20,17 @@ public class User {
 
     private String password; 
 
+    // Epoch millis; tokens issued before this instant are rejected
+    private Long tokensInvalidBefore;
+
+    // Last revision handed out to this user's transaction writes; only ever changed by RevisionLog's atomic bump
+    @Column(name = "sync_revision", nullable = false, insertable = false, updatable = false)
+    @ColumnDefault("0")
+    private long syncRevision;
+
+    // Epoch millis; set when the account's deletion was requested, after which it can no longer log in
+    private Long deletedAt;
+
     @OneToMany(mappedBy = "user", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<Transaction> transactions;
 
@@ -57,6 +70,22 @@ public class User {
         this.password = password;
     }
 
+    public Long getDeletedAt() {
+        return deletedAt;
+    }
+
+    public void setDeletedAt(Long deletedAt) {
+        this.deletedAt = deletedAt;
+    }
+
+    public Long getTokensInvalidBefore() {
+        return tokensInvalidBefore;
+    }
+
+    public void setTokensInvalidBefore(Long tokensInvalidBefore) {
+        this.tokensInvalidBefore = tokensInvalidBefore;
+    }
+
     public List<Transaction> getTransactions() {
         return transactions;
     }
@@ -64,4 +93,22 @@ public class User {
     public void setTransactions(List<Transaction> transactions) {
         this.transactions = transactions;
     }
+
+    // Identity by primary key: the owner of a transaction may be loaded in a different
+    // persistence context (or from a shard's stub row) than the authenticated user.
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof User other)) {
+            return false;
+        }
+        return id != null && id.equals(other.getId());
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(id);
+    }
 }
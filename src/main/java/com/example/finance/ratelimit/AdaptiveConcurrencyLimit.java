@@ -0,0 +1,115 @@
+package com.example.finance.ratelimit;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+/**
+ * How many requests may run at once, adjusted from their latency with a gradient rule. Completed requests are
+ * averaged over a window (at least {@code windowNanos} and {@code windowSamples}); the window's average is
+ * compared with a slow-moving baseline, and the limit is scaled by the ratio:
+ *
+ * <pre>gradient = clamp(tolerance * baseline / recent, 0.5, 1.0)
+ * target   = gradient &lt; 1 ? limit * gradient : limit + sqrt(limit)</pre>
+ *
+ * and moved a {@code smoothing} fraction towards the target. While latency stays within {@code tolerance} times
+ * the baseline the limit probes upwards; past it the limit shrinks, so requests are refused instead of queueing
+ * behind a slow database. The limit does not grow while less than half of it is used.
+ *
+ * <p>Priority requests may fill the whole limit; the others only {@code lowPriorityShare} of it, which leaves
+ * headroom for the priority ones when the limit is reached.
+ */
+final class AdaptiveConcurrencyLimit {
+
+    record Settings(int initialLimit, int minLimit, int maxLimit, double tolerance, double smoothing,
+                    long windowNanos, int windowSamples, double lowPriorityShare) {
+    }
+
+    // The baseline follows the recent latency over about this many windows
+    private static final int BASELINE_WINDOWS = 100;
+
+    private final Settings settings;
+    private final LongSupplier clock;
+    private final AtomicInteger inflight = new AtomicInteger();
+    private volatile int limit;
+
+    // Guarded by this
+    private double estimate;
+    private double baselineNanos;
+    private long windowStart;
+    private long windowRttSum;
+    private int windowCount;
+    private int windowMaxInflight;
+
+    AdaptiveConcurrencyLimit(Settings settings, LongSupplier clock) {
+        this.settings = settings;
+        this.clock = clock;
+        this.estimate = settings.initialLimit();
+        this.limit = settings.initialLimit();
+        this.windowStart = clock.getAsLong();
+    }
+
+    boolean tryAcquire(boolean priority) {
+        int current = limit;
+        int allowed = priority ? current : Math.max(1, (int) (current * settings.lowPriorityShare()));
+        while (true) {
+            int running = inflight.get();
+            if (running >= allowed) {
+                return false;
+            }
+            if (inflight.compareAndSet(running, running + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /** Ends an acquired request. Its latency is only learned from when {@code sample} is set. */
+    void release(long rttNanos, boolean sample) {
+        int running = inflight.getAndDecrement();
+        if (sample) {
+            onSample(rttNanos, running);
+        }
+    }
+
+    int limit() {
+        return limit;
+    }
+
+    int inflight() {
+        return inflight.get();
+    }
+
+    private synchronized void onSample(long rttNanos, int running) {
+        windowRttSum += rttNanos;
+        windowCount++;
+        windowMaxInflight = Math.max(windowMaxInflight, running);
+        long now = clock.getAsLong();
+        if (windowCount < settings.windowSamples() || now - windowStart < settings.windowNanos()) {
+            return;
+        }
+        update((double) windowRttSum / windowCount, windowMaxInflight);
+        windowStart = now;
+        windowRttSum = 0;
+        windowCount = 0;
+        windowMaxInflight = 0;
+    }
+
+    private void update(double recentNanos, int running) {
+        if (baselineNanos == 0) {
+            baselineNanos = recentNanos;
+        } else {
+            baselineNanos += (recentNanos - baselineNanos) / BASELINE_WINDOWS;
+            // After a long slow period the baseline has crept up; let it come back down quickly once latency recovers
+            if (baselineNanos > 2 * recentNanos) {
+                baselineNanos *= 0.95;
+            }
+        }
+        double gradient = Math.max(0.5, Math.min(1.0, settings.tolerance() * baselineNanos / recentNanos));
+        if (gradient >= 1.0 && running < estimate / 2) {
+            return;
+        }
+        double target = gradient < 1.0 ? estimate * gradient : estimate + Math.sqrt(estimate);
+        estimate = estimate * (1 - settings.smoothing()) + target * settings.smoothing();
+        estimate = Math.max(settings.minLimit(), Math.min(settings.maxLimit(), estimate));
+        limit = (int) estimate;
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.finance.ratelimit;
+
+import com.example.finance.metrics.FinanceMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sheds load on {@code /api/**} when the server slows down, placed ahead of {@code JwtFilter} so a refused
+ * request costs no token check or user lookup. The number of requests running at once is capped by an
+ * {@link AdaptiveConcurrencyLimit} learned from their latency; a request over the cap gets 503 with
+ * {@code Retry-After} at once rather than waiting in Tomcat's queue. Logins and writes may use the whole
+ * limit, reads only {@code finance.concurrency.read-share} of it.
+ */
+@Component
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    @Autowired
+    private FinanceMetrics financeMetrics;
+
+    @Value("${finance.concurrency.enabled:true}")
+    private boolean enabled;
+
+    @Value("${finance.concurrency.initial-limit:20}")
+    private int initialLimit;
+
+    @Value("${finance.concurrency.min-limit:4}")
+    private int minLimit;
+
+    @Value("${finance.concurrency.max-limit:200}")
+    private int maxLimit;
+
+    @Value("${finance.concurrency.tolerance:1.5}")
+    private double tolerance;
+
+    @Value("${finance.concurrency.smoothing:0.2}")
+    private double smoothing;
+
+    @Value("${finance.concurrency.window-ms:100}")
+    private long windowMs;
+
+    @Value("${finance.concurrency.window-samples:10}")
+    private int windowSamples;
+
+    @Value("${finance.concurrency.read-share:0.75}")
+    private double readShare;
+
+    private AdaptiveConcurrencyLimit limit;
+
+    @PostConstruct
+    public void init() {
+        limit = new AdaptiveConcurrencyLimit(new AdaptiveConcurrencyLimit.Settings(initialLimit, minLimit, maxLimit,
+                tolerance, smoothing, TimeUnit.MILLISECONDS.toNanos(windowMs), windowSamples, readShare), System::nanoTime);
+        financeMetrics.concurrencyLimit(limit::limit, limit::inflight);
+    }
+
+    // Event streams stay open for minutes and would hold a slot and skew the latency
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String uri = request.getRequestURI();
+        return !enabled || !uri.startsWith("/api/") || uri.endsWith("/stream");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        EndpointClass endpointClass = EndpointClass.of(request);
+        if (!limit.tryAcquire(endpointClass != EndpointClass.READ)) {
+            financeMetrics.loadShed(endpointClass.name().toLowerCase());
+            response.setHeader("Retry-After", "1");
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.getWriter().write("{\"message\":\"Server is busy, retry shortly\","
+                    + "\"timestamp\":\"" + LocalDateTime.now() + "\",\"status\":503,\"error\":\"Service Unavailable\"}");
+            return;
+        }
+        long start = System.nanoTime();
+        boolean completed = false;
+        try {
+            filterChain.doFilter(request, response);
+            completed = true;
+        } finally {
+            // Errors and refusals return early and would make the server look faster than it is
+            limit.release(System.nanoTime() - start, completed && response.getStatus() < 400);
+        }
+    }
+}
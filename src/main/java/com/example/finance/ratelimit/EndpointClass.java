@@ -0,0 +1,18 @@
+package com.example.finance.ratelimit;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/** Requests share a bucket per user and class, so heavy reads cannot use up the write or login budget. */
+public enum EndpointClass {
+    AUTH, READ, WRITE;
+
+    static EndpointClass of(HttpServletRequest request) {
+        if (request.getRequestURI().startsWith("/api/auth/")) {
+            return AUTH;
+        }
+        return switch (request.getMethod()) {
+            case "GET", "HEAD", "OPTIONS" -> READ;
+            default -> WRITE;
+        };
+    }
+}
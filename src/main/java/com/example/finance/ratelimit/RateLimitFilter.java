@@ -0,0 +1,114 @@
+package com.example.finance.ratelimit;
+
+import com.example.finance.metrics.FinanceMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-user quotas for {@code /api/**}, placed right after {@code JwtFilter} so the caller is
+ * known. Authenticated requests are keyed by user; anonymous ones (login, register) by client
+ * address. Each response carries {@code X-RateLimit-Limit} and {@code X-RateLimit-Remaining};
+ * a refused request gets 429 with {@code Retry-After}.
+ */
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    @Autowired
+    private FinanceMetrics financeMetrics;
+
+    @Value("${finance.ratelimit.enabled:true}")
+    private boolean enabled;
+
+    @Value("${finance.ratelimit.read.capacity:100}")
+    private long readCapacity;
+
+    @Value("${finance.ratelimit.read.per-second:50}")
+    private double readPerSecond;
+
+    @Value("${finance.ratelimit.write.capacity:30}")
+    private long writeCapacity;
+
+    @Value("${finance.ratelimit.write.per-second:10}")
+    private double writePerSecond;
+
+    @Value("${finance.ratelimit.auth.capacity:10}")
+    private long authCapacity;
+
+    @Value("${finance.ratelimit.auth.per-second:0.2}")
+    private double authPerSecond;
+
+    @Value("${finance.ratelimit.stripes:16}")
+    private int stripes;
+
+    @Value("${finance.ratelimit.idle-ms:600000}")
+    private long idleMs;
+
+    private TokenBuckets buckets;
+
+    @PostConstruct
+    public void init() {
+        TokenBuckets.Limit[] limits = new TokenBuckets.Limit[EndpointClass.values().length];
+        limits[EndpointClass.AUTH.ordinal()] = new TokenBuckets.Limit(authCapacity, authPerSecond);
+        limits[EndpointClass.READ.ordinal()] = new TokenBuckets.Limit(readCapacity, readPerSecond);
+        limits[EndpointClass.WRITE.ordinal()] = new TokenBuckets.Limit(writeCapacity, writePerSecond);
+        buckets = new TokenBuckets(limits, stripes, TimeUnit.MILLISECONDS.toNanos(idleMs), System::nanoTime);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        EndpointClass endpointClass = EndpointClass.of(request);
+        long result = buckets.tryAcquire(keyOf(request), endpointClass);
+        response.setHeader("X-RateLimit-Limit", Long.toString(buckets.capacity(endpointClass)));
+        if (result >= 0) {
+            response.setHeader("X-RateLimit-Remaining", Long.toString(result));
+            filterChain.doFilter(request, response);
+            return;
+        }
+        long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(-(result + 1) + 999_999_999));
+        financeMetrics.rateLimited(endpointClass.name().toLowerCase());
+        response.setHeader("X-RateLimit-Remaining", "0");
+        response.setHeader("Retry-After", Long.toString(retryAfterSeconds));
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write("{\"message\":\"Rate limit exceeded, retry in " + retryAfterSeconds + "s\","
+                + "\"timestamp\":\"" + LocalDateTime.now() + "\",\"status\":429,\"error\":\"Too Many Requests\"}");
+    }
+
+    @Scheduled(fixedDelayString = "${finance.ratelimit.sweep-interval-ms:10000}")
+    public void evictIdle() {
+        if (buckets != null) {
+            buckets.evictIdle();
+        }
+    }
+
+    private static String keyOf(HttpServletRequest request) {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth != null && auth.isAuthenticated() && !(auth instanceof AnonymousAuthenticationToken)) {
+            return auth.getName();
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+}
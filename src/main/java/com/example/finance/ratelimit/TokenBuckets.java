@@ -0,0 +1,122 @@
+package com.example.finance.ratelimit;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongSupplier;
+
+/**
+ * Token buckets per (key, {@link EndpointClass}), each held as a single long and updated with
+ * CAS, so the hot path takes no lock and allocates nothing once a key has been seen.
+ *
+ * <p>A bucket stores its "theoretical arrival time" (the generic cell rate algorithm): the
+ * instant at which it will be full again. Taking a token pushes that instant one refill
+ * interval further; a request is refused if that would put it more than {@code capacity}
+ * intervals ahead of now. This is exactly a token bucket, without a separate token count and
+ * timestamp to keep consistent.
+ *
+ * <p>Keys are spread over independent stripes. {@link #evictIdle()} sweeps one stripe per call
+ * and drops keys whose buckets have all been full for {@code idleNanos}. A dropped key is
+ * indistinguishable from a new one; at worst a request racing the sweep goes uncounted.
+ */
+public final class TokenBuckets {
+
+    public record Limit(long capacity, double perSecond) {
+    }
+
+    private final long[] intervalNanos;
+    private final long[] toleranceNanos;
+    private final long[] capacity;
+    private final long idleNanos;
+    private final ConcurrentHashMap<String, AtomicLongArray>[] stripes;
+    private final LongSupplier clock;
+    private final long origin;
+    private int nextSweep;
+
+    @SuppressWarnings("unchecked")
+    public TokenBuckets(Limit[] limits, int stripeCount, long idleNanos, LongSupplier clock) {
+        int classes = EndpointClass.values().length;
+        if (limits.length != classes) {
+            throw new IllegalArgumentException("Expected a limit for each of " + classes + " endpoint classes");
+        }
+        this.intervalNanos = new long[classes];
+        this.toleranceNanos = new long[classes];
+        this.capacity = new long[classes];
+        for (int i = 0; i < classes; i++) {
+            intervalNanos[i] = Math.max(1, Math.round(1_000_000_000d / limits[i].perSecond()));
+            capacity[i] = limits[i].capacity();
+            toleranceNanos[i] = intervalNanos[i] * capacity[i];
+        }
+        this.idleNanos = idleNanos;
+        this.stripes = new ConcurrentHashMap[Integer.highestOneBit(Math.max(1, stripeCount - 1)) << 1];
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new ConcurrentHashMap<>();
+        }
+        this.clock = clock;
+        // Relative clock: a zeroed bucket is then always full
+        this.origin = clock.getAsLong() - 1;
+    }
+
+    /**
+     * Takes a token. Returns the tokens left ({@code >= 0}) when allowed, or
+     * {@code -(nanosUntilNextToken) - 1} when refused.
+     */
+    public long tryAcquire(String key, EndpointClass endpointClass) {
+        AtomicLongArray buckets = bucketsOf(key);
+        int i = endpointClass.ordinal();
+        long interval = intervalNanos[i];
+        long tolerance = toleranceNanos[i];
+        while (true) {
+            long now = clock.getAsLong() - origin;
+            long tat = buckets.get(i);
+            long next = Math.max(tat, now) + interval;
+            long ahead = next - now;
+            if (ahead > tolerance) {
+                return -(ahead - tolerance) - 1;
+            }
+            if (buckets.compareAndSet(i, tat, next)) {
+                return (tolerance - ahead) / interval;
+            }
+        }
+    }
+
+    public long capacity(EndpointClass endpointClass) {
+        return capacity[endpointClass.ordinal()];
+    }
+
+    /** Sweeps the next stripe; call it often enough that all stripes are visited within the idle timeout. */
+    public void evictIdle() {
+        ConcurrentHashMap<String, AtomicLongArray> stripe;
+        synchronized (this) {
+            stripe = stripes[nextSweep];
+            nextSweep = (nextSweep + 1) & (stripes.length - 1);
+        }
+        long cutoff = clock.getAsLong() - origin - idleNanos;
+        stripe.values().removeIf(buckets -> {
+            for (int i = 0; i < buckets.length(); i++) {
+                if (buckets.get(i) > cutoff) {
+                    return false;
+                }
+            }
+            return true;
+        });
+    }
+
+    int size() {
+        int size = 0;
+        for (ConcurrentHashMap<String, AtomicLongArray> stripe : stripes) {
+            size += stripe.size();
+        }
+        return size;
+    }
+
+    private AtomicLongArray bucketsOf(String key) {
+        ConcurrentHashMap<String, AtomicLongArray> stripe = stripes[spread(key.hashCode()) & (stripes.length - 1)];
+        AtomicLongArray buckets = stripe.get(key);
+        return buckets != null ? buckets
+                : stripe.computeIfAbsent(key, k -> new AtomicLongArray(EndpointClass.values().length));
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.finance.replication;
+
+/**
+ * The user whose read-only service call is running on the current thread. Only calls
+ * with a bound reader are eligible for a replica; everything else uses the primary.
+ */
+public final class ReplicaContext {
+
+    private static final ThreadLocal<Long> READER = new ThreadLocal<>();
+
+    private ReplicaContext() {}
+
+    public static Long reader() {
+        return READER.get();
+    }
+
+    /** Binds {@code userId} and returns the previous binding for {@link #restore}. */
+    public static Long bind(Long userId) {
+        Long previous = READER.get();
+        READER.set(userId);
+        return previous;
+    }
+
+    public static void restore(Long previous) {
+        if (previous == null) {
+            READER.remove();
+        } else {
+            READER.set(previous);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.finance.replication;
+
+import com.example.finance.model.User;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.annotation.Order;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Binds the reader for {@code @Transactional(readOnly = true)} service calls and records
+ * the user behind every other service call as a writer. Runs outside the transaction
+ * advice, so a write is recorded after it commits.
+ */
+@Aspect
+@Order(0)
+public class ReplicaReadAspect {
+
+    private final ReplicaRouter router;
+
+    public ReplicaReadAspect(ReplicaRouter router) {
+        this.router = router;
+    }
+
+    @Around("within(com.example.finance.service..*) && execution(public * *(..)) && args(.., user)")
+    public Object route(ProceedingJoinPoint joinPoint, User user) throws Throwable {
+        if (user == null || user.getId() == null) {
+            return joinPoint.proceed();
+        }
+        Transactional transactional = AnnotatedElementUtils.findMergedAnnotation(
+                ((MethodSignature) joinPoint.getSignature()).getMethod(), Transactional.class);
+        if (transactional == null || !transactional.readOnly()) {
+            Object result = joinPoint.proceed();
+            router.recordWrite(user.getId());
+            return result;
+        }
+        Long previous = ReplicaContext.bind(user.getId());
+        try {
+            return joinPoint.proceed();
+        } finally {
+            ReplicaContext.restore(previous);
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package com.example.finance.replication;
+
+import com.example.finance.event.TransactionChangedEvent;
+import com.example.finance.invalidation.Invalidation;
+import com.example.finance.metrics.FinanceMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Picks the replica for a read-only call. Replicas are listed in
+ * {@code finance.replication.replicas}; when the list is empty everything uses the primary.
+ *
+ * <p>Lag is measured with a heartbeat row the primary rewrites on every check and the
+ * replicas receive through replication: a replica showing heartbeat {@code t} has applied
+ * every commit made before {@code t}. A replica is used only if it is at most
+ * {@code finance.replication.max-lag-ms} behind and has caught up with the reader's own
+ * last write, which gives read-your-writes without a fixed sticky window. The heartbeat
+ * table is created by the {@code V9__replication_heartbeat} migration.
+ */
+@Component
+public class ReplicaRouter {
+
+    static final String HEARTBEAT_TABLE = "replication_heartbeat";
+
+    @Value("${finance.replication.replicas:}")
+    private List<String> replicaUrls;
+
+    @Value("${finance.replication.max-lag-ms:5000}")
+    private long maxLagMs;
+
+    @Value("${finance.sharding.shards:}")
+    private String shardUrls;
+
+    @Autowired
+    private DataSourceProperties dataSourceProperties;
+
+    @Autowired
+    private ObjectProvider<DataSource> primary;
+
+    @Autowired
+    private FinanceMetrics financeMetrics;
+
+    private final List<Replica> replicas = new ArrayList<>();
+
+    private final ConcurrentHashMap<Long, Long> lastWrite = new ConcurrentHashMap<>();
+
+    private final AtomicInteger next = new AtomicInteger();
+
+    @PostConstruct
+    public void init() {
+        for (String url : replicaUrls) {
+            if (url.isBlank()) {
+                continue;
+            }
+            DataSource dataSource = DataSourceBuilder.create()
+                    .driverClassName(dataSourceProperties.determineDriverClassName())
+                    .url(url.trim())
+                    .username(dataSourceProperties.determineUsername())
+                    .password(dataSourceProperties.determinePassword())
+                    .build();
+            Replica replica = new Replica(dataSource);
+            financeMetrics.replicaLag(replicas.size(), replica::lagMillis);
+            replicas.add(replica);
+        }
+        if (isEnabled() && !shardUrls.isBlank()) {
+            throw new IllegalStateException("finance.replication.replicas cannot be combined with finance.sharding.shards");
+        }
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof Closeable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    public boolean isEnabled() {
+        return !replicas.isEmpty();
+    }
+
+    public int replicaCount() {
+        return replicas.size();
+    }
+
+    public DataSource replica(int index) {
+        return replicas.get(index).dataSource;
+    }
+
+    /** The replica to read from on behalf of {@code userId}, or -1 for the primary. */
+    public int select(long userId) {
+        long now = System.currentTimeMillis();
+        long needed = Math.max(now - maxLagMs, lastWrite.getOrDefault(userId, 0L));
+        int size = replicas.size();
+        int start = Math.floorMod(next.getAndIncrement(), Math.max(size, 1));
+        for (int i = 0; i < size; i++) {
+            int candidate = (start + i) % size;
+            if (replicas.get(candidate).caughtUpTo >= needed) {
+                return candidate;
+            }
+        }
+        return -1;
+    }
+
+    public void recordWrite(long userId) {
+        if (isEnabled()) {
+            lastWrite.merge(userId, System.currentTimeMillis(), Math::max);
+        }
+    }
+
+    // Change listeners run before ReplicaReadAspect records the write; any that read back must see it
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(0)
+    public void onTransactionChanged(TransactionChangedEvent event) {
+        if (event.userId() != null) {
+            recordWrite(event.userId());
+        }
+    }
+
+    // Writes through other nodes, so their readers here also wait for a replica that has them
+    @EventListener
+    public void onInvalidation(Invalidation invalidation) {
+        if (invalidation.scope() == Invalidation.Scope.TRANSACTIONS && isEnabled()) {
+            lastWrite.merge(invalidation.userId(), invalidation.version(), Math::max);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${finance.replication.lag-check-interval-ms:1000}")
+    public void checkLag() {
+        if (!isEnabled()) {
+            return;
+        }
+        JdbcTemplate primaryJdbc = new JdbcTemplate(primary.getObject());
+        primaryJdbc.update("merge into " + HEARTBEAT_TABLE + " (id, beat) key (id) values (1, ?)", System.currentTimeMillis());
+        for (Replica replica : replicas) {
+            try {
+                Long beat = replica.jdbc.queryForObject("select max(beat) from " + HEARTBEAT_TABLE, Long.class);
+                replica.caughtUpTo = beat == null ? Long.MIN_VALUE : beat;
+            } catch (DataAccessException unreachable) {
+                replica.caughtUpTo = Long.MIN_VALUE;
+            }
+        }
+        // Writes older than the lag bound are visible on every replica that is still eligible
+        long horizon = System.currentTimeMillis() - maxLagMs;
+        lastWrite.values().removeIf(written -> written < horizon);
+    }
+
+    private static final class Replica {
+        private final DataSource dataSource;
+        private final JdbcTemplate jdbc;
+        private volatile long caughtUpTo = Long.MIN_VALUE;
+
+        Replica(DataSource dataSource) {
+            this.dataSource = dataSource;
+            this.jdbc = new JdbcTemplate(dataSource);
+        }
+
+        double lagMillis() {
+            return caughtUpTo == Long.MIN_VALUE ? Double.NaN : System.currentTimeMillis() - caughtUpTo;
+        }
+    }
+}
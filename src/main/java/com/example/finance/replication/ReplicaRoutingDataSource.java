@@ -0,0 +1,24 @@
+package com.example.finance.replication;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    private final ReplicaRouter router;
+
+    public ReplicaRoutingDataSource(ReplicaRouter router) {
+        this.router = router;
+    }
+
+    // null selects the primary
+    @Override
+    protected Object determineCurrentLookupKey() {
+        Long reader = ReplicaContext.reader();
+        if (reader == null || !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return null;
+        }
+        int replica = router.select(reader);
+        return replica < 0 ? null : replica;
+    }
+}
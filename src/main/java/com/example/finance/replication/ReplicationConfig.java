@@ -0,0 +1,47 @@
+package com.example.finance.replication;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.Map;
+
+@Configuration
+@ConditionalOnExpression("!'${finance.replication.replicas:}'.isBlank()")
+public class ReplicationConfig {
+
+    // Lazy so the physical connection is taken at the first statement, once the transaction is read-only
+    @Bean
+    @Primary
+    public DataSource dataSource(DataSourceProperties properties, ReplicaRouter router) {
+        Map<Object, Object> targets = new HashMap<>();
+        for (int i = 0; i < router.replicaCount(); i++) {
+            targets.put(i, router.replica(i));
+        }
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(router);
+        routing.setDefaultTargetDataSource(properties.initializeDataSourceBuilder().build());
+        routing.setTargetDataSources(targets);
+        routing.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+
+    // With open-in-view the session would otherwise hold its first connection, replica or not, for the whole request
+    @Bean
+    public HibernatePropertiesCustomizer releaseConnectionAfterTransaction() {
+        return properties -> properties.put(AvailableSettings.CONNECTION_HANDLING,
+                PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION);
+    }
+
+    @Bean
+    public ReplicaReadAspect replicaReadAspect(ReplicaRouter router) {
+        return new ReplicaReadAspect(router);
+    }
+}
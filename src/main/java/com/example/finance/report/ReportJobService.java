@@ -0,0 +1,295 @@
+package com.example.finance.report;
+
+import com.example.finance.dto.ReportJobResponse;
+import com.example.finance.event.TransactionChangedEvent;
+import com.example.finance.invalidation.Invalidation;
+import com.example.finance.model.User;
+import com.example.finance.service.TransactionService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * Runs statement generation off the request threads. Jobs go to a fixed pool with a bounded
+ * queue (full queue: 503) and each user may have only a few queued or running jobs (429).
+ *
+ * <p>Finished statements are files under {@code finance.report.dir}, cached per (user, year)
+ * together with the user's data version at the time the job read the data. Every transaction
+ * change bumps the version, so a submit after a change regenerates while a repeat submit
+ * without one is answered from the cache.
+ */
+@Component
+public class ReportJobService {
+
+    private static final Logger log = LoggerFactory.getLogger(ReportJobService.class);
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${finance.report.dir:reports}")
+    private Path directory;
+
+    @Value("${finance.report.workers:2}")
+    private int workers;
+
+    @Value("${finance.report.queue-capacity:100}")
+    private int queueCapacity;
+
+    @Value("${finance.report.max-active-per-user:2}")
+    private int maxActivePerUser;
+
+    @Value("${finance.report.job-ttl-ms:3600000}")
+    private long jobTtlMs;
+
+    private final ConcurrentHashMap<String, ReportJob> jobs = new ConcurrentHashMap<>();
+
+    private final ConcurrentHashMap<CacheKey, ReportJob> pending = new ConcurrentHashMap<>();
+
+    private final ConcurrentHashMap<Long, AtomicInteger> active = new ConcurrentHashMap<>();
+
+    private final ConcurrentHashMap<Long, Long> dataVersions = new ConcurrentHashMap<>();
+
+    private final ConcurrentHashMap<CacheKey, CachedReport> cache = new ConcurrentHashMap<>();
+
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    public void init() throws IOException {
+        Files.createDirectories(directory);
+        // Versions restart at zero, so files from a previous run cannot be trusted
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.filter(ReportJobService::isReportFile).toList()) {
+                Files.deleteIfExists(file);
+            }
+        }
+        AtomicInteger ids = new AtomicInteger();
+        executor = new ThreadPoolExecutor(workers, workers, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), task -> {
+                    Thread thread = new Thread(task, "report-worker-" + ids.incrementAndGet());
+                    thread.setDaemon(true);
+                    thread.setPriority(Thread.NORM_PRIORITY - 1);
+                    return thread;
+                });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    public ReportJobResponse submit(User user, int year) {
+        CacheKey key = new CacheKey(user.getId(), year);
+        CachedReport cached = cache.get(key);
+        if (cached != null && cached.version == dataVersion(user.getId())) {
+            ReportJob job = new ReportJob(user.getId(), year);
+            job.complete(cached.file);
+            jobs.put(job.id, job);
+            return job.toResponse();
+        }
+
+        // The same statement already queued or running is shared rather than started twice
+        ReportJob[] created = new ReportJob[1];
+        ReportJob job = pending.computeIfAbsent(key, k -> {
+            AtomicInteger running = active.computeIfAbsent(user.getId(), id -> new AtomicInteger());
+            if (running.incrementAndGet() > maxActivePerUser) {
+                running.decrementAndGet();
+                throw new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS,
+                        "At most " + maxActivePerUser + " reports can be in progress at a time");
+            }
+            created[0] = new ReportJob(user.getId(), year);
+            return created[0];
+        });
+        if (job != created[0]) {
+            return job.toResponse();
+        }
+        jobs.put(job.id, job);
+        try {
+            executor.execute(() -> run(job, user));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.id);
+            release(job);
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Report queue is full, try again later");
+        }
+        return job.toResponse();
+    }
+
+    public ReportJobResponse status(User user, String jobId) {
+        return jobOf(user, jobId).toResponse();
+    }
+
+    /** The finished statement file; 409 while the job is still queued or running. */
+    public Path result(User user, String jobId) {
+        ReportJob job = jobOf(user, jobId);
+        if (job.status == ReportStatus.FAILED) {
+            throw new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY, "Report failed: " + job.error);
+        }
+        if (job.status != ReportStatus.DONE) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Report is not ready yet");
+        }
+        return job.file;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTransactionChanged(TransactionChangedEvent event) {
+        dataVersions.merge(event.userId(), 1L, Long::sum);
+    }
+
+    // Writes through other nodes make this node's cached reports for the user stale too
+    @EventListener
+    public void onInvalidation(Invalidation invalidation) {
+        if (invalidation.scope() == Invalidation.Scope.TRANSACTIONS) {
+            dataVersions.merge(invalidation.userId(), 1L, Long::sum);
+        }
+    }
+
+    /** Drops finished jobs past their TTL, stale cache entries, and files nothing points to any more. */
+    @Scheduled(fixedDelayString = "${finance.report.purge-interval-ms:60000}")
+    public synchronized void purge() throws IOException {
+        long cutoff = System.currentTimeMillis() - jobTtlMs;
+        jobs.values().removeIf(job -> job.finishedAt != null && job.finishedAt.toEpochMilli() < cutoff);
+        cache.entrySet().removeIf(entry -> entry.getValue().version != dataVersion(entry.getKey().userId));
+
+        Set<Path> referenced = new HashSet<>();
+        cache.values().forEach(cached -> referenced.add(cached.file));
+        jobs.values().forEach(job -> {
+            if (job.file != null) {
+                referenced.add(job.file);
+            }
+        });
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.filter(ReportJobService::isReportFile).toList()) {
+                if (!referenced.contains(file)) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        }
+    }
+
+    int activeJobs(Long userId) {
+        AtomicInteger running = active.get(userId);
+        return running == null ? 0 : running.get();
+    }
+
+    private void run(ReportJob job, User user) {
+        job.status = ReportStatus.RUNNING;
+        try {
+            long version = dataVersion(user.getId());
+            Statement statement = Statement.of(job.year, transactionService.getAllTransactions(user));
+            Path temp = directory.resolve(job.id + ".tmp");
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                objectMapper.writeValue(out, statement);
+            }
+            publish(job, version, temp);
+        } catch (Exception e) {
+            log.warn("Report job {} failed", job.id, e);
+            release(job);
+            job.fail(e.getMessage());
+        }
+    }
+
+    private void release(ReportJob job) {
+        pending.remove(new CacheKey(job.userId, job.year), job);
+        active.get(job.userId).decrementAndGet();
+    }
+
+    // Under the purge lock so a sweep never sees the file before it is referenced. The slot is freed before the
+    // job reads as done, so a client that sees DONE can submit its next report straight away.
+    private synchronized void publish(ReportJob job, long version, Path temp) {
+        Path file = directory.resolve(String.format("statement-%d-%d-v%d-%s.json", job.userId, job.year, version, job.id));
+        try {
+            Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        cache.merge(new CacheKey(job.userId, job.year), new CachedReport(version, file),
+                (current, next) -> next.version >= current.version ? next : current);
+        release(job);
+        job.complete(file);
+    }
+
+    private ReportJob jobOf(User user, String jobId) {
+        ReportJob job = jobs.get(jobId);
+        if (job == null || !job.userId.equals(user.getId())) {
+            throw new NoSuchElementException("Report job not found");
+        }
+        return job;
+    }
+
+    private static boolean isReportFile(Path file) {
+        return file.getFileName().toString().matches("statement-.+\\.json");
+    }
+
+    private long dataVersion(Long userId) {
+        return dataVersions.getOrDefault(userId, 0L);
+    }
+
+    private static final class ReportJob {
+        final String id = UUID.randomUUID().toString();
+        final Long userId;
+        final int year;
+        final Instant submittedAt = Instant.now();
+        volatile ReportStatus status = ReportStatus.QUEUED;
+        volatile Instant finishedAt;
+        volatile Path file;
+        volatile String error;
+
+        ReportJob(Long userId, int year) {
+            this.userId = userId;
+            this.year = year;
+        }
+
+        void complete(Path result) {
+            file = result;
+            finishedAt = Instant.now();
+            status = ReportStatus.DONE;
+        }
+
+        void fail(String message) {
+            error = message;
+            finishedAt = Instant.now();
+            status = ReportStatus.FAILED;
+        }
+
+        ReportJobResponse toResponse() {
+            return new ReportJobResponse(id, year, status, submittedAt, finishedAt, error);
+        }
+    }
+
+    private record CacheKey(Long userId, int year) {
+    }
+
+    private record CachedReport(long version, Path file) {
+    }
+}
@@ -0,0 +1,5 @@
+package com.example.finance.report;
+
+public enum ReportStatus {
+    QUEUED, RUNNING, DONE, FAILED
+}
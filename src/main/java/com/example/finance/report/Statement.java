@@ -0,0 +1,71 @@
+package com.example.finance.report;
+
+import com.example.finance.dto.TransactionResponse;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/** A year-end statement: totals per month and per category, plus every transaction of the year. */
+public record Statement(
+        int year,
+        BigDecimal income,
+        BigDecimal expense,
+        BigDecimal net,
+        List<MonthTotal> months,
+        List<CategoryTotal> categories,
+        List<TransactionResponse> transactions
+) {
+
+    public record MonthTotal(int month, BigDecimal income, BigDecimal expense, BigDecimal net) {
+    }
+
+    public record CategoryTotal(String category, long count, BigDecimal total) {
+    }
+
+    public static Statement of(int year, List<TransactionResponse> all) {
+        List<TransactionResponse> rows = new ArrayList<>();
+        for (TransactionResponse row : all) {
+            if (row.date().getYear() == year) {
+                rows.add(row);
+            }
+        }
+        rows.sort(Comparator.comparing(TransactionResponse::date).thenComparing(TransactionResponse::id));
+
+        BigDecimal[] monthIncome = new BigDecimal[12];
+        BigDecimal[] monthExpense = new BigDecimal[12];
+        for (int month = 0; month < 12; month++) {
+            monthIncome[month] = BigDecimal.ZERO;
+            monthExpense[month] = BigDecimal.ZERO;
+        }
+        Map<String, BigDecimal> categoryTotals = new TreeMap<>();
+        Map<String, Long> categoryCounts = new TreeMap<>();
+        for (TransactionResponse row : rows) {
+            int month = row.date().getMonthValue() - 1;
+            if (row.category().equalsIgnoreCase("Income")) {
+                monthIncome[month] = monthIncome[month].add(row.amount());
+            } else {
+                monthExpense[month] = monthExpense[month].add(row.amount());
+            }
+            categoryTotals.merge(row.category(), row.amount(), BigDecimal::add);
+            categoryCounts.merge(row.category(), 1L, Long::sum);
+        }
+
+        List<MonthTotal> months = new ArrayList<>(12);
+        BigDecimal income = BigDecimal.ZERO;
+        BigDecimal expense = BigDecimal.ZERO;
+        for (int month = 0; month < 12; month++) {
+            months.add(new MonthTotal(month + 1, monthIncome[month], monthExpense[month],
+                    monthIncome[month].subtract(monthExpense[month])));
+            income = income.add(monthIncome[month]);
+            expense = expense.add(monthExpense[month]);
+        }
+        List<CategoryTotal> categories = categoryTotals.entrySet().stream()
+                .map(entry -> new CategoryTotal(entry.getKey(), categoryCounts.get(entry.getKey()), entry.getValue()))
+                .toList();
+        return new Statement(year, income, expense, income.subtract(expense), months, categories, rows);
+    }
+}
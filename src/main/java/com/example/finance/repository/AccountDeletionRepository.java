@@ -0,0 +1,20 @@
+package com.example.finance.repository;
+
+import com.example.finance.model.AccountDeletion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface AccountDeletionRepository extends JpaRepository<AccountDeletion, String> {
+    List<AccountDeletion> findByStatusIn(Collection<AccountDeletion.Status> statuses);
+
+    @Modifying
+    @Transactional
+    @Query("update AccountDeletion d set d.rowsDeleted = :rows where d.id = :id")
+    void updateProgress(@Param("id") String id, @Param("rows") long rows);
+}
@@ -0,0 +1,14 @@
+package com.example.finance.repository;
+
+import com.example.finance.model.CategoryRule;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+public interface CategoryRuleRepository extends JpaRepository<CategoryRule, Long> {
+    List<CategoryRule> findByUserIdOrderById(Long userId);
+
+    long countByUserId(Long userId);
+
+    boolean existsByUserIdAndKeyword(Long userId, String keyword);
+}
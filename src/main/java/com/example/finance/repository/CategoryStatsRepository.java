@@ -0,0 +1,43 @@
+package com.example.finance.repository;
+
+import com.example.finance.model.CategoryStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+/**
+ * The Welford steps run as single UPDATE statements. The right-hand sides all see the row's values from before
+ * the update, so concurrent writers never lose a step and nothing has to be read or locked first.
+ */
+public interface CategoryStatsRepository extends JpaRepository<CategoryStats, Long> {
+    Optional<CategoryStats> findByUserIdAndCategory(Long userId, String category);
+
+    @Modifying
+    @Transactional
+    @Query("update CategoryStats s set s.count = s.count + 1,"
+            + " s.mean = s.mean + (:x - s.mean) / (s.count + 1),"
+            + " s.m2 = s.m2 + (:x - s.mean) * (:x - s.mean) * s.count / (s.count + 1)"
+            + " where s.userId = :userId and s.category = :category")
+    int add(@Param("userId") Long userId, @Param("category") String category, @Param("x") double x);
+
+    @Modifying
+    @Transactional
+    @Query("update CategoryStats s set s.count = s.count - 1,"
+            + " s.mean = case when s.count > 1 then (s.mean * s.count - :x) / (s.count - 1) else 0.0 end,"
+            + " s.m2 = case when s.count > 1 then s.m2 - (:x - s.mean) * (:x - s.mean) * s.count / (s.count - 1) else 0.0 end"
+            + " where s.userId = :userId and s.category = :category and s.count > 0")
+    int remove(@Param("userId") Long userId, @Param("category") String category, @Param("x") double x);
+
+    // Swaps one value for another at the same count: mean' = mean + (x - y) / n, m2' = m2 + (x - y)(x + y - mean - mean')
+    @Modifying
+    @Transactional
+    @Query("update CategoryStats s set s.mean = s.mean + (:x - :y) / s.count,"
+            + " s.m2 = s.m2 + (:x - :y) * (:x + :y - 2 * s.mean - (:x - :y) / s.count)"
+            + " where s.userId = :userId and s.category = :category and s.count > 0")
+    int replace(@Param("userId") Long userId, @Param("category") String category,
+                @Param("y") double y, @Param("x") double x);
+}
@@ -0,0 +1,26 @@
+package com.example.finance.repository;
+
+import com.example.finance.model.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, Long> {
+    Optional<IdempotencyRecord> findByUserIdAndIdempotencyKey(Long userId, String idempotencyKey);
+
+    // Compare-and-set on the claim time, so only one of several callers takes over a stale claim
+    @Modifying
+    @Transactional
+    @Query("update IdempotencyRecord r set r.createdAt = :now"
+            + " where r.id = :id and r.response is null and r.createdAt = :claimedAt")
+    int reclaim(@Param("id") Long id, @Param("claimedAt") long claimedAt, @Param("now") long now);
+
+    @Modifying
+    @Transactional
+    @Query("delete from IdempotencyRecord r where r.createdAt < :cutoff")
+    int deleteCreatedBefore(@Param("cutoff") long cutoff);
+}
@@ -0,0 +1,15 @@
+package com.example.finance.repository;
+
+import com.example.finance.model.SpendingSketch;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface SpendingSketchRepository extends JpaRepository<SpendingSketch, Long> {
+    Optional<SpendingSketch> findByUserIdAndCategoryAndMonth(Long userId, String category, int month);
+
+    List<SpendingSketch> findByUserIdAndMonthBetween(Long userId, int from, int to);
+
+    List<SpendingSketch> findByUserIdAndCategoryAndMonthBetween(Long userId, String category, int from, int to);
+}
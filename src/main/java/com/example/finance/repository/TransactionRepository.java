@@ -1,11 +1,82 @@
 package com.example.finance.repository;
 
+import com.example.finance.duplicate.Candidate;
 import com.example.finance.model.Transaction;
+import com.example.finance.model.TransactionTombstone;
 import com.example.finance.model.User;
+import com.example.finance.sharding.ShardedByUser;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
+@ShardedByUser
 public interface TransactionRepository extends JpaRepository<Transaction, Long> {
     List<Transaction> findByUser(User user);
+
+    List<Transaction> findByUserAndAutoCategoryTrue(User user);
+
+    // Served by idx_transactions_user_fingerprint
+    @Query("select new com.example.finance.duplicate.Candidate(t.id, t.date, t.amount, t.description) from Transaction t"
+            + " where t.user = :user and t.fingerprint in :fingerprints and t.date between :from and :to"
+            + " order by t.date, t.id")
+    List<Candidate> findDuplicateCandidates(@Param("user") User user, @Param("fingerprints") Collection<Long> fingerprints,
+                                            @Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Query("select distinct t.user.id from Transaction t where t.date < :cutoff")
+    List<Long> findOwnerIdsWithTransactionsBefore(@Param("cutoff") LocalDate cutoff);
+
+    @Query("select t from Transaction t where t.user.id = :userId and t.date < :cutoff")
+    List<Transaction> findByOwnerIdAndDateBefore(@Param("userId") Long userId, @Param("cutoff") LocalDate cutoff);
+
+    // Restores an archived row under its original id
+    @Modifying
+    @Transactional
+    @Query(value = "insert into transactions (id, amount, description, category, date, user_id, auto_category,"
+            + " fingerprint, revision) values (:#{#t.id}, :#{#t.amount}, :#{#t.description}, :#{#t.category},"
+            + " :#{#t.date}, :#{#t.user.id}, :#{#t.autoCategory}, :#{#t.fingerprint}, :#{#t.revision})",
+            nativeQuery = true)
+    void insertWithId(@Param("t") Transaction transaction);
+
+    // Bumps the owner's revision counter by count and returns the new value. The row lock is held until the
+    // caller's transaction ends, which orders the owner's writes by revision. Not flushing first keeps a pending
+    // edit from being written once without its revision and again with it
+    @Transactional(propagation = Propagation.MANDATORY)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FLUSH_MODE, value = "COMMIT"))
+    @Query(value = "select sync_revision from final table"
+            + " (update users set sync_revision = sync_revision + :count where id = :#{#user.id})",
+            nativeQuery = true)
+    Long allocateRevisions(@Param("user") User user, @Param("count") int count);
+
+    @Query("select u.syncRevision from User u where u.id = :#{#user.id}")
+    Optional<Long> findSyncRevision(@Param("user") User user);
+
+    // Served by idx_transactions_user_revision
+    @Query("select t from Transaction t where t.user = :user and t.revision > :since and t.revision <= :until"
+            + " order by t.revision")
+    List<Transaction> findChanges(@Param("user") User user, @Param("since") long since, @Param("until") long until,
+                                  Limit limit);
+
+    @Query("select t from TransactionTombstone t where t.userId = :#{#user.id} and t.revision > :since"
+            + " and t.revision <= :until order by t.revision")
+    List<TransactionTombstone> findTombstones(@Param("user") User user, @Param("since") long since,
+                                              @Param("until") long until, Limit limit);
+
+    @Modifying
+    @Transactional(propagation = Propagation.MANDATORY)
+    @Query(value = "insert into transaction_tombstones (user_id, transaction_id, revision)"
+            + " values (:#{#user.id}, :transactionId, :revision)", nativeQuery = true)
+    void saveTombstone(@Param("user") User user, @Param("transactionId") Long transactionId,
+                       @Param("revision") long revision);
 }
@@ -2,9 +2,19 @@ package com.example.finance.repository;
 
 import com.example.finance.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
+import java.util.List;
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
+
+    List<User> findByTokensInvalidBeforeIsNotNull();
+
+    @Query("select u.email from User u")
+    List<String> findAllEmails();
+
+    @Query("select u.id from User u where u.deletedAt is not null")
+    List<Long> findDeletedIds();
 }
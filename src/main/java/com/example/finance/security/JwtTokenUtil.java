@@ -1,25 +1,34 @@
 package com.example.finance.security;
 
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.JwtException;
 import io.jsonwebtoken.security.Keys;
 import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
 import java.util.Date;
+import java.util.UUID;
 
 @Component
 public class JwtTokenUtil {
 
+    // The standard iat claim only has whole seconds, too coarse to compare with a revoke-all watermark
+    static final String ISSUED_AT_MILLIS = "iat_ms";
+
     @Value("${jwt.secret}")
     private String secret;
 
     @Value("${jwt.expiration}")
     private long expiration;
 
+    @Autowired
+    private TokenRevocationStore revocationStore;
+
     private SecretKey key;
 
     @PostConstruct
@@ -28,32 +37,43 @@ public class JwtTokenUtil {
     }
 
     public String generateToken(String username) {
+        long now = System.currentTimeMillis();
+        long issuedAt = revocationStore.issuedAt(username, now);
         return Jwts.builder()
+                .id(UUID.randomUUID().toString())
                 .subject(username)
-                .issuedAt(new Date())
-                .expiration(new Date(System.currentTimeMillis() + expiration))
+                .issuedAt(new Date(issuedAt))
+                .claim(ISSUED_AT_MILLIS, issuedAt)
+                .expiration(new Date(now + expiration))
                 .signWith(key)
                 .compact();
     }
 
     public String extractUsername(String token) {
+        return extractClaims(token).getSubject();
+    }
+
+    public Claims extractClaims(String token) {
         return Jwts.parser()
                 .verifyWith(key)
                 .build()
                 .parseSignedClaims(token)
-                .getPayload()
-                .getSubject();
+                .getPayload();
     }
 
     public boolean validateToken(String token) {
         try {
-            Jwts.parser()
-                    .verifyWith(key)
-                    .build()
-                    .parseSignedClaims(token);
-            return true;
+            Claims claims = extractClaims(token);
+            return !revocationStore.isRevoked(
+                    claims.getId(), claims.getSubject(), issuedAt(claims), claims.getExpiration());
         } catch (JwtException e) {
             return false;
         }
     }
+
+    // Tokens without the millisecond claim fall back to the start of their iat second
+    private static Date issuedAt(Claims claims) {
+        Long millis = claims.get(ISSUED_AT_MILLIS, Long.class);
+        return millis != null ? new Date(millis) : claims.getIssuedAt();
+    }
 }
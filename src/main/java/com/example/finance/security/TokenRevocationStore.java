@@ -0,0 +1,99 @@
+package com.example.finance.security;
+
+import com.example.finance.invalidation.Invalidation;
+import com.example.finance.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Date;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Revoked token ids grouped into buckets by token expiry, so a bucket can be dropped
+ * as a whole once every token in it has expired, plus a per-user watermark that
+ * invalidates every token issued before it.
+ */
+@Component
+public class TokenRevocationStore {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Value("${jwt.revocation.bucket-seconds:60}")
+    private long bucketSeconds;
+
+    private final ConcurrentHashMap<Long, Set<String>> buckets = new ConcurrentHashMap<>();
+
+    private final ConcurrentHashMap<String, Long> invalidBefore = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        userRepository.findByTokensInvalidBeforeIsNotNull()
+                .forEach(user -> revokeAllIssuedBefore(user.getEmail(), user.getTokensInvalidBefore()));
+    }
+
+    public void revoke(String tokenId, Date expiration) {
+        if (tokenId == null || expiration.getTime() <= System.currentTimeMillis()) {
+            return;
+        }
+        buckets.computeIfAbsent(bucketOf(expiration.getTime()), bucket -> ConcurrentHashMap.newKeySet())
+                .add(tokenId);
+    }
+
+    /** Revokes every token of the user issued up to and including {@code epochMillis}. */
+    public void revokeAllIssuedBefore(String username, long epochMillis) {
+        invalidBefore.merge(username, epochMillis, Math::max);
+    }
+
+    /**
+     * Issue time for a new token: {@code now}, or just past the user's watermark when it was set in this same
+     * millisecond, so logging in right after revoking all sessions works.
+     */
+    public long issuedAt(String username, long now) {
+        Long watermark = invalidBefore.get(username);
+        return watermark != null && watermark >= now ? watermark + 1 : now;
+    }
+
+    // Revocations made on other nodes
+    @EventListener
+    public void onInvalidation(Invalidation invalidation) {
+        switch (invalidation.scope()) {
+            case SESSIONS -> revokeAllIssuedBefore(invalidation.key(), invalidation.version());
+            case TOKEN -> revoke(invalidation.key(), new Date(invalidation.version()));
+            default -> {
+            }
+        }
+    }
+
+    // Lock-free: two hash lookups and no allocation
+    public boolean isRevoked(String tokenId, String username, Date issuedAt, Date expiration) {
+        Long watermark = invalidBefore.get(username);
+        if (watermark != null && (issuedAt == null || issuedAt.getTime() <= watermark)) {
+            return true;
+        }
+        if (tokenId == null || expiration == null) {
+            return false;
+        }
+        Set<String> bucket = buckets.get(bucketOf(expiration.getTime()));
+        return bucket != null && bucket.contains(tokenId);
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.revocation.purge-interval-ms:60000}")
+    public void purgeExpired() {
+        long current = bucketOf(System.currentTimeMillis());
+        buckets.keySet().removeIf(bucket -> bucket < current);
+    }
+
+    int bucketCount() {
+        return buckets.size();
+    }
+
+    private long bucketOf(long epochMillis) {
+        return epochMillis / (bucketSeconds * 1000);
+    }
+}
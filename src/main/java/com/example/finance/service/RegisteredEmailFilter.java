@@ -0,0 +1,130 @@
+package com.example.finance.service;
+
+import com.example.finance.invalidation.Invalidation;
+import com.example.finance.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * In-memory Bloom filter of registered emails. A negative answer is definite, so
+ * registration can skip the email lookup and rely on the unique constraint on
+ * {@code users.email} for the rare race.
+ */
+@Component
+public class RegisteredEmailFilter {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Value("${registration.email-filter.expected-insertions:100000}")
+    private long expectedInsertions;
+
+    @Value("${registration.email-filter.false-positive-rate:0.01}")
+    private double falsePositiveRate;
+
+    private volatile Bits bits;
+
+    @PostConstruct
+    public void init() {
+        rebuild();
+    }
+
+    public boolean mightContain(String email) {
+        return bits.mightContain(email);
+    }
+
+    public void put(String email) {
+        Bits current = bits;
+        current.put(email);
+        if (current.inserted.incrementAndGet() > current.capacity) {
+            rebuild();
+        }
+    }
+
+    // Registrations on other nodes
+    @EventListener
+    public void onInvalidation(Invalidation invalidation) {
+        if (invalidation.scope() == Invalidation.Scope.ACCOUNT) {
+            put(invalidation.key());
+        }
+    }
+
+    public synchronized void rebuild() {
+        List<String> emails = userRepository.findAllEmails();
+        Bits rebuilt = new Bits(Math.max(expectedInsertions, emails.size() * 2L), falsePositiveRate);
+        emails.forEach(rebuilt::put);
+        rebuilt.inserted.set(emails.size());
+        this.bits = rebuilt;
+    }
+
+    private static final class Bits {
+        private final AtomicLongArray words;
+        private final long bitCount;
+        private final int hashCount;
+        private final long capacity;
+        private final AtomicLong inserted = new AtomicLong();
+
+        Bits(long capacity, double fpp) {
+            long m = (long) Math.ceil(-capacity * Math.log(fpp) / (Math.log(2) * Math.log(2)));
+            int wordCount = (int) Math.min(Integer.MAX_VALUE - 8, (m + 63) >>> 6);
+            this.words = new AtomicLongArray(wordCount);
+            this.bitCount = (long) wordCount << 6;
+            this.hashCount = Math.max(1, (int) Math.round((double) m / capacity * Math.log(2)));
+            this.capacity = capacity;
+        }
+
+        void put(String email) {
+            long hash = hash(email);
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 1; i <= hashCount; i++) {
+                long bit = Math.floorMod(h1 + (long) i * h2, bitCount);
+                int word = (int) (bit >>> 6);
+                long mask = 1L << bit;
+                long value;
+                do {
+                    value = words.get(word);
+                    if ((value & mask) != 0) {
+                        break;
+                    }
+                } while (!words.compareAndSet(word, value, value | mask));
+            }
+        }
+
+        boolean mightContain(String email) {
+            long hash = hash(email);
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 1; i <= hashCount; i++) {
+                long bit = Math.floorMod(h1 + (long) i * h2, bitCount);
+                if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        // FNV-1a followed by a murmur3 finalizer so both halves are well mixed.
+        private static long hash(String email) {
+            long h = 0xcbf29ce484222325L;
+            for (byte b : email.getBytes(StandardCharsets.UTF_8)) {
+                h ^= b;
+                h *= 0x100000001b3L;
+            }
+            h ^= h >>> 33;
+            h *= 0xff51afd7ed558ccdL;
+            h ^= h >>> 33;
+            h *= 0xc4ceb9fe1a85ec53L;
+            h ^= h >>> 33;
+            return h;
+        }
+    }
+}
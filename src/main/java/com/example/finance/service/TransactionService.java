@@ -1,73 +1,304 @@
 package com.example.finance.service;
 
+import com.example.finance.anomaly.AnomalyDetector;
+import com.example.finance.archive.ArchivedTransaction;
+import com.example.finance.archive.ColdStore;
+import com.example.finance.categorization.Categorizer;
+import com.example.finance.dto.ImportReport;
+import com.example.finance.dto.TransactionChanges;
 import com.example.finance.dto.TransactionRequest;
 import com.example.finance.dto.TransactionResponse;
+import com.example.finance.duplicate.DuplicateDetector;
+import com.example.finance.duplicate.DuplicateMode;
+import com.example.finance.duplicate.DuplicateWindow;
+import com.example.finance.duplicate.Fingerprints;
+import com.example.finance.event.TransactionChangedEvent;
 import com.example.finance.model.Transaction;
+import com.example.finance.model.TransactionTombstone;
 import com.example.finance.model.User;
 import com.example.finance.repository.TransactionRepository;
+import com.example.finance.sync.RevisionLog;
+import com.example.finance.timing.RequestTiming;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 import org.springframework.http.HttpStatus;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 @Service
+@Timed(value = "finance.service", description = "TransactionService method latency")
 public class TransactionService {
 
     @Autowired
     private TransactionRepository transactionRepository;
 
+    @Autowired
+    private ColdStore coldStore;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private AnomalyDetector anomalyDetector;
+
+    @Autowired
+    private Categorizer categorizer;
+
+    @Autowired
+    private DuplicateDetector duplicateDetector;
+
+    @Autowired
+    private RevisionLog revisionLog;
+
     public TransactionResponse createTransaction(TransactionRequest request, User user) {
+        return create(request, user, duplicateDetector.findDuplicate(user, request));
+    }
+
+    private TransactionResponse create(TransactionRequest request, User user, Long duplicateOf) {
+        boolean autoCategory = isBlank(request.category());
         Transaction txn = new Transaction(
                 request.amount(),
                 request.description(),
-                request.category(),
+                autoCategory ? categorizer.categorize(user.getId(), request.description()) : request.category(),
                 request.date(),
                 user
         );
-        return mapToResponse(transactionRepository.save(txn));
+        txn.setAutoCategory(autoCategory);
+        txn.setFingerprint(Fingerprints.of(request.amount(), request.description()));
+        Transaction saved = revisionLog.save(txn);
+        TransactionResponse created = mapToResponse(saved).withDuplicateOf(duplicateOf);
+        created = created.withAnomaly(anomalyDetector.observe(user.getId(), null, created));
+        publish(TransactionChangedEvent.Type.CREATED, user, null, created, saved.getRevision());
+        return created;
     }
 
+    @Transactional(readOnly = true)
     public List<TransactionResponse> getAllTransactions(User user) {
-        return transactionRepository.findByUser(user).stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+        List<Transaction> hot = transactionRepository.findByUser(user);
+        if (!coldStore.hasArchive(user.getId())) {
+            RequestTiming.Phase outer = RequestTiming.enter(RequestTiming.Phase.MAP);
+            try {
+                return hot.stream()
+                        .map(this::mapToResponse)
+                        .collect(Collectors.toList());
+            } finally {
+                RequestTiming.exit(outer);
+            }
+        }
+        Set<Long> hotIds = hot.stream().map(Transaction::getId).collect(Collectors.toSet());
+        List<TransactionResponse> all = new ArrayList<>();
+        coldStore.transactions(user.getId(), hotIds).forEach(archived -> all.add(mapToResponse(archived)));
+        RequestTiming.Phase outer = RequestTiming.enter(RequestTiming.Phase.MAP);
+        try {
+            hot.forEach(txn -> all.add(mapToResponse(txn)));
+        } finally {
+            RequestTiming.exit(outer);
+        }
+        return all;
+    }
+
+    /**
+     * Transactions written and deleted after revision {@code since}, oldest first and at most {@code limit} of
+     * them; served by the (user, revision) indexes, so the cost follows the number of changes rather than the
+     * history. With {@code since} 0 the client has nothing yet and gets every transaction, archived ones included.
+     */
+    @Transactional(readOnly = true)
+    public TransactionChanges getChanges(User user, long since, int limit) {
+        if (since < 0) {
+            throw new IllegalArgumentException("since must not be negative");
+        }
+        // Read first: every write up to this revision has committed, later ones are picked up next time
+        long current = transactionRepository.findSyncRevision(user).orElse(0L);
+        if (since == 0) {
+            return new TransactionChanges(current, false, getAllTransactions(user), List.of());
+        }
+        if (since > current) {
+            throw new ResponseStatusException(HttpStatus.GONE, "Unknown revision " + since + "; sync again from 0");
+        }
+        List<Transaction> upserts = transactionRepository.findChanges(user, since, current, Limit.of(limit + 1));
+        List<TransactionTombstone> tombstones =
+                transactionRepository.findTombstones(user, since, current, Limit.of(limit + 1));
+
+        // Revisions are unique per user, so merging the two by revision gives one ordered page
+        List<TransactionResponse> changed = new ArrayList<>();
+        List<Long> deleted = new ArrayList<>();
+        long revision = since;
+        int u = 0;
+        int t = 0;
+        while (changed.size() + deleted.size() < limit && (u < upserts.size() || t < tombstones.size())) {
+            if (t == tombstones.size()
+                    || (u < upserts.size() && upserts.get(u).getRevision() < tombstones.get(t).getRevision())) {
+                revision = upserts.get(u).getRevision();
+                changed.add(mapToResponse(upserts.get(u++)));
+            } else {
+                revision = tombstones.get(t).getRevision();
+                deleted.add(tombstones.get(t++).getTransactionId());
+            }
+        }
+        boolean hasMore = u < upserts.size() || t < tombstones.size();
+        return new TransactionChanges(hasMore ? revision : current, hasMore, changed, deleted);
     }
 
     public TransactionResponse updateTransaction(Long id, TransactionRequest request, User user) {
         Transaction txn = transactionRepository.findById(id)
+                .or(() -> restoreArchived(id, user))
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Transaction not found"));
 
         if (!txn.getUser().equals(user)) {
             throw new ResponseStatusException(HttpStatus.FORBIDDEN, "You are not authorized to update this transaction");
         }
 
+        TransactionResponse before = mapToResponse(txn);
         txn.setAmount(request.amount());
         txn.setDescription(request.description());
-        txn.setCategory(request.category());
+        boolean autoCategory = isBlank(request.category());
+        txn.setCategory(autoCategory ? categorizer.categorize(user.getId(), request.description()) : request.category());
+        txn.setAutoCategory(autoCategory);
         txn.setDate(request.date());
+        txn.setFingerprint(Fingerprints.of(request.amount(), request.description()));
 
-        return mapToResponse(transactionRepository.save(txn));
+        Transaction saved = revisionLog.save(txn);
+        TransactionResponse updated = mapToResponse(saved);
+        updated = updated.withAnomaly(anomalyDetector.observe(user.getId(), before, updated));
+        publish(TransactionChangedEvent.Type.UPDATED, user, before, updated, saved.getRevision());
+        return updated;
     }
 
     public TransactionResponse deleteTransaction(Long id, User user) {
-        Transaction txn = transactionRepository.findById(id)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Transaction not found"));
+        Optional<Transaction> hot = transactionRepository.findById(id);
+        if (hot.isEmpty()) {
+            ArchivedTransaction archived = coldStore.find(user.getId(), id)
+                    .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Transaction not found"));
+            // Revision first: a journal seed that reads the row from the archive can tell it was already deleted
+            long revision = revisionLog.tombstone(user, id);
+            coldStore.tombstone(user.getId(), id);
+            TransactionResponse deleted = mapToResponse(archived);
+            anomalyDetector.observe(user.getId(), deleted, null);
+            publish(TransactionChangedEvent.Type.DELETED, user, deleted, null, revision);
+            return deleted;
+        }
+        Transaction txn = hot.get();
 
         if (!txn.getUser().equals(user)) {
             throw new ResponseStatusException(HttpStatus.FORBIDDEN, "You are not authorized to delete this transaction");
         }
 
-        transactionRepository.delete(txn);
-        return mapToResponse(txn);
+        long revision = revisionLog.delete(txn);
+        TransactionResponse deleted = mapToResponse(txn);
+        anomalyDetector.observe(user.getId(), deleted, null);
+        publish(TransactionChangedEvent.Type.DELETED, user, deleted, null, revision);
+        return deleted;
+    }
+
+    /**
+     * Creates each row, checking them all for duplicates with one query: rows are matched against existing
+     * transactions in date order through a {@link DuplicateWindow}, then created in request order.
+     */
+    public ImportReport importTransactions(List<TransactionRequest> requests, User user, DuplicateMode mode) {
+        DuplicateWindow window = duplicateDetector.window(user, requests);
+        Long[] duplicateOf = new Long[requests.size()];
+        IntStream.range(0, requests.size()).boxed()
+                .sorted(Comparator.comparing(i -> requests.get(i).date(), Comparator.nullsLast(Comparator.naturalOrder())))
+                .forEach(i -> duplicateOf[i] = window.claim(
+                        requests.get(i).date(), requests.get(i).amount(), requests.get(i).description()));
+
+        List<TransactionResponse> imported = new ArrayList<>(requests.size());
+        List<ImportReport.SuspectedDuplicate> duplicates = new ArrayList<>();
+        for (int i = 0; i < requests.size(); i++) {
+            boolean skip = duplicateOf[i] != null && mode == DuplicateMode.SKIP;
+            if (duplicateOf[i] != null) {
+                duplicates.add(new ImportReport.SuspectedDuplicate(i, duplicateOf[i], skip));
+            }
+            if (!skip) {
+                imported.add(create(requests.get(i), user, duplicateOf[i]));
+            }
+        }
+        return new ImportReport(requests.size(), imported.size(), requests.size() - imported.size(), imported, duplicates);
+    }
+
+    /**
+     * Re-applies the current rules to the user's transactions whose category came from the rules, leaving
+     * categories the client chose alone. Archived transactions are not revisited. Returns how many changed.
+     */
+    public int recategorize(User user) {
+        List<Transaction> changed = new ArrayList<>();
+        List<TransactionResponse> before = new ArrayList<>();
+        for (Transaction txn : transactionRepository.findByUserAndAutoCategoryTrue(user)) {
+            String category = categorizer.categorize(user.getId(), txn.getDescription());
+            if (!category.equals(txn.getCategory())) {
+                before.add(mapToResponse(txn));
+                txn.setCategory(category);
+                changed.add(txn);
+            }
+        }
+        if (changed.isEmpty()) {
+            return 0;
+        }
+        List<Transaction> saved = revisionLog.saveAll(user, changed);
+        for (int i = 0; i < saved.size(); i++) {
+            TransactionResponse updated = mapToResponse(saved.get(i));
+            anomalyDetector.observe(user.getId(), before.get(i), updated);
+            publish(TransactionChangedEvent.Type.UPDATED, user, before.get(i), updated, saved.get(i).getRevision());
+        }
+        return saved.size();
     }
 
+    @Transactional(readOnly = true)
     public Double calculateBalance(User user) {
-        return transactionRepository.findByUser(user).stream()
+        List<Transaction> hot = transactionRepository.findByUser(user);
+        double balance = hot.stream()
                 .mapToDouble(txn -> txn.getCategory().equalsIgnoreCase("Income") ?
                         txn.getAmount().doubleValue() : -txn.getAmount().doubleValue())
                 .sum();
+        if (coldStore.hasArchive(user.getId())) {
+            balance += coldStore.netAmount(user.getId(), hot.stream().map(Transaction::getId).toList());
+        }
+        return balance;
+    }
+
+    // Edits to archived rows move them back to the hot table under their original id
+    private Optional<Transaction> restoreArchived(Long id, User user) {
+        Optional<ArchivedTransaction> archived = coldStore.find(user.getId(), id);
+        if (archived.isEmpty()) {
+            return Optional.empty();
+        }
+        ArchivedTransaction row = archived.get();
+        Transaction restored = new Transaction(row.amount(), row.description(), row.category(), row.date(), user);
+        restored.setId(row.id());
+        restored.setAutoCategory(row.autoCategory());
+        restored.setFingerprint(row.fingerprint());
+        revisionLog.restore(restored);
+        coldStore.tombstone(user.getId(), id);
+        return transactionRepository.findById(id);
+    }
+
+    private static boolean isBlank(String category) {
+        return category == null || category.isBlank();
+    }
+
+    private void publish(TransactionChangedEvent.Type type, User user, TransactionResponse before, TransactionResponse after,
+                         long revision) {
+        eventPublisher.publishEvent(new TransactionChangedEvent(type, user.getId(), before, after, revision));
+    }
+
+    private TransactionResponse mapToResponse(ArchivedTransaction archived) {
+        return new TransactionResponse(
+                archived.id(),
+                archived.amount(),
+                archived.description(),
+                archived.category(),
+                archived.date()
+        );
     }
 
     private TransactionResponse mapToResponse(Transaction txn) {
@@ -0,0 +1,172 @@
+package com.example.finance.sharding;
+
+import com.example.finance.model.User;
+import com.example.finance.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.rowset.SqlRowSet;
+import org.springframework.jdbc.support.rowset.SqlRowSetMetaData;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Moves transactions onto the shard their owner hashes to under the current
+ * {@code finance.sharding.shards} list. Sources are the current shards plus any retired
+ * shards listed in {@code finance.sharding.rebalance-from}. Rows are copied with
+ * {@code merge} before being deleted from the source, so an interrupted run can simply
+ * be restarted. Moved rows keep their ids. The owner's sync revision and delete tombstones
+ * move along, so clients syncing with {@code /api/transactions/changes} miss nothing.
+ */
+public class ShardRebalancer {
+
+    private static final Logger log = LoggerFactory.getLogger(ShardRebalancer.class);
+
+    @Autowired
+    private ShardRouter router;
+
+    @Autowired
+    private ShardSchemaInitializer schemaInitializer;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private DataSourceProperties dataSourceProperties;
+
+    @Value("${finance.sharding.rebalance-from:}")
+    private List<String> retiredUrls;
+
+    @Value("${finance.sharding.rebalance-batch-size:1000}")
+    private int batchSize;
+
+    /** Returns the number of transactions moved. */
+    public long rebalance() throws IOException {
+        Map<String, JdbcTemplate> sources = new LinkedHashMap<>();
+        List<DataSource> opened = new ArrayList<>();
+        for (int i = 0; i < router.shardCount(); i++) {
+            sources.put(router.shardUrl(i), router.jdbcTemplate(i));
+        }
+        for (String url : retiredUrls) {
+            if (!url.isBlank() && !sources.containsKey(url.trim())) {
+                DataSource retired = open(url.trim());
+                opened.add(retired);
+                sources.put(url.trim(), new JdbcTemplate(retired));
+            }
+        }
+        try {
+            long moved = 0;
+            for (Map.Entry<String, JdbcTemplate> source : sources.entrySet()) {
+                moved += drain(source.getKey(), source.getValue());
+            }
+            advanceIdentities(sources.values());
+            log.info("Rebalanced {} transactions across {} shards", moved, router.shardCount());
+            return moved;
+        } finally {
+            for (DataSource dataSource : opened) {
+                if (dataSource instanceof Closeable closeable) {
+                    closeable.close();
+                }
+            }
+        }
+    }
+
+    private long drain(String sourceUrl, JdbcTemplate source) {
+        long moved = 0;
+        List<Long> userIds = source.queryForList(
+                "select user_id from transactions union select user_id from transaction_tombstones", Long.class);
+        for (Long userId : userIds) {
+            int target = router.shardFor(userId);
+            if (router.shardUrl(target).equals(sourceUrl)) {
+                continue;
+            }
+            User owner = userRepository.findById(userId).orElse(null);
+            if (owner == null) {
+                log.warn("Skipping transactions of unknown user {} on {}", userId, sourceUrl);
+                continue;
+            }
+            router.ensureUserStub(target, owner);
+            moved += moveUser(userId, source, router.jdbcTemplate(target));
+            moveSyncState(userId, source, router.jdbcTemplate(target));
+        }
+        return moved;
+    }
+
+    private long moveUser(long userId, JdbcTemplate source, JdbcTemplate target) {
+        long moved = 0;
+        while (true) {
+            SqlRowSet rows = source.queryForRowSet(
+                    "select * from transactions where user_id = ? order by id limit ?", userId, batchSize);
+            SqlRowSetMetaData meta = rows.getMetaData();
+            String[] columns = meta.getColumnNames();
+            String merge = "merge into transactions (" + String.join(", ", columns) + ") key (id) values ("
+                    + String.join(", ", Collections.nCopies(columns.length, "?")) + ")";
+            List<Object[]> batch = new ArrayList<>();
+            List<Object[]> ids = new ArrayList<>();
+            while (rows.next()) {
+                Object[] values = new Object[columns.length];
+                for (int c = 0; c < columns.length; c++) {
+                    values[c] = rows.getObject(c + 1);
+                }
+                batch.add(values);
+                ids.add(new Object[]{rows.getLong("ID")});
+            }
+            if (batch.isEmpty()) {
+                return moved;
+            }
+            target.batchUpdate(merge, batch);
+            source.batchUpdate("delete from transactions where id = ?", ids);
+            moved += batch.size();
+        }
+    }
+
+    // Rows were moved first, so the target's revision is raised before their tombstones disappear from the source
+    private void moveSyncState(long userId, JdbcTemplate source, JdbcTemplate target) {
+        for (Long revision : source.queryForList("select sync_revision from users where id = ?", Long.class, userId)) {
+            target.update("update users set sync_revision = greatest(sync_revision, ?) where id = ?", revision, userId);
+        }
+        List<Object[]> tombstones = source.query(
+                "select user_id, transaction_id, revision from transaction_tombstones where user_id = ?",
+                (row, n) -> new Object[]{row.getLong(1), row.getLong(2), row.getLong(3)}, userId);
+        target.batchUpdate("insert into transaction_tombstones (user_id, transaction_id, revision) values (?, ?, ?)",
+                tombstones);
+        source.update("delete from transaction_tombstones where user_id = ?", userId);
+    }
+
+    // Moved rows carry ids from other ranges; keep each shard's own range ahead of all of them
+    private void advanceIdentities(Iterable<JdbcTemplate> sources) {
+        for (int shard = 0; shard < router.shardCount(); shard++) {
+            long floor = ShardSchemaInitializer.idFloor(shard);
+            long ceiling = floor + (1L << ShardRouter.ID_RANGE_BITS);
+            long next = floor;
+            for (JdbcTemplate source : sources) {
+                Long max = source.queryForObject(
+                        "select max(id) from transactions where id >= ? and id < ?", Long.class, floor, ceiling);
+                if (max != null) {
+                    next = Math.max(next, max + 1);
+                }
+            }
+            schemaInitializer.advanceIdentity(shard, next);
+        }
+    }
+
+    private DataSource open(String url) {
+        return DataSourceBuilder.create()
+                .driverClassName(dataSourceProperties.determineDriverClassName())
+                .url(url)
+                .username(dataSourceProperties.determineUsername())
+                .password(dataSourceProperties.determinePassword())
+                .build();
+    }
+}
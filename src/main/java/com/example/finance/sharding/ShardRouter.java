@@ -0,0 +1,138 @@
+package com.example.finance.sharding;
+
+import com.example.finance.model.User;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.IntConsumer;
+import java.util.function.Supplier;
+
+/**
+ * Maps users to transaction shards. Shards are listed in {@code finance.sharding.shards};
+ * when the list is empty sharding is disabled and everything stays on the primary
+ * datasource. The {@code users} table always lives on the primary; each shard keeps a
+ * stub row per owning user so the foreign key and the {@code Transaction.user}
+ * association resolve locally.
+ */
+@Component
+public class ShardRouter {
+
+    // Transaction ids on shard i start at (i + 1) << 40, so ids stay globally unique and hint at their shard.
+    static final int ID_RANGE_BITS = 40;
+
+    @Value("${finance.sharding.shards:}")
+    private List<String> shardUrls;
+
+    @Autowired
+    private DataSourceProperties dataSourceProperties;
+
+    private final List<DataSource> shards = new ArrayList<>();
+
+    private final List<JdbcTemplate> jdbcTemplates = new ArrayList<>();
+
+    private final ConcurrentHashMap<Integer, Set<Long>> stubbedUsers = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        for (String url : shardUrls) {
+            if (url.isBlank()) {
+                continue;
+            }
+            DataSource shard = DataSourceBuilder.create()
+                    .driverClassName(dataSourceProperties.determineDriverClassName())
+                    .url(url.trim())
+                    .username(dataSourceProperties.determineUsername())
+                    .password(dataSourceProperties.determinePassword())
+                    .build();
+            shards.add(shard);
+            jdbcTemplates.add(new JdbcTemplate(shard));
+        }
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        for (DataSource shard : shards) {
+            if (shard instanceof Closeable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    public boolean isEnabled() {
+        return !shards.isEmpty();
+    }
+
+    public int shardCount() {
+        return shards.size();
+    }
+
+    public DataSource shard(int index) {
+        return shards.get(index);
+    }
+
+    public String shardUrl(int index) {
+        return shardUrls.stream().filter(url -> !url.isBlank()).map(String::trim).toList().get(index);
+    }
+
+    public int shardFor(long userId) {
+        // Murmur3 finalizer: sequential ids spread evenly across shards
+        long h = userId;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        return Math.floorMod(h, shards.size());
+    }
+
+    /** The shard an id was generated on, or -1 for ids from the unsharded primary. */
+    public int shardHint(long transactionId) {
+        long range = (transactionId >>> ID_RANGE_BITS) - 1;
+        return range >= 0 && range < shards.size() ? (int) range : -1;
+    }
+
+    public <T> T onShardOf(User user, Supplier<T> work) {
+        return isEnabled() ? ShardContext.callOn(shardFor(user.getId()), work) : work.get();
+    }
+
+    /** Runs once per shard with the context bound, or once on the primary when sharding is disabled. */
+    public void forEachShard(IntConsumer work) {
+        if (!isEnabled()) {
+            work.accept(-1);
+            return;
+        }
+        for (int i = 0; i < shards.size(); i++) {
+            int shard = i;
+            ShardContext.callOn(shard, () -> {
+                work.accept(shard);
+                return null;
+            });
+        }
+    }
+
+    public void ensureUserStub(int shard, User user) {
+        Set<Long> known = stubbedUsers.computeIfAbsent(shard, s -> ConcurrentHashMap.newKeySet());
+        if (known.contains(user.getId())) {
+            return;
+        }
+        jdbcTemplates.get(shard).update(
+                "merge into users (id, username, email, password) key (id) values (?, ?, ?, ?)",
+                user.getId(), user.getUsername(), user.getEmail(), user.getPassword());
+        known.add(user.getId());
+    }
+
+    JdbcTemplate jdbcTemplate(int shard) {
+        return jdbcTemplates.get(shard);
+    }
+}
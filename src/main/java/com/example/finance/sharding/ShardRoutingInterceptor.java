@@ -0,0 +1,111 @@
+package com.example.finance.sharding;
+
+import com.example.finance.model.Transaction;
+import com.example.finance.model.User;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.ProxyMethodInvocation;
+
+import java.util.Optional;
+
+/**
+ * Outermost advice on {@link ShardedByUser} repositories. Binds {@link ShardContext}
+ * to the owner's shard before the repository's transaction starts. The shard comes
+ * from an explicitly bound context, a {@link User} or {@link Transaction} argument,
+ * or, for id lookups, the id range with a fall back to probing every shard.
+ */
+public class ShardRoutingInterceptor implements MethodInterceptor {
+
+    private final ShardRouter router;
+
+    public ShardRoutingInterceptor(ShardRouter router) {
+        this.router = router;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        if (!router.isEnabled() || ShardContext.current() != null) {
+            return invocation.proceed();
+        }
+        User owner = ownerOf(invocation.getArguments());
+        if (owner != null) {
+            int shard = router.shardFor(owner.getId());
+            if (isWrite(invocation)) {
+                router.ensureUserStub(shard, owner);
+            }
+            return proceedOn(shard, invocation);
+        }
+        Object[] args = invocation.getArguments();
+        if (args.length == 1 && args[0] instanceof Long id && invocation.getMethod().getReturnType() == Optional.class) {
+            return findAcrossShards(invocation, id);
+        }
+        throw new IllegalStateException("Cannot route " + invocation.getMethod().getName()
+                + " to a shard; bind ShardContext or pass the owning user");
+    }
+
+    private Object findAcrossShards(MethodInvocation invocation, long id) throws Throwable {
+        int hint = router.shardHint(id);
+        if (hint >= 0) {
+            Optional<?> found = (Optional<?>) proceedOn(hint, invocation);
+            if (found.isPresent()) {
+                return found;
+            }
+        }
+        for (int shard = 0; shard < router.shardCount(); shard++) {
+            if (shard == hint) {
+                continue;
+            }
+            Optional<?> found = (Optional<?>) proceedOn(shard, invocation);
+            if (found.isPresent()) {
+                return found;
+            }
+        }
+        return Optional.empty();
+    }
+
+    private Object proceedOn(int shard, MethodInvocation invocation) throws Throwable {
+        MethodInvocation attempt = ((ProxyMethodInvocation) invocation).invocableClone();
+        Throwable[] failure = new Throwable[1];
+        Object result = ShardContext.callOn(shard, () -> {
+            try {
+                return attempt.proceed();
+            } catch (Throwable e) {
+                failure[0] = e;
+                return null;
+            }
+        });
+        if (failure[0] != null) {
+            throw failure[0];
+        }
+        return result;
+    }
+
+    private static User ownerOf(Object[] args) {
+        for (Object arg : args) {
+            if (arg instanceof User user) {
+                return user;
+            }
+            if (arg instanceof Transaction txn) {
+                return txn.getUser();
+            }
+            if (arg instanceof Iterable<?> items) {
+                User owner = null;
+                for (Object item : items) {
+                    User itemOwner = item instanceof Transaction txn ? txn.getUser() : null;
+                    if (itemOwner == null || (owner != null && !owner.getId().equals(itemOwner.getId()))) {
+                        return null;
+                    }
+                    owner = itemOwner;
+                }
+                return owner;
+            }
+        }
+        return null;
+    }
+
+    // Revisions are allocated on the owner's stub row, so that needs the stub as well
+    private static boolean isWrite(MethodInvocation invocation) {
+        String name = invocation.getMethod().getName();
+        return name.startsWith("save") || name.startsWith("allocate");
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.finance.sharding;
+
+import org.flywaydb.core.Flyway;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * Flyway only migrates the primary datasource, so run the same migrations, with the same
+ * {@code spring.flyway.*} settings, on every shard, then start each shard's transaction ids
+ * in its own range.
+ */
+public class ShardSchemaInitializer implements SmartInitializingSingleton {
+
+    @Autowired
+    private Flyway flyway;
+
+    @Autowired
+    private ShardRouter router;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        for (int shard = 0; shard < router.shardCount(); shard++) {
+            Flyway.configure()
+                    .configuration(flyway.getConfiguration())
+                    .dataSource(router.shard(shard))
+                    .load()
+                    .migrate();
+            advanceIdentity(shard, idFloor(shard));
+        }
+    }
+
+    /** Moves the shard's identity forward to at least {@code atLeast}; never backwards. */
+    void advanceIdentity(int shard, long atLeast) {
+        Long next = router.jdbcTemplate(shard).queryForObject(
+                "select identity_base from information_schema.columns"
+                        + " where table_name = 'TRANSACTIONS' and column_name = 'ID'", Long.class);
+        if (next == null || next < atLeast) {
+            router.jdbcTemplate(shard).execute("alter table transactions alter column id restart with " + atLeast);
+        }
+    }
+
+    static long idFloor(int shard) {
+        return ((long) shard + 1) << ShardRouter.ID_RANGE_BITS;
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.finance.sharding;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a repository whose rows are partitioned by owning user. When sharding is
+ * enabled each call is routed to the owner's shard, see {@link ShardRoutingInterceptor}.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ShardedByUser {
+}
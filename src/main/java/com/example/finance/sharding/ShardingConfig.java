@@ -0,0 +1,87 @@
+package com.example.finance.sharding;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.Map;
+
+@Configuration
+@ConditionalOnExpression("!'${finance.sharding.shards:}'.isBlank()")
+public class ShardingConfig {
+
+    // Lazy so the physical connection is taken at the first statement, after the shard is bound
+    @Bean
+    @Primary
+    public DataSource dataSource(DataSourceProperties properties, ShardRouter router) {
+        Map<Object, Object> targets = new HashMap<>();
+        for (int i = 0; i < router.shardCount(); i++) {
+            targets.put(i, router.shard(i));
+        }
+        ShardRoutingDataSource routing = new ShardRoutingDataSource();
+        routing.setDefaultTargetDataSource(properties.initializeDataSourceBuilder().build());
+        routing.setTargetDataSources(targets);
+        routing.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+
+    // With open-in-view the session would otherwise hold its first connection, usually the primary's, for the whole request
+    @Bean
+    public HibernatePropertiesCustomizer releaseConnectionAfterTransaction() {
+        return properties -> properties.put(AvailableSettings.CONNECTION_HANDLING,
+                PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION);
+    }
+
+    @Bean
+    public static BeanPostProcessor shardRoutingPostProcessor(ObjectProvider<ShardRouter> router) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+                    factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+                            (proxyFactory, information) -> {
+                                if (information.getRepositoryInterface().isAnnotationPresent(ShardedByUser.class)) {
+                                    proxyFactory.addAdvice(0, new ShardRoutingInterceptor(router.getObject()));
+                                }
+                            }));
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public ShardSchemaInitializer shardSchemaInitializer() {
+        return new ShardSchemaInitializer();
+    }
+
+    @Bean
+    public ShardRebalancer shardRebalancer() {
+        return new ShardRebalancer();
+    }
+
+    // One-shot mode: start with finance.sharding.rebalance=true, move rows, then exit
+    @Bean
+    @ConditionalOnProperty(name = "finance.sharding.rebalance", havingValue = "true")
+    public ApplicationRunner shardRebalanceRunner(ShardRebalancer rebalancer, ApplicationContext context) {
+        return args -> {
+            rebalancer.rebalance();
+            System.exit(SpringApplication.exit(context));
+        };
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.finance.startup;
+
+import com.example.finance.dto.TransactionResponse;
+import com.example.finance.model.User;
+import com.example.finance.repository.UserRepository;
+import com.example.finance.security.JwtTokenUtil;
+import com.example.finance.service.TransactionService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the hot request paths before the application reports ready, so the first real requests hit JIT-compiled
+ * code and initialized beans: token parsing, the user lookup, the transaction list and balance queries, JSON
+ * encoding, and the servlet and security filter stack (through the liveness probe). Nothing is written: the
+ * queries look up a user id that does not exist.
+ *
+ * <p>Spring Boot only flips readiness to ACCEPTING_TRAFFIC after all application runners have returned.
+ */
+@Component
+public class WarmupRunner implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(WarmupRunner.class);
+
+    private static final String WARMUP_EMAIL = "warmup@localhost";
+
+    @Autowired
+    private ApplicationContext context;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JwtTokenUtil jwtTokenUtil;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${finance.warmup.enabled:false}")
+    private boolean enabled;
+
+    @Value("${finance.warmup.iterations:5000}")
+    private int iterations;
+
+    @Value("${finance.warmup.http-requests:200}")
+    private int httpRequests;
+
+    @Value("${finance.warmup.max-ms:10000}")
+    private long maxMs;
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        if (!enabled) {
+            return;
+        }
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(maxMs);
+
+        // The filter stack first, so the iteration loop cannot starve it of the time budget
+        int requests = 0;
+        if (context instanceof WebServerApplicationContext web && web.getWebServer() != null) {
+            HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+            HttpRequest probe = HttpRequest.newBuilder(
+                    URI.create("http://localhost:" + web.getWebServer().getPort() + "/actuator/health/liveness")).build();
+            while (requests < httpRequests && System.nanoTime() < deadline) {
+                client.send(probe, HttpResponse.BodyHandlers.discarding());
+                requests++;
+            }
+        }
+
+        String token = jwtTokenUtil.generateToken(WARMUP_EMAIL);
+        User nobody = userRepository.getReferenceById(0L);
+        List<TransactionResponse> sample = sample(50);
+        int calls = 0;
+        while (calls < iterations && System.nanoTime() < deadline) {
+            jwtTokenUtil.validateToken(token);
+            userRepository.findByEmail(WARMUP_EMAIL);
+            transactionService.getAllTransactions(nobody);
+            transactionService.calculateBalance(nobody);
+            objectMapper.writeValueAsBytes(sample);
+            calls++;
+        }
+        log.info("Warm-up ran {} HTTP requests and {} service iterations in {} ms",
+                requests, calls, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    private static List<TransactionResponse> sample(int size) {
+        List<TransactionResponse> sample = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            sample.add(new TransactionResponse((long) i, BigDecimal.valueOf(1999 + i, 2), "Warm-up " + i,
+                    i % 5 == 0 ? "Income" : "Groceries", LocalDate.of(2024, 1, 1).plusDays(i)));
+        }
+        return sample;
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.finance.stream;
+
+import com.example.finance.dto.TransactionStreamEvent;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.ArrayDeque;
+
+/**
+ * Bounded queue of events waiting to be written to one subscriber. When it is full the
+ * pending events are dropped and replaced by a single {@code resync}: the client reloads
+ * its transactions instead of the server buffering without limit.
+ */
+final class SubscriberBuffer {
+
+    private final int capacity;
+
+    private final ArrayDeque<Outgoing> pending;
+
+    SubscriberBuffer(int capacity) {
+        this.capacity = capacity;
+        this.pending = new ArrayDeque<>(capacity);
+    }
+
+    synchronized void offer(Outgoing outgoing) {
+        if (pending.size() >= capacity) {
+            pending.clear();
+            pending.add(new Outgoing(outgoing.id(),
+                    new TransactionStreamEvent("resync", null, outgoing.event().balance())));
+            return;
+        }
+        pending.add(outgoing);
+    }
+
+    /** Queues a keep-alive comment unless real events are already pending. */
+    synchronized boolean offerHeartbeat() {
+        if (!pending.isEmpty()) {
+            return false;
+        }
+        pending.add(Outgoing.HEARTBEAT);
+        return true;
+    }
+
+    synchronized Outgoing poll() {
+        return pending.poll();
+    }
+
+    synchronized boolean isEmpty() {
+        return pending.isEmpty();
+    }
+
+    record Outgoing(long id, TransactionStreamEvent event) {
+
+        static final Outgoing HEARTBEAT = new Outgoing(0, null);
+
+        SseEmitter.SseEventBuilder toSse() {
+            if (event == null) {
+                return SseEmitter.event().comment("keep-alive");
+            }
+            return SseEmitter.event()
+                    .id(Long.toString(id))
+                    .name(event.type())
+                    .data(event, MediaType.APPLICATION_JSON);
+        }
+    }
+}
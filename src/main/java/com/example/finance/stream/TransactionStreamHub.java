@@ -0,0 +1,201 @@
+package com.example.finance.stream;
+
+import com.example.finance.dto.TransactionStreamEvent;
+import com.example.finance.event.TransactionChangedEvent;
+import com.example.finance.model.User;
+import com.example.finance.service.TransactionService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fans transaction changes out to each user's open event streams. Work for one user always
+ * runs on the same dispatch thread, so a user's events keep their order and the new balance
+ * is computed once per change, not once per subscriber. Writing to the sockets happens on
+ * separate writer threads, one drain at a time per subscriber, so a slow client only fills
+ * its own bounded buffer; on overflow the buffer is replaced by a single {@code resync}.
+ */
+@Component
+public class TransactionStreamHub {
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Value("${finance.stream.buffer-size:64}")
+    private int bufferSize;
+
+    @Value("${finance.stream.max-per-user:5}")
+    private int maxPerUser;
+
+    @Value("${finance.stream.timeout-ms:1800000}")
+    private long timeoutMs;
+
+    @Value("${finance.stream.dispatch-threads:2}")
+    private int dispatchThreads;
+
+    @Value("${finance.stream.writer-threads:4}")
+    private int writerThreads;
+
+    private final ConcurrentHashMap<Long, Channel> channels = new ConcurrentHashMap<>();
+
+    private ExecutorService[] dispatchers;
+
+    private ExecutorService writers;
+
+    @PostConstruct
+    public void init() {
+        dispatchers = new ExecutorService[dispatchThreads];
+        for (int i = 0; i < dispatchThreads; i++) {
+            dispatchers[i] = Executors.newSingleThreadExecutor(daemon("stream-dispatch-" + i));
+        }
+        AtomicInteger writerIds = new AtomicInteger();
+        writers = Executors.newFixedThreadPool(writerThreads,
+                task -> daemon("stream-writer-" + writerIds.incrementAndGet()).newThread(task));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        channels.values().forEach(channel -> channel.subscribers.forEach(subscriber -> subscriber.emitter.complete()));
+        for (ExecutorService dispatcher : dispatchers) {
+            dispatcher.shutdownNow();
+        }
+        writers.shutdownNow();
+    }
+
+    public SseEmitter subscribe(User user) {
+        Subscriber subscriber = new Subscriber(new SseEmitter(timeoutMs), bufferSize);
+        Channel channel = channels.compute(user.getId(), (id, current) -> {
+            Channel joined = current != null ? current : new Channel(user);
+            if (joined.subscribers.size() >= maxPerUser) {
+                throw new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS, "Too many open streams");
+            }
+            joined.subscribers.add(subscriber);
+            return joined;
+        });
+        Runnable leave = () -> unsubscribe(user.getId(), subscriber);
+        subscriber.emitter.onCompletion(leave);
+        subscriber.emitter.onTimeout(leave);
+        subscriber.emitter.onError(error -> leave.run());
+        dispatcherFor(user.getId()).execute(() ->
+                deliver(channel, subscriber, new TransactionStreamEvent("ready", null, transactionService.calculateBalance(user))));
+        return subscriber.emitter;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTransactionChanged(TransactionChangedEvent event) {
+        if (event.userId() == null || !channels.containsKey(event.userId())) {
+            return;
+        }
+        dispatcherFor(event.userId()).execute(() -> {
+            Channel channel = channels.get(event.userId());
+            if (channel == null) {
+                return;
+            }
+            Double balance = transactionService.calculateBalance(channel.user);
+            TransactionStreamEvent message = new TransactionStreamEvent(event.type().name().toLowerCase(Locale.ROOT),
+                    event.after() != null ? event.after() : event.before(), balance);
+            channel.subscribers.forEach(subscriber -> deliver(channel, subscriber, message));
+        });
+    }
+
+    // Comments keep proxies from closing idle streams and surface dead connections
+    @Scheduled(fixedDelayString = "${finance.stream.heartbeat-ms:15000}")
+    public void heartbeat() {
+        channels.values().forEach(channel -> channel.subscribers.forEach(subscriber -> {
+            if (subscriber.buffer.offerHeartbeat()) {
+                drain(subscriber);
+            }
+        }));
+    }
+
+    int subscriberCount(long userId) {
+        Channel channel = channels.get(userId);
+        return channel == null ? 0 : channel.subscribers.size();
+    }
+
+    private void deliver(Channel channel, Subscriber subscriber, TransactionStreamEvent message) {
+        subscriber.buffer.offer(new SubscriberBuffer.Outgoing(channel.sequence.incrementAndGet(), message));
+        drain(subscriber);
+    }
+
+    private void drain(Subscriber subscriber) {
+        if (!subscriber.draining.compareAndSet(false, true)) {
+            return;
+        }
+        writers.execute(() -> {
+            try {
+                SubscriberBuffer.Outgoing next;
+                while ((next = subscriber.buffer.poll()) != null) {
+                    subscriber.emitter.send(next.toSse());
+                }
+            } catch (Exception gone) {
+                subscriber.emitter.completeWithError(gone);
+                return;
+            } finally {
+                subscriber.draining.set(false);
+            }
+            // An offer may have slipped in between the last poll and clearing the flag
+            if (!subscriber.buffer.isEmpty()) {
+                drain(subscriber);
+            }
+        });
+    }
+
+    private void unsubscribe(long userId, Subscriber subscriber) {
+        channels.computeIfPresent(userId, (id, channel) -> {
+            channel.subscribers.remove(subscriber);
+            return channel.subscribers.isEmpty() ? null : channel;
+        });
+    }
+
+    private ExecutorService dispatcherFor(long userId) {
+        return dispatchers[(int) Math.floorMod(userId, (long) dispatchers.length)];
+    }
+
+    private static ThreadFactory daemon(String name) {
+        return task -> {
+            Thread thread = new Thread(task, name);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private static final class Channel {
+        private final User user;
+        private final Set<Subscriber> subscribers = new CopyOnWriteArraySet<>();
+        private final AtomicLong sequence = new AtomicLong();
+
+        Channel(User user) {
+            this.user = user;
+        }
+    }
+
+    private static final class Subscriber {
+        private final SseEmitter emitter;
+        private final SubscriberBuffer buffer;
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        Subscriber(SseEmitter emitter, int capacity) {
+            this.emitter = emitter;
+            this.buffer = new SubscriberBuffer(capacity);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.finance.sync;
+
+import com.example.finance.model.Transaction;
+import com.example.finance.model.User;
+import com.example.finance.repository.TransactionRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Writes transactions stamped with the owner's next sync revision, and records deletes as tombstones, so
+ * {@code /api/transactions/changes} can return what changed after a revision. Each write allocates its
+ * revision from the owner's counter in the same database transaction; the counter's row lock makes a user's
+ * writes commit in revision order, so once a revision is readable every write up to it is too.
+ */
+@Component
+public class RevisionLog {
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Transactional
+    public Transaction save(Transaction txn) {
+        txn.setRevision(transactionRepository.allocateRevisions(txn.getUser(), 1));
+        return transactionRepository.save(txn);
+    }
+
+    /** Saves transactions that all belong to {@code user}, at consecutive revisions. */
+    @Transactional
+    public List<Transaction> saveAll(User user, List<Transaction> txns) {
+        long revision = transactionRepository.allocateRevisions(user, txns.size()) - txns.size();
+        for (Transaction txn : txns) {
+            txn.setRevision(++revision);
+        }
+        return transactionRepository.saveAll(txns);
+    }
+
+    /** Inserts a transaction under the id it already has, such as one moved back from the archive. */
+    @Transactional
+    public void restore(Transaction txn) {
+        txn.setRevision(transactionRepository.allocateRevisions(txn.getUser(), 1));
+        transactionRepository.insertWithId(txn);
+    }
+
+    /** Returns the revision the delete was recorded at. */
+    @Transactional
+    public long delete(Transaction txn) {
+        long revision = transactionRepository.allocateRevisions(txn.getUser(), 1);
+        transactionRepository.delete(txn);
+        transactionRepository.saveTombstone(txn.getUser(), txn.getId(), revision);
+        return revision;
+    }
+
+    /** Records the delete of a transaction that is no longer in the hot table, such as an archived one. */
+    @Transactional
+    public long tombstone(User user, Long transactionId) {
+        long revision = transactionRepository.allocateRevisions(user, 1);
+        transactionRepository.saveTombstone(user, transactionId, revision);
+        return revision;
+    }
+}
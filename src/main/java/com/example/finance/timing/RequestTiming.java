@@ -0,0 +1,137 @@
+package com.example.finance.timing;
+
+import java.util.Locale;
+import java.util.function.LongSupplier;
+
+/**
+ * Where one request's time went, for the {@code Server-Timing} header and the slow-request log.
+ * Time is charged to one phase at a time: entering a phase pauses the phase it was entered from, so a query
+ * run while authenticating counts as {@code db}, not {@code auth}. Time outside every phase is {@code app}.
+ *
+ * <p>Only {@link ServerTimingFilter} starts a timing. Without one on the current thread, {@link #enter} is a
+ * thread-local read that returns null and {@link #exit} does nothing.
+ */
+public final class RequestTiming {
+
+    public enum Phase {
+        APP, AUTH, DB, MAP, SER;
+
+        final String metric = name().toLowerCase(Locale.ROOT);
+    }
+
+    private static final ThreadLocal<RequestTiming> CURRENT = new ThreadLocal<>();
+
+    private final LongSupplier clock;
+    private final long started;
+    private final long[] nanos = new long[Phase.values().length];
+    private Phase phase = Phase.APP;
+    private long phaseStarted;
+    private long total = -1;
+    private int statements;
+    private int rows = -1;
+
+    RequestTiming(LongSupplier clock) {
+        this.clock = clock;
+        this.started = clock.getAsLong();
+        this.phaseStarted = started;
+    }
+
+    static RequestTiming start(LongSupplier clock) {
+        RequestTiming timing = new RequestTiming(clock);
+        CURRENT.set(timing);
+        return timing;
+    }
+
+    /** Starts charging time to the phase. Returns the phase to hand back to {@link #exit}, or null when not timing. */
+    public static Phase enter(Phase phase) {
+        RequestTiming timing = CURRENT.get();
+        return timing != null ? timing.switchTo(phase) : null;
+    }
+
+    public static void exit(Phase outer) {
+        if (outer != null) {
+            RequestTiming timing = CURRENT.get();
+            if (timing != null) {
+                timing.switchTo(outer);
+            }
+        }
+    }
+
+    public static void countStatement() {
+        RequestTiming timing = CURRENT.get();
+        if (timing != null) {
+            timing.statements++;
+        }
+    }
+
+    public static void rowsReturned(int rows) {
+        RequestTiming timing = CURRENT.get();
+        if (timing != null) {
+            timing.rows = rows;
+        }
+    }
+
+    /** Charges the open phase, detaches the timing from the thread and returns the total in nanoseconds. */
+    long stop() {
+        if (total < 0) {
+            long now = clock.getAsLong();
+            nanos[phase.ordinal()] += now - phaseStarted;
+            total = now - started;
+            if (CURRENT.get() == this) {
+                CURRENT.remove();
+            }
+        }
+        return total;
+    }
+
+    long nanos(Phase phase) {
+        return nanos[phase.ordinal()];
+    }
+
+    int statements() {
+        return statements;
+    }
+
+    int rows() {
+        return rows;
+    }
+
+    /** The {@code Server-Timing} value, e.g. {@code auth;dur=0.41, db;dur=2.10, ..., total;dur=4.32}. */
+    String header() {
+        StringBuilder header = new StringBuilder(96);
+        for (Phase p : Phase.values()) {
+            appendMillis(header.append(p.metric).append(";dur="), nanos[p.ordinal()]).append(", ");
+        }
+        return appendMillis(header.append("total;dur="), total).toString();
+    }
+
+    /** One line for the log: phases in milliseconds, then statement and row counts. */
+    String summary() {
+        StringBuilder summary = appendMillis(new StringBuilder(128).append("total="), total).append("ms");
+        for (Phase p : Phase.values()) {
+            appendMillis(summary.append(' ').append(p.metric).append('='), nanos[p.ordinal()]).append("ms");
+        }
+        summary.append(" statements=").append(statements);
+        if (rows >= 0) {
+            summary.append(" rows=").append(rows);
+        }
+        return summary.toString();
+    }
+
+    private Phase switchTo(Phase next) {
+        long now = clock.getAsLong();
+        nanos[phase.ordinal()] += now - phaseStarted;
+        phaseStarted = now;
+        Phase previous = phase;
+        phase = next;
+        return previous;
+    }
+
+    // Two decimals without String.format, which would cost more than the phases it reports on
+    private static StringBuilder appendMillis(StringBuilder out, long nanos) {
+        long hundredths = Math.max(0, (nanos + 5_000) / 10_000);
+        out.append(hundredths / 100).append('.');
+        long fraction = hundredths % 100;
+        return out.append(fraction < 10 ? "0" : "").append(fraction);
+    }
+}
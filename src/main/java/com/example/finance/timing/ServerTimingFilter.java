@@ -0,0 +1,75 @@
+package com.example.finance.timing;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times each {@code /api/**} request by phase (see {@link RequestTiming}) and reports it as a
+ * {@code Server-Timing} header. Requests slower than {@code finance.timing.slow-ms} are logged with their
+ * phases, SQL statement count and rows returned, sampled at {@code finance.timing.slow-sample-rate}.
+ *
+ * <p>Runs ahead of the security chain so authentication is included. The body is buffered so the header,
+ * which includes serialization, can still be set after the body is written. Event streams are skipped,
+ * since they never finish within the request. File downloads are timed and logged but not buffered, and
+ * so get no header.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@ConditionalOnProperty(name = "finance.timing.enabled", havingValue = "true")
+public class ServerTimingFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(ServerTimingFilter.class);
+
+    @Value("${finance.timing.header:true}")
+    private boolean header;
+
+    @Value("${finance.timing.slow-ms:500}")
+    private long slowMs;
+
+    @Value("${finance.timing.slow-sample-rate:1.0}")
+    private double slowSampleRate;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String uri = request.getRequestURI();
+        return !uri.startsWith("/api/") || uri.endsWith("/stream");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+
+        RequestTiming timing = RequestTiming.start(System::nanoTime);
+        boolean download = request.getRequestURI().endsWith("/download");
+        ContentCachingResponseWrapper buffered = header && !download ? new ContentCachingResponseWrapper(response) : null;
+        try {
+            filterChain.doFilter(request, buffered != null ? buffered : response);
+        } finally {
+            long total = timing.stop();
+            if (buffered != null) {
+                buffered.setHeader("Server-Timing", timing.header());
+                buffered.copyBodyToResponse();
+            }
+            if (total >= TimeUnit.MILLISECONDS.toNanos(slowMs)
+                    && ThreadLocalRandom.current().nextDouble() < slowSampleRate) {
+                log.warn("Slow request {} {} -> {}: {}", request.getMethod(), request.getRequestURI(),
+                        response.getStatus(), timing.summary());
+            }
+        }
+    }
+}
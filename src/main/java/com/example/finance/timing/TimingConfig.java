@@ -0,0 +1,52 @@
+package com.example.finance.timing;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+
+/**
+ * Hooks for {@link RequestTiming} that only exist while timing is enabled: repository calls are charged to
+ * {@code db}, and every SQL statement Hibernate prepares is counted.
+ */
+@Configuration
+@ConditionalOnProperty(name = "finance.timing.enabled", havingValue = "true")
+public class TimingConfig {
+
+    @Bean
+    public static BeanPostProcessor repositoryTimingPostProcessor() {
+        MethodInterceptor timer = invocation -> {
+            RequestTiming.Phase outer = RequestTiming.enter(RequestTiming.Phase.DB);
+            try {
+                return invocation.proceed();
+            } finally {
+                RequestTiming.exit(outer);
+            }
+        };
+
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+                    factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+                            (proxyFactory, information) -> proxyFactory.addAdvice(timer)));
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer statementCounter() {
+        StatementInspector counter = sql -> {
+            RequestTiming.countStatement();
+            return sql;
+        };
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, counter);
+    }
+}
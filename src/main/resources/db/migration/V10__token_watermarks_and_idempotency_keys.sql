@@ -0,0 +1,12 @@
+alter table users add column if not exists tokens_invalid_before bigint;
+
+create table if not exists idempotency_keys (
+    id bigint generated by default as identity,
+    user_id bigint not null,
+    idempotency_key varchar(255) not null,
+    fingerprint varchar(64) not null,
+    response varchar(4000),
+    created_at bigint not null,
+    primary key (id),
+    constraint uk_idempotency_user_key unique (user_id, idempotency_key)
+);
@@ -0,0 +1,23 @@
+-- Schema of the entities before migrations were introduced. Databases created earlier by ddl-auto=update already
+-- have it and are baselined at this version instead (spring.flyway.baseline-on-migrate). Later migrations may find
+-- what they add already created by ddl-auto=update, so they only create what is missing.
+
+create table users (
+    id bigint generated by default as identity,
+    username varchar(255),
+    email varchar(255) not null,
+    password varchar(255),
+    primary key (id),
+    constraint uk_users_email unique (email)
+);
+
+create table transactions (
+    id bigint generated by default as identity,
+    amount numeric(38,2) not null,
+    description varchar(255),
+    category varchar(255) not null,
+    date date not null,
+    user_id bigint not null,
+    primary key (id),
+    constraint fk_transactions_user foreign key (user_id) references users
+);
@@ -0,0 +1,10 @@
+create table if not exists category_stats (
+    id bigint generated by default as identity,
+    user_id bigint not null,
+    category varchar(255) not null,
+    sample_count bigint not null,
+    mean float(53) not null,
+    m2 float(53) not null,
+    primary key (id),
+    constraint uk_category_stats_user_category unique (user_id, category)
+);
@@ -0,0 +1,11 @@
+create table if not exists spending_sketches (
+    id bigint generated by default as identity,
+    user_id bigint not null,
+    category varchar(255) not null,
+    bucket_month integer not null,
+    sketch varbinary(8192) not null,
+    stale boolean not null,
+    version bigint not null,
+    primary key (id),
+    constraint uk_spending_sketches_bucket unique (user_id, category, bucket_month)
+);
@@ -0,0 +1,10 @@
+create table if not exists category_rules (
+    id bigint generated by default as identity,
+    user_id bigint not null,
+    keyword varchar(255) not null,
+    category varchar(255) not null,
+    primary key (id),
+    constraint uk_category_rules_user_keyword unique (user_id, keyword)
+);
+
+alter table transactions add column if not exists auto_category boolean default false not null;
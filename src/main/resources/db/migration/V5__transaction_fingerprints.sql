@@ -0,0 +1,3 @@
+alter table transactions add column if not exists fingerprint bigint;
+
+create index if not exists idx_transactions_user_fingerprint on transactions (user_id, fingerprint, date);
@@ -0,0 +1,15 @@
+alter table users add column if not exists sync_revision bigint default 0 not null;
+
+alter table transactions add column if not exists revision bigint default 0 not null;
+
+create index if not exists idx_transactions_user_revision on transactions (user_id, revision);
+
+create table if not exists transaction_tombstones (
+    id bigint generated by default as identity,
+    user_id bigint not null,
+    transaction_id bigint not null,
+    revision bigint not null,
+    primary key (id)
+);
+
+create index if not exists idx_transaction_tombstones_user_revision on transaction_tombstones (user_id, revision);
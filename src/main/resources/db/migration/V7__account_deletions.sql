@@ -0,0 +1,12 @@
+alter table users add column if not exists deleted_at bigint;
+
+create table if not exists account_deletions (
+    id varchar(36) not null,
+    user_id bigint not null,
+    status varchar(16) not null,
+    rows_deleted bigint not null,
+    requested_at bigint not null,
+    finished_at bigint,
+    error varchar(1000),
+    primary key (id)
+);
@@ -0,0 +1,14 @@
+create table if not exists invalidation_outbox (
+    id bigint generated by default as identity,
+    node varchar(64) not null,
+    scope varchar(16) not null,
+    user_id bigint,
+    item_key varchar(255),
+    version bigint not null,
+    queued_ms bigint not null,
+    created_at timestamp default localtimestamp not null,
+    primary key (id)
+);
+
+-- Retention purge deletes by age
+create index if not exists idx_invalidation_outbox_created_at on invalidation_outbox (created_at);
@@ -0,0 +1,5 @@
+create table if not exists replication_heartbeat (
+    id int not null,
+    beat bigint not null,
+    primary key (id)
+);
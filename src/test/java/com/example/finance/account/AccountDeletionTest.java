@@ -0,0 +1,136 @@
+package com.example.finance.account;
+
+import com.example.finance.model.CategoryRule;
+import com.example.finance.model.Transaction;
+import com.example.finance.model.User;
+import com.example.finance.repository.CategoryRuleRepository;
+import com.example.finance.repository.TransactionRepository;
+import com.example.finance.repository.UserRepository;
+import com.example.finance.security.JwtTokenUtil;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "finance.account-deletion.chunk-size=7")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class AccountDeletionTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private CategoryRuleRepository categoryRuleRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private JwtTokenUtil jwtTokenUtil;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User user;
+    private User other;
+
+    @BeforeEach
+    void setUp() {
+        user = userRepository.save(new User("Leaving", "leaving@example.com", passwordEncoder.encode("Password@123")));
+        other = userRepository.save(new User("Staying", "staying@example.com", "encoded"));
+        List<Transaction> history = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            history.add(new Transaction(new BigDecimal("10.00"), "Item " + i, "Expense",
+                    LocalDate.of(2025, 1, 1).plusDays(i), user));
+        }
+        history.add(new Transaction(new BigDecimal("5.00"), "Kept", "Expense", LocalDate.of(2025, 1, 1), other));
+        transactionRepository.saveAll(history);
+        categoryRuleRepository.save(new CategoryRule(user.getId(), "coffee", "Dining"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        categoryRuleRepository.deleteAllInBatch();
+        transactionRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+        jdbcTemplate.update("delete from account_deletions");
+    }
+
+    @Test
+    void testDeletionRevokesAccessAtOnceAndPurgesInChunks() throws Exception {
+        String bearer = "Bearer " + jwtTokenUtil.generateToken(user.getEmail());
+
+        String body = mockMvc.perform(delete("/api/account").header("Authorization", bearer))
+                .andExpect(status().isAccepted())
+                .andReturn().getResponse().getContentAsString();
+        String id = objectMapper.readTree(body).get("id").asText();
+
+        mockMvc.perform(get("/api/transactions").header("Authorization", bearer))
+                .andExpect(status().is4xxClientError());
+        mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"email\":\"leaving@example.com\",\"password\":\"Password@123\"}"))
+                .andExpect(status().isUnauthorized());
+
+        JsonNode deletion = awaitFinished(id);
+        assertEquals("DONE", deletion.get("status").asText());
+        assertEquals(21, deletion.get("rowsDeleted").asLong());
+        assertFalse(userRepository.existsById(user.getId()));
+        assertEquals(0, count("transactions", user));
+        assertEquals(0, count("category_rules", user));
+        assertEquals(1, count("transactions", other));
+    }
+
+    @Test
+    void testUnknownDeletionIsNotFound() throws Exception {
+        mockMvc.perform(get("/api/account/deletions/no-such-id"))
+                .andExpect(status().isNotFound());
+    }
+
+    private JsonNode awaitFinished(String id) throws Exception {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (true) {
+            String body = mockMvc.perform(get("/api/account/deletions/" + id))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+            JsonNode deletion = objectMapper.readTree(body);
+            String state = deletion.get("status").asText();
+            if (state.equals("DONE") || state.equals("FAILED") || System.currentTimeMillis() > deadline) {
+                return deletion;
+            }
+            Thread.sleep(20);
+        }
+    }
+
+    private long count(String table, User owner) {
+        return jdbcTemplate.queryForObject("select count(*) from " + table + " where user_id = ?", Long.class, owner.getId());
+    }
+}
@@ -0,0 +1,144 @@
+package com.example.finance.anomaly;
+
+import com.example.finance.dto.TransactionRequest;
+import com.example.finance.dto.TransactionResponse;
+import com.example.finance.model.CategoryStats;
+import com.example.finance.model.Transaction;
+import com.example.finance.model.User;
+import com.example.finance.repository.CategoryStatsRepository;
+import com.example.finance.repository.TransactionRepository;
+import com.example.finance.repository.UserRepository;
+import com.example.finance.service.TransactionService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "finance.anomaly.rebuild-chunk=7",
+        "finance.anomaly.rebuild-threads=4"
+})
+@ActiveProfiles("test")
+class AnomalyDetectorTest {
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private AnomalyDetector anomalyDetector;
+
+    @Autowired
+    private CategoryStatsRepository categoryStatsRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = userRepository.save(new User("Stats User", "stats@example.com", "encoded"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        transactionRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+        categoryStatsRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void testCreateUpdateDeleteKeepStatsEqualToTheRows() {
+        Random random = new Random(42);
+        List<TransactionResponse> created = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            String category = i % 3 == 0 ? "Dining" : (i % 2 == 0 ? "Groceries" : "groceries ");
+            created.add(create(BigDecimal.valueOf(1000 + random.nextInt(9000), 2), category));
+        }
+        for (int i = 0; i < 10; i++) {
+            TransactionResponse row = created.get(i);
+            transactionService.updateTransaction(row.id(), new TransactionRequest(
+                    BigDecimal.valueOf(500 + random.nextInt(5000), 2), row.description(),
+                    i % 2 == 0 ? row.category() : "Dining", row.date()), user);
+        }
+        for (int i = 10; i < 16; i++) {
+            transactionService.deleteTransaction(created.get(i).id(), user);
+        }
+
+        assertStatsMatchRows("groceries");
+        assertStatsMatchRows("dining");
+    }
+
+    @Test
+    void testFlagsLargeSpendOnceTheCategoryHasHistory() {
+        for (int i = 0; i < 4; i++) {
+            create(new BigDecimal("48.00").add(BigDecimal.valueOf(i)), "Groceries");
+        }
+        assertNull(create(new BigDecimal("400.00"), "Groceries").anomaly());
+        transactionService.deleteTransaction(transactionRepository.findByUser(user).stream()
+                .filter(txn -> txn.getAmount().compareTo(new BigDecimal("400.00")) == 0)
+                .findFirst().orElseThrow().getId(), user);
+        create(new BigDecimal("52.00"), "Groceries");
+
+        assertNull(create(new BigDecimal("55.00"), "Groceries").anomaly());
+        TransactionResponse spike = create(new BigDecimal("250.00"), "groceries");
+        assertNotNull(spike.anomaly());
+        assertTrue(spike.anomaly().score() >= 3);
+        assertEquals(6, spike.anomaly().categoryCount());
+        assertEquals(new BigDecimal("50.83"), spike.anomaly().categoryMean());
+        assertNull(create(new BigDecimal("250.00"), "Dining").anomaly());
+    }
+
+    @Test
+    void testRebuildReproducesIncrementalStats() {
+        Random random = new Random(7);
+        for (int i = 0; i < 60; i++) {
+            create(BigDecimal.valueOf(100 + random.nextInt(100000), 2), i % 4 == 0 ? "Rent" : "Travel");
+        }
+        CategoryStats rent = categoryStatsRepository.findByUserIdAndCategory(user.getId(), "rent").orElseThrow();
+        CategoryStats travel = categoryStatsRepository.findByUserIdAndCategory(user.getId(), "travel").orElseThrow();
+
+        categoryStatsRepository.deleteAllInBatch();
+        assertTrue(anomalyDetector.rebuild() >= 2);
+
+        assertSameStats(rent, categoryStatsRepository.findByUserIdAndCategory(user.getId(), "rent").orElseThrow());
+        assertSameStats(travel, categoryStatsRepository.findByUserIdAndCategory(user.getId(), "travel").orElseThrow());
+    }
+
+    private TransactionResponse create(BigDecimal amount, String category) {
+        return transactionService.createTransaction(
+                new TransactionRequest(amount, "Item", category, LocalDate.of(2025, 3, 1)), user);
+    }
+
+    private void assertStatsMatchRows(String category) {
+        RunningStats expected = new RunningStats();
+        for (Transaction txn : transactionRepository.findByUser(user)) {
+            if (AnomalyDetector.key(txn.getCategory()).equals(category)) {
+                expected.add(txn.getAmount().doubleValue());
+            }
+        }
+        CategoryStats actual = categoryStatsRepository.findByUserIdAndCategory(user.getId(), category).orElseThrow();
+        assertEquals(expected.count, actual.getCount());
+        assertEquals(expected.mean, actual.getMean(), 1e-9);
+        assertEquals(expected.m2, actual.getM2(), 1e-6);
+    }
+
+    private static void assertSameStats(CategoryStats expected, CategoryStats actual) {
+        assertEquals(expected.getCount(), actual.getCount());
+        assertEquals(expected.getMean(), actual.getMean(), 1e-9);
+        assertEquals(expected.getM2(), actual.getM2(), 1e-6 * Math.max(1, expected.getM2()));
+    }
+}
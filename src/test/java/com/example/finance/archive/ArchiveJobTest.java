@@ -0,0 +1,128 @@
+package com.example.finance.archive;
+
+import com.example.finance.dto.TransactionRequest;
+import com.example.finance.dto.TransactionResponse;
+import com.example.finance.model.Transaction;
+import com.example.finance.model.User;
+import com.example.finance.repository.TransactionRepository;
+import com.example.finance.repository.UserRepository;
+import com.example.finance.service.TransactionService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class ArchiveJobTest {
+
+    @TempDir
+    static Path archiveDir;
+
+    @DynamicPropertySource
+    static void archiveProperties(DynamicPropertyRegistry registry) {
+        registry.add("finance.archive.dir", archiveDir::toString);
+        registry.add("finance.archive.older-than-days", () -> "365");
+    }
+
+    @Autowired
+    private ArchiveJob archiveJob;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ColdStore coldStore;
+
+    @AfterEach
+    void tearDown() {
+        transactionRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void testOldTransactionsMoveToColdTierAndStayVisible() {
+        User user = userRepository.save(new User("Archivist", "archive@example.com", "encoded"));
+        LocalDate old = LocalDate.now().minusYears(5);
+        transactionRepository.saveAll(List.of(
+                new Transaction(new BigDecimal("1000.00"), "Salary", "Income", old, user),
+                new Transaction(new BigDecimal("200.00"), "Rent", "Housing", old.plusDays(1), user),
+                new Transaction(new BigDecimal("50.00"), "Food", "Groceries", old.plusDays(2), user),
+                new Transaction(new BigDecimal("30.00"), "Food", "Groceries", LocalDate.now(), user)));
+        double balance = transactionService.calculateBalance(user);
+
+        assertEquals(3, archiveJob.run());
+
+        assertEquals(1, transactionRepository.findByUser(user).size());
+        assertEquals(4, transactionService.getAllTransactions(user).size());
+        assertEquals(balance, transactionService.calculateBalance(user));
+    }
+
+    @Test
+    void testArchivedRowsCanBeEditedAndDeleted() {
+        User user = userRepository.save(new User("Editor", "editor@example.com", "encoded"));
+        LocalDate old = LocalDate.now().minusYears(3);
+        List<Transaction> saved = transactionRepository.saveAll(List.of(
+                new Transaction(new BigDecimal("100.00"), "Gift", "Income", old, user),
+                new Transaction(new BigDecimal("40.00"), "Taxi", "Transport", old, user)));
+        archiveJob.run();
+        Long editedId = saved.get(0).getId();
+        Long deletedId = saved.get(1).getId();
+
+        TransactionResponse edited = transactionService.updateTransaction(editedId,
+                new TransactionRequest(new BigDecimal("120.00"), "Gift", "Income", old), user);
+        transactionService.deleteTransaction(deletedId, user);
+
+        assertEquals(editedId, edited.id());
+        assertTrue(transactionRepository.findById(editedId).isPresent());
+        List<TransactionResponse> all = transactionService.getAllTransactions(user);
+        assertEquals(1, all.size());
+        assertEquals(new BigDecimal("120.00"), all.get(0).amount());
+        assertEquals(120.0, transactionService.calculateBalance(user));
+
+        // Re-archiving the edited row replaces the old copy instead of duplicating it
+        assertEquals(1, archiveJob.run());
+        assertEquals(1, transactionService.getAllTransactions(user).size());
+        assertEquals(120.0, transactionService.calculateBalance(user));
+    }
+
+    @Test
+    void testArchiveKeepsAutoCategoryAndFingerprint() {
+        User user = userRepository.save(new User("Keeper", "keeper@example.com", "encoded"));
+        LocalDate old = LocalDate.now().minusYears(2);
+        TransactionResponse created = transactionService.createTransaction(
+                new TransactionRequest(new BigDecimal("25.00"), "Corner shop", null, old), user);
+        Transaction hot = transactionRepository.findById(created.id()).orElseThrow();
+        long since = transactionService.getChanges(user, 0, 100).revision();
+
+        archiveJob.run();
+
+        ArchivedTransaction archived = coldStore.find(user.getId(), created.id()).orElseThrow();
+        assertTrue(archived.autoCategory());
+        assertEquals(hot.getFingerprint(), archived.fingerprint());
+
+        transactionService.updateTransaction(created.id(),
+                new TransactionRequest(new BigDecimal("26.00"), "Corner shop", "Groceries", old), user);
+        Transaction restored = transactionRepository.findById(created.id()).orElseThrow();
+        assertTrue(restored.getRevision() > since + 1);
+        assertEquals(List.of(created.id()), transactionService.getChanges(user, since, 100).upserts().stream()
+                .map(TransactionResponse::id).toList());
+    }
+}
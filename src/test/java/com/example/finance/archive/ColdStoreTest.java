@@ -0,0 +1,104 @@
+package com.example.finance.archive;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ColdStoreTest {
+
+    private static final LocalDate START = LocalDate.of(2010, 1, 1);
+
+    @TempDir
+    private Path directory;
+
+    private ColdStore coldStore;
+
+    @BeforeEach
+    void setUp() {
+        coldStore = newStore();
+    }
+
+    @Test
+    void testArchivedRowsRoundTripThroughSegment() {
+        coldStore.archive(1L, rows(1, 1000));
+
+        List<ArchivedTransaction> rows = coldStore.transactions(1L, Set.of());
+        assertEquals(1000, rows.size());
+        assertEquals(START, rows.get(0).date());
+        assertEquals(new BigDecimal("1.01"), rows.get(0).amount());
+        assertNull(rows.get(0).description());
+        assertEquals("Item 2", rows.get(1).description());
+        assertFalse(rows.get(0).autoCategory());
+        assertNull(rows.get(0).fingerprint());
+        assertTrue(rows.get(3).autoCategory());
+        assertEquals(124L, rows.get(3).fingerprint());
+        assertEquals(expectedNet(rows), coldStore.netAmount(1L, List.of()), 1e-6);
+        assertFalse(coldStore.hasArchive(2L));
+    }
+
+    @Test
+    void testDateIndexReadsOnlyRequestedRange() {
+        coldStore.archive(1L, rows(1, 1000));
+        Segment segment = Segment.open(directory.resolve("1").resolve("seg-0000000001.fseg"));
+
+        List<ArchivedTransaction> march = segment.read(START.plusDays(600), START.plusDays(630));
+
+        assertEquals(31, march.size());
+        assertEquals(START.plusDays(600), march.get(0).date());
+        assertEquals(700L, segment.find(700).orElseThrow().id());
+        assertTrue(segment.find(5000).isEmpty());
+    }
+
+    @Test
+    void testTombstonesHideRowsAndSurviveRestart() {
+        coldStore.archive(1L, rows(1, 10));
+        coldStore.tombstone(1L, 3);
+
+        ColdStore reopened = newStore();
+        assertTrue(reopened.find(1L, 3).isEmpty());
+        assertEquals(9, reopened.transactions(1L, Set.of()).size());
+        assertEquals(8, reopened.transactions(1L, Set.of(4L)).size());
+        assertEquals(expectedNet(reopened.transactions(1L, Set.of(4L))), reopened.netAmount(1L, List.of(4L)), 1e-6);
+    }
+
+    @Test
+    void testNextGenerationMergesAndDropsTombstones() {
+        coldStore.archive(1L, rows(1, 10));
+        coldStore.tombstone(1L, 3);
+        coldStore.archive(1L, rows(11, 20));
+
+        ColdStore reopened = newStore();
+        assertEquals(19, reopened.transactions(1L, Set.of()).size());
+        assertTrue(reopened.find(1L, 3).isEmpty());
+        assertFalse(directory.resolve("1").resolve("seg-0000000001.fseg").toFile().exists());
+    }
+
+    private ColdStore newStore() {
+        ColdStore store = new ColdStore();
+        ReflectionTestUtils.setField(store, "directory", directory);
+        return store;
+    }
+
+    private static List<ArchivedTransaction> rows(long fromId, long toId) {
+        List<ArchivedTransaction> rows = new ArrayList<>();
+        for (long id = fromId; id <= toId; id++) {
+            rows.add(new ArchivedTransaction(id, new BigDecimal(id + ".01"), id % 2 == 0 ? "Item " + id : null,
+                    id % 3 == 0 ? "Income" : "Groceries", START.plusDays(id - 1), id % 4 == 0, id % 2 == 0 ? id * 31 : null));
+        }
+        return rows;
+    }
+
+    private static double expectedNet(List<ArchivedTransaction> rows) {
+        return rows.stream().mapToDouble(ArchivedTransaction::signedAmount).sum();
+    }
+}
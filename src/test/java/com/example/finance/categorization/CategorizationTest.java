@@ -0,0 +1,122 @@
+package com.example.finance.categorization;
+
+import com.example.finance.dto.TransactionRequest;
+import com.example.finance.dto.TransactionResponse;
+import com.example.finance.duplicate.DuplicateMode;
+import com.example.finance.model.CategoryRule;
+import com.example.finance.model.User;
+import com.example.finance.repository.CategoryRuleRepository;
+import com.example.finance.repository.TransactionRepository;
+import com.example.finance.repository.UserRepository;
+import com.example.finance.service.TransactionService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "finance.categorization.recategorize-threads=3")
+@ActiveProfiles("test")
+class CategorizationTest {
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private Categorizer categorizer;
+
+    @Autowired
+    private RecategorizeJob recategorizeJob;
+
+    @Autowired
+    private CategoryRuleRepository categoryRuleRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = userRepository.save(new User("Rules User", "rules@example.com", "encoded"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        transactionRepository.deleteAllInBatch();
+        categoryRuleRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void testMissingCategoryComesFromTheRules() {
+        assertEquals("Transport", create("UBER *TRIP", null).category());
+        assertEquals("Food", create("Uber Eats order", "  ").category());
+        assertEquals(Categorizer.UNCATEGORIZED, create("Corner shop", null).category());
+        assertEquals("Gifts", create("Uber voucher", "Gifts").category());
+    }
+
+    @Test
+    void testUserRulesWinAndRecompileOnChange() {
+        assertEquals("Transport", create("Uber ride", null).category());
+
+        CategoryRule rule = categorizer.addRule(user.getId(), "  UBER ", "Work travel");
+        assertEquals("uber", rule.getKeyword());
+        assertEquals("Work travel", create("Uber ride", null).category());
+        assertThrows(ResponseStatusException.class, () -> categorizer.addRule(user.getId(), "Uber", "Other"));
+
+        categorizer.deleteRule(user.getId(), rule.getId());
+        assertEquals("Transport", create("Uber ride", null).category());
+    }
+
+    @Test
+    void testRecategorizeOnlyTouchesRuleAssignedRows() {
+        TransactionResponse auto = create("Monthly gym", null);
+        TransactionResponse chosen = create("Gym kit", "Shopping");
+        assertEquals("Health", auto.category());
+
+        categorizer.addRule(user.getId(), "gym", "Fitness");
+        User other = userRepository.save(new User("Other User", "other-rules@example.com", "encoded"));
+        transactionService.createTransaction(new TransactionRequest(BigDecimal.TEN, "Gym", null, LocalDate.now()), other);
+
+        assertEquals(1, recategorizeJob.run());
+
+        List<TransactionResponse> all = transactionService.getAllTransactions(user);
+        assertEquals("Fitness", find(all, auto.id()).category());
+        assertEquals("Shopping", find(all, chosen.id()).category());
+        assertEquals("Health", transactionService.getAllTransactions(other).get(0).category());
+        assertEquals(0, transactionService.recategorize(user));
+    }
+
+    @Test
+    void testImportCategorizesEachRow() {
+        List<TransactionResponse> imported = transactionService.importTransactions(List.of(
+                new TransactionRequest(new BigDecimal("12.00"), "NETFLIX.COM", null, LocalDate.now()),
+                new TransactionRequest(new BigDecimal("3000.00"), "ACME payroll", null, LocalDate.now()),
+                new TransactionRequest(new BigDecimal("40.00"), "Dinner", "Food", LocalDate.now())), user,
+                DuplicateMode.SKIP).transactions();
+
+        assertEquals(List.of("Entertainment", "Income", "Food"), imported.stream().map(TransactionResponse::category).toList());
+        assertEquals(2948.0, transactionService.calculateBalance(user));
+    }
+
+    private TransactionResponse create(String description, String category) {
+        return transactionService.createTransaction(
+                new TransactionRequest(new BigDecimal("25.00"), description, category, LocalDate.now()), user);
+    }
+
+    private static TransactionResponse find(List<TransactionResponse> transactions, Long id) {
+        return transactions.stream().filter(txn -> txn.id().equals(id)).findFirst().orElseThrow();
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.finance.categorization;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KeywordMatcherTest {
+
+    @Test
+    void testMatchesWholeWordsIgnoringCase() {
+        KeywordMatcher matcher = new KeywordMatcher(List.of(
+                new KeywordMatcher.Rule("uber", "Transport"),
+                new KeywordMatcher.Rule("Whole Foods", "Groceries")));
+
+        assertEquals("Transport", matcher.match("UBER *TRIP 8812"));
+        assertEquals("Transport", matcher.match("card payment: uber"));
+        assertEquals("Groceries", matcher.match("WHOLE FOODS MKT #102"));
+        assertNull(matcher.match("Huber Hardware"));
+        assertNull(matcher.match("ubers"));
+        assertNull(matcher.match("wholefoods"));
+        assertNull(matcher.match(null));
+    }
+
+    @Test
+    void testLongestKeywordWinsThenEarliestRule() {
+        KeywordMatcher matcher = new KeywordMatcher(List.of(
+                new KeywordMatcher.Rule("uber", "Transport"),
+                new KeywordMatcher.Rule("uber eats", "Food"),
+                new KeywordMatcher.Rule("taxi", "Transport"),
+                new KeywordMatcher.Rule("cafe", "Food")));
+
+        assertEquals("Food", matcher.match("Uber Eats order"));
+        assertEquals("Transport", matcher.match("taxi to the cafe"));
+        assertEquals("Transport", matcher.match("cafe, then taxi"));
+    }
+
+    @Test
+    void testOverlappingKeywordsAreAllSeen() {
+        KeywordMatcher matcher = new KeywordMatcher(List.of(
+                new KeywordMatcher.Rule("he", "A"),
+                new KeywordMatcher.Rule("she", "B"),
+                new KeywordMatcher.Rule("hers", "C"),
+                new KeywordMatcher.Rule("his", "D")));
+
+        assertEquals("C", matcher.match("ushers hers"));
+        assertEquals("B", matcher.match("she said"));
+        assertEquals("A", matcher.match("he"));
+        assertNull(matcher.match("ushers"));
+    }
+
+    @Test
+    void testAgreesWithNaiveMatchingOnRandomRules() {
+        Random random = new Random(3);
+        List<KeywordMatcher.Rule> rules = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            rules.add(new KeywordMatcher.Rule(randomWords(random, 1 + random.nextInt(2)), "c" + i));
+        }
+        KeywordMatcher matcher = new KeywordMatcher(rules);
+
+        for (int i = 0; i < 2000; i++) {
+            String description = randomWords(random, 1 + random.nextInt(6));
+            assertEquals(naive(rules, description), matcher.match(description), description);
+        }
+    }
+
+    // Small alphabet and short words, so keywords overlap and repeat a lot
+    private static String randomWords(Random random, int words) {
+        StringBuilder text = new StringBuilder();
+        for (int w = 0; w < words; w++) {
+            if (w > 0) {
+                text.append(random.nextBoolean() ? ' ' : '-');
+            }
+            int length = 1 + random.nextInt(3);
+            for (int c = 0; c < length; c++) {
+                text.append((char) ('a' + random.nextInt(3)));
+            }
+        }
+        return text.toString();
+    }
+
+    private static String naive(List<KeywordMatcher.Rule> rules, String description) {
+        String text = description.toLowerCase();
+        String best = null;
+        int bestLength = 0;
+        for (KeywordMatcher.Rule rule : rules) {
+            String keyword = rule.keyword().toLowerCase();
+            for (int at = text.indexOf(keyword); at >= 0; at = text.indexOf(keyword, at + 1)) {
+                int end = at + keyword.length();
+                boolean whole = (at == 0 || !Character.isLetterOrDigit(text.charAt(at - 1)))
+                        && (end == text.length() || !Character.isLetterOrDigit(text.charAt(end)));
+                if (whole && keyword.length() > bestLength) {
+                    best = rule.category();
+                    bestLength = keyword.length();
+                }
+            }
+        }
+        return best;
+    }
+}
@@ -3,14 +3,22 @@ package com.example.finance.controller;
 import com.example.finance.dto.AuthResponse;
 import com.example.finance.dto.LoginRequest;
 import com.example.finance.dto.RegisterRequest;
+import com.example.finance.invalidation.Invalidation;
+import com.example.finance.invalidation.InvalidationBus;
+import com.example.finance.metrics.FinanceMetrics;
 import com.example.finance.model.User;
 import com.example.finance.repository.UserRepository;
 import com.example.finance.security.JwtTokenUtil;
+import com.example.finance.security.TokenRevocationStore;
+import com.example.finance.service.RegisteredEmailFilter;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
@@ -18,6 +26,7 @@ import org.springframework.security.authentication.TestingAuthenticationToken;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.util.Date;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -31,12 +40,24 @@ class AuthControllerTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private FinanceMetrics financeMetrics;
+
     @Mock
     private PasswordEncoder passwordEncoder;
 
     @Mock
     private JwtTokenUtil jwtTokenUtil;
 
+    @Mock
+    private RegisteredEmailFilter registeredEmailFilter;
+
+    @Mock
+    private TokenRevocationStore revocationStore;
+
+    @Mock
+    private InvalidationBus invalidationBus;
+
     @InjectMocks
     private AuthController authController;
 
@@ -52,6 +73,7 @@ class AuthControllerTest {
         request.setEmail("john@example.com");
         request.setPassword("Password@123");
 
+        when(registeredEmailFilter.mightContain("john@example.com")).thenReturn(true);
         when(userRepository.findByEmail("john@example.com")).thenReturn(Optional.empty());
         when(passwordEncoder.encode("Password@123")).thenReturn("encodedPassword");
 
@@ -61,6 +83,43 @@ class AuthControllerTest {
         assertNotNull(response.getBody());
         assertEquals("User registered successfully", response.getBody().message());
         verify(userRepository, times(1)).save(any(User.class));
+        verify(registeredEmailFilter).put("john@example.com");
+    }
+
+    @Test
+    void testRegisterFilterMissSkipsLookup() {
+        RegisterRequest request = new RegisterRequest();
+        request.setName("John Doe");
+        request.setEmail("john@example.com");
+        request.setPassword("Password@123");
+
+        when(registeredEmailFilter.mightContain("john@example.com")).thenReturn(false);
+        when(passwordEncoder.encode("Password@123")).thenReturn("encodedPassword");
+
+        ResponseEntity<AuthResponse> response = authController.register(request);
+
+        assertEquals(200, response.getStatusCode().value());
+        verify(userRepository, never()).findByEmail(anyString());
+        verify(userRepository).save(any(User.class));
+    }
+
+    @Test
+    void testRegisterConcurrentDuplicateCaughtByConstraint() {
+        RegisterRequest request = new RegisterRequest();
+        request.setName("John Doe");
+        request.setEmail("john@example.com");
+        request.setPassword("Password@123");
+
+        when(registeredEmailFilter.mightContain("john@example.com")).thenReturn(false);
+        when(passwordEncoder.encode("Password@123")).thenReturn("encodedPassword");
+        when(userRepository.save(any(User.class))).thenThrow(new DataIntegrityViolationException("duplicate email"));
+
+        ResponseEntity<AuthResponse> response = authController.register(request);
+
+        assertEquals(400, response.getStatusCode().value());
+        assertNotNull(response.getBody());
+        assertEquals("Email already in use", response.getBody().message());
+        verify(registeredEmailFilter, never()).put(anyString());
     }
 
     @Test
@@ -70,6 +129,7 @@ class AuthControllerTest {
         request.setEmail("john@example.com");
         request.setPassword("Password@123");
 
+        when(registeredEmailFilter.mightContain("john@example.com")).thenReturn(true);
         when(userRepository.findByEmail("john@example.com")).thenReturn(Optional.of(new User()));
 
         ResponseEntity<AuthResponse> response = authController.register(request);
@@ -110,5 +170,35 @@ class AuthControllerTest {
         assertNotNull(response.getBody());
         assertEquals("Invalid email or password", response.getBody().message());
         assertNull(response.getBody().token());
+        verify(financeMetrics).loginFailed();
+    }
+
+    @Test
+    void testLogoutRevokesPresentedToken() {
+        Date expiration = new Date(System.currentTimeMillis() + 3_600_000);
+        Claims claims = Jwts.claims().id("jti-1").subject("john@example.com").expiration(expiration).build();
+        when(jwtTokenUtil.extractClaims("dummyToken")).thenReturn(claims);
+
+        ResponseEntity<AuthResponse> response = authController.logout("Bearer dummyToken");
+
+        assertEquals(200, response.getStatusCode().value());
+        assertEquals("Logged out successfully", response.getBody().message());
+        verify(revocationStore).revoke("jti-1", claims.getExpiration());
+        verify(invalidationBus).publish(Invalidation.token("jti-1", claims.getExpiration().getTime()));
+    }
+
+    @Test
+    void testRevokeAllSetsWatermark() {
+        User user = new User("John Doe", "john@example.com", "encodedPassword");
+        when(userRepository.findByEmail("john@example.com")).thenReturn(Optional.of(user));
+
+        ResponseEntity<AuthResponse> response = authController.revokeAll(
+                new TestingAuthenticationToken("john@example.com", null));
+
+        assertEquals(200, response.getStatusCode().value());
+        assertNotNull(user.getTokensInvalidBefore());
+        verify(userRepository).save(user);
+        verify(revocationStore).revokeAllIssuedBefore("john@example.com", user.getTokensInvalidBefore());
+        verify(invalidationBus).publish(Invalidation.sessions(user.getId(), "john@example.com", user.getTokensInvalidBefore()));
     }
 }
@@ -1,21 +1,29 @@
 package com.example.finance.controller;
 
+import com.example.finance.dto.PercentilesResponse;
 import com.example.finance.dto.TransactionRequest;
 import com.example.finance.dto.TransactionResponse;
+import com.example.finance.idempotency.IdempotencyStore;
+import com.example.finance.metrics.FinanceMetrics;
 import com.example.finance.model.User;
+import com.example.finance.percentile.SpendingPercentiles;
 import com.example.finance.repository.UserRepository;
 import com.example.finance.service.TransactionService;
+import com.example.finance.stream.TransactionStreamHub;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
+import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.YearMonth;
 import java.util.*;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -32,6 +40,18 @@ class TransactionControllerTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private FinanceMetrics financeMetrics;
+
+    @Mock
+    private TransactionStreamHub transactionStreamHub;
+
+    @Mock
+    private IdempotencyStore idempotencyStore;
+
+    @Mock
+    private SpendingPercentiles spendingPercentiles;
+
     @Mock
     private Authentication authentication;
 
@@ -66,12 +86,28 @@ class TransactionControllerTest {
         when(userRepository.findByEmail(mockUser.getEmail())).thenReturn(Optional.of(mockUser));
         when(transactionService.createTransaction(request, mockUser)).thenReturn(expectedResponse);
 
-        ResponseEntity<TransactionResponse> response = transactionController.create(request, authentication);
+        ResponseEntity<TransactionResponse> response = transactionController.create(request, null, authentication);
 
         assertEquals(200, response.getStatusCode().value());
         assertEquals(expectedResponse, response.getBody());
     }
 
+    @Test
+    void testCreateWithIdempotencyKeyGoesThroughStore() {
+        TransactionRequest request = new TransactionRequest(new BigDecimal("50.00"), "Lunch", "Food", today);
+        TransactionResponse stored = new TransactionResponse(7L, new BigDecimal("50.00"), "Lunch", "Food", today);
+        ReflectionTestUtils.setField(mockUser, "id", 3L);
+
+        when(authentication.getName()).thenReturn(mockUser.getEmail());
+        when(userRepository.findByEmail(mockUser.getEmail())).thenReturn(Optional.of(mockUser));
+        when(idempotencyStore.execute(eq(3L), eq("retry-1"), eq(request), any())).thenReturn(stored);
+
+        ResponseEntity<TransactionResponse> response = transactionController.create(request, "retry-1", authentication);
+
+        assertEquals(stored, response.getBody());
+        verify(transactionService, never()).createTransaction(any(), any());
+    }
+
     @Test
     void testGetAllTransactions() {
         List<TransactionResponse> mockList = List.of(
@@ -92,6 +128,7 @@ class TransactionControllerTest {
 
         assertEquals(200, response.getStatusCode().value());
         assertEquals(mockList, response.getBody());
+        verify(financeMetrics).recordRowsReturned("list", 1);
     }
 
     @Test
@@ -200,4 +237,41 @@ class TransactionControllerTest {
         assertEquals(200, response.getStatusCode().value());
         assertEquals(1500.0, response.getBody());
     }
+
+    @Test
+    void testPercentilesDefaultToTheLastTwelveMonths() {
+        YearMonth now = YearMonth.now();
+        PercentilesResponse expected = new PercentilesResponse(null, now.minusMonths(11), now, 3,
+                Map.of("p50", new BigDecimal("20.00")), true, 0);
+        when(authentication.getName()).thenReturn(mockUser.getEmail());
+        when(userRepository.findByEmail(mockUser.getEmail())).thenReturn(Optional.of(mockUser));
+        when(spendingPercentiles.percentiles(mockUser, null, now.minusMonths(11), now, List.of(50.0))).thenReturn(expected);
+
+        ResponseEntity<PercentilesResponse> response =
+                transactionController.getPercentiles(null, null, null, List.of(50.0), authentication);
+
+        assertEquals(expected, response.getBody());
+    }
+
+    @Test
+    void testImportRejectsEmptyAndOversizedBatches() {
+        ReflectionTestUtils.setField(transactionController, "maxImportRows", 2);
+        TransactionRequest row = new TransactionRequest(new BigDecimal("5.00"), "Coffee", null, today);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> transactionController.importTransactions(List.of(), null, authentication));
+        assertThrows(IllegalArgumentException.class,
+                () -> transactionController.importTransactions(List.of(row, row, row), null, authentication));
+        verifyNoInteractions(transactionService);
+    }
+
+    @Test
+    void testStreamSubscribesAuthenticatedUser() {
+        SseEmitter emitter = new SseEmitter();
+        when(authentication.getName()).thenReturn("john@example.com");
+        when(userRepository.findByEmail("john@example.com")).thenReturn(Optional.of(mockUser));
+        when(transactionStreamHub.subscribe(mockUser)).thenReturn(emitter);
+
+        assertSame(emitter, transactionController.stream(authentication));
+    }
 }
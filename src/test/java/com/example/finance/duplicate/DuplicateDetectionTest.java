@@ -0,0 +1,130 @@
+package com.example.finance.duplicate;
+
+import com.example.finance.dto.ImportReport;
+import com.example.finance.dto.TransactionRequest;
+import com.example.finance.dto.TransactionResponse;
+import com.example.finance.model.User;
+import com.example.finance.repository.TransactionRepository;
+import com.example.finance.repository.UserRepository;
+import com.example.finance.service.TransactionService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class DuplicateDetectionTest {
+
+    private static final LocalDate MAY_30 = LocalDate.of(2025, 5, 30);
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private DuplicateDetector duplicateDetector;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = userRepository.save(new User("Import User", "import@example.com", "encoded"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        transactionRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void testManualEntryIsFlaggedNotRefused() {
+        TransactionResponse first = create(new BigDecimal("42.00"), "Grocer's Market", MAY_30);
+
+        TransactionResponse again = create(new BigDecimal("42"), "GROCER S MARKET", MAY_30.plusDays(1));
+        TransactionResponse different = create(new BigDecimal("42.00"), "Grocer's Market", MAY_30.plusDays(5));
+
+        assertNull(first.duplicateOf());
+        assertEquals(first.id(), again.duplicateOf());
+        assertNull(different.duplicateOf());
+        assertEquals(3, transactionRepository.findByUser(user).size());
+    }
+
+    @Test
+    void testOverlappingStatementImportSkipsTheOverlap() {
+        ImportReport may = transactionService.importTransactions(List.of(
+                row("80.00", "Electricity", MAY_30.minusDays(10)),
+                row("4.50", "Coffee", MAY_30),
+                row("4.50", "Coffee", MAY_30),
+                row("1200.00", "Rent June", MAY_30.plusDays(2))), user, DuplicateMode.SKIP);
+        assertEquals(4, may.imported());
+        assertTrue(may.duplicates().isEmpty());
+
+        // The June statement repeats the last days of May; rows are matched in date order, so the later coffee is new
+        ImportReport june = transactionService.importTransactions(List.of(
+                row("1200.00", "RENT JUNE", MAY_30.plusDays(2)),
+                row("4.50", "Coffee", MAY_30.plusDays(1)),
+                row("4.50", "Coffee", MAY_30),
+                row("4.50", "Coffee", MAY_30),
+                row("15.00", "Cinema", MAY_30.plusDays(3))), user, DuplicateMode.SKIP);
+
+        assertEquals(5, june.received());
+        assertEquals(2, june.imported());
+        assertEquals(3, june.skipped());
+        assertEquals(List.of(0, 2, 3), june.duplicates().stream().map(ImportReport.SuspectedDuplicate::row).toList());
+        assertTrue(june.duplicates().stream().allMatch(ImportReport.SuspectedDuplicate::skipped));
+        assertEquals(List.of("Coffee", "Cinema"), june.transactions().stream().map(TransactionResponse::description).toList());
+        assertEquals(6, transactionRepository.findByUser(user).size());
+    }
+
+    @Test
+    void testFlagModeImportsAndMarksSuspects() {
+        TransactionResponse existing = create(new BigDecimal("60.00"), "Fuel", MAY_30);
+
+        ImportReport report = transactionService.importTransactions(List.of(
+                row("60.00", "fuel", MAY_30.minusDays(2)),
+                row("61.00", "Fuel", MAY_30)), user, DuplicateMode.FLAG);
+
+        assertEquals(2, report.imported());
+        assertEquals(existing.id(), report.transactions().get(0).duplicateOf());
+        assertNull(report.transactions().get(1).duplicateOf());
+        assertFalse(report.duplicates().get(0).skipped());
+    }
+
+    @Test
+    void testBackfillFingerprintsOlderRows() {
+        TransactionResponse existing = create(new BigDecimal("9.99"), "Netflix", MAY_30);
+        jdbcTemplate.update("update transactions set fingerprint = null");
+        assertNull(create(new BigDecimal("9.99"), "Netflix", MAY_30).duplicateOf());
+
+        duplicateDetector.backfill();
+
+        assertEquals(existing.id(), create(new BigDecimal("9.99"), "Netflix", MAY_30).duplicateOf());
+    }
+
+    private TransactionResponse create(BigDecimal amount, String description, LocalDate date) {
+        return transactionService.createTransaction(new TransactionRequest(amount, description, "Bills", date), user);
+    }
+
+    private static TransactionRequest row(String amount, String description, LocalDate date) {
+        return new TransactionRequest(new BigDecimal(amount), description, "Bills", date);
+    }
+}
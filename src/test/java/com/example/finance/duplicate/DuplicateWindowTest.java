@@ -0,0 +1,56 @@
+package com.example.finance.duplicate;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DuplicateWindowTest {
+
+    private static final LocalDate JUNE_1 = LocalDate.of(2025, 6, 1);
+
+    @Test
+    void testMatchesWithinToleranceIgnoringFormatting() {
+        DuplicateWindow window = new DuplicateWindow(List.of(
+                new Candidate(1L, JUNE_1, new BigDecimal("12.5"), "STARBUCKS #1234 Seattle")), 2);
+
+        assertEquals(1L, window.claim(JUNE_1.plusDays(2), new BigDecimal("12.50"), "starbucks 1234 - seattle"));
+    }
+
+    @Test
+    void testIgnoresOtherAmountsDescriptionsAndDistantDates() {
+        List<Candidate> existing = List.of(new Candidate(1L, JUNE_1, new BigDecimal("12.50"), "Starbucks"));
+
+        assertNull(new DuplicateWindow(existing, 2).claim(JUNE_1, new BigDecimal("12.51"), "Starbucks"));
+        assertNull(new DuplicateWindow(existing, 2).claim(JUNE_1, new BigDecimal("12.50"), "Starbucks Reserve"));
+        assertNull(new DuplicateWindow(existing, 2).claim(JUNE_1.plusDays(3), new BigDecimal("12.50"), "Starbucks"));
+        assertNull(new DuplicateWindow(existing, 2).claim(JUNE_1.minusDays(3), new BigDecimal("12.50"), "Starbucks"));
+    }
+
+    @Test
+    void testEachExistingRowAbsorbsOneIncomingRow() {
+        DuplicateWindow window = new DuplicateWindow(List.of(
+                new Candidate(1L, JUNE_1, new BigDecimal("4.00"), "Coffee"),
+                new Candidate(2L, JUNE_1, new BigDecimal("4.00"), "Coffee")), 0);
+
+        assertEquals(1L, window.claim(JUNE_1, new BigDecimal("4.00"), "Coffee"));
+        assertEquals(2L, window.claim(JUNE_1, new BigDecimal("4.00"), "Coffee"));
+        assertNull(window.claim(JUNE_1, new BigDecimal("4.00"), "Coffee"));
+    }
+
+    @Test
+    void testSlidesForwardThroughTheExistingRows() {
+        DuplicateWindow window = new DuplicateWindow(List.of(
+                new Candidate(1L, JUNE_1, new BigDecimal("9.99"), "Netflix"),
+                new Candidate(2L, JUNE_1.plusMonths(1), new BigDecimal("9.99"), "Netflix"),
+                new Candidate(3L, JUNE_1.plusMonths(2), new BigDecimal("9.99"), "Netflix")), 1);
+
+        assertNull(window.claim(JUNE_1.minusDays(5), new BigDecimal("9.99"), "Netflix"));
+        assertEquals(2L, window.claim(JUNE_1.plusMonths(1).plusDays(1), new BigDecimal("9.99"), "Netflix"));
+        assertEquals(3L, window.claim(JUNE_1.plusMonths(2), new BigDecimal("9.99"), "Netflix"));
+        assertNull(window.claim(JUNE_1.plusMonths(3), new BigDecimal("9.99"), "Netflix"));
+    }
+}
@@ -0,0 +1,226 @@
+package com.example.finance.format;
+
+import com.example.finance.dto.Anomaly;
+import com.example.finance.dto.TransactionResponse;
+import com.example.finance.model.Transaction;
+import com.example.finance.model.User;
+import com.example.finance.repository.TransactionRepository;
+import com.example.finance.repository.UserRepository;
+import com.example.finance.security.JwtTokenUtil;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.WireFormat;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ResponseFormatTest {
+
+    private static final LocalDate DATE = LocalDate.of(2025, 2, 14);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private JwtTokenUtil jwtTokenUtil;
+
+    private String bearer;
+    private Long transactionId;
+
+    @BeforeEach
+    void setUp() {
+        User user = userRepository.save(new User("Formats", "formats@example.com", "encoded"));
+        transactionId = transactionRepository.save(
+                new Transaction(new BigDecimal("1234.50"), null, "Rent", DATE, user)).getId();
+        bearer = "Bearer " + jwtTokenUtil.generateToken(user.getEmail());
+    }
+
+    @AfterEach
+    void tearDown() {
+        transactionRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void testJsonStaysTheDefault() throws Exception {
+        mockMvc.perform(get("/api/transactions").header("Authorization", bearer))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$[0].date").value("2025-02-14"));
+    }
+
+    @Test
+    void testCborAndSmileUsePositionalRows() throws Exception {
+        assertCompactRow(MediaType.APPLICATION_CBOR, new ObjectMapper(new CBORFactory()));
+        assertCompactRow(TransactionEncoding.APPLICATION_SMILE, new ObjectMapper(new SmileFactory()));
+    }
+
+    @Test
+    void testProtobufListMatchesSchema() throws Exception {
+        byte[] body = mockMvc.perform(get("/api/transactions").header("Authorization", bearer)
+                        .accept(TransactionEncoding.APPLICATION_PROTOBUF))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(TransactionEncoding.APPLICATION_PROTOBUF))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        CodedInputStream list = CodedInputStream.newInstance(body);
+        int listTag = list.readTag();
+        assertEquals(TransactionProtobuf.LIST_TRANSACTIONS, WireFormat.getTagFieldNumber(listTag));
+        assertEquals(WireFormat.WIRETYPE_LENGTH_DELIMITED, WireFormat.getTagWireType(listTag));
+        CodedInputStream row = CodedInputStream.newInstance(list.readBytes().toByteArray());
+        Map<Integer, Object> fields = new HashMap<>();
+        for (int tag = row.readTag(); tag != 0; tag = row.readTag()) {
+            switch (WireFormat.getTagFieldNumber(tag)) {
+                case TransactionProtobuf.ID -> fields.put(TransactionProtobuf.ID, row.readInt64());
+                case TransactionProtobuf.AMOUNT -> fields.put(TransactionProtobuf.AMOUNT, row.readSInt64());
+                case TransactionProtobuf.CATEGORY -> fields.put(TransactionProtobuf.CATEGORY, row.readString());
+                case TransactionProtobuf.DATE -> fields.put(TransactionProtobuf.DATE, row.readSInt32());
+                default -> fail("Unexpected field " + WireFormat.getTagFieldNumber(tag));
+            }
+        }
+        assertTrue(list.isAtEnd());
+
+        assertEquals(transactionId, fields.get(TransactionProtobuf.ID));
+        assertEquals(123450L, fields.get(TransactionProtobuf.AMOUNT));
+        assertEquals("Rent", fields.get(TransactionProtobuf.CATEGORY));
+        assertEquals((int) DATE.toEpochDay(), fields.get(TransactionProtobuf.DATE));
+    }
+
+    @Test
+    void testCompactRowsCarryAnomaly() throws Exception {
+        ObjectMapper cbor = new ObjectMapper(new CBORFactory()).registerModule(TransactionEncoding.compactModule());
+
+        JsonNode row = cbor.readTree(cbor.writeValueAsBytes(flagged()));
+
+        assertEquals(6, row.size());
+        JsonNode anomaly = row.get(5);
+        assertEquals(3.25, anomaly.get(0).asDouble());
+        assertEquals(4010L, anomaly.get(1).asLong());
+        assertEquals(1575L, anomaly.get(2).asLong());
+        assertEquals(12L, anomaly.get(3).asLong());
+    }
+
+    @Test
+    void testCompactRowsCarryDuplicateOf() throws Exception {
+        ObjectMapper smile = new ObjectMapper(new SmileFactory()).registerModule(TransactionEncoding.compactModule());
+        TransactionResponse duplicate = new TransactionResponse(8L, new BigDecimal("95.00"), "Dinner", "Dining", DATE)
+                .withDuplicateOf(7L);
+
+        JsonNode row = smile.readTree(smile.writeValueAsBytes(duplicate));
+        JsonNode both = smile.readTree(smile.writeValueAsBytes(flagged().withDuplicateOf(3L)));
+
+        assertEquals(7, row.size());
+        assertTrue(row.get(5).isNull());
+        assertEquals(7L, row.get(6).asLong());
+        assertTrue(both.get(5).isArray());
+        assertEquals(3L, both.get(6).asLong());
+    }
+
+    @Test
+    void testProtobufCarriesDuplicateOf() throws Exception {
+        TransactionResponse duplicate = flagged().withDuplicateOf(3L);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        CodedOutputStream out = CodedOutputStream.newInstance(bytes);
+        TransactionProtobuf.write(out, duplicate);
+        out.flush();
+        assertEquals(TransactionProtobuf.size(duplicate), bytes.size());
+
+        CodedInputStream row = CodedInputStream.newInstance(bytes.toByteArray());
+        Long duplicateOf = null;
+        for (int tag = row.readTag(); tag != 0; tag = row.readTag()) {
+            if (WireFormat.getTagFieldNumber(tag) == TransactionProtobuf.DUPLICATE_OF) {
+                duplicateOf = row.readInt64();
+            } else {
+                row.skipField(tag);
+            }
+        }
+        assertEquals(3L, duplicateOf);
+    }
+
+    @Test
+    void testProtobufCarriesAnomaly() throws Exception {
+        TransactionResponse flagged = flagged();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        CodedOutputStream out = CodedOutputStream.newInstance(bytes);
+        TransactionProtobuf.write(out, flagged);
+        out.flush();
+        assertEquals(TransactionProtobuf.size(flagged), bytes.size());
+
+        CodedInputStream row = CodedInputStream.newInstance(bytes.toByteArray());
+        CodedInputStream anomaly = null;
+        for (int tag = row.readTag(); tag != 0; tag = row.readTag()) {
+            if (WireFormat.getTagFieldNumber(tag) == TransactionProtobuf.ANOMALY) {
+                anomaly = CodedInputStream.newInstance(row.readBytes().toByteArray());
+            } else {
+                row.skipField(tag);
+            }
+        }
+        assertNotNull(anomaly);
+        Map<Integer, Object> fields = new HashMap<>();
+        for (int tag = anomaly.readTag(); tag != 0; tag = anomaly.readTag()) {
+            switch (WireFormat.getTagFieldNumber(tag)) {
+                case TransactionProtobuf.ANOMALY_SCORE -> fields.put(TransactionProtobuf.ANOMALY_SCORE, anomaly.readDouble());
+                case TransactionProtobuf.ANOMALY_CATEGORY_MEAN ->
+                        fields.put(TransactionProtobuf.ANOMALY_CATEGORY_MEAN, anomaly.readSInt64());
+                case TransactionProtobuf.ANOMALY_CATEGORY_STDDEV ->
+                        fields.put(TransactionProtobuf.ANOMALY_CATEGORY_STDDEV, anomaly.readSInt64());
+                case TransactionProtobuf.ANOMALY_CATEGORY_COUNT ->
+                        fields.put(TransactionProtobuf.ANOMALY_CATEGORY_COUNT, anomaly.readInt64());
+                default -> fail("Unexpected anomaly field " + WireFormat.getTagFieldNumber(tag));
+            }
+        }
+        assertEquals(Map.of(TransactionProtobuf.ANOMALY_SCORE, 3.25, TransactionProtobuf.ANOMALY_CATEGORY_MEAN, 4010L,
+                TransactionProtobuf.ANOMALY_CATEGORY_STDDEV, 1575L, TransactionProtobuf.ANOMALY_CATEGORY_COUNT, 12L), fields);
+    }
+
+    private static TransactionResponse flagged() {
+        return new TransactionResponse(7L, new BigDecimal("95.00"), "Dinner", "Dining", DATE)
+                .withAnomaly(new Anomaly(3.25, new BigDecimal("40.10"), new BigDecimal("15.75"), 12));
+    }
+
+    private void assertCompactRow(MediaType mediaType, ObjectMapper reader) throws Exception {
+        byte[] body = mockMvc.perform(get("/api/transactions").header("Authorization", bearer).accept(mediaType))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(mediaType))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        JsonNode row = reader.readTree(body).get(0);
+        assertTrue(row.isArray(), mediaType.toString());
+        assertEquals(transactionId.longValue(), row.get(0).asLong());
+        assertEquals(123450L, row.get(1).asLong());
+        assertTrue(row.get(2).isNull());
+        assertEquals("Rent", row.get(3).asText());
+        assertEquals(DATE.toEpochDay(), row.get(4).asLong());
+    }
+}
@@ -0,0 +1,196 @@
+package com.example.finance.idempotency;
+
+import com.example.finance.dto.TransactionRequest;
+import com.example.finance.dto.TransactionResponse;
+import com.example.finance.model.IdempotencyRecord;
+import com.example.finance.repository.IdempotencyRecordRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class IdempotencyStoreTest {
+
+    @InjectMocks
+    private IdempotencyStore store;
+
+    @Mock
+    private IdempotencyRecordRepository repository;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    private TransactionRequest request;
+    private TransactionResponse created;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(store, "memoryTtlMs", 600_000L);
+        ReflectionTestUtils.setField(store, "maxEntries", 100);
+        ReflectionTestUtils.setField(store, "waitMs", 5_000L);
+        ReflectionTestUtils.setField(store, "claimLeaseMs", 60_000L);
+        request = new TransactionRequest(new BigDecimal("20.00"), "Taxi", "Travel", LocalDate.of(2025, 3, 1));
+        created = new TransactionResponse(11L, new BigDecimal("20.00"), "Taxi", "Travel", LocalDate.of(2025, 3, 1));
+        when(repository.findByUserIdAndIdempotencyKey(any(), any())).thenReturn(Optional.empty());
+        when(repository.saveAndFlush(any())).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    @Test
+    void testRetryReturnsFirstResponseWithoutRunningAgain() {
+        AtomicInteger runs = new AtomicInteger();
+
+        TransactionResponse first = store.execute(1L, "key-1", request, () -> { runs.incrementAndGet(); return created; });
+        TransactionResponse retry = store.execute(1L, "key-1", request, () -> { runs.incrementAndGet(); return created; });
+
+        assertEquals(created, first);
+        assertEquals(created, retry);
+        assertEquals(1, runs.get());
+        verify(repository).save(argThat(record -> record.getResponse() != null));
+    }
+
+    @Test
+    void testConcurrentDuplicateWaitsForInFlightRequest() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger runs = new AtomicInteger();
+
+        CompletableFuture<TransactionResponse> first = CompletableFuture.supplyAsync(() ->
+                store.execute(1L, "key-1", request, () -> {
+                    runs.incrementAndGet();
+                    started.countDown();
+                    await(release);
+                    return created;
+                }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<TransactionResponse> duplicate = CompletableFuture.supplyAsync(() ->
+                store.execute(1L, "key-1", request, () -> { runs.incrementAndGet(); return created; }));
+
+        Thread.sleep(100);
+        assertFalse(duplicate.isDone());
+        release.countDown();
+
+        assertEquals(created, first.get(5, TimeUnit.SECONDS));
+        assertEquals(created, duplicate.get(5, TimeUnit.SECONDS));
+        assertEquals(1, runs.get());
+    }
+
+    @Test
+    void testStoredRecordIsReplayedAfterMemoryEntryIsGone() throws Exception {
+        IdempotencyRecord record = new IdempotencyRecord(1L, "key-1", IdempotencyStore.fingerprint(request), 0L);
+        record.setResponse(objectMapper.writeValueAsString(created));
+        when(repository.findByUserIdAndIdempotencyKey(1L, "key-1")).thenReturn(Optional.of(record));
+
+        TransactionResponse replayed = store.execute(1L, "key-1", request, () -> fail("must not run again"));
+
+        assertEquals(created, replayed);
+        verify(repository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    void testStaleClaimWithoutResponseIsTakenOver() {
+        // Claimed by a request that died before storing its response
+        IdempotencyRecord abandoned = new IdempotencyRecord(1L, "key-1", IdempotencyStore.fingerprint(request), 0L);
+        ReflectionTestUtils.setField(abandoned, "id", 7L);
+        when(repository.findByUserIdAndIdempotencyKey(1L, "key-1")).thenReturn(Optional.of(abandoned));
+        when(repository.reclaim(eq(7L), eq(0L), anyLong())).thenReturn(1);
+        when(repository.findById(7L)).thenReturn(Optional.of(abandoned));
+
+        assertEquals(created, store.execute(1L, "key-1", request, () -> created));
+        verify(repository).save(argThat(record -> record.getResponse() != null));
+    }
+
+    @Test
+    void testFreshClaimWithoutResponseIsNotTakenOver() {
+        ReflectionTestUtils.setField(store, "waitMs", 100L);
+        IdempotencyRecord running = new IdempotencyRecord(1L, "key-1", IdempotencyStore.fingerprint(request),
+                System.currentTimeMillis());
+        when(repository.findByUserIdAndIdempotencyKey(1L, "key-1")).thenReturn(Optional.of(running));
+
+        ResponseStatusException ex = assertThrows(ResponseStatusException.class,
+                () -> store.execute(1L, "key-1", request, () -> fail("must not run while the claim is live")));
+
+        assertEquals(HttpStatus.CONFLICT, ex.getStatusCode());
+        verify(repository, never()).reclaim(any(), anyLong(), anyLong());
+    }
+
+    @Test
+    void testRunningRequestRenewsItsClaim() throws Exception {
+        when(repository.saveAndFlush(any())).thenAnswer(invocation -> {
+            IdempotencyRecord claim = invocation.getArgument(0);
+            ReflectionTestUtils.setField(claim, "id", 7L);
+            return claim;
+        });
+        when(repository.reclaim(eq(7L), anyLong(), anyLong())).thenReturn(1);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<TransactionResponse> slow = CompletableFuture.supplyAsync(() ->
+                store.execute(1L, "key-1", request, () -> {
+                    started.countDown();
+                    await(release);
+                    return created;
+                }));
+        await(started);
+        store.renewClaims();
+        Thread.sleep(5);
+        store.renewClaims();
+        release.countDown();
+        assertEquals(created, slow.get(5, TimeUnit.SECONDS));
+        store.renewClaims();
+
+        ArgumentCaptor<Long> claimedAt = ArgumentCaptor.forClass(Long.class);
+        ArgumentCaptor<Long> renewedAt = ArgumentCaptor.forClass(Long.class);
+        verify(repository, times(2)).reclaim(eq(7L), claimedAt.capture(), renewedAt.capture());
+        // Each renewal compares with the time the previous one wrote, so a takeover in between is noticed
+        assertEquals(renewedAt.getAllValues().get(0), claimedAt.getAllValues().get(1));
+        assertTrue(renewedAt.getAllValues().get(1) > claimedAt.getAllValues().get(0));
+    }
+
+    @Test
+    void testKeyReusedWithDifferentBodyIsRejected() {
+        store.execute(1L, "key-1", request, () -> created);
+        TransactionRequest other = new TransactionRequest(new BigDecimal("99.00"), "Taxi", "Travel", request.date());
+
+        ResponseStatusException ex = assertThrows(ResponseStatusException.class,
+                () -> store.execute(1L, "key-1", other, () -> created));
+
+        assertEquals(HttpStatus.UNPROCESSABLE_ENTITY, ex.getStatusCode());
+        assertEquals(created, store.execute(2L, "key-1", other, () -> created));
+    }
+
+    @Test
+    void testFailedRequestReleasesKey() {
+        assertThrows(IllegalArgumentException.class,
+                () -> store.execute(1L, "key-1", request, () -> { throw new IllegalArgumentException("bad"); }));
+
+        assertEquals(created, store.execute(1L, "key-1", request, () -> created));
+        verify(repository).delete(any(IdempotencyRecord.class));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
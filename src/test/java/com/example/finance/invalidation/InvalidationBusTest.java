@@ -0,0 +1,124 @@
+package com.example.finance.invalidation;
+
+import com.example.finance.categorization.Categorizer;
+import com.example.finance.dto.TransactionRequest;
+import com.example.finance.model.CategoryRule;
+import com.example.finance.model.User;
+import com.example.finance.repository.CategoryRuleRepository;
+import com.example.finance.repository.TransactionRepository;
+import com.example.finance.repository.UserRepository;
+import com.example.finance.security.TokenRevocationStore;
+import com.example.finance.service.TransactionService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "finance.invalidation.enabled=true",
+        "finance.invalidation.flush-interval-ms=3600000",
+        "finance.invalidation.poll-interval-ms=3600000"
+})
+@ActiveProfiles("test")
+class InvalidationBusTest {
+
+    @Autowired
+    private InvalidationBus invalidationBus;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private TokenRevocationStore revocationStore;
+
+    @Autowired
+    private Categorizer categorizer;
+
+    @Autowired
+    private CategoryRuleRepository categoryRuleRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = userRepository.save(new User("Bus User", "bus@example.com", "encoded"));
+        invalidationBus.flush();
+        jdbcTemplate.update("delete from " + OutboxTransport.TABLE);
+    }
+
+    @AfterEach
+    void tearDown() {
+        categoryRuleRepository.deleteAllInBatch();
+        transactionRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void testChangesAreMergedIntoOneRowPerUser() {
+        for (int i = 0; i < 3; i++) {
+            transactionService.createTransaction(new TransactionRequest(
+                    new BigDecimal("9.99"), "Book " + i, "Books", LocalDate.of(2025, 3, 1)), user);
+        }
+        assertEquals(1, invalidationBus.pendingCount());
+
+        invalidationBus.flush();
+
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList("select scope, user_id from " + OutboxTransport.TABLE);
+        assertEquals(List.of(Map.of("SCOPE", "TRANSACTIONS", "USER_ID", user.getId())), rows);
+        assertEquals(0, invalidationBus.pendingCount());
+    }
+
+    @Test
+    void testRevocationsOnAnotherNodeApplyHere() {
+        long now = System.currentTimeMillis();
+        Date issued = new Date(now - 60_000);
+        Date expires = new Date(now + 3_600_000);
+        assertFalse(revocationStore.isRevoked("jti-remote", "other@example.com", issued, expires));
+        assertFalse(revocationStore.isRevoked("jti-other", "bus@example.com", issued, expires));
+
+        insertRemote("TOKEN", null, "jti-remote", expires.getTime());
+        insertRemote("SESSIONS", user.getId(), "bus@example.com", now);
+        invalidationBus.poll();
+
+        assertTrue(revocationStore.isRevoked("jti-remote", "other@example.com", issued, expires));
+        assertTrue(revocationStore.isRevoked("jti-other", "bus@example.com", issued, expires));
+    }
+
+    @Test
+    void testRuleChangeOnAnotherNodeDropsTheCompiledRules() {
+        assertEquals(Categorizer.UNCATEGORIZED, categorizer.categorize(user.getId(), "Corner Bakery"));
+        categoryRuleRepository.save(new CategoryRule(user.getId(), "corner bakery", "Treats"));
+        assertEquals(Categorizer.UNCATEGORIZED, categorizer.categorize(user.getId(), "Corner Bakery"));
+
+        insertRemote("RULES", user.getId(), null, System.currentTimeMillis());
+        invalidationBus.poll();
+
+        assertEquals("Treats", categorizer.categorize(user.getId(), "Corner Bakery"));
+    }
+
+    private void insertRemote(String scope, Long userId, String key, long version) {
+        jdbcTemplate.update("insert into " + OutboxTransport.TABLE
+                + " (node, scope, user_id, item_key, version, queued_ms) values ('remote', ?, ?, ?, ?, 0)",
+                scope, userId, key, version);
+    }
+}
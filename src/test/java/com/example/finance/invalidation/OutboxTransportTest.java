@@ -0,0 +1,93 @@
+package com.example.finance.invalidation;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OutboxTransportTest {
+
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:outbox;DB_CLOSE_DELAY=-1", "sa", "");
+        new ResourceDatabasePopulator(new ClassPathResource("db/migration/V8__invalidation_outbox.sql")).execute(dataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("drop table if exists " + OutboxTransport.TABLE);
+    }
+
+    @Test
+    void testOtherNodesReceiveBatchesFromTheirStart() {
+        OutboxTransport a = transport("a", 5000);
+        a.send(List.of(envelope(Invalidation.transactions(1L, 100))));
+        OutboxTransport b = transport("b", 5000);
+
+        a.send(List.of(envelope(Invalidation.transactions(1L, 200)), envelope(Invalidation.token("jti", 300))));
+
+        List<InvalidationTransport.Envelope> received = b.receive(100);
+        assertEquals(List.of(Invalidation.transactions(1L, 200), Invalidation.token("jti", 300)),
+                received.stream().map(InvalidationTransport.Envelope::invalidation).toList());
+        assertTrue(received.stream().allMatch(envelope -> envelope.delayMs() >= 7));
+        assertTrue(a.receive(100).isEmpty());
+        assertTrue(b.receive(100).isEmpty());
+    }
+
+    @Test
+    void testLateCommitBehindTheWatermarkIsNotLost() {
+        OutboxTransport b = transport("b", 60_000);
+        long start = b.watermark();
+        insert(start + 2, 2);
+
+        assertEquals(1, b.receive(100).size());
+        assertEquals(start, b.watermark());
+
+        insert(start + 1, 1);
+        List<InvalidationTransport.Envelope> late = b.receive(100);
+
+        assertEquals(1, late.size());
+        assertEquals(1L, late.get(0).invalidation().userId());
+        assertEquals(start + 2, b.watermark());
+    }
+
+    @Test
+    void testGapIsSkippedAfterTimeout() {
+        OutboxTransport b = transport("b", 0);
+        long start = b.watermark();
+        insert(start + 3, 3);
+
+        assertEquals(1, b.receive(100).size());
+        assertEquals(start + 3, b.watermark());
+        assertTrue(b.receive(100).isEmpty());
+    }
+
+    private OutboxTransport transport(String node, long gapTimeoutMs) {
+        OutboxTransport transport = new OutboxTransport();
+        ReflectionTestUtils.setField(transport, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(transport, "nodeId", node);
+        ReflectionTestUtils.setField(transport, "gapTimeoutMs", gapTimeoutMs);
+        transport.start();
+        return transport;
+    }
+
+    private void insert(long id, long userId) {
+        jdbcTemplate.update("insert into " + OutboxTransport.TABLE
+                + " (id, node, scope, user_id, version, queued_ms) values (?, 'a', 'RULES', ?, 1, 0)", id, userId);
+    }
+
+    private static InvalidationTransport.Envelope envelope(Invalidation invalidation) {
+        return new InvalidationTransport.Envelope(invalidation, 7);
+    }
+}
@@ -0,0 +1,168 @@
+package com.example.finance.journal;
+
+import com.example.finance.archive.ArchivedTransaction;
+import com.example.finance.archive.ColdStore;
+import com.example.finance.dto.TransactionResponse;
+import com.example.finance.event.TransactionChangedEvent;
+import com.example.finance.model.Transaction;
+import com.example.finance.model.TransactionTombstone;
+import com.example.finance.model.User;
+import com.example.finance.repository.TransactionRepository;
+import com.example.finance.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class JournalSnapshotterTest {
+
+    @TempDir
+    private Path directory;
+
+    @InjectMocks
+    private JournalSnapshotter snapshotter;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    @Mock
+    private ColdStore coldStore;
+
+    private MutationJournal journal;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        MockitoAnnotations.openMocks(this);
+        journal = new MutationJournal();
+        ReflectionTestUtils.setField(journal, "directory", directory);
+        ReflectionTestUtils.setField(journal, "fsync", FsyncPolicy.NEVER);
+        ReflectionTestUtils.setField(journal, "segmentBytes", 1L << 20);
+        journal.open();
+        ReflectionTestUtils.setField(snapshotter, "journal", journal);
+        ReflectionTestUtils.setField(snapshotter, "directory", directory);
+
+        user = new User("John Doe", "john@example.com", "encoded");
+        ReflectionTestUtils.setField(user, "id", 5L);
+        when(userRepository.findAll()).thenReturn(List.of(user));
+        when(transactionRepository.findSyncRevision(user)).thenReturn(Optional.of(2L));
+        when(transactionRepository.findByUser(user)).thenReturn(List.of(
+                stored(1L, "1000.00", "Income"), stored(2L, "250.00", "Rent")));
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        journal.close();
+    }
+
+    @Test
+    void testSeedsFromDatabaseOnceThenReplaysOnlyTheTail() throws IOException {
+        snapshotter.snapshot();
+        TransactionResponse groceries = row(3L, "50.00", "Groceries");
+        journal.append(new TransactionChangedEvent(TransactionChangedEvent.Type.CREATED, 5L, null, groceries));
+        journal.append(new TransactionChangedEvent(TransactionChangedEvent.Type.UPDATED, 5L,
+                row(1L, "1000.00", "Income"), row(1L, "1100.00", "Income")));
+
+        JournalSnapshotter.Snapshot rebuilt = snapshotter.rebuild();
+
+        assertEquals(2, rebuilt.sequence());
+        UserState state = rebuilt.users().get(5L);
+        assertEquals(3, state.transactions());
+        assertEquals(0, new BigDecimal("800.00").compareTo(state.balance()));
+        verify(transactionRepository, times(1)).findByUser(user);
+    }
+
+    @Test
+    void testWriteAppendedDuringSeedIsCountedOnce() throws IOException {
+        // Revision 3 committed before the scan, but its append lands while the scan is running
+        TransactionChangedEvent late = new TransactionChangedEvent(TransactionChangedEvent.Type.CREATED, 5L, null,
+                row(3L, "50.00", "Groceries"), 3);
+        when(transactionRepository.findSyncRevision(user)).thenReturn(Optional.of(3L));
+        when(transactionRepository.findByUser(user)).thenAnswer(inv -> {
+            journal.append(late);
+            return List.of(stored(1L, "1000.00", "Income"), stored(2L, "250.00", "Rent"),
+                    stored(3L, "50.00", "Groceries"));
+        });
+
+        snapshotter.snapshot();
+        journal.append(new TransactionChangedEvent(TransactionChangedEvent.Type.DELETED, 5L,
+                row(2L, "250.00", "Rent"), null, 4));
+        JournalSnapshotter.Snapshot rebuilt = snapshotter.rebuild();
+
+        assertEquals(2, rebuilt.sequence());
+        assertEquals(2, rebuilt.users().get(5L).transactions());
+        assertEquals(0, new BigDecimal("950.00").compareTo(rebuilt.users().get(5L).balance()));
+        // The seeded revision survives the snapshot file, so a restart skips the late append too
+        assertEquals(3L, snapshotter.latest().seededRevisions().get(5L));
+    }
+
+    @Test
+    void testSeedRetriesWhenAWriteCommitsDuringTheScan() throws IOException {
+        when(transactionRepository.findSyncRevision(user))
+                .thenReturn(Optional.of(2L), Optional.of(3L), Optional.of(3L), Optional.of(3L));
+        when(transactionRepository.findByUser(user))
+                .thenReturn(List.of(stored(1L, "1000.00", "Income"), stored(2L, "250.00", "Rent")))
+                .thenReturn(List.of(stored(1L, "1000.00", "Income")));
+        when(transactionRepository.findTombstones(eq(user), eq(0L), eq(3L), any())).thenReturn(List.of());
+
+        snapshotter.snapshot();
+
+        JournalSnapshotter.Snapshot seeded = snapshotter.latest();
+        assertEquals(1, seeded.users().get(5L).transactions());
+        assertEquals(3L, seeded.seededRevisions().get(5L));
+    }
+
+    @Test
+    void testArchivedRowDeletedBeforeTheSeedRevisionIsDropped() throws IOException {
+        when(coldStore.hasArchive(5L)).thenReturn(true);
+        when(coldStore.transactions(eq(5L), any())).thenReturn(List.of(
+                new ArchivedTransaction(9L, new BigDecimal("40.00"), null, "Fuel", LocalDate.of(2024, 1, 1))));
+        TransactionTombstone tombstone = new TransactionTombstone(5L, 9L, 2);
+        when(transactionRepository.findTombstones(eq(user), eq(0L), eq(2L), any())).thenReturn(List.of(tombstone));
+
+        snapshotter.snapshot();
+
+        assertEquals(2, snapshotter.latest().users().get(5L).transactions());
+    }
+
+    @Test
+    void testSnapshotAdvancesWithJournal() throws IOException {
+        snapshotter.snapshot();
+        journal.append(new TransactionChangedEvent(TransactionChangedEvent.Type.DELETED, 5L,
+                row(2L, "250.00", "Rent"), null));
+        snapshotter.snapshot();
+
+        JournalSnapshotter.Snapshot latest = snapshotter.latest();
+        assertEquals(1, latest.sequence());
+        assertEquals(1, latest.users().get(5L).transactions());
+        assertEquals(0, new BigDecimal("1000.00").compareTo(latest.users().get(5L).balance()));
+    }
+
+    private Transaction stored(long id, String amount, String category) {
+        Transaction txn = new Transaction(new BigDecimal(amount), null, category, LocalDate.of(2025, 1, 1), user);
+        txn.setId(id);
+        return txn;
+    }
+
+    private static TransactionResponse row(long id, String amount, String category) {
+        return new TransactionResponse(id, new BigDecimal(amount), null, category, LocalDate.of(2025, 1, 1));
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.finance.journal;
+
+import com.example.finance.dto.TransactionResponse;
+import com.example.finance.event.TransactionChangedEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MutationJournalTest {
+
+    @TempDir
+    private Path directory;
+
+    private MutationJournal journal;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        journal = open(1 << 20);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        journal.close();
+    }
+
+    @Test
+    void testEntriesReadBackInSequence() {
+        TransactionResponse created = row(7L, "100.00", "Income");
+        TransactionResponse updated = row(7L, "120.00", "Income");
+
+        assertEquals(1, journal.append(new TransactionChangedEvent(TransactionChangedEvent.Type.CREATED, 3L, null, created)));
+        assertEquals(2, journal.append(new TransactionChangedEvent(TransactionChangedEvent.Type.UPDATED, 3L, created, updated)));
+        assertEquals(3, journal.append(new TransactionChangedEvent(TransactionChangedEvent.Type.DELETED, 3L, updated, null)));
+
+        List<JournalEntry> entries = readAfter(0);
+        assertEquals(3, entries.size());
+        assertEquals(TransactionChangedEvent.Type.UPDATED, entries.get(1).type());
+        assertEquals(created, entries.get(1).before());
+        assertEquals(updated, entries.get(1).after());
+        assertEquals(3L, entries.get(2).userId());
+        assertNull(entries.get(2).after());
+        assertEquals(List.of(3L), readAfter(2).stream().map(JournalEntry::sequence).toList());
+    }
+
+    @Test
+    void testTornTailIsTruncatedOnReopen() throws IOException {
+        journal.append(created(1L));
+        journal.append(created(2L));
+        journal.close();
+        Path segment = onlySegment();
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 3);
+        }
+
+        journal = open(1 << 20);
+
+        assertEquals(1, journal.lastSequence());
+        assertEquals(2, journal.append(created(3L)));
+        assertEquals(List.of(1L, 3L), readAfter(0).stream().map(JournalEntry::transactionId).toList());
+    }
+
+    @Test
+    void testRollsSegmentsAndSkipsCoveredOnesWhenReading() throws IOException {
+        journal.close();
+        journal = open(200);
+        for (long id = 1; id <= 10; id++) {
+            journal.append(created(id));
+        }
+
+        try (Stream<Path> files = Files.list(directory)) {
+            assertTrue(files.count() > 1);
+        }
+        assertEquals(10, readAfter(0).size());
+        assertEquals(List.of(9L, 10L), readAfter(8).stream().map(JournalEntry::sequence).toList());
+
+        journal.pruneThrough(8);
+        assertEquals(List.of(9L, 10L), readAfter(8).stream().map(JournalEntry::sequence).toList());
+    }
+
+    private MutationJournal open(long segmentBytes) throws IOException {
+        MutationJournal opened = new MutationJournal();
+        ReflectionTestUtils.setField(opened, "directory", directory);
+        ReflectionTestUtils.setField(opened, "fsync", FsyncPolicy.ALWAYS);
+        ReflectionTestUtils.setField(opened, "segmentBytes", segmentBytes);
+        opened.open();
+        return opened;
+    }
+
+    private List<JournalEntry> readAfter(long sequence) {
+        List<JournalEntry> entries = new ArrayList<>();
+        journal.read(sequence, entries::add);
+        return entries;
+    }
+
+    private Path onlySegment() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.findFirst().orElseThrow();
+        }
+    }
+
+    private static TransactionChangedEvent created(long id) {
+        return new TransactionChangedEvent(TransactionChangedEvent.Type.CREATED, 1L, null, row(id, "10.00", "Groceries"));
+    }
+
+    private static TransactionResponse row(long id, String amount, String category) {
+        return new TransactionResponse(id, new BigDecimal(amount), null, category, LocalDate.of(2025, 1, 1));
+    }
+}
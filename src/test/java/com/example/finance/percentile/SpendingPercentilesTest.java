@@ -0,0 +1,186 @@
+package com.example.finance.percentile;
+
+import com.example.finance.dto.PercentilesResponse;
+import com.example.finance.dto.TransactionRequest;
+import com.example.finance.dto.TransactionResponse;
+import com.example.finance.model.SpendingSketch;
+import com.example.finance.model.User;
+import com.example.finance.repository.SpendingSketchRepository;
+import com.example.finance.repository.TransactionRepository;
+import com.example.finance.repository.UserRepository;
+import com.example.finance.service.TransactionService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class SpendingPercentilesTest {
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private SpendingPercentiles spendingPercentiles;
+
+    @Autowired
+    private SpendingSketchRepository spendingSketchRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = userRepository.save(new User("Sketch User", "sketch@example.com", "encoded"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        transactionRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+        spendingSketchRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void testMergedMonthsStayWithinTheRankErrorBound() {
+        Random random = new Random(11);
+        List<Double> amounts = new ArrayList<>();
+        for (int i = 0; i < 1500; i++) {
+            BigDecimal amount = BigDecimal.valueOf(100 + random.nextInt(500_000), 2);
+            amounts.add(amount.doubleValue());
+            create(amount, i % 2 == 0 ? "Travel" : "travel ", LocalDate.of(2025, 1 + i % 3, 1 + i % 28));
+        }
+        create(new BigDecimal("99999.00"), "Travel", LocalDate.of(2025, 4, 1));
+
+        PercentilesResponse response = spendingPercentiles.percentiles(user, "Travel",
+                YearMonth.of(2025, 1), YearMonth.of(2025, 3), List.of(50.0, 90.0, 99.0));
+
+        assertEquals(1500, response.count());
+        assertFalse(response.exact());
+        assertTrue(response.rankError() > 0 && response.rankError() < 0.02);
+        double[] sorted = amounts.stream().mapToDouble(Double::doubleValue).sorted().toArray();
+        for (Map.Entry<String, BigDecimal> entry : response.percentiles().entrySet()) {
+            double rank = Double.parseDouble(entry.getKey().substring(1)) / 100;
+            double actualRank = (double) rankOf(sorted, entry.getValue().doubleValue()) / sorted.length;
+            assertEquals(rank, actualRank, response.rankError(), entry.getKey());
+        }
+    }
+
+    @Test
+    void testSmallBucketsAreExactAndSkipIncomeByDefault() {
+        for (int i = 1; i <= 10; i++) {
+            create(BigDecimal.valueOf(i * 10), i % 2 == 0 ? "Food" : "Fuel", LocalDate.of(2025, 6, i));
+        }
+        create(new BigDecimal("5000.00"), "Income", LocalDate.of(2025, 6, 1));
+
+        PercentilesResponse all = spendingPercentiles.percentiles(user, null,
+                YearMonth.of(2025, 6), YearMonth.of(2025, 6), List.of(50.0, 100.0));
+        PercentilesResponse income = spendingPercentiles.percentiles(user, "income",
+                YearMonth.of(2025, 1), YearMonth.of(2025, 12), List.of(50.0));
+
+        assertEquals(10, all.count());
+        assertTrue(all.exact());
+        assertEquals(0, all.rankError());
+        assertEquals(new BigDecimal("50.00"), all.percentiles().get("p50"));
+        assertEquals(new BigDecimal("100.00"), all.percentiles().get("p100"));
+        assertEquals(1, income.count());
+        assertEquals(new BigDecimal("5000.00"), income.percentiles().get("p50"));
+    }
+
+    @Test
+    void testUpdatesAndDeletesRebuildTheAffectedMonth() {
+        List<TransactionResponse> created = new ArrayList<>();
+        for (int i = 1; i <= 5; i++) {
+            created.add(create(BigDecimal.valueOf(i * 100), "Rent", LocalDate.of(2025, 2, i)));
+        }
+        assertEquals(new BigDecimal("500.00"), max(YearMonth.of(2025, 2)));
+
+        transactionService.deleteTransaction(created.get(4).id(), user);
+        assertEquals(new BigDecimal("400.00"), max(YearMonth.of(2025, 2)));
+
+        TransactionResponse moved = created.get(3);
+        transactionService.updateTransaction(moved.id(), new TransactionRequest(new BigDecimal("900.00"),
+                moved.description(), moved.category(), LocalDate.of(2025, 3, 1)), user);
+        assertEquals(new BigDecimal("300.00"), max(YearMonth.of(2025, 2)));
+        assertEquals(new BigDecimal("900.00"), max(YearMonth.of(2025, 3)));
+        assertTrue(spendingSketchRepository.findAll().stream().noneMatch(sketch -> sketch.isStale()));
+    }
+
+    @Test
+    void testWritePendingDuringStaleRebuildIsCountedOnce() {
+        create(new BigDecimal("100.00"), "Rent", LocalDate.of(2025, 2, 1));
+        TransactionResponse removed = create(new BigDecimal("200.00"), "Rent", LocalDate.of(2025, 2, 2));
+        spendingPercentiles.flush();
+        transactionService.deleteTransaction(removed.id(), user);
+        spendingPercentiles.flush();
+        List<SpendingSketch> stale = spendingSketchRepository.findByUserIdAndCategoryAndMonthBetween(
+                user.getId(), "rent", 202502, 202502);
+        assertEquals(1, stale.size());
+        assertTrue(stale.get(0).isStale());
+
+        // Committed and still pending when the rebuild scans the user's transactions
+        create(new BigDecimal("300.00"), "Rent", LocalDate.of(2025, 2, 3));
+        spendingPercentiles.rebuild(user, stale);
+        spendingPercentiles.flush();
+
+        PercentilesResponse response = spendingPercentiles.percentiles(user, "Rent",
+                YearMonth.of(2025, 2), YearMonth.of(2025, 2), List.of(100.0));
+        assertEquals(2, response.count());
+        assertEquals(new BigDecimal("300.00"), response.percentiles().get("p100"));
+    }
+
+    @Test
+    void testRebuildMatchesIncrementalSketches() {
+        for (int i = 1; i <= 30; i++) {
+            create(BigDecimal.valueOf(i), "Books", LocalDate.of(2024, 1 + i % 12, 1));
+        }
+        PercentilesResponse before = spendingPercentiles.percentiles(user, "Books",
+                YearMonth.of(2024, 1), YearMonth.of(2024, 12), List.of(10.0, 50.0, 90.0));
+
+        assertEquals(12, spendingPercentiles.rebuild());
+
+        assertEquals(before, spendingPercentiles.percentiles(user, "Books",
+                YearMonth.of(2024, 1), YearMonth.of(2024, 12), List.of(10.0, 50.0, 90.0)));
+    }
+
+    @Test
+    void testRejectsInvalidRanges() {
+        assertThrows(IllegalArgumentException.class, () -> spendingPercentiles.percentiles(user, null,
+                YearMonth.of(2025, 5), YearMonth.of(2025, 4), List.of(50.0)));
+        assertThrows(IllegalArgumentException.class, () -> spendingPercentiles.percentiles(user, null,
+                YearMonth.of(2025, 1), YearMonth.of(2025, 4), List.of(101.0)));
+    }
+
+    private TransactionResponse create(BigDecimal amount, String category, LocalDate date) {
+        return transactionService.createTransaction(new TransactionRequest(amount, "Item", category, date), user);
+    }
+
+    private BigDecimal max(YearMonth month) {
+        return spendingPercentiles.percentiles(user, "rent", month, month, List.of(100.0)).percentiles().get("p100");
+    }
+
+    // Number of values <= value, the rank KLL's inclusive quantiles are defined by
+    private static int rankOf(double[] sorted, double value) {
+        int index = Arrays.binarySearch(sorted, value + 1e-9);
+        return index >= 0 ? index + 1 : -index - 1;
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.finance.perf;
+
+import com.example.finance.model.Transaction;
+import com.example.finance.model.User;
+import com.example.finance.repository.TransactionRepository;
+import com.example.finance.repository.UserRepository;
+import com.example.finance.security.JwtTokenUtil;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Per-endpoint SQL statement, entity-load and allocation budgets, measured against a
+ * real in-memory database so an N+1 or a redundant lookup fails the build.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@ExtendWith(QueryBudgetExtension.class)
+class EndpointQueryBudgetTest {
+
+    private static final int HISTORY = 50;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private JwtTokenUtil jwtTokenUtil;
+
+    private User user;
+    private String bearer;
+    private Long transactionId;
+
+    @BeforeEach
+    void setUp() {
+        user = userRepository.save(new User("John Doe", "john@example.com", passwordEncoder.encode("Password@123")));
+        List<Transaction> history = new ArrayList<>();
+        for (int i = 0; i < HISTORY; i++) {
+            history.add(new Transaction(new BigDecimal("10.00"), "Item " + i, i % 5 == 0 ? "Income" : "Expense",
+                    LocalDate.of(2025, 1, 1).plusDays(i), user));
+        }
+        transactionId = transactionRepository.saveAll(history).get(0).getId();
+        bearer = "Bearer " + jwtTokenUtil.generateToken(user.getEmail());
+    }
+
+    @AfterEach
+    void tearDown() {
+        transactionRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+    }
+
+    @Test
+    @QueryBudget(statements = 1, entityLoads = 0)
+    void register(QueryProbe probe) throws Exception {
+        probe.measure(() -> mockMvc.perform(post("/api/auth/register")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Jane Doe\",\"email\":\"jane@example.com\",\"password\":\"Password@123\"}"))
+                .andExpect(status().isOk()));
+    }
+
+    @Test
+    @QueryBudget(statements = 1, entityLoads = 1)
+    void login(QueryProbe probe) throws Exception {
+        probe.measure(() -> mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"email\":\"john@example.com\",\"password\":\"Password@123\"}"))
+                .andExpect(status().isOk()));
+    }
+
+    // Includes the indexed duplicate lookup, reading and inserting the category's running statistics, and
+    // allocating the sync revision
+    @Test
+    @QueryBudget(statements = 7, entityLoads = 2)
+    void createTransaction(QueryProbe probe) throws Exception {
+        probe.measure(() -> mockMvc.perform(post("/api/transactions")
+                        .header("Authorization", bearer)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"amount\":12.50,\"description\":\"Lunch\",\"category\":\"Dining\",\"date\":\"2025-06-01\"}"))
+                .andExpect(status().isOk()));
+    }
+
+    @Test
+    @QueryBudget(statements = 3, entityLoads = HISTORY + 2, allocatedBytes = 4 * 1024 * 1024)
+    void listTransactions(QueryProbe probe) throws Exception {
+        probe.measure(() -> mockMvc.perform(get("/api/transactions").header("Authorization", bearer))
+                .andExpect(status().isOk()));
+    }
+
+    @Test
+    @QueryBudget(statements = 3, entityLoads = HISTORY + 2)
+    void balance(QueryProbe probe) throws Exception {
+        probe.measure(() -> mockMvc.perform(get("/api/transactions/balance").header("Authorization", bearer))
+                .andExpect(status().isOk()));
+    }
+
+    // Moves the amount between two categories' statistics: one read, one UPDATE, one INSERT; plus the sync revision
+    @Test
+    @QueryBudget(statements = 8, entityLoads = 3)
+    void updateTransaction(QueryProbe probe) throws Exception {
+        probe.measure(() -> mockMvc.perform(put("/api/transactions/" + transactionId)
+                        .header("Authorization", bearer)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"amount\":20.00,\"description\":\"Updated\",\"category\":\"Expense\",\"date\":\"2025-06-02\"}"))
+                .andExpect(status().isOk()));
+    }
+
+    // Allocates a sync revision and leaves a tombstone for it
+    @Test
+    @QueryBudget(statements = 7, entityLoads = 3)
+    void deleteTransaction(QueryProbe probe) throws Exception {
+        probe.measure(() -> mockMvc.perform(delete("/api/transactions/" + transactionId).header("Authorization", bearer))
+                .andExpect(status().isOk()));
+    }
+}
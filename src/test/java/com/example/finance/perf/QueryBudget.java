@@ -0,0 +1,24 @@
+package com.example.finance.perf;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Declares the most work a single measured request may do. Checked by
+ * {@link QueryBudgetExtension} against what {@link QueryProbe#measure} observed.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface QueryBudget {
+
+    /** JDBC statements prepared by Hibernate. */
+    long statements();
+
+    /** Entities hydrated; negative means unchecked. */
+    long entityLoads() default -1;
+
+    /** Bytes allocated by the request thread; negative means unchecked. */
+    long allocatedBytes() default -1;
+}
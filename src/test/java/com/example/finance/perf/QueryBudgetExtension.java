@@ -0,0 +1,59 @@
+package com.example.finance.perf;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.extension.*;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Supplies a {@link QueryProbe} to test methods annotated with {@link QueryBudget}
+ * and fails the test when the measured request went over budget.
+ */
+public class QueryBudgetExtension implements ParameterResolver, AfterEachCallback {
+
+    private static final ExtensionContext.Namespace NAMESPACE = ExtensionContext.Namespace.create(QueryBudgetExtension.class);
+
+    @Override
+    public boolean supportsParameter(ParameterContext parameterContext, ExtensionContext extensionContext) {
+        return parameterContext.getParameter().getType() == QueryProbe.class;
+    }
+
+    @Override
+    public Object resolveParameter(ParameterContext parameterContext, ExtensionContext extensionContext) {
+        Statistics statistics = SpringExtension.getApplicationContext(extensionContext)
+                .getBean(EntityManagerFactory.class)
+                .unwrap(SessionFactory.class)
+                .getStatistics();
+        assertTrue(statistics.isStatisticsEnabled(), "hibernate.generate_statistics must be enabled");
+        QueryProbe probe = new QueryProbe(statistics);
+        extensionContext.getStore(NAMESPACE).put(QueryProbe.class, probe);
+        return probe;
+    }
+
+    @Override
+    public void afterEach(ExtensionContext context) {
+        QueryBudget budget = context.getRequiredTestMethod().getAnnotation(QueryBudget.class);
+        if (budget == null || context.getExecutionException().isPresent()) {
+            return;
+        }
+        QueryProbe probe = context.getStore(NAMESPACE).get(QueryProbe.class, QueryProbe.class);
+        assertNotNull(probe, "@QueryBudget test must take a QueryProbe parameter");
+        QueryProbe.Measurement measured = probe.last();
+        assertNotNull(measured, "@QueryBudget test never called QueryProbe.measure");
+
+        String name = context.getDisplayName();
+        assertTrue(measured.statements() <= budget.statements(), () -> String.format(
+                "%s issued %d SQL statements, budget is %d", name, measured.statements(), budget.statements()));
+        if (budget.entityLoads() >= 0) {
+            assertTrue(measured.entityLoads() <= budget.entityLoads(), () -> String.format(
+                    "%s loaded %d entities, budget is %d", name, measured.entityLoads(), budget.entityLoads()));
+        }
+        if (budget.allocatedBytes() >= 0) {
+            assertTrue(measured.allocatedBytes() <= budget.allocatedBytes(), () -> String.format(
+                    "%s allocated %d bytes, budget is %d", name, measured.allocatedBytes(), budget.allocatedBytes()));
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.finance.perf;
+
+import org.hibernate.stat.Statistics;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Measures the statements, entity loads and thread allocation of one block of work,
+ * typically a single {@code mockMvc.perform(...)}.
+ */
+public class QueryProbe {
+
+    @FunctionalInterface
+    public interface Action<T> {
+        T run() throws Exception;
+    }
+
+    record Measurement(long statements, long entityLoads, long allocatedBytes) {}
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private final Statistics statistics;
+    private Measurement last;
+
+    QueryProbe(Statistics statistics) {
+        this.statistics = statistics;
+    }
+
+    public <T> T measure(Action<T> action) throws Exception {
+        long statements = statistics.getPrepareStatementCount();
+        long entityLoads = statistics.getEntityLoadCount();
+        long allocated = THREADS.getCurrentThreadAllocatedBytes();
+        try {
+            return action.run();
+        } finally {
+            last = new Measurement(
+                    statistics.getPrepareStatementCount() - statements,
+                    statistics.getEntityLoadCount() - entityLoads,
+                    THREADS.getCurrentThreadAllocatedBytes() - allocated);
+        }
+    }
+
+    Measurement last() {
+        return last;
+    }
+}
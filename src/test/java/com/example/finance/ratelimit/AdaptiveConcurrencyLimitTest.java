@@ -0,0 +1,79 @@
+package com.example.finance.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveConcurrencyLimitTest {
+
+    private final AtomicLong clock = new AtomicLong();
+
+    private final AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(new AdaptiveConcurrencyLimit.Settings(
+            20, 4, 200, 1.5, 0.2, TimeUnit.MILLISECONDS.toNanos(100), 10, 0.5), clock::get);
+
+    @Test
+    void testSteadyLatencyUnderFullLoadGrowsTheLimit() {
+        for (int i = 0; i < 20; i++) {
+            window(10, limit.limit());
+        }
+        assertTrue(limit.limit() > 20, "limit " + limit.limit());
+        assertTrue(limit.limit() <= 200);
+    }
+
+    @Test
+    void testRisingLatencyShrinksTheLimitQuickly() {
+        for (int i = 0; i < 10; i++) {
+            window(10, limit.limit());
+        }
+        int before = limit.limit();
+        for (int i = 0; i < 10; i++) {
+            window(60, limit.limit());
+        }
+        assertTrue(limit.limit() < before / 2, before + " -> " + limit.limit());
+        assertTrue(limit.limit() >= 4);
+
+        for (int i = 0; i < 50; i++) {
+            window(60, limit.limit());
+        }
+        assertEquals(4, limit.limit());
+    }
+
+    @Test
+    void testLimitDoesNotGrowWhileMostlyIdle() {
+        for (int i = 0; i < 20; i++) {
+            window(10, 3);
+        }
+        assertEquals(20, limit.limit());
+    }
+
+    @Test
+    void testReadsLeaveHeadroomForPriorityRequests() {
+        for (int i = 0; i < 10; i++) {
+            assertTrue(limit.tryAcquire(false));
+        }
+        assertFalse(limit.tryAcquire(false));
+        for (int i = 0; i < 10; i++) {
+            assertTrue(limit.tryAcquire(true));
+        }
+        assertFalse(limit.tryAcquire(true));
+
+        limit.release(1, false);
+        assertFalse(limit.tryAcquire(false));
+        assertTrue(limit.tryAcquire(true));
+        assertEquals(20, limit.inflight());
+    }
+
+    // Runs `running` requests at once for one window, each taking rttMillis
+    private void window(long rttMillis, int running) {
+        for (int i = 0; i < running; i++) {
+            assertTrue(limit.tryAcquire(true));
+        }
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(100));
+        for (int i = 0; i < running; i++) {
+            limit.release(TimeUnit.MILLISECONDS.toNanos(rttMillis), true);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.finance.ratelimit;
+
+import com.example.finance.metrics.FinanceMetrics;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ConcurrencyLimitFilterTest {
+
+    @InjectMocks
+    private ConcurrencyLimitFilter filter;
+
+    @Mock
+    private FinanceMetrics financeMetrics;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(filter, "enabled", true);
+        ReflectionTestUtils.setField(filter, "initialLimit", 4);
+        ReflectionTestUtils.setField(filter, "minLimit", 2);
+        ReflectionTestUtils.setField(filter, "maxLimit", 100);
+        ReflectionTestUtils.setField(filter, "tolerance", 1.5);
+        ReflectionTestUtils.setField(filter, "smoothing", 0.2);
+        ReflectionTestUtils.setField(filter, "windowMs", 100L);
+        ReflectionTestUtils.setField(filter, "windowSamples", 10);
+        ReflectionTestUtils.setField(filter, "readShare", 0.5);
+        filter.init();
+    }
+
+    @Test
+    void testBusyServerShedsReadsButAdmitsLoginsAndWrites() throws Exception {
+        MockHttpServletResponse shed = new MockHttpServletResponse();
+        MockHttpServletResponse login = new MockHttpServletResponse();
+        MockHttpServletResponse write = new MockHttpServletResponse();
+        MockFilterChain shedChain = new MockFilterChain();
+
+        // A write and a read are still running when the others arrive
+        perform("POST", "/api/transactions", (req, res) -> perform("GET", "/api/transactions", (req2, res2) -> {
+            filter.doFilter(request("GET", "/api/transactions/balance"), shed, shedChain);
+            filter.doFilter(request("POST", "/api/auth/login"), login, new MockFilterChain());
+            filter.doFilter(request("PUT", "/api/transactions/1"), write, new MockFilterChain());
+        }));
+
+        assertEquals(503, shed.getStatus());
+        assertEquals("1", shed.getHeader("Retry-After"));
+        assertTrue(shed.getContentAsString().contains("\"status\":503"));
+        assertNull(shedChain.getRequest());
+        assertEquals(200, login.getStatus());
+        assertEquals(200, write.getStatus());
+        verify(financeMetrics).loadShed("read");
+    }
+
+    @Test
+    void testSlotsAreReturnedWhenRequestsFinish() throws Exception {
+        for (int i = 0; i < 10; i++) {
+            assertEquals(200, perform("GET", "/api/transactions", new MockFilterChain()).getStatus());
+        }
+        verify(financeMetrics, never()).loadShed(anyString());
+    }
+
+    @Test
+    void testEventStreamsAndNonApiPathsAreNotLimited() throws Exception {
+        perform("GET", "/api/transactions", (req, res) -> perform("GET", "/api/transactions", (req2, res2) -> {
+            for (String uri : new String[]{"/api/transactions/stream", "/actuator/health"}) {
+                MockHttpServletResponse response = new MockHttpServletResponse();
+                filter.doFilter(request("GET", uri), response, new MockFilterChain());
+                assertEquals(200, response.getStatus());
+            }
+        }));
+        verify(financeMetrics, never()).loadShed(anyString());
+    }
+
+    private MockHttpServletResponse perform(String method, String uri, FilterChain chain)
+            throws ServletException, IOException {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request(method, uri), response, chain);
+        return response;
+    }
+
+    private static MockHttpServletRequest request(String method, String uri) {
+        return new MockHttpServletRequest(method, uri);
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.finance.ratelimit;
+
+import com.example.finance.metrics.FinanceMetrics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class RateLimitFilterTest {
+
+    @InjectMocks
+    private RateLimitFilter filter;
+
+    @Mock
+    private FinanceMetrics financeMetrics;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(filter, "enabled", true);
+        ReflectionTestUtils.setField(filter, "readCapacity", 2L);
+        ReflectionTestUtils.setField(filter, "readPerSecond", 0.001);
+        ReflectionTestUtils.setField(filter, "writeCapacity", 2L);
+        ReflectionTestUtils.setField(filter, "writePerSecond", 0.001);
+        ReflectionTestUtils.setField(filter, "authCapacity", 1L);
+        ReflectionTestUtils.setField(filter, "authPerSecond", 0.001);
+        ReflectionTestUtils.setField(filter, "stripes", 4);
+        ReflectionTestUtils.setField(filter, "idleMs", 60_000L);
+        filter.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void testRequestsOverQuotaGet429WithHeaders() throws Exception {
+        authenticate("john@example.com");
+
+        MockHttpServletResponse first = perform("GET", "/api/transactions");
+        assertEquals(200, first.getStatus());
+        assertEquals("2", first.getHeader("X-RateLimit-Limit"));
+        assertEquals("1", first.getHeader("X-RateLimit-Remaining"));
+        perform("GET", "/api/transactions");
+
+        MockFilterChain chain = new MockFilterChain();
+        MockHttpServletResponse refused = new MockHttpServletResponse();
+        filter.doFilter(request("GET", "/api/transactions/balance"), refused, chain);
+
+        assertEquals(429, refused.getStatus());
+        assertEquals("0", refused.getHeader("X-RateLimit-Remaining"));
+        assertTrue(Long.parseLong(refused.getHeader("Retry-After")) > 0);
+        assertTrue(refused.getContentAsString().contains("\"status\":429"));
+        assertNull(chain.getRequest());
+        verify(financeMetrics).rateLimited("read");
+    }
+
+    @Test
+    void testReadsDoNotUseUpWritesOrOtherUsers() throws Exception {
+        authenticate("john@example.com");
+        perform("GET", "/api/transactions");
+        perform("GET", "/api/transactions");
+        assertEquals(429, perform("GET", "/api/transactions").getStatus());
+
+        assertEquals(200, perform("POST", "/api/transactions").getStatus());
+        authenticate("jane@example.com");
+        assertEquals(200, perform("GET", "/api/transactions").getStatus());
+    }
+
+    @Test
+    void testAnonymousAuthRequestsAreKeyedByAddress() throws Exception {
+        assertEquals(200, perform("POST", "/api/auth/login").getStatus());
+        assertEquals(429, perform("POST", "/api/auth/login").getStatus());
+
+        MockHttpServletRequest otherClient = request("POST", "/api/auth/login");
+        otherClient.setRemoteAddr("10.0.0.2");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(otherClient, response, new MockFilterChain());
+        assertEquals(200, response.getStatus());
+    }
+
+    @Test
+    void testNonApiPathsAreNotLimited() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            MockHttpServletResponse response = perform("GET", "/actuator/health");
+            assertEquals(200, response.getStatus());
+            assertNull(response.getHeader("X-RateLimit-Limit"));
+        }
+    }
+
+    private MockHttpServletResponse perform(String method, String uri) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request(method, uri), response, new MockFilterChain());
+        return response;
+    }
+
+    private static MockHttpServletRequest request(String method, String uri) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, uri);
+        request.setRemoteAddr("10.0.0.1");
+        return request;
+    }
+
+    private static void authenticate(String email) {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                email, null, List.of(new SimpleGrantedAuthority("USER"))));
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.finance.ratelimit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenBucketsTest {
+
+    private final AtomicLong clock = new AtomicLong(1_000);
+
+    private TokenBuckets buckets;
+
+    @BeforeEach
+    void setUp() {
+        TokenBuckets.Limit[] limits = new TokenBuckets.Limit[EndpointClass.values().length];
+        limits[EndpointClass.AUTH.ordinal()] = new TokenBuckets.Limit(2, 1);
+        limits[EndpointClass.READ.ordinal()] = new TokenBuckets.Limit(5, 10);
+        limits[EndpointClass.WRITE.ordinal()] = new TokenBuckets.Limit(3, 1);
+        buckets = new TokenBuckets(limits, 4, TimeUnit.SECONDS.toNanos(60), clock::get);
+    }
+
+    @Test
+    void testBurstUpToCapacityThenRefuse() {
+        for (long expectedRemaining = 4; expectedRemaining >= 0; expectedRemaining--) {
+            assertEquals(expectedRemaining, buckets.tryAcquire("alice", EndpointClass.READ));
+        }
+        long refused = buckets.tryAcquire("alice", EndpointClass.READ);
+        assertTrue(refused < 0);
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(100), -(refused + 1));
+    }
+
+    @Test
+    void testRefillsAtConfiguredRate() {
+        for (int i = 0; i < 5; i++) {
+            buckets.tryAcquire("alice", EndpointClass.READ);
+        }
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(250));
+
+        assertEquals(1, buckets.tryAcquire("alice", EndpointClass.READ));
+        assertEquals(0, buckets.tryAcquire("alice", EndpointClass.READ));
+        assertTrue(buckets.tryAcquire("alice", EndpointClass.READ) < 0);
+    }
+
+    @Test
+    void testUsersAndClassesHaveSeparateBuckets() {
+        for (int i = 0; i < 5; i++) {
+            buckets.tryAcquire("alice", EndpointClass.READ);
+        }
+
+        assertTrue(buckets.tryAcquire("alice", EndpointClass.READ) < 0);
+        assertEquals(2, buckets.tryAcquire("alice", EndpointClass.WRITE));
+        assertEquals(4, buckets.tryAcquire("bob", EndpointClass.READ));
+    }
+
+    @Test
+    void testIdleKeysAreEvictedOnlyOnceFull() {
+        for (int i = 0; i < 3; i++) {
+            buckets.tryAcquire("user-" + i, EndpointClass.WRITE);
+        }
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(30));
+        buckets.tryAcquire("user-0", EndpointClass.WRITE);
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(40));
+
+        for (int stripe = 0; stripe < 4; stripe++) {
+            buckets.evictIdle();
+        }
+
+        assertEquals(1, buckets.size());
+    }
+}
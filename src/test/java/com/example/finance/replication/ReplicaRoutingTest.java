@@ -0,0 +1,112 @@
+package com.example.finance.replication;
+
+import com.example.finance.dto.TransactionRequest;
+import com.example.finance.model.User;
+import com.example.finance.repository.UserRepository;
+import com.example.finance.service.TransactionService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Replicas are separate in-memory H2 databases; "replication" is a SCRIPT / RUNSCRIPT
+ * snapshot of the primary, so each test controls exactly how far they trail it.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:replica-primary;DB_CLOSE_DELAY=-1",
+        "finance.replication.replicas=jdbc:h2:mem:replica-a;DB_CLOSE_DELAY=-1,jdbc:h2:mem:replica-b;DB_CLOSE_DELAY=-1",
+        "finance.replication.lag-check-interval-ms=3600000"
+})
+class ReplicaRoutingTest {
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ReplicaRouter replicaRouter;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @TempDir
+    private Path snapshotDir;
+
+    @Test
+    void testReadsUseCaughtUpReplicaUnlessReaderJustWrote() throws Exception {
+        User user = userRepository.save(new User("Replica User", "replica@example.com", "encoded"));
+        transactionService.createTransaction(request(), user);
+        replicateAll();
+
+        // Committed on the primary only, i.e. not replicated yet
+        insertOnPrimaryOnly(user);
+        assertEquals(1, transactionService.getAllTransactions(user).size());
+        assertEquals(10.0, transactionService.calculateBalance(user));
+
+        // Read-your-writes: the replicas have not seen this write
+        transactionService.createTransaction(request(), user);
+        assertEquals(3, transactionService.getAllTransactions(user).size());
+
+        replicateAll();
+        insertOnPrimaryOnly(user);
+        assertEquals(3, transactionService.getAllTransactions(user).size());
+
+        // Every replica beyond the lag bound: fall back to the primary
+        ReflectionTestUtils.setField(replicaRouter, "maxLagMs", 0L);
+        try {
+            Thread.sleep(5);
+            assertEquals(4, transactionService.getAllTransactions(user).size());
+        } finally {
+            ReflectionTestUtils.setField(replicaRouter, "maxLagMs", 5000L);
+        }
+    }
+
+    @Test
+    void testUnreachableReplicaIsSkipped() {
+        User user = userRepository.save(new User("Cold Replica", "cold@example.com", "encoded"));
+        transactionService.createTransaction(request(), user);
+        replicateAll();
+        new JdbcTemplate(replicaRouter.replica(0)).execute("drop table " + ReplicaRouter.HEARTBEAT_TABLE);
+        new JdbcTemplate(replicaRouter.replica(1)).execute("drop table " + ReplicaRouter.HEARTBEAT_TABLE);
+        replicaRouter.checkLag();
+
+        insertOnPrimaryOnly(user);
+        assertEquals(2, transactionService.getAllTransactions(user).size());
+    }
+
+    private void replicateAll() {
+        replicaRouter.checkLag();
+        String snapshot = snapshotDir.resolve("primary.sql").toString().replace('\\', '/');
+        new JdbcTemplate(dataSource).execute("script drop to '" + snapshot + "'");
+        for (int i = 0; i < replicaRouter.replicaCount(); i++) {
+            new JdbcTemplate(replicaRouter.replica(i)).execute("runscript from '" + snapshot + "'");
+        }
+        replicaRouter.checkLag();
+    }
+
+    private void insertOnPrimaryOnly(User user) {
+        new JdbcTemplate(dataSource).update(
+                "insert into transactions (amount, category, description, date, user_id) values (?, ?, ?, ?, ?)",
+                new BigDecimal("5.00"), "Income", "Direct", LocalDate.of(2025, 2, 1), user.getId());
+    }
+
+    private static TransactionRequest request() {
+        return new TransactionRequest(new BigDecimal("10.00"), "Salary", "Income", LocalDate.of(2025, 3, 1));
+    }
+}
@@ -0,0 +1,159 @@
+package com.example.finance.report;
+
+import com.example.finance.dto.ReportJobResponse;
+import com.example.finance.dto.TransactionResponse;
+import com.example.finance.event.TransactionChangedEvent;
+import com.example.finance.invalidation.Invalidation;
+import com.example.finance.model.User;
+import com.example.finance.service.TransactionService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ReportJobServiceTest {
+
+    @InjectMocks
+    private ReportJobService service;
+
+    @Mock
+    private TransactionService transactionService;
+
+    @Spy
+    private ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+
+    @TempDir
+    private Path directory;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(service, "directory", directory);
+        ReflectionTestUtils.setField(service, "workers", 2);
+        ReflectionTestUtils.setField(service, "queueCapacity", 10);
+        ReflectionTestUtils.setField(service, "maxActivePerUser", 1);
+        ReflectionTestUtils.setField(service, "jobTtlMs", 3_600_000L);
+        service.init();
+        user = new User("Reporter", "reporter@example.com", "encoded");
+        ReflectionTestUtils.setField(user, "id", 1L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void testStatementTotalsMonthsAndCategories() throws Exception {
+        when(transactionService.getAllTransactions(user)).thenReturn(List.of(
+                row(1, "3000.00", "Income", LocalDate.of(2024, 1, 31)),
+                row(2, "120.50", "Groceries", LocalDate.of(2024, 1, 5)),
+                row(3, "79.50", "Groceries", LocalDate.of(2024, 3, 9)),
+                row(4, "999.00", "Rent", LocalDate.of(2023, 12, 31))));
+
+        ReportJobResponse job = awaitDone(service.submit(user, 2024));
+        JsonNode statement = objectMapper.readTree(service.result(user, job.id()).toFile());
+
+        assertEquals(2800.0, statement.get("net").asDouble(), 1e-9);
+        assertEquals(12, statement.get("months").size());
+        assertEquals(2879.5, statement.get("months").get(0).get("net").asDouble(), 1e-9);
+        assertEquals(-79.5, statement.get("months").get(2).get("net").asDouble(), 1e-9);
+        assertEquals("Groceries", statement.get("categories").get(0).get("category").asText());
+        assertEquals(2, statement.get("categories").get(0).get("count").asLong());
+        assertEquals(3, statement.get("transactions").size());
+        assertEquals("2024-01-05", statement.get("transactions").get(0).get("date").asText());
+    }
+
+    @Test
+    void testCachedUntilDataVersionChanges() throws Exception {
+        when(transactionService.getAllTransactions(user)).thenReturn(List.of(
+                row(1, "10.00", "Income", LocalDate.of(2024, 6, 1))));
+
+        awaitDone(service.submit(user, 2024));
+        ReportJobResponse cached = service.submit(user, 2024);
+        assertEquals(ReportStatus.DONE, cached.status());
+        verify(transactionService, times(1)).getAllTransactions(user);
+
+        service.onTransactionChanged(new TransactionChangedEvent(TransactionChangedEvent.Type.CREATED, 1L, null,
+                row(2, "5.00", "Income", LocalDate.of(2024, 6, 2))));
+        awaitDone(service.submit(user, 2024));
+        verify(transactionService, times(2)).getAllTransactions(user);
+
+        service.purge();
+        assertEquals(2, directory.toFile().list().length);
+    }
+
+    @Test
+    void testWriteOnAnotherNodeInvalidatesCachedReport() throws Exception {
+        when(transactionService.getAllTransactions(user)).thenReturn(List.of());
+        awaitDone(service.submit(user, 2024));
+
+        service.onInvalidation(Invalidation.transactions(1L, System.currentTimeMillis()));
+        awaitDone(service.submit(user, 2024));
+
+        verify(transactionService, times(2)).getAllTransactions(user);
+    }
+
+    @Test
+    void testPerUserLimitAndDuplicateSubmitsShareAJob() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        when(transactionService.getAllTransactions(user)).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return List.of();
+        });
+
+        ReportJobResponse first = service.submit(user, 2024);
+        assertEquals(first.id(), service.submit(user, 2024).id());
+        ResponseStatusException limited = assertThrows(ResponseStatusException.class, () -> service.submit(user, 2023));
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, limited.getStatusCode());
+        ResponseStatusException notReady = assertThrows(ResponseStatusException.class,
+                () -> service.result(user, first.id()));
+        assertEquals(HttpStatus.CONFLICT, notReady.getStatusCode());
+
+        release.countDown();
+        awaitDone(first);
+        assertEquals(0, service.activeJobs(1L));
+        assertNotNull(service.submit(user, 2023));
+    }
+
+    private ReportJobResponse awaitDone(ReportJobResponse job) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        ReportJobResponse current = job;
+        while (current.status() != ReportStatus.DONE && System.currentTimeMillis() < deadline) {
+            assertNotEquals(ReportStatus.FAILED, current.status(), current.error());
+            Thread.sleep(10);
+            current = service.status(user, job.id());
+        }
+        assertEquals(ReportStatus.DONE, current.status());
+        return current;
+    }
+
+    private static TransactionResponse row(long id, String amount, String category, LocalDate date) {
+        return new TransactionResponse(id, new BigDecimal(amount), null, category, date);
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.finance.security;
+
+import com.example.finance.model.User;
+import com.example.finance.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class TokenRevocationStoreTest {
+
+    @InjectMocks
+    private TokenRevocationStore store;
+
+    @Mock
+    private UserRepository userRepository;
+
+    private Date issuedAt;
+    private Date expiration;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(store, "bucketSeconds", 60L);
+        issuedAt = new Date(System.currentTimeMillis() - 1000);
+        expiration = new Date(System.currentTimeMillis() + 3_600_000);
+    }
+
+    @Test
+    void testRevokedTokenIdIsRejected() {
+        store.revoke("jti-1", expiration);
+
+        assertTrue(store.isRevoked("jti-1", "john@example.com", issuedAt, expiration));
+        assertFalse(store.isRevoked("jti-2", "john@example.com", issuedAt, expiration));
+    }
+
+    @Test
+    void testWatermarkRevokesEarlierTokensOnly() {
+        store.revokeAllIssuedBefore("john@example.com", System.currentTimeMillis());
+
+        assertTrue(store.isRevoked("jti-1", "john@example.com", issuedAt, expiration));
+        assertFalse(store.isRevoked("jti-1", "jane@example.com", issuedAt, expiration));
+        assertFalse(store.isRevoked("jti-3", "john@example.com",
+                new Date(System.currentTimeMillis() + 5000), expiration));
+    }
+
+    @Test
+    void testTokenIssuedInTheSameSecondAsRevokeAllIsRejected() {
+        JwtTokenUtil jwtTokenUtil = jwtTokenUtil();
+        String before = jwtTokenUtil.generateToken("john@example.com");
+        long issuedAt = jwtTokenUtil.extractClaims(before).get(JwtTokenUtil.ISSUED_AT_MILLIS, Long.class);
+
+        // Revoked in the very millisecond the token was issued
+        store.revokeAllIssuedBefore("john@example.com", issuedAt);
+        String after = jwtTokenUtil.generateToken("john@example.com");
+
+        assertFalse(jwtTokenUtil.validateToken(before));
+        assertTrue(jwtTokenUtil.validateToken(after));
+        assertTrue(jwtTokenUtil.extractClaims(after).get(JwtTokenUtil.ISSUED_AT_MILLIS, Long.class) > issuedAt);
+    }
+
+    @Test
+    void testLoginRightAfterRevokeAllIsAccepted() {
+        JwtTokenUtil jwtTokenUtil = jwtTokenUtil();
+        String before = jwtTokenUtil.generateToken("john@example.com");
+
+        store.revokeAllIssuedBefore("john@example.com", System.currentTimeMillis());
+        String after = jwtTokenUtil.generateToken("john@example.com");
+
+        assertFalse(jwtTokenUtil.validateToken(before));
+        assertTrue(jwtTokenUtil.validateToken(after));
+    }
+
+    @Test
+    void testWatermarksLoadedAtStartup() {
+        User user = new User("John Doe", "john@example.com", "encodedPassword");
+        user.setTokensInvalidBefore(System.currentTimeMillis());
+        when(userRepository.findByTokensInvalidBeforeIsNotNull()).thenReturn(List.of(user));
+
+        store.init();
+
+        assertTrue(store.isRevoked("jti-1", "john@example.com", issuedAt, expiration));
+    }
+
+    @Test
+    void testExpiredBucketsAreDropped() {
+        ReflectionTestUtils.setField(store, "bucketSeconds", 1L);
+        Date soon = new Date(System.currentTimeMillis() + 50);
+        store.revoke("jti-1", soon);
+        store.revoke("jti-2", expiration);
+        assertEquals(2, store.bucketCount());
+
+        await(soon.getTime() + 1000);
+        store.purgeExpired();
+
+        assertEquals(1, store.bucketCount());
+        assertTrue(store.isRevoked("jti-2", "john@example.com", issuedAt, expiration));
+    }
+
+    private JwtTokenUtil jwtTokenUtil() {
+        JwtTokenUtil jwtTokenUtil = new JwtTokenUtil();
+        ReflectionTestUtils.setField(jwtTokenUtil, "secret", "0123456789abcdef0123456789abcdef0123456789abcdef");
+        ReflectionTestUtils.setField(jwtTokenUtil, "expiration", 3_600_000L);
+        ReflectionTestUtils.setField(jwtTokenUtil, "revocationStore", store);
+        jwtTokenUtil.init();
+        return jwtTokenUtil;
+    }
+
+    private static void await(long epochMillis) {
+        try {
+            Thread.sleep(Math.max(0, epochMillis - System.currentTimeMillis()));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
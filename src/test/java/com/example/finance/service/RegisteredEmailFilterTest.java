@@ -0,0 +1,74 @@
+package com.example.finance.service;
+
+import com.example.finance.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class RegisteredEmailFilterTest {
+
+    @InjectMocks
+    private RegisteredEmailFilter filter;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(filter, "expectedInsertions", 1000L);
+        ReflectionTestUtils.setField(filter, "falsePositiveRate", 0.01);
+    }
+
+    @Test
+    void testStartupRebuildContainsExistingEmails() {
+        when(userRepository.findAllEmails()).thenReturn(List.of("john@example.com", "jane@example.com"));
+
+        filter.init();
+
+        assertTrue(filter.mightContain("john@example.com"));
+        assertTrue(filter.mightContain("jane@example.com"));
+    }
+
+    @Test
+    void testPutMakesEmailVisible() {
+        when(userRepository.findAllEmails()).thenReturn(List.of());
+        filter.init();
+
+        assertFalse(filter.mightContain("new@example.com"));
+        filter.put("new@example.com");
+        assertTrue(filter.mightContain("new@example.com"));
+    }
+
+    @Test
+    void testFalsePositiveRateStaysNearTarget() {
+        when(userRepository.findAllEmails()).thenReturn(List.of());
+        filter.init();
+        IntStream.range(0, 1000).forEach(i -> filter.put("user" + i + "@example.com"));
+
+        long falsePositives = IntStream.range(0, 10000)
+                .filter(i -> filter.mightContain("probe" + i + "@example.org"))
+                .count();
+
+        assertTrue(falsePositives < 300, "false positives: " + falsePositives);
+    }
+
+    @Test
+    void testRebuildsFromRepositoryWhenCapacityExceeded() {
+        when(userRepository.findAllEmails()).thenReturn(List.of());
+        filter.init();
+
+        IntStream.rangeClosed(0, 1000).forEach(i -> filter.put("user" + i + "@example.com"));
+
+        verify(userRepository, times(2)).findAllEmails();
+    }
+}
@@ -1,14 +1,25 @@
 package com.example.finance.service;
 
+import com.example.finance.anomaly.AnomalyDetector;
+import com.example.finance.archive.ColdStore;
+import com.example.finance.categorization.Categorizer;
+import com.example.finance.duplicate.DuplicateDetector;
+import com.example.finance.dto.Anomaly;
+import com.example.finance.dto.TransactionChanges;
 import com.example.finance.dto.TransactionRequest;
 import com.example.finance.dto.TransactionResponse;
+import com.example.finance.event.TransactionChangedEvent;
 import com.example.finance.model.Transaction;
+import com.example.finance.model.TransactionTombstone;
 import com.example.finance.model.User;
 import com.example.finance.repository.TransactionRepository;
+import com.example.finance.sync.RevisionLog;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
 
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.math.BigDecimal;
@@ -18,6 +29,7 @@ import java.util.*;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 import static org.springframework.http.HttpStatus.FORBIDDEN;
+import static org.springframework.http.HttpStatus.GONE;
 
 class TransactionServiceTest {
 
@@ -27,12 +39,36 @@ class TransactionServiceTest {
     @Mock
     private TransactionRepository transactionRepository;
 
+    @Mock
+    private ColdStore coldStore;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private AnomalyDetector anomalyDetector;
+
+    @Mock
+    private Categorizer categorizer;
+
+    @Mock
+    private DuplicateDetector duplicateDetector;
+
+    @Mock
+    private RevisionLog revisionLog;
+
     private User mockUser;
 
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
         mockUser = new User("John Doe", "john@example.com", "encodedPassword");
+        // Writes go through the revision log to the repository
+        when(revisionLog.save(any())).thenAnswer(inv -> transactionRepository.save(inv.getArgument(0)));
+        when(revisionLog.delete(any())).thenAnswer(inv -> {
+            transactionRepository.delete(inv.getArgument(0));
+            return 1L;
+        });
     }
 
     @Test
@@ -58,6 +94,48 @@ class TransactionServiceTest {
         assertNotNull(response);
         assertEquals(1L, response.id());
         assertEquals("Salary", response.description());
+
+        ArgumentCaptor<Object> event = ArgumentCaptor.forClass(Object.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertEquals(TransactionChangedEvent.Type.CREATED, ((TransactionChangedEvent) event.getValue()).type());
+        assertEquals(response, ((TransactionChangedEvent) event.getValue()).after());
+    }
+
+    @Test
+    void testCreateTransactionCarriesAnomaly() {
+        TransactionRequest request = new TransactionRequest(
+                new BigDecimal("250.00"),
+                "Weekly shop",
+                "Groceries",
+                LocalDate.now()
+        );
+        Transaction saved = new Transaction(request.amount(), request.description(), request.category(), request.date(), mockUser);
+        saved.setId(7L);
+        Anomaly anomaly = new Anomaly(8.5, new BigDecimal("50.00"), new BigDecimal("5.00"), 12);
+
+        when(transactionRepository.save(any(Transaction.class))).thenReturn(saved);
+        when(anomalyDetector.observe(any(), isNull(), any())).thenReturn(anomaly);
+
+        TransactionResponse response = transactionService.createTransaction(request, mockUser);
+
+        assertEquals(anomaly, response.anomaly());
+        ArgumentCaptor<Object> event = ArgumentCaptor.forClass(Object.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertEquals(anomaly, ((TransactionChangedEvent) event.getValue()).after().anomaly());
+    }
+
+    @Test
+    void testCreateWithoutCategoryUsesTheRules() {
+        TransactionRequest request = new TransactionRequest(new BigDecimal("18.00"), "UBER *TRIP", null, LocalDate.now());
+        when(categorizer.categorize(mockUser.getId(), "UBER *TRIP")).thenReturn("Transport");
+        when(transactionRepository.save(any(Transaction.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        TransactionResponse response = transactionService.createTransaction(request, mockUser);
+
+        assertEquals("Transport", response.category());
+        ArgumentCaptor<Transaction> saved = ArgumentCaptor.forClass(Transaction.class);
+        verify(transactionRepository).save(saved.capture());
+        assertTrue(saved.getValue().isAutoCategory());
     }
 
     @Test
@@ -202,4 +280,36 @@ class TransactionServiceTest {
 
         assertEquals(700.00, balance);
     }
+
+    @Test
+    void testGetChanges_mergesUpsertsAndDeletesInRevisionOrder() {
+        Transaction early = new Transaction(new BigDecimal("5.00"), "Coffee", "Dining", LocalDate.now(), mockUser);
+        early.setId(10L);
+        early.setRevision(2);
+        Transaction late = new Transaction(new BigDecimal("9.00"), "Lunch", "Dining", LocalDate.now(), mockUser);
+        late.setId(11L);
+        late.setRevision(5);
+        when(transactionRepository.findSyncRevision(mockUser)).thenReturn(Optional.of(6L));
+        when(transactionRepository.findChanges(mockUser, 1L, 6L, Limit.of(4))).thenReturn(List.of(early, late));
+        when(transactionRepository.findTombstones(mockUser, 1L, 6L, Limit.of(4))).thenReturn(List.of(
+                new TransactionTombstone(null, 7L, 3), new TransactionTombstone(null, 8L, 4)));
+
+        TransactionChanges page = transactionService.getChanges(mockUser, 1L, 3);
+
+        assertEquals(List.of(10L), page.upserts().stream().map(TransactionResponse::id).toList());
+        assertEquals(List.of(7L, 8L), page.deleted());
+        assertTrue(page.hasMore());
+        assertEquals(4L, page.revision());
+    }
+
+    @Test
+    void testGetChanges_revisionAheadOfServer_throwsGone() {
+        when(transactionRepository.findSyncRevision(mockUser)).thenReturn(Optional.of(3L));
+
+        ResponseStatusException ex = assertThrows(ResponseStatusException.class, () ->
+                transactionService.getChanges(mockUser, 9L, 100)
+        );
+
+        assertEquals(GONE, ex.getStatusCode());
+    }
 }
@@ -0,0 +1,168 @@
+package com.example.finance.sharding;
+
+import com.example.finance.account.AccountDeletionService;
+import com.example.finance.dto.AccountDeletionResponse;
+import com.example.finance.dto.TransactionRequest;
+import com.example.finance.dto.TransactionResponse;
+import com.example.finance.model.AccountDeletion;
+import com.example.finance.model.User;
+import com.example.finance.repository.UserRepository;
+import com.example.finance.security.JwtTokenUtil;
+import com.example.finance.service.TransactionService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:shard-primary;DB_CLOSE_DELAY=-1",
+        "finance.sharding.shards=jdbc:h2:mem:shard-a;DB_CLOSE_DELAY=-1,jdbc:h2:mem:shard-b;DB_CLOSE_DELAY=-1"
+})
+class ShardRoutingTest {
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private ShardRebalancer shardRebalancer;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtTokenUtil jwtTokenUtil;
+
+    @Autowired
+    private AccountDeletionService accountDeletionService;
+
+    @Test
+    void testTransactionsLandOnOwnersShardAndRoundTrip() {
+        assertTrue(shardRouter.isEnabled());
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            users.add(userRepository.save(new User("Shard User", "shard" + i + "@example.com", "encoded")));
+        }
+
+        for (User user : users) {
+            transactionService.createTransaction(request("1000.00", "Income"), user);
+            transactionService.createTransaction(request("250.00", "Groceries"), user);
+        }
+
+        for (User user : users) {
+            int shard = shardRouter.shardFor(user.getId());
+            assertEquals(2, rowsFor(shard, user));
+            assertEquals(0, rowsFor(1 - shard, user));
+            assertEquals(750.0, transactionService.calculateBalance(user));
+        }
+        assertEquals(0, new JdbcTemplate(dataSource).queryForObject("select count(*) from transactions", Long.class));
+
+        User owner = users.get(0);
+        TransactionResponse created = transactionService.getAllTransactions(owner).get(0);
+        assertEquals(shardRouter.shardFor(owner.getId()), shardRouter.shardHint(created.id()));
+
+        TransactionResponse updated = transactionService.updateTransaction(
+                created.id(), request("300.00", "Groceries"), owner);
+        assertEquals(new BigDecimal("300.00"), updated.amount());
+
+        transactionService.deleteTransaction(created.id(), owner);
+        assertEquals(1, transactionService.getAllTransactions(owner).size());
+    }
+
+    @Test
+    void testRequestsReachShardAfterUserLookupOnPrimary() throws Exception {
+        User user = userRepository.save(new User("Web User", "web@example.com", "encoded"));
+        String bearer = "Bearer " + jwtTokenUtil.generateToken(user.getEmail());
+
+        mockMvc.perform(post("/api/transactions")
+                        .header("Authorization", bearer)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"amount\":40.00,\"description\":\"Salary\",\"category\":\"Income\",\"date\":\"2025-06-01\"}"))
+                .andExpect(status().isOk());
+
+        assertEquals(1, rowsFor(shardRouter.shardFor(user.getId()), user));
+        mockMvc.perform(get("/api/transactions/balance").header("Authorization", bearer))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$").value(40.0));
+    }
+
+    @Test
+    void testRebalanceMovesMisplacedRowsToOwnersShard() throws Exception {
+        User user = userRepository.save(new User("Misplaced", "misplaced@example.com", "encoded"));
+        int home = shardRouter.shardFor(user.getId());
+        int wrong = 1 - home;
+        shardRouter.ensureUserStub(wrong, user);
+        for (int i = 0; i < 3; i++) {
+            shardRouter.jdbcTemplate(wrong).update(
+                    "insert into transactions (amount, category, description, date, user_id) values (?, ?, ?, ?, ?)",
+                    new BigDecimal("10.00"), "Income", "Income", LocalDate.of(2025, 1, 1), user.getId());
+        }
+        shardRouter.jdbcTemplate(wrong).update("update users set sync_revision = 4 where id = ?", user.getId());
+        shardRouter.jdbcTemplate(wrong).update(
+                "insert into transaction_tombstones (user_id, transaction_id, revision) values (?, 99, 4)", user.getId());
+
+        assertEquals(3, shardRebalancer.rebalance());
+
+        assertEquals(0, rowsFor(wrong, user));
+        assertEquals(3, rowsFor(home, user));
+        assertEquals(30.0, transactionService.calculateBalance(user));
+        // Sync state follows the rows, so a client at revision 3 still learns of the delete
+        assertEquals(List.of(99L), transactionService.getChanges(user, 3, 100).deleted());
+    }
+
+    @Test
+    void testAccountDeletionPurgesOwnersShard() throws Exception {
+        User user = userRepository.save(new User("Leaving", "leaving@example.com", "encoded"));
+        int home = shardRouter.shardFor(user.getId());
+        transactionService.createTransaction(request("1000.00", "Income"), user);
+        transactionService.createTransaction(request("250.00", "Groceries"), user);
+
+        AccountDeletionResponse deletion = accountDeletionService.request(user);
+        for (int i = 0; i < 500 && accountDeletionService.status(deletion.id()).status() != AccountDeletion.Status.DONE; i++) {
+            Thread.sleep(20);
+        }
+
+        assertEquals(AccountDeletion.Status.DONE, accountDeletionService.status(deletion.id()).status());
+        assertEquals(0, rowsFor(home, user));
+        assertEquals(0, shardRouter.jdbcTemplate(home).queryForObject(
+                "select count(*) from users where id = ?", Long.class, user.getId()));
+        assertFalse(userRepository.existsById(user.getId()));
+    }
+
+    private long rowsFor(int shard, User user) {
+        return shardRouter.jdbcTemplate(shard).queryForObject(
+                "select count(*) from transactions where user_id = ?", Long.class, user.getId());
+    }
+
+    private static TransactionRequest request(String amount, String category) {
+        return new TransactionRequest(new BigDecimal(amount), category, category, LocalDate.of(2025, 3, 1));
+    }
+}
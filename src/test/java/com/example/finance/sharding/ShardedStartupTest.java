@@ -0,0 +1,53 @@
+package com.example.finance.sharding;
+
+import com.example.finance.dto.TransactionRequest;
+import com.example.finance.model.User;
+import com.example.finance.repository.UserRepository;
+import com.example.finance.service.TransactionService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Sharding under the default profile, where Hibernate only validates: every shard's schema has to come from the
+ * Flyway migrations.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:default-shard-primary;DB_CLOSE_DELAY=-1",
+        "finance.sharding.shards=jdbc:h2:mem:default-shard-a;DB_CLOSE_DELAY=-1,jdbc:h2:mem:default-shard-b;DB_CLOSE_DELAY=-1"
+})
+class ShardedStartupTest {
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Test
+    void testShardsAreMigratedAndServeWrites() {
+        assertTrue(shardRouter.isEnabled());
+        for (int shard = 0; shard < shardRouter.shardCount(); shard++) {
+            assertEquals(0, shardRouter.jdbcTemplate(shard).queryForObject(
+                    "select count(*) from \"flyway_schema_history\" where not \"success\"", Integer.class));
+            assertEquals(0, shardRouter.jdbcTemplate(shard).queryForObject(
+                    "select count(*) from account_deletions", Integer.class));
+        }
+
+        User user = userRepository.save(new User("Default Shard", "default-shard@example.com", "encoded"));
+        transactionService.createTransaction(new TransactionRequest(new BigDecimal("12.00"), "Lunch", "Food",
+                LocalDate.of(2025, 6, 1)), user);
+
+        assertEquals(1, shardRouter.jdbcTemplate(shardRouter.shardFor(user.getId())).queryForObject(
+                "select count(*) from transactions where user_id = ?", Integer.class, user.getId()));
+        assertEquals(-12.0, transactionService.calculateBalance(user));
+    }
+}
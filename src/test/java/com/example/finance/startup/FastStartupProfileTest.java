@@ -0,0 +1,73 @@
+package com.example.finance.startup;
+
+import com.example.finance.report.ReportJobService;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.availability.ApplicationAvailability;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Starts the fast profile against its own empty database: Flyway builds the schema and Hibernate validates it
+ * against the entities, so a migration that falls behind the model fails here.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:fast-startup;DB_CLOSE_DELAY=-1",
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.jpa.properties.hibernate.boot.allow_jdbc_metadata_access=true",
+        "finance.warmup.iterations=20"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles({"test", "fast"})
+class FastStartupProfileTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private Flyway flyway;
+
+    @Autowired
+    private ConfigurableApplicationContext context;
+
+    @Autowired
+    private ApplicationAvailability availability;
+
+    @Test
+    void testMigrationsBuildTheSchemaAndTheAppServesRequests() throws Exception {
+        assertEquals(0, flyway.info().pending().length);
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "select count(*) from \"flyway_schema_history\" where not \"success\"", Integer.class));
+
+        mockMvc.perform(post("/api/auth/register")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Fast Start\",\"email\":\"fast@example.com\",\"password\":\"Password@123\"}"))
+                .andExpect(status().isOk());
+        mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"email\":\"fast@example.com\",\"password\":\"Password@123\"}"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void testBeansAreLazyExceptScheduledOnesAndReadinessFollowsWarmup() {
+        assertTrue(context.getBeanFactory().getBeanDefinition("reportController").isLazyInit());
+        assertFalse(context.getBeanFactory().getBeanDefinition("reportJobService").isLazyInit());
+        assertTrue(StartupConfig.hasScheduledMethods(ReportJobService.class));
+        assertEquals(ReadinessState.ACCEPTING_TRAFFIC, availability.getReadinessState());
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.finance.startup;
+
+import com.example.finance.model.IdempotencyRecord;
+import com.example.finance.model.User;
+import com.example.finance.repository.IdempotencyRecordRepository;
+import com.example.finance.repository.TransactionRepository;
+import com.example.finance.repository.UserRepository;
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.MigrationInfo;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The upgrade path for a database created by {@code ddl-auto=update} before migrations existed: Flyway baselines it
+ * at version 1, applies the later migrations, and Hibernate then validates the result against the entities.
+ */
+@SpringBootTest(properties = "spring.jpa.hibernate.ddl-auto=validate")
+@ActiveProfiles("test")
+class SchemaUpgradeTest {
+
+    private static final String URL = "jdbc:h2:mem:update-created;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private Flyway flyway;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    // Runs before the context starts, so the app's first start sees the old schema
+    @DynamicPropertySource
+    static void updateCreatedDatabase(DynamicPropertyRegistry registry) {
+        SingleConnectionDataSource dataSource = new SingleConnectionDataSource(URL, "sa", "", true);
+        try {
+            new ResourceDatabasePopulator(new ClassPathResource("db/ddl-auto-update-schema.sql")).execute(dataSource);
+        } finally {
+            dataSource.destroy();
+        }
+        registry.add("spring.datasource.url", () -> URL);
+    }
+
+    @Test
+    void testDatabaseCreatedByHibernateIsBaselinedAndUpgraded() {
+        MigrationInfo[] applied = flyway.info().applied();
+        assertEquals("1", applied[0].getVersion().getVersion());
+        assertTrue(applied[0].getType().isBaseline());
+        assertTrue(applied.length > 1);
+        assertEquals(0, flyway.info().pending().length);
+
+        User user = userRepository.findByEmail("legacy@example.com").orElseThrow();
+        assertNull(user.getTokensInvalidBefore());
+        assertEquals(1, transactionRepository.count());
+        user.setTokensInvalidBefore(System.currentTimeMillis());
+        userRepository.save(user);
+        idempotencyRecordRepository.save(new IdempotencyRecord(user.getId(), "key-1", "fingerprint", System.currentTimeMillis()));
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.finance.stream;
+
+import com.example.finance.dto.TransactionStreamEvent;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SubscriberBufferTest {
+
+    @Test
+    void testOverflowCollapsesPendingEventsIntoResync() {
+        SubscriberBuffer buffer = new SubscriberBuffer(3);
+        for (long id = 1; id <= 3; id++) {
+            buffer.offer(new SubscriberBuffer.Outgoing(id, event("created", id * 10.0)));
+        }
+
+        buffer.offer(new SubscriberBuffer.Outgoing(4, event("deleted", 40.0)));
+        buffer.offer(new SubscriberBuffer.Outgoing(5, event("created", 50.0)));
+
+        SubscriberBuffer.Outgoing resync = buffer.poll();
+        assertEquals("resync", resync.event().type());
+        assertEquals(4, resync.id());
+        assertEquals(40.0, resync.event().balance());
+        assertEquals(5, buffer.poll().id());
+        assertNull(buffer.poll());
+    }
+
+    @Test
+    void testHeartbeatOnlyWhenIdle() {
+        SubscriberBuffer buffer = new SubscriberBuffer(3);
+        assertTrue(buffer.offerHeartbeat());
+        assertFalse(buffer.offerHeartbeat());
+        assertSame(SubscriberBuffer.Outgoing.HEARTBEAT, buffer.poll());
+        assertTrue(buffer.isEmpty());
+    }
+
+    private static TransactionStreamEvent event(String type, double balance) {
+        return new TransactionStreamEvent(type, null, balance);
+    }
+}
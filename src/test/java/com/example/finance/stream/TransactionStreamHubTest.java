@@ -0,0 +1,92 @@
+package com.example.finance.stream;
+
+import com.example.finance.model.User;
+import com.example.finance.repository.TransactionRepository;
+import com.example.finance.repository.UserRepository;
+import com.example.finance.security.JwtTokenUtil;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "finance.stream.max-per-user=2")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class TransactionStreamHubTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private JwtTokenUtil jwtTokenUtil;
+
+    @Autowired
+    private TransactionStreamHub hub;
+
+    @AfterEach
+    void tearDown() {
+        transactionRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void testMutationsArePushedWithNewBalance() throws Exception {
+        User user = userRepository.save(new User("Streamer", "stream@example.com", "encoded"));
+        String bearer = "Bearer " + jwtTokenUtil.generateToken(user.getEmail());
+
+        MvcResult stream = mockMvc.perform(get("/api/transactions/stream").header("Authorization", bearer))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(post("/api/transactions")
+                        .header("Authorization", bearer)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"amount\":75.00,\"description\":\"Bonus\",\"category\":\"Income\",\"date\":\"2025-06-01\"}"))
+                .andExpect(status().isOk());
+
+        String body = awaitContent(stream, "event:created");
+        assertTrue(body.contains("event:ready"), body);
+        assertTrue(body.contains("\"balance\":75.0"), body);
+        assertTrue(body.contains("\"description\":\"Bonus\""), body);
+    }
+
+    @Test
+    void testStreamsPerUserAreCapped() throws Exception {
+        User user = userRepository.save(new User("Capped", "capped@example.com", "encoded"));
+        String bearer = "Bearer " + jwtTokenUtil.generateToken(user.getEmail());
+
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(get("/api/transactions/stream").header("Authorization", bearer))
+                    .andExpect(request().asyncStarted());
+        }
+        mockMvc.perform(get("/api/transactions/stream").header("Authorization", bearer))
+                .andExpect(status().isTooManyRequests());
+        assertEquals(2, hub.subscriberCount(user.getId()));
+    }
+
+    private static String awaitContent(MvcResult stream, String expected) throws Exception {
+        long deadline = System.currentTimeMillis() + 5000;
+        String body = stream.getResponse().getContentAsString();
+        while (!body.contains(expected) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+            body = stream.getResponse().getContentAsString();
+        }
+        return body;
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.finance.sync;
+
+import com.example.finance.model.User;
+import com.example.finance.repository.TransactionRepository;
+import com.example.finance.repository.UserRepository;
+import com.example.finance.security.JwtTokenUtil;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class TransactionSyncTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private JwtTokenUtil jwtTokenUtil;
+
+    private String bearer;
+
+    @BeforeEach
+    void setUp() {
+        User user = userRepository.save(new User("Sync User", "sync@example.com", "encoded"));
+        bearer = "Bearer " + jwtTokenUtil.generateToken(user.getEmail());
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("delete from transaction_tombstones");
+        transactionRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void testChangesReturnOnlyWritesAndDeletesAfterTheRevision() throws Exception {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            ids.add(create("Item " + i));
+        }
+
+        JsonNode snapshot = changes("");
+        assertEquals(3, snapshot.get("upserts").size());
+        assertEquals(3, snapshot.get("revision").asLong());
+        assertFalse(snapshot.get("hasMore").asBoolean());
+
+        mockMvc.perform(put("/api/transactions/" + ids.get(1))
+                        .header("Authorization", bearer)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"amount\":20.00,\"description\":\"Edited\",\"category\":\"Expense\",\"date\":\"2025-06-02\"}"))
+                .andExpect(status().isOk());
+        mockMvc.perform(delete("/api/transactions/" + ids.get(2)).header("Authorization", bearer))
+                .andExpect(status().isOk());
+
+        JsonNode delta = changes("?since=3");
+        assertEquals(1, delta.get("upserts").size());
+        assertEquals(ids.get(1), delta.get("upserts").get(0).get("id").asLong());
+        assertEquals("Edited", delta.get("upserts").get(0).get("description").asText());
+        assertEquals(List.of(ids.get(2)), List.of(delta.get("deleted").get(0).asLong()));
+        assertEquals(5, delta.get("revision").asLong());
+
+        JsonNode upToDate = changes("?since=5");
+        assertEquals(0, upToDate.get("upserts").size());
+        assertEquals(0, upToDate.get("deleted").size());
+        assertEquals(5, upToDate.get("revision").asLong());
+    }
+
+    @Test
+    void testRevisionTheServerNeverIssuedAsksForAFullSync() throws Exception {
+        create("Coffee");
+
+        mockMvc.perform(get("/api/transactions/changes?since=99").header("Authorization", bearer))
+                .andExpect(status().isGone());
+        mockMvc.perform(get("/api/transactions/changes?since=-1").header("Authorization", bearer))
+                .andExpect(status().isBadRequest());
+    }
+
+    private long create(String description) throws Exception {
+        String body = mockMvc.perform(post("/api/transactions")
+                        .header("Authorization", bearer)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"amount\":12.50,\"description\":\"" + description
+                                + "\",\"category\":\"Dining\",\"date\":\"2025-06-01\"}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body).get("id").asLong();
+    }
+
+    private JsonNode changes(String query) throws Exception {
+        String body = mockMvc.perform(get("/api/transactions/changes" + query).header("Authorization", bearer))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body);
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.finance.timing;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RequestTimingTest {
+
+    private final AtomicLong clock = new AtomicLong();
+
+    @Test
+    void testNestedPhasesAreChargedExclusively() {
+        RequestTiming timing = RequestTiming.start(clock::get);
+        advance(1.0);
+        RequestTiming.Phase outer = RequestTiming.enter(RequestTiming.Phase.AUTH);
+        advance(0.5);
+        RequestTiming.Phase auth = RequestTiming.enter(RequestTiming.Phase.DB);
+        advance(2.0);
+        RequestTiming.countStatement();
+        RequestTiming.exit(auth);
+        advance(0.25);
+        RequestTiming.exit(outer);
+        RequestTiming.enter(RequestTiming.Phase.SER);
+        advance(3.0);
+        RequestTiming.rowsReturned(7);
+
+        assertEquals(6_750_000, timing.stop());
+        assertEquals(1_000_000, timing.nanos(RequestTiming.Phase.APP));
+        assertEquals(750_000, timing.nanos(RequestTiming.Phase.AUTH));
+        assertEquals(2_000_000, timing.nanos(RequestTiming.Phase.DB));
+        assertEquals(3_000_000, timing.nanos(RequestTiming.Phase.SER));
+        assertEquals("app;dur=1.00, auth;dur=0.75, db;dur=2.00, map;dur=0.00, ser;dur=3.00, total;dur=6.75",
+                timing.header());
+        assertEquals("total=6.75ms app=1.00ms auth=0.75ms db=2.00ms map=0.00ms ser=3.00ms statements=1 rows=7",
+                timing.summary());
+    }
+
+    @Test
+    void testHooksDoNothingWithoutATiming() {
+        RequestTiming timing = RequestTiming.start(clock::get);
+        timing.stop();
+
+        assertNull(RequestTiming.enter(RequestTiming.Phase.DB));
+        RequestTiming.countStatement();
+        RequestTiming.exit(null);
+        advance(5.0);
+
+        assertEquals(0, timing.nanos(RequestTiming.Phase.DB));
+        assertEquals(0, timing.statements());
+        assertEquals(-1, timing.rows());
+    }
+
+    @Test
+    void testStopIsIdempotent() {
+        RequestTiming timing = RequestTiming.start(clock::get);
+        advance(1.5);
+        assertEquals(1_500_000, timing.stop());
+        advance(1.0);
+        assertEquals(1_500_000, timing.stop());
+        assertEquals(1_500_000, timing.nanos(RequestTiming.Phase.APP));
+    }
+
+    private void advance(double millis) {
+        clock.addAndGet((long) (millis * 1_000_000));
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.finance.timing;
+
+import com.example.finance.model.Transaction;
+import com.example.finance.model.User;
+import com.example.finance.repository.TransactionRepository;
+import com.example.finance.repository.UserRepository;
+import com.example.finance.security.JwtTokenUtil;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {"finance.timing.enabled=true", "finance.timing.slow-ms=0"})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@ExtendWith(OutputCaptureExtension.class)
+class ServerTimingTest {
+
+    private static final Pattern PHASE = Pattern.compile("(\\w+);dur=(\\d+\\.\\d\\d)");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private JwtTokenUtil jwtTokenUtil;
+
+    private String bearer;
+
+    @BeforeEach
+    void setUp() {
+        User user = userRepository.save(new User("Timed User", "timed@example.com", "encoded"));
+        List<Transaction> history = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            history.add(new Transaction(new BigDecimal("10.00"), "Item " + i, "Expense",
+                    LocalDate.of(2025, 1, 1).plusDays(i), user));
+        }
+        transactionRepository.saveAll(history);
+        bearer = "Bearer " + jwtTokenUtil.generateToken(user.getEmail());
+    }
+
+    @AfterEach
+    void tearDown() {
+        transactionRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void testListReportsEveryPhase(CapturedOutput output) throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/transactions").header("Authorization", bearer))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        String header = result.getResponse().getHeader("Server-Timing");
+        assertNotNull(header);
+        List<String> phases = new ArrayList<>();
+        double sum = 0;
+        double total = 0;
+        Matcher matcher = PHASE.matcher(header);
+        while (matcher.find()) {
+            phases.add(matcher.group(1));
+            if (matcher.group(1).equals("total")) {
+                total = Double.parseDouble(matcher.group(2));
+            } else {
+                sum += Double.parseDouble(matcher.group(2));
+            }
+        }
+        assertEquals(List.of("app", "auth", "db", "map", "ser", "total"), phases);
+        assertEquals(total, sum, 0.06);
+        assertTrue(result.getResponse().getContentAsString().contains("Item 19"));
+
+        // The user is looked up by the JWT filter and the controller, then the transactions are read
+        assertTrue(output.getOut().contains("Slow request GET /api/transactions -> 200"));
+        assertTrue(output.getOut().contains("statements=3 rows=20"));
+    }
+
+    @Test
+    void testDownloadsAreTimedButNotBuffered(CapturedOutput output) throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/reports/unknown/download").header("Authorization", bearer))
+                .andReturn();
+
+        assertNull(result.getResponse().getHeader("Server-Timing"));
+        assertTrue(output.getOut().contains("Slow request GET /api/reports/unknown/download"));
+    }
+
+    @Test
+    void testNonApiPathsAreNotTimed() throws Exception {
+        MvcResult result = mockMvc.perform(get("/actuator/health")).andReturn();
+
+        assertNull(result.getResponse().getHeader("Server-Timing"));
+    }
+}
@@ -0,0 +1,27 @@
+-- What ddl-auto=update created for the entities before migrations existed, with one user and transaction
+create table transactions (
+    amount numeric(38,2) not null,
+    date date not null,
+    id bigint generated by default as identity,
+    user_id bigint not null,
+    category varchar(255) not null,
+    description varchar(255),
+    primary key (id)
+);
+
+create table users (
+    id bigint generated by default as identity,
+    email varchar(255) not null,
+    password varchar(255),
+    username varchar(255),
+    primary key (id)
+);
+
+alter table if exists users add constraint uk_users_email_update unique (email);
+
+alter table if exists transactions add constraint fk_transactions_user_update foreign key (user_id) references users;
+
+insert into users (email, password, username) values ('legacy@example.com', 'encoded', 'Legacy User');
+
+insert into transactions (amount, date, user_id, category, description)
+values (42.50, date '2024-06-01', 1, 'Groceries', 'Corner shop');